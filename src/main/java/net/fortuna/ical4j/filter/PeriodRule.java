@@ -33,7 +33,6 @@ package net.fortuna.ical4j.filter;
 
 import net.fortuna.ical4j.model.Component;
 import net.fortuna.ical4j.model.Period;
-import net.fortuna.ical4j.model.PeriodList;
 
 /**
  * $Id$
@@ -78,8 +77,8 @@ public class PeriodRule<T extends Component> implements Rule<T> {
         */
         
 //        try {
-        final PeriodList recurrenceSet = component.calculateRecurrenceSet(period);
-        return (!recurrenceSet.isEmpty());
+        // only the first instance is required to match..
+        return component.recurrenceSetIterator(period).hasNext();
 //        }
 //        catch (ValidationException ve) {
 //            log.error("Invalid component data", ve);
@@ -34,7 +34,10 @@ package net.fortuna.ical4j.model;
 import net.fortuna.ical4j.util.CompatibilityHints;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
 
@@ -53,6 +56,9 @@ public abstract class AbstractContentFactory<T> implements Serializable {
 
     private final transient ServiceLoader<T> factoryLoader;
 
+    // a ServiceLoader is not safe for use by multiple threads, so providers are loaded once..
+    private transient volatile List<T> factories;
+
     /**
      * Default constructor.
      */
@@ -79,7 +85,7 @@ public abstract class AbstractContentFactory<T> implements Serializable {
      */
     protected final T getFactory(String key) {
         T factory = null;
-        for (T candidate : factoryLoader) {
+        for (T candidate : getFactories()) {
             if (factorySupports(candidate, key)) {
                 factory = candidate;
                 break;
@@ -91,6 +97,24 @@ public abstract class AbstractContentFactory<T> implements Serializable {
         return factory;
     }
 
+    private List<T> getFactories() {
+        List<T> loadedFactories = factories;
+        if (loadedFactories == null) {
+            synchronized (factoryLoader) {
+                loadedFactories = factories;
+                if (loadedFactories == null) {
+                    loadedFactories = new ArrayList<T>();
+                    for (T factory : factoryLoader) {
+                        loadedFactories.add(factory);
+                    }
+                    loadedFactories = Collections.unmodifiableList(loadedFactories);
+                    factories = loadedFactories;
+                }
+            }
+        }
+        return loadedFactories;
+    }
+
     /**
      * @return true if non-standard names are allowed, otherwise false
      */
@@ -185,6 +185,28 @@ public class Calendar implements Serializable {
         		new ComponentList<CalendarComponent>(c.getComponents()));
     }
 
+    /**
+     * Creates an immutable snapshot of this calendar. The snapshot is a deep copy in which all property, parameter
+     * and component lists are unmodifiable (see {@link Component#freeze()}), with name indexes and hash codes
+     * computed up front. As the snapshot is fully initialised before it is returned and never modified afterwards it
+     * may be shared between threads without further synchronisation.
+     * @return an unmodifiable copy of this calendar
+     * @throws IOException where an error occurs reading calendar data
+     * @throws ParseException where calendar parsing fails
+     * @throws URISyntaxException where an invalid URI string is encountered
+     */
+    public final Calendar freeze() throws ParseException, IOException, URISyntaxException {
+        return new Calendar(new PropertyList(getProperties(), true),
+                new ComponentList<CalendarComponent>(getComponents(), true), validator);
+    }
+
+    /**
+     * @return true if this calendar is an unmodifiable snapshot
+     */
+    public final boolean isFrozen() {
+        return properties.isUnmodifiable() && components.isUnmodifiable();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -252,7 +274,11 @@ public class Calendar implements Serializable {
      * @return the first matching property in the property list with the specified name
      */
     public final Property getProperty(final String name) {
-        return getProperties().getProperty(name);
+        try {
+            return getProperties().getProperty(name);
+        } catch (PropertyNotFoundException pnfe) {
+            return null;
+        }
     }
 
     /**
@@ -0,0 +1,190 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import net.fortuna.ical4j.model.component.Observance;
+import net.fortuna.ical4j.model.component.VTimeZone;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * $Id$
+ *
+ * A timezone registry that maps equivalent VTIMEZONE definitions to a single shared timezone instance, such
+ * that observance expansion and transition compilation are performed once per distinct definition rather
+ * than once per parsed calendar. Definitions are considered equivalent where they differ only in the
+ * ordering of properties and observances, or in the LAST-MODIFIED property.
+ *
+ * All other operations are delegated to an underlying registry. To enable canonicalisation for calendars
+ * parsed by a default {@link net.fortuna.ical4j.data.CalendarBuilder} specify the following
+ * configuration property:
+ * <pre>net.fortuna.ical4j.timezone.registry=net.fortuna.ical4j.model.CanonicalTimeZoneRegistryFactory</pre>
+ */
+public class CanonicalTimeZoneRegistry implements TimeZoneRegistry {
+
+    /**
+     * The maximum number of distinct definitions retained. Once reached, timezones with new definitions are
+     * registered without canonicalisation.
+     */
+    private static final int MAX_CANONICAL_TIMEZONES = 1000;
+
+    private static final ConcurrentMap<String, TimeZone> CANONICAL_TIMEZONES =
+            new ConcurrentHashMap<String, TimeZone>();
+
+    private final TimeZoneRegistry delegate;
+
+    /**
+     * Default constructor.
+     */
+    public CanonicalTimeZoneRegistry() {
+        this(new TimeZoneRegistryImpl());
+    }
+
+    /**
+     * @param delegate the registry to which canonical timezones are registered
+     */
+    public CanonicalTimeZoneRegistry(final TimeZoneRegistry delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public final void register(final TimeZone timezone) {
+        delegate.register(getCanonicalTimeZone(timezone));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public final void register(final TimeZone timezone, final boolean update) {
+        delegate.register(getCanonicalTimeZone(timezone), update);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public final void clear() {
+        delegate.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public final TimeZone getTimeZone(final String id) {
+        return delegate.getTimeZone(id);
+    }
+
+    /**
+     * Returns the shared instance for the definition of the specified timezone.
+     *
+     * @param timezone a timezone
+     * @return a timezone with an equivalent definition, shared by all canonicalising registries
+     */
+    static TimeZone getCanonicalTimeZone(final TimeZone timezone) {
+        final String fingerprint = getFingerprint(timezone.getVTimeZone());
+        TimeZone canonical = CANONICAL_TIMEZONES.get(fingerprint);
+        if (canonical == null) {
+            if (CANONICAL_TIMEZONES.size() >= MAX_CANONICAL_TIMEZONES) {
+                return timezone;
+            }
+            try {
+                // the shared instance must not reflect subsequent changes to the calendar it was parsed from..
+                canonical = new TimeZone((VTimeZone) timezone.getVTimeZone().copy());
+            } catch (ParseException e) {
+                return uncanonicalised(timezone, e);
+            } catch (IOException e) {
+                return uncanonicalised(timezone, e);
+            } catch (URISyntaxException e) {
+                return uncanonicalised(timezone, e);
+            }
+            final TimeZone existing = CANONICAL_TIMEZONES.putIfAbsent(fingerprint, canonical);
+            if (existing != null) {
+                canonical = existing;
+            }
+        }
+        return canonical;
+    }
+
+    private static TimeZone uncanonicalised(final TimeZone timezone, final Exception e) {
+        final Logger log = LoggerFactory.getLogger(CanonicalTimeZoneRegistry.class);
+        log.warn("Unable to copy definition [" + timezone.getID() + "]", e);
+        return timezone;
+    }
+
+    /**
+     * Returns a digest of the specified timezone definition that is independent of the ordering of properties
+     * and observances, and of the LAST-MODIFIED property.
+     *
+     * @param vTimeZone a timezone definition
+     * @return a fingerprint of the definition
+     */
+    static String getFingerprint(final VTimeZone vTimeZone) {
+        final StringBuilder b = new StringBuilder();
+        b.append(getCanonicalProperties(vTimeZone.getProperties()));
+
+        final List<String> observances = new ArrayList<String>();
+        for (final Observance observance : vTimeZone.getObservances()) {
+            observances.add(observance.getName() + '\n' + getCanonicalProperties(observance.getProperties()));
+        }
+        Collections.sort(observances);
+        for (final String observance : observances) {
+            b.append(observance);
+        }
+        return DigestUtils.sha256Hex(b.toString());
+    }
+
+    private static String getCanonicalProperties(final PropertyList properties) {
+        final List<String> values = new ArrayList<String>();
+        for (final Property property : properties) {
+            if (!Property.LAST_MODIFIED.equalsIgnoreCase(property.getName())) {
+                values.add(property.toString());
+            }
+        }
+        Collections.sort(values);
+        final StringBuilder b = new StringBuilder();
+        for (final String value : values) {
+            b.append(value);
+        }
+        return b.toString();
+    }
+}
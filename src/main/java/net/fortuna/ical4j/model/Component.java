@@ -34,6 +34,7 @@ package net.fortuna.ical4j.model;
 import net.fortuna.ical4j.model.parameter.Value;
 import net.fortuna.ical4j.model.property.*;
 import net.fortuna.ical4j.util.Strings;
+import net.fortuna.ical4j.util.TimeZones;
 import net.fortuna.ical4j.validate.ValidationException;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
@@ -42,7 +43,9 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.net.URISyntaxException;
 import java.text.ParseException;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Set;
 
 /**
  * $Id$ [Apr 5, 2004]
@@ -118,7 +121,7 @@ public abstract class Component implements Serializable {
 
     private String name;
 
-    private PropertyList properties;
+    private final PropertyList properties;
 
     /**
      * Constructs a new component containing no properties.
@@ -188,7 +191,11 @@ public abstract class Component implements Serializable {
      * @return the first matching property in the property list with the specified name
      */
     public final Property getProperty(final String name) {
-        return getProperties().getProperty(name);
+        try {
+            return getProperties().getProperty(name);
+        } catch (PropertyNotFoundException pnfe) {
+            return null;
+        }
     }
 
     /**
@@ -199,7 +206,7 @@ public abstract class Component implements Serializable {
      * @throws ConstraintViolationException when a property is not found
      */
     protected final Property getRequiredProperty(String name) throws ConstraintViolationException {
-        Property p = getProperties().getProperty(name);
+        final Property p = getProperty(name);
         if (p == null) {
             throw new ConstraintViolationException(String.format("Missing %s property", name));
         }
@@ -256,7 +263,10 @@ public abstract class Component implements Serializable {
     }
 
     /**
-     * Create a (deep) copy of this component.
+     * Create a copy of this component. The copy is deep, except that the immutable properties of a frozen component
+     * are shared with the copy rather than cloned. Modifying a shared property throws an
+     * <code>UnsupportedOperationException</code>, so use {@link PropertyList#getModifiableProperty(String)} to
+     * obtain a private copy first.
      *
      * @return the component copy
      * @throws IOException        where an error occurs reading the component data
@@ -273,6 +283,27 @@ public abstract class Component implements Serializable {
                 newprops);
     }
 
+    /**
+     * Create an unmodifiable (deep) copy of this component. Attempts to add, remove or replace properties and
+     * sub-components of the returned instance, or to modify its properties, their parameters or their typed values
+     * (dates, recurrence rules, etc.), will throw an <code>UnsupportedOperationException</code>. Property name indexes
+     * and hash codes are computed once when the copy is created, and the copy shares no mutable state with this
+     * component.
+     *
+     * @return an unmodifiable copy of the component
+     * @throws IOException        where an error occurs reading the component data
+     * @throws ParseException     where parsing component data fails
+     * @throws URISyntaxException where component data contains an invalid URI
+     */
+    public Component freeze() throws ParseException, IOException,
+            URISyntaxException {
+
+        final PropertyList newprops = new PropertyList(getProperties(), true);
+
+        return ComponentFactoryImpl.getInstance().createComponent(getName(),
+                newprops);
+    }
+
     /**
      * Calculates the recurrence set for this component using the specified period.
      * The recurrence set is derived from a combination of the component start date,
@@ -288,6 +319,19 @@ public abstract class Component implements Serializable {
      * @return a list of periods
      */
     public final PeriodList calculateRecurrenceSet(final Period period) {
+        return calculateRecurrenceSet(period, null);
+    }
+
+    /**
+     * Calculates the recurrence set for this component using the specified period, as per
+     * {@link #calculateRecurrenceSet(Period)}. Expansions of recurrence and exception rules are
+     * retrieved from (and stored in) the specified cache.
+     *
+     * @param period a range to calculate recurrences for
+     * @param cache a cache of recurrence expansions, or null to expand rules directly
+     * @return a list of periods
+     */
+    public final PeriodList calculateRecurrenceSet(final Period period, final RecurCache cache) {
 
 //        validate();
 
@@ -334,13 +378,14 @@ public abstract class Component implements Serializable {
             if (Value.PERIOD.equals(rdateValue)) {
                 for (final Period rdatePeriod : rdate.getPeriods()) {
                     if (period.intersects(rdatePeriod)) {
-                        recurrenceSet.add(rdatePeriod);
+                        // copy, as the recurrence set applies its own timezone..
+                        recurrenceSet.add(new Period(rdatePeriod));
                     }
                 }
             } else if (Value.DATE_TIME.equals(rdateValue)) {
                 for (final Date rdateTime : rdate.getDates()) {
                     if (period.includes(rdateTime)) {
-                        recurrenceSet.add(new Period((DateTime) rdateTime, rDuration));
+                        recurrenceSet.add(new Period(new DateTime(rdateTime), rDuration));
                     }
                 }
             } else {
@@ -355,13 +400,13 @@ public abstract class Component implements Serializable {
         // allow for recurrence rules that start prior to the specified period
         // but still intersect with it..
         final DateTime startMinusDuration = new DateTime(period.getStart());
-        startMinusDuration.setTime(rDuration.negate().getTime(
-                period.getStart()).getTime());
+        startMinusDuration.setTime(EpochDateTime.from(period.getStart()).plus(
+                rDuration.negate()).getTime());
 
         // add recurrence rules..
         for (Property property2 : getProperties(Property.RRULE)) {
             final RRule rrule = (RRule) property2;
-            final DateList rruleDates = rrule.getRecur().getDates(start.getDate(),
+            final DateList rruleDates = getDates(rrule.getRecur(), cache, start.getDate(),
                     new Period(startMinusDuration, period.getEnd()), startValue);
             for (final Date rruleDate : rruleDates) {
                 recurrenceSet.add(new Period(new DateTime(rruleDate), rDuration));
@@ -389,29 +434,22 @@ public abstract class Component implements Serializable {
             recurrenceSet.add(startPeriod);
         }
 
-        // subtract exception dates..
+        // subtract exception dates and rules..
+        final Set<Long> exclusions = new HashSet<Long>();
         for (Property property1 : getProperties(Property.EXDATE)) {
-            final ExDate exdate = (ExDate) property1;
-            for (final Iterator<Period> j = recurrenceSet.iterator(); j.hasNext(); ) {
-                final Period recurrence = j.next();
-                // for DATE-TIME instances check for DATE-based exclusions also..
-                if (exdate.getDates().contains(recurrence.getStart())
-                        || exdate.getDates().contains(new Date(recurrence.getStart()))) {
-                    j.remove();
-                }
-            }
+            addTimes(((ExDate) property1).getDates(), exclusions);
         }
-
-        // subtract exception rules..
         for (Property property : getProperties(Property.EXRULE)) {
             final ExRule exrule = (ExRule) property;
-            final DateList exruleDates = exrule.getRecur().getDates(start.getDate(),
-                    period, startValue);
+            addTimes(getDates(exrule.getRecur(), cache, start.getDate(), period, startValue), exclusions);
+        }
+        if (!exclusions.isEmpty()) {
+            final java.util.TimeZone dateTimeZone = TimeZones.getDateTimeZone();
             for (final Iterator<Period> j = recurrenceSet.iterator(); j.hasNext(); ) {
-                final Period recurrence = j.next();
+                final long recurrenceStart = j.next().getStart().getTime();
                 // for DATE-TIME instances check for DATE-based exclusions also..
-                if (exruleDates.contains(recurrence.getStart())
-                        || exruleDates.contains(new Date(recurrence.getStart()))) {
+                if (exclusions.contains(recurrenceStart)
+                        || exclusions.contains(EpochDateTime.startOfDay(recurrenceStart, dateTimeZone))) {
                     j.remove();
                 }
             }
@@ -419,4 +457,153 @@ public abstract class Component implements Serializable {
 
         return recurrenceSet;
     }
+
+    /**
+     * Returns an iterator over the recurrence set for this component using the specified period, as per
+     * {@link #calculateRecurrenceSet(Period)}. Recurrence and exception rules are expanded as the iterator is
+     * advanced, such that callers requiring only the first few instances (or just whether any instances exist)
+     * avoid calculating the full recurrence set.
+     *
+     * @param period a range to calculate recurrences for
+     * @return an iterator over the periods of the recurrence set, in chronological order
+     */
+    public final Iterator<Period> recurrenceSetIterator(final Period period) {
+        return new RecurrenceSetIterator(this, period);
+    }
+
+    /**
+     * Determines whether an instance of this component occurs at the specified time, that is whether the time falls
+     * within the period of an instance (or at the start of an instance with no duration). Instances are those of the
+     * recurrence set of this component, however rather than calculating the recurrence set each recurrence rule is
+     * evaluated only at the specified time (see {@link Recur#occursAt(Date, Date)}), as are any exception rules for
+     * a matching instance.
+     *
+     * @param date a time to test
+     * @return true if an instance of this component occurs at the specified time, otherwise false
+     */
+    public final boolean occursAt(final Date date) {
+        final DtStart start = (DtStart) getProperty(Property.DTSTART);
+        DateProperty end = (DateProperty) getProperty(Property.DTEND);
+        if (end == null) {
+            end = (DateProperty) getProperty(Property.DUE);
+        }
+        final Duration duration = (Duration) getProperty(Property.DURATION);
+
+        // if no start date specified there are no instances..
+        if (start == null) {
+            return false;
+        }
+
+        final Dur rDuration;
+        if (end == null && duration == null) {
+            rDuration = new Dur(start.getDate(), start.getDate());
+        } else if (duration == null) {
+            rDuration = new Dur(start.getDate(), end.getDate());
+        } else {
+            rDuration = duration.getDuration();
+        }
+
+        // initial instance..
+        final Period startPeriod;
+        if (end != null) {
+            startPeriod = new Period(new DateTime(start.getDate()), new DateTime(end.getDate()));
+        } else {
+            startPeriod = new Period(new DateTime(start.getDate()), rDuration);
+        }
+        if (occursAt(startPeriod, date) && !isExcluded(start.getDate(), startPeriod.getStart())) {
+            return true;
+        }
+
+        // recurrence dates..
+        for (final Property property : getProperties(Property.RDATE)) {
+            final RDate rdate = (RDate) property;
+            if (Value.PERIOD.equals(rdate.getParameter(Parameter.VALUE))) {
+                for (final Period rdatePeriod : rdate.getPeriods()) {
+                    if (occursAt(rdatePeriod, date) && !isExcluded(start.getDate(), rdatePeriod.getStart())) {
+                        return true;
+                    }
+                }
+            } else {
+                for (final Date rdateDate : rdate.getDates()) {
+                    final Period rdatePeriod = new Period(new DateTime(rdateDate), rDuration);
+                    if (occursAt(rdatePeriod, date) && !isExcluded(start.getDate(), rdatePeriod.getStart())) {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        // recurrence rules, where instances that may include the date start no earlier than the date minus the
+        // instance duration..
+        final long startMinusDuration = EpochDateTime.from(date).plus(rDuration.negate()).getTime();
+        for (final Property property : getProperties(Property.RRULE)) {
+            final Recur recur = ((RRule) property).getRecur();
+            if (startMinusDuration == date.getTime()) {
+                if (recur.occursAt(start.getDate(), date) && !isExcluded(start.getDate(), date)) {
+                    return true;
+                }
+            } else {
+                // recurrence iterators return dates in chronological order, so no later date may include the time..
+                final DateTime rangeStart = new DateTime(startMinusDuration);
+                for (final Iterator<Date> i = recur.iterator(start.getDate(), rangeStart); i.hasNext();) {
+                    final Date rruleDate = i.next();
+                    if (rruleDate.after(date)) {
+                        break;
+                    }
+                    final Period rrulePeriod = new Period(new DateTime(rruleDate), rDuration);
+                    if (occursAt(rrulePeriod, date) && !isExcluded(start.getDate(), rruleDate)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the specified date falls within the specified period, or is the start of an empty period
+     */
+    private static boolean occursAt(final Period period, final Date date) {
+        final long time = date.getTime();
+        final long start = period.getStart().getTime();
+        return start == time || (start < time && time < period.getEnd().getTime());
+    }
+
+    /**
+     * Determines whether an instance starting at the specified date is excluded by an exception date or rule.
+     */
+    private boolean isExcluded(final Date seed, final Date recurrenceStart) {
+        final long time = recurrenceStart.getTime();
+        // for DATE-TIME instances check for DATE-based exclusions also..
+        final long recurrenceDate = EpochDateTime.startOfDay(time, TimeZones.getDateTimeZone());
+        for (final Property property : getProperties(Property.EXDATE)) {
+            for (final Date exdate : ((ExDate) property).getDates()) {
+                if (exdate.getTime() == time || exdate.getTime() == recurrenceDate) {
+                    return true;
+                }
+            }
+        }
+        for (final Property property : getProperties(Property.EXRULE)) {
+            final Recur recur = ((ExRule) property).getRecur();
+            if (recur.occursAt(seed, recurrenceStart)
+                    || (recurrenceDate != time && recur.occursAt(seed, new DateTime(recurrenceDate)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static DateList getDates(final Recur recur, final RecurCache cache, final Date seed,
+                                     final Period period, final Value value) {
+        if (cache != null) {
+            return cache.getDates(recur, seed, period, value);
+        }
+        return recur.getDates(seed, period, value);
+    }
+
+    private static void addTimes(final DateList dates, final Set<Long> times) {
+        for (final Date date : dates) {
+            times.add(date.getTime());
+        }
+    }
 }
@@ -36,21 +36,45 @@ import java.io.Serializable;
 import java.net.URISyntaxException;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
 
 /**
  * $Id$ [Apr 5, 2004]
  *
- * Defines a list of iCalendar components.
+ * Defines a list of iCalendar components. A component list may be specified as unmodifiable at instantiation, in
+ * which case all mutators throw an <code>UnsupportedOperationException</code> and the name index and hash code of
+ * the list are computed once up front.
  * @author Ben Fortuna
  */
 public class ComponentList<T extends Component> extends ArrayList<T> implements Serializable {
 
     private static final long serialVersionUID = 7308557606558767449L;
 
+    private final boolean unmodifiable;
+
+    private final Map<String, ComponentList<T>> index;
+
+    private final int hash;
+
+    // reads of an unmodifiable list are served from a read-only snapshot rather than the storage inherited from
+    // ArrayList, such that ArrayList mutators that cannot be overridden here (i.e. removeIf(), replaceAll() and
+    // sort() of Java 8) neither change the list as observed through the List interface nor invalidate its hash..
+    private final List<T> snapshot;
+
     /**
      * Default constructor.
      */
     public ComponentList() {
+        this.unmodifiable = false;
+        this.index = null;
+        this.hash = 0;
+        this.snapshot = null;
     }
 
     /**
@@ -59,6 +83,10 @@ public class ComponentList<T extends Component> extends ArrayList<T> implements
      */
     public ComponentList(final int initialCapacity) {
         super(initialCapacity);
+        this.unmodifiable = false;
+        this.index = null;
+        this.hash = 0;
+        this.snapshot = null;
     }
 
     /**
@@ -68,15 +96,74 @@ public class ComponentList<T extends Component> extends ArrayList<T> implements
      * @throws ParseException where component data cannot be parsed
      * @throws URISyntaxException where component data contains an invalid URI
      */
-    @SuppressWarnings("unchecked")
 	public ComponentList(ComponentList<? extends T> components) throws ParseException,
             IOException, URISyntaxException {
+        this(components, false);
+    }
 
+    /**
+     * Creates a deep copy of the specified component list. If the copy is unmodifiable each component is frozen
+     * (see {@link Component#freeze()}) rather than copied.
+     * @param components a component list to copy
+     * @param unmodifiable indicates whether the list should be mutable
+     * @throws IOException where an error occurs reading component data
+     * @throws ParseException where component data cannot be parsed
+     * @throws URISyntaxException where component data contains an invalid URI
+     */
+    @SuppressWarnings("unchecked")
+    public ComponentList(ComponentList<? extends T> components, final boolean unmodifiable) throws ParseException,
+            IOException, URISyntaxException {
+        super(components.size());
+        final Map<String, List<T>> names = new HashMap<String, List<T>>();
         for (T c : components) {
-            add((T) c.copy());
+            if (unmodifiable) {
+                final T frozen = (T) c.freeze();
+                List<T> named = names.get(frozen.getName());
+                if (named == null) {
+                    named = new ArrayList<T>();
+                    names.put(frozen.getName(), named);
+                }
+                named.add(frozen);
+                super.add(frozen);
+            } else {
+                super.add((T) c.copy());
+            }
+        }
+        this.unmodifiable = unmodifiable;
+        if (unmodifiable) {
+            final Map<String, ComponentList<T>> indexedComponents = new HashMap<String, ComponentList<T>>();
+            for (final Map.Entry<String, List<T>> entry : names.entrySet()) {
+                indexedComponents.put(entry.getKey(), new ComponentList<T>(entry.getValue()));
+            }
+            this.index = Collections.unmodifiableMap(indexedComponents);
+            this.hash = super.hashCode();
+            this.snapshot = Collections.unmodifiableList(new ArrayList<T>(super.subList(0, super.size())));
+        } else {
+            this.index = null;
+            this.hash = 0;
+            this.snapshot = null;
         }
     }
 
+    /**
+     * Creates an unmodifiable list of components that are already frozen.
+     * @param components a list of components
+     */
+    private ComponentList(final List<T> components) {
+        super(components);
+        this.unmodifiable = true;
+        this.index = null;
+        this.hash = super.hashCode();
+        this.snapshot = Collections.unmodifiableList(new ArrayList<T>(super.subList(0, super.size())));
+    }
+
+    /**
+     * @return true if this list cannot be modified
+     */
+    public final boolean isUnmodifiable() {
+        return unmodifiable;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -95,6 +182,13 @@ public class ComponentList<T extends Component> extends ArrayList<T> implements
      * @throws NotFoundException if a component with the given name is not found
      */
     public final T getComponent(final String aName) throws NotFoundException {
+        if (index != null) {
+            final ComponentList<T> named = index.get(aName);
+            if (named == null) {
+                throw new NotFoundException(aName);
+            }
+            return named.get(0);
+        }
         for (final T c : this) {
             if (c.getName().equals(aName)) {
                 return c;
@@ -110,6 +204,12 @@ public class ComponentList<T extends Component> extends ArrayList<T> implements
      */
     @SuppressWarnings("unchecked")
 	public final <C extends T> ComponentList<C> getComponents(final String name) {
+        if (index != null) {
+            final ComponentList<T> named = index.get(name);
+            if (named != null) {
+                return (ComponentList<C>) named;
+            }
+        }
         final ComponentList<C> components = new ComponentList<C>();
         for (final T c : this) {
             if (c.getName().equals(name)) {
@@ -118,4 +218,238 @@ public class ComponentList<T extends Component> extends ArrayList<T> implements
         }
         return components;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int hashCode() {
+        if (unmodifiable) {
+            return hash;
+        }
+        return super.hashCode();
+    }
+
+    private void assertModifiable() {
+        if (unmodifiable) {
+            throw new UnsupportedOperationException("Cannot modify an unmodifiable component list");
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean add(final T component) {
+        assertModifiable();
+        return super.add(component);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void add(final int index, final T component) {
+        assertModifiable();
+        super.add(index, component);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean addAll(final Collection<? extends T> c) {
+        assertModifiable();
+        return super.addAll(c);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean addAll(final int index, final Collection<? extends T> c) {
+        assertModifiable();
+        return super.addAll(index, c);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public T set(final int index, final T component) {
+        assertModifiable();
+        return super.set(index, component);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public T remove(final int index) {
+        assertModifiable();
+        return super.remove(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean remove(final Object o) {
+        assertModifiable();
+        return super.remove(o);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean removeAll(final Collection<?> c) {
+        assertModifiable();
+        return super.removeAll(c);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean retainAll(final Collection<?> c) {
+        assertModifiable();
+        return super.retainAll(c);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void clear() {
+        assertModifiable();
+        super.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected void removeRange(final int fromIndex, final int toIndex) {
+        assertModifiable();
+        super.removeRange(fromIndex, toIndex);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int size() {
+        if (snapshot != null) {
+            return snapshot.size();
+        }
+        return super.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isEmpty() {
+        if (snapshot != null) {
+            return snapshot.isEmpty();
+        }
+        return super.isEmpty();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public T get(final int index) {
+        if (snapshot != null) {
+            return snapshot.get(index);
+        }
+        return super.get(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean contains(final Object o) {
+        if (snapshot != null) {
+            return snapshot.contains(o);
+        }
+        return super.contains(o);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int indexOf(final Object o) {
+        if (snapshot != null) {
+            return snapshot.indexOf(o);
+        }
+        return super.indexOf(o);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int lastIndexOf(final Object o) {
+        if (snapshot != null) {
+            return snapshot.lastIndexOf(o);
+        }
+        return super.lastIndexOf(o);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Object[] toArray() {
+        if (snapshot != null) {
+            return snapshot.toArray();
+        }
+        return super.toArray();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public <A> A[] toArray(final A[] a) {
+        if (snapshot != null) {
+            return snapshot.toArray(a);
+        }
+        return super.toArray(a);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Iterator<T> iterator() {
+        if (snapshot != null) {
+            return snapshot.iterator();
+        }
+        return super.iterator();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ListIterator<T> listIterator() {
+        if (snapshot != null) {
+            return snapshot.listIterator();
+        }
+        return super.listIterator();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ListIterator<T> listIterator(final int index) {
+        if (snapshot != null) {
+            return snapshot.listIterator(index);
+        }
+        return super.listIterator(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public List<T> subList(final int fromIndex, final int toIndex) {
+        if (snapshot != null) {
+            return snapshot.subList(fromIndex, toIndex);
+        }
+        return super.subList(fromIndex, toIndex);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean equals(final Object o) {
+        if (snapshot != null) {
+            return o == this || snapshot.equals(o);
+        }
+        return super.equals(o);
+    }
 }
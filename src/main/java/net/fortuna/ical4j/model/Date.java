@@ -171,9 +171,10 @@ public class Date extends Iso8601 {
      * @throws ParseException where the specified string is not a valid date
      */
     public Date(final String value) throws ParseException {
-        this();
+        // setting the time to 0 since we are going to reset it anyway
+        this(0, Dates.PRECISION_DAY, TimeZones.getDateTimeZone());
         try {
-        	setTime(getFormat().parse(value).getTime());
+        	setTime(parseDate(value));
         } catch (ParseException pe) {
         	if (CompatibilityHints.isHintEnabled(CompatibilityHints.KEY_VCARD_COMPATIBILITY)) {
                 final DateFormat parseFormat = new SimpleDateFormat(VCARD_PATTERN);
@@ -197,4 +198,20 @@ public class Date extends Iso8601 {
         parseFormat.setTimeZone(TimeZones.getDateTimeZone());
         setTime(parseFormat.parse(value).getTime());
     }
+    
+    private long parseDate(final String value) throws ParseException {
+        try {
+            return DateTimeCodec.parseDate(value, getFormat().getTimeZone());
+        } catch (ParseException pe) {
+            // not in the fixed form, fall back to the (possibly lenient) format..
+            return getFormat().parse(value).getTime();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String toString() {
+        return DateTimeCodec.formatDate(new StringBuilder(8), getTime(), getFormat().getTimeZone()).toString();
+    }
 }
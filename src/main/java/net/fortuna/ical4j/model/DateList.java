@@ -59,6 +59,8 @@ public class DateList implements List<Date>, Serializable {
     
     private boolean utc;
 
+    private boolean immutable;
+
     /**
      * Default constructor.
      */
@@ -192,6 +194,7 @@ public class DateList implements List<Date>, Serializable {
      * @see List#add(java.lang.Object)
      */
     public final boolean add(final Date date) {
+        assertModifiable();
         if (date instanceof DateTime) {
             if (isUtc()) {
                 ((DateTime) date).setUtc(true);
@@ -247,6 +250,7 @@ public class DateList implements List<Date>, Serializable {
      *            The utc to set.
      */
     public final void setUtc(final boolean utc) {
+        assertModifiable();
         if (!Value.DATE.equals(type)) {
             for (Date date: this) {
                 ((DateTime) date).setUtc(utc);
@@ -263,6 +267,7 @@ public class DateList implements List<Date>, Serializable {
      * @param timeZone a timezone to apply to contained dates
      */
     public final void setTimeZone(final TimeZone timeZone) {
+        assertModifiable();
         if (!Value.DATE.equals(type)) {
             for (Date date: this) {
                 ((DateTime) date).setTimeZone(timeZone);
@@ -279,19 +284,56 @@ public class DateList implements List<Date>, Serializable {
         return timeZone;
     }
 
+    /**
+     * Prevents further modification of this list and the dates it contains.
+     */
+    final void freeze() {
+        for (Date date : dates) {
+            date.freeze();
+        }
+        immutable = true;
+    }
+
+    /**
+     * @return true if this list may not be modified
+     */
+    public final boolean isImmutable() {
+        return immutable;
+    }
+
+    private void assertModifiable() {
+        if (immutable) {
+            throw new UnsupportedOperationException("Cannot modify immutable instances");
+        }
+    }
+
+    /**
+     * @return the underlying dates, or a read-only view where this list is immutable
+     */
+    private List<Date> getDates() {
+        if (immutable) {
+            return Collections.unmodifiableList(dates);
+        }
+        return dates;
+    }
+
 	public final void add(int arg0, Date arg1) {
+		assertModifiable();
 		dates.add(arg0, arg1);
 	}
 
 	public final boolean addAll(Collection<? extends Date> arg0) {
+		assertModifiable();
 		return dates.addAll(arg0);
 	}
 
 	public final boolean addAll(int arg0, Collection<? extends Date> arg1) {
+		assertModifiable();
 		return dates.addAll(arg0, arg1);
 	}
 
 	public final void clear() {
+		assertModifiable();
 		dates.clear();
 	}
 
@@ -316,7 +358,7 @@ public class DateList implements List<Date>, Serializable {
 	}
 
 	public final Iterator<Date> iterator() {
-		return dates.iterator();
+		return getDates().iterator();
 	}
 
 	public final int lastIndexOf(Object o) {
@@ -324,30 +366,35 @@ public class DateList implements List<Date>, Serializable {
 	}
 
 	public final ListIterator<Date> listIterator() {
-		return dates.listIterator();
+		return getDates().listIterator();
 	}
 
 	public final ListIterator<Date> listIterator(int index) {
-		return dates.listIterator(index);
+		return getDates().listIterator(index);
 	}
 
 	public final Date remove(int index) {
+		assertModifiable();
 		return dates.remove(index);
 	}
 
 	public final boolean remove(Object o) {
+		assertModifiable();
 		return dates.remove(o);
 	}
 
 	public final boolean removeAll(Collection<?> arg0) {
+		assertModifiable();
 		return dates.removeAll(arg0);
 	}
 
 	public final boolean retainAll(Collection<?> arg0) {
+		assertModifiable();
 		return dates.retainAll(arg0);
 	}
 
 	public final Date set(int arg0, Date arg1) {
+		assertModifiable();
 		return dates.set(arg0, arg1);
 	}
 
@@ -356,7 +403,7 @@ public class DateList implements List<Date>, Serializable {
 	}
 
 	public final List<Date> subList(int fromIndex, int toIndex) {
-		return dates.subList(fromIndex, toIndex);
+		return getDates().subList(fromIndex, toIndex);
 	}
 
 	public final Object[] toArray() {
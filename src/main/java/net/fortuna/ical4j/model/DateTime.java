@@ -39,8 +39,7 @@ import org.apache.commons.lang3.builder.EqualsBuilder;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
-import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * A representation of the DATE-TIME object defined in RFC5445.
@@ -311,19 +310,25 @@ public class DateTime extends Date {
 				: java.util.TimeZone.getDefault());
 		this.time = new Time(getTime(), getFormat().getTimeZone());
 
+		// well-formed values are parsed directly, otherwise fall back to
+		// the (possibly lenient) date formats..
+		if (setTimeFixed(value, timezone)) {
+			return;
+		}
+
         try {
             if (value.endsWith("Z")) {
-                setTime(value, UTC_FORMAT.get(), null);
+                setTime(value, UTC_FORMAT, null);
                 setUtc(true);
             } else {
                 if (timezone != null) {
-                    setTime(value, DEFAULT_FORMAT.get(), timezone);
+                    setTime(value, DEFAULT_FORMAT, timezone);
                 } else {
                     // Use lenient parsing for floating times. This is to
                     // overcome
                     // the problem of parsing VTimeZone dates that specify dates
                     // that the strict parser does not accept.
-                    setTime(value, LENIENT_DEFAULT_FORMAT.get(),
+                    setTime(value, LENIENT_DEFAULT_FORMAT,
                             getFormat().getTimeZone());
                 }
                 setTimeZone(timezone);
@@ -332,16 +337,16 @@ public class DateTime extends Date {
             if (CompatibilityHints.isHintEnabled(CompatibilityHints.KEY_VCARD_COMPATIBILITY)) {
 
             	try {
-	                setTime(value, VCARD_FORMAT.get(), timezone);
+	                setTime(value, VCARD_FORMAT, timezone);
 	                setTimeZone(timezone);
             	} catch (ParseException pe2) {
                     if (CompatibilityHints.isHintEnabled(CompatibilityHints.KEY_RELAXED_PARSING)) {
-    	                setTime(value, RELAXED_FORMAT.get(), timezone);
+    	                setTime(value, RELAXED_FORMAT, timezone);
     	                setTimeZone(timezone);
                     }            		
             	}
             } else if (CompatibilityHints.isHintEnabled(CompatibilityHints.KEY_RELAXED_PARSING)) {
-                setTime(value, RELAXED_FORMAT.get(), timezone);
+                setTime(value, RELAXED_FORMAT, timezone);
                 setTimeZone(timezone);
             } else {
                 throw pe;
@@ -388,8 +393,7 @@ public class DateTime extends Date {
 		final DateFormat format = CalendarDateFormatFactory
 				.getInstance(pattern);
 		if (utc) {
-			setTime(value, format,
-					UTC_FORMAT.get().getTimeZone());
+			setTime(value, format, TimeZones.getUtcTimeZone());
 		} else {
 			setTime(value, format, null);
 		}
@@ -401,7 +405,7 @@ public class DateTime extends Date {
 	 * 
 	 * @param value
 	 * @param format
-	 *            a {@code DateFormat}, protected by the use of a ThreadLocal.
+	 *            a {@code DateFormat}, not shared with other threads.
 	 * @param tz
 	 * @throws ParseException
 	 */
@@ -414,6 +418,50 @@ public class DateTime extends Date {
 		setTime(format.parse(value).getTime());
 	}
 
+	/**
+	 * Internal set of time by parsing value string with a format borrowed
+	 * from the specified cache.
+	 * 
+	 * @param value
+	 * @param formatCache
+	 * @param tz
+	 * @throws ParseException
+	 */
+	private void setTime(final String value, final DateFormatCache formatCache,
+			final java.util.TimeZone tz) throws ParseException {
+
+		final DateFormat format = formatCache.get();
+		try {
+			setTime(value, format, tz);
+		} finally {
+			formatCache.release(format);
+		}
+	}
+
+	/**
+	 * Internal set of time by parsing value string with the fixed-pattern
+	 * codec.
+	 * 
+	 * @param value
+	 * @param timezone
+	 * @return true if the value was parsed, otherwise false
+	 */
+	private boolean setTimeFixed(final String value, final TimeZone timezone) {
+		try {
+			if (DateTimeCodec.isUtc(value)) {
+				setTime(DateTimeCodec.parseDateTime(value, null));
+				setUtc(true);
+			} else {
+				setTime(DateTimeCodec.parseDateTime(value, getFormat()
+						.getTimeZone()));
+				setTimeZone(timezone);
+			}
+			return true;
+		} catch (ParseException pe) {
+			return false;
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -442,6 +490,7 @@ public class DateTime extends Date {
 	 *            The utc to set.
 	 */
 	public final void setUtc(final boolean utc) {
+		assertModifiable();
 		// reset the timezone associated with this instance..
 		this.timezone = null;
 		if (utc) {
@@ -462,6 +511,7 @@ public class DateTime extends Date {
 	 *            a timezone to apply to the instance
 	 */
 	public final void setTimeZone(final TimeZone timezone) {
+		assertModifiable();
 		this.timezone = timezone;
 		if (timezone != null) {
 			getFormat().setTimeZone(timezone);
@@ -494,9 +544,8 @@ public class DateTime extends Date {
 	 * {@inheritDoc}
 	 */
 	public final String toString() {
-		String b = super.toString() + 'T' +
-				time.toString();
-		return b;
+		return DateTimeCodec.formatDateTime(new StringBuilder(16), getTime(),
+				getFormat().getTimeZone(), isUtc()).toString();
 	}
 
 	/**
@@ -519,23 +568,81 @@ public class DateTime extends Date {
 		return super.hashCode();
 	}
 
-	private static class DateFormatCache {
+	/**
+	 * A bounded pool of date formats. Formats are borrowed and returned
+	 * using atomic slot updates, so there is no global lock and the number
+	 * of retained formats does not depend on the number of threads. Where
+	 * the preferred slots are empty a new format is cloned from the
+	 * template, and returned formats are discarded if the pool is full.
+	 */
+	static class DateFormatCache {
+
+		private static final int POOL_SIZE = getPoolSize();
 
-		private final Map<Thread, DateFormat> threadMap = new WeakHashMap<Thread, DateFormat>();
+		private final AtomicReferenceArray<DateFormat> pool = new AtomicReferenceArray<DateFormat>(POOL_SIZE);
 
 		private final DateFormat templateFormat;
 
-		private DateFormatCache(DateFormat dateFormat) {
+		private final java.util.TimeZone templateTimeZone;
+
+		DateFormatCache(DateFormat dateFormat) {
 			this.templateFormat = dateFormat;
+			this.templateTimeZone = dateFormat.getTimeZone();
 		}
 
+		/**
+		 * @return a format for the exclusive use of the caller until it is
+		 *         released
+		 */
 		public DateFormat get() {
-			DateFormat dateFormat = threadMap.get(Thread.currentThread());
-			if (dateFormat == null) {
-				dateFormat = (DateFormat) templateFormat.clone();
-				threadMap.put(Thread.currentThread(), dateFormat);
+			final int slot = getSlot();
+			for (int i = 0; i < POOL_SIZE; i++) {
+				final DateFormat dateFormat = pool.getAndSet((slot + i) & (POOL_SIZE - 1), null);
+				if (dateFormat != null) {
+					return dateFormat;
+				}
 			}
-			return dateFormat;
+			return (DateFormat) templateFormat.clone();
+		}
+
+		/**
+		 * @param dateFormat
+		 *            a format previously returned by {@link #get()}
+		 */
+		public void release(DateFormat dateFormat) {
+			// reset any timezone applied by the borrower..
+			dateFormat.setTimeZone(templateTimeZone);
+			final int slot = getSlot();
+			for (int i = 0; i < POOL_SIZE; i++) {
+				if (pool.compareAndSet((slot + i) & (POOL_SIZE - 1), null, dateFormat)) {
+					return;
+				}
+			}
+		}
+
+		/**
+		 * @return the number of formats currently retained by the pool
+		 */
+		int getRetainedCount() {
+			int count = 0;
+			for (int i = 0; i < POOL_SIZE; i++) {
+				if (pool.get(i) != null) {
+					count++;
+				}
+			}
+			return count;
+		}
+
+		private static int getSlot() {
+			return (int) Thread.currentThread().getId();
+		}
+
+		/**
+		 * @return a power of two of at least twice the available processors
+		 */
+		static int getPoolSize() {
+			final int processors = Runtime.getRuntime().availableProcessors();
+			return Integer.highestOneBit(Math.max(processors * 2 - 1, 1)) << 1;
 		}
 	}
 }
@@ -0,0 +1,375 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import net.fortuna.ical4j.util.Dates;
+import net.fortuna.ical4j.util.EpochDays;
+import net.fortuna.ical4j.util.TimeZones;
+
+import java.text.ParseException;
+import java.util.GregorianCalendar;
+
+/**
+ * $Id$
+ *
+ * A fixed-pattern codec for the iCalendar DATE and DATE-TIME forms:
+ * <pre>
+ * yyyyMMdd
+ * yyyyMMdd'T'HHmmss
+ * yyyyMMdd'T'HHmmss'Z'
+ * </pre>
+ * Values are parsed directly into epoch milliseconds using a timezone offset lookup, and formatted
+ * into a caller-supplied buffer, without the use of {@link java.util.Calendar} or {@link java.text.DateFormat}.
+ * Values in UTC or an iCalendar {@link TimeZone} are parsed and formatted without allocating objects, except
+ * for dates prior to the gregorian cutover. Formatting a value in daylight time of another timezone allocates a
+ * single {@link java.util.Date}, as required by {@link java.util.TimeZone#inDaylightTime(java.util.Date)}.
+ * Parsing is strict: values that are not in one of the above forms, have out-of-range fields, or specify a
+ * local time that does not exist in the given timezone are rejected, allowing callers to fall back to a
+ * lenient {@link java.text.DateFormat} where appropriate. Dates prior to the gregorian cutover are not
+ * supported by the parser.
+ */
+public final class DateTimeCodec {
+
+    private static final int DATE_LENGTH = 8;
+
+    private static final int DATE_TIME_LENGTH = 15;
+
+    private static final int UTC_DATE_TIME_LENGTH = 16;
+
+    /**
+     * The length of the local DATE-TIME values written by {@link #formatLocalDateTimes(long[], char[])}.
+     */
+    public static final int LOCAL_DATE_TIME_LENGTH = DATE_TIME_LENGTH;
+
+    private static final int MAX_YEAR = 9999;
+
+    /**
+     * Constructor made private to enforce static nature.
+     */
+    private DateTimeCodec() {
+    }
+
+    /**
+     * @param value a string representation of a DATE-TIME
+     * @return true if the specified value is in the UTC DATE-TIME form
+     */
+    public static boolean isUtc(final CharSequence value) {
+        return value.length() == UTC_DATE_TIME_LENGTH && value.charAt(DATE_TIME_LENGTH) == 'Z';
+    }
+
+    /**
+     * Parses a DATE value of the form yyyyMMdd.
+     * @param value a string representation of a DATE
+     * @param timezone the timezone in which to interpret the date
+     * @return the epoch milliseconds of the start of the date in the specified timezone
+     * @throws ParseException where the value is not a valid DATE
+     */
+    public static long parseDate(final CharSequence value, final java.util.TimeZone timezone)
+            throws ParseException {
+
+        if (value.length() != DATE_LENGTH) {
+            throw new ParseException("Unparseable date: \"" + value + "\"", Math.min(value.length(), DATE_LENGTH));
+        }
+        final long epochDay = parseEpochDay(value);
+        return toUtc(epochDay * Dates.MILLIS_PER_DAY, timezone, value);
+    }
+
+    /**
+     * Parses a DATE-TIME value of the form yyyyMMdd'T'HHmmss or yyyyMMdd'T'HHmmss'Z'. Values in the UTC form are
+     * interpreted as UTC regardless of the specified timezone.
+     * @param value a string representation of a DATE-TIME
+     * @param timezone the timezone in which to interpret a local date-time
+     * @return the epoch milliseconds of the date-time
+     * @throws ParseException where the value is not a valid DATE-TIME
+     */
+    public static long parseDateTime(final CharSequence value, final java.util.TimeZone timezone)
+            throws ParseException {
+
+        final boolean utc = isUtc(value);
+        if (!utc && value.length() != DATE_TIME_LENGTH) {
+            throw new ParseException("Unparseable date: \"" + value + "\"",
+                    Math.min(value.length(), DATE_TIME_LENGTH));
+        }
+        if (value.charAt(DATE_LENGTH) != 'T') {
+            throw new ParseException("Unparseable date: \"" + value + "\"", DATE_LENGTH);
+        }
+        final long epochDay = parseEpochDay(value);
+        final int hour = parseField(value, 9, 0, 23);
+        final int minute = parseField(value, 11, 0, 59);
+        final int second = parseField(value, 13, 0, 59);
+
+        final long local = epochDay * Dates.MILLIS_PER_DAY + hour * Dates.MILLIS_PER_HOUR
+                + minute * Dates.MILLIS_PER_MINUTE + second * Dates.MILLIS_PER_SECOND;
+        if (utc) {
+            return local;
+        }
+        return toUtc(local, timezone, value);
+    }
+
+    /**
+     * Appends a DATE representation (yyyyMMdd) of the specified time to a buffer.
+     * @param b the buffer to append to
+     * @param time epoch milliseconds
+     * @param timezone the timezone in which to represent the date
+     * @return the specified buffer
+     */
+    public static StringBuilder formatDate(final StringBuilder b, final long time,
+            final java.util.TimeZone timezone) {
+
+        final long local = time + getFormatOffset(time, timezone);
+        appendDate(b, EpochDays.floorDiv(local, Dates.MILLIS_PER_DAY));
+        return b;
+    }
+
+    /**
+     * Appends a DATE-TIME representation (yyyyMMdd'T'HHmmss, with a trailing 'Z' for UTC) of the specified time
+     * to a buffer.
+     * @param b the buffer to append to
+     * @param time epoch milliseconds
+     * @param timezone the timezone in which to represent the date-time
+     * @param utc indicates whether to represent the date-time in UTC form, ignoring the specified timezone
+     * @return the specified buffer
+     */
+    public static StringBuilder formatDateTime(final StringBuilder b, final long time,
+            final java.util.TimeZone timezone, final boolean utc) {
+
+        final long local = utc ? time : time + getFormatOffset(time, timezone);
+        final long epochDay = EpochDays.floorDiv(local, Dates.MILLIS_PER_DAY);
+        final long millisOfDay = local - epochDay * Dates.MILLIS_PER_DAY;
+
+        appendDate(b, epochDay);
+        b.append('T');
+        appendPadded(b, millisOfDay / Dates.MILLIS_PER_HOUR, 2);
+        appendPadded(b, millisOfDay / Dates.MILLIS_PER_MINUTE % 60, 2);
+        appendPadded(b, millisOfDay / Dates.MILLIS_PER_SECOND % 60, 2);
+        if (utc) {
+            b.append('Z');
+        }
+        return b;
+    }
+
+    /**
+     * Writes consecutive local DATE-TIME representations (yyyyMMdd'T'HHmmss) of the specified local times to a
+     * buffer, such that the value for the local time at index <em>i</em> occupies the
+     * {@link #LOCAL_DATE_TIME_LENGTH} characters from index <em>i</em> * {@link #LOCAL_DATE_TIME_LENGTH}.
+     * Together with {@link TimeZone#getLocalTimes(long[], long[])} this allows formatting of UTC times in
+     * bulk without allocating objects for each value.
+     * @param localTimes an array of local times in milliseconds, that is a UTC time plus its offset from UTC
+     * @param buffer the buffer to write to
+     * @throws IllegalArgumentException where the buffer has insufficient capacity, or a local time is not
+     * within the years 0000 to 9999
+     */
+    public static void formatLocalDateTimes(final long[] localTimes, final char[] buffer) {
+        if (buffer.length / LOCAL_DATE_TIME_LENGTH < localTimes.length) {
+            throw new IllegalArgumentException("Insufficient capacity for date-times: " + buffer.length);
+        }
+        int index = 0;
+        // a single calendar is created for any values before the Gregorian cutover..
+        java.util.Calendar julianCal = null;
+        for (final long local : localTimes) {
+            final long epochDay = EpochDays.floorDiv(local, Dates.MILLIS_PER_DAY);
+            final long millisOfDay = local - epochDay * Dates.MILLIS_PER_DAY;
+
+            int year;
+            int month;
+            int dayOfMonth;
+            if (epochDay < EpochDays.GREGORIAN_CUTOVER) {
+                if (julianCal == null) {
+                    julianCal = new GregorianCalendar(TimeZones.getUtcTimeZone());
+                }
+                julianCal.setTimeInMillis(epochDay * Dates.MILLIS_PER_DAY);
+                year = julianCal.get(java.util.Calendar.YEAR);
+                if (julianCal.get(java.util.Calendar.ERA) == GregorianCalendar.BC) {
+                    year = -1;
+                }
+                month = julianCal.get(java.util.Calendar.MONTH) + 1;
+                dayOfMonth = julianCal.get(java.util.Calendar.DAY_OF_MONTH);
+            } else {
+                year = EpochDays.getYear(epochDay);
+                month = EpochDays.getMonth(epochDay);
+                dayOfMonth = EpochDays.getDayOfMonth(epochDay);
+            }
+            if (year < 0 || year > MAX_YEAR) {
+                throw new IllegalArgumentException("Unsupported year: " + year);
+            }
+            index = writePadded(buffer, index, year, 4);
+            index = writePadded(buffer, index, month, 2);
+            index = writePadded(buffer, index, dayOfMonth, 2);
+            buffer[index++] = 'T';
+            index = writePadded(buffer, index, (int) (millisOfDay / Dates.MILLIS_PER_HOUR), 2);
+            index = writePadded(buffer, index, (int) (millisOfDay / Dates.MILLIS_PER_MINUTE % 60), 2);
+            index = writePadded(buffer, index, (int) (millisOfDay / Dates.MILLIS_PER_SECOND % 60), 2);
+        }
+    }
+
+    /**
+     * Returns the number of days since 1970-01-01 of the specified date in the proleptic gregorian calendar.
+     * @param year the year
+     * @param month the month of the year (1-12)
+     * @param dayOfMonth the day of the month (1-31)
+     * @return the epoch day
+     */
+    public static long toEpochDay(final int year, final int month, final int dayOfMonth) {
+        return EpochDays.toEpochDay(year, month, dayOfMonth);
+    }
+
+    /**
+     * @param year the year
+     * @param month the month of the year (1-12)
+     * @return the number of days in the specified month
+     */
+    public static int getMonthLength(final int year, final int month) {
+        return EpochDays.getMonthLength(year, month);
+    }
+
+    private static long parseEpochDay(final CharSequence value) throws ParseException {
+        final int year = parseField(value, 0, 4);
+        if (year < 1) {
+            throw new ParseException("Unparseable date: \"" + value + "\"", 0);
+        }
+        final int month = parseField(value, 4, 1, 12);
+        final int day = parseField(value, 6, 1, getMonthLength(year, month));
+        final long epochDay = toEpochDay(year, month, day);
+        if (epochDay < EpochDays.GREGORIAN_CUTOVER) {
+            throw new ParseException("Unparseable date: \"" + value + "\"", 0);
+        }
+        return epochDay;
+    }
+
+    private static int parseField(final CharSequence value, final int offset, final int min, final int max)
+            throws ParseException {
+
+        final int field = parseField(value, offset, 2);
+        if (field < min || field > max) {
+            throw new ParseException("Unparseable date: \"" + value + "\"", offset);
+        }
+        return field;
+    }
+
+    private static int parseField(final CharSequence value, final int offset, final int length)
+            throws ParseException {
+
+        int field = 0;
+        for (int i = offset; i < offset + length; i++) {
+            final char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new ParseException("Unparseable date: \"" + value + "\"", i);
+            }
+            field = field * 10 + (c - '0');
+        }
+        return field;
+    }
+
+    /**
+     * Converts a local time to UTC, consistent with a non-lenient {@link java.util.GregorianCalendar} where an
+     * ambiguous local time is resolved using the standard offset as an initial estimate. Local times that do
+     * not exist in the timezone are rejected.
+     */
+    private static long toUtc(final long local, final java.util.TimeZone timezone, final CharSequence value)
+            throws ParseException {
+
+        final long standardTime = local - timezone.getRawOffset();
+        int offset;
+        if (timezone instanceof TimeZone) {
+            // as per java.util.TimeZone.getOffsets()..
+            offset = timezone.getRawOffset();
+            if (((TimeZone) timezone).inDaylightTime(standardTime)) {
+                offset += timezone.getDSTSavings();
+            }
+        }
+        else {
+            offset = timezone.getOffset(standardTime);
+        }
+        final long time = local - offset;
+        if (timezone.getOffset(time) != offset) {
+            throw new ParseException("Unparseable date: \"" + value + "\"", 0);
+        }
+        return time;
+    }
+
+    /**
+     * Returns the offset used for the string representation. Consistent with {@link Iso8601#toString()} values
+     * that are not in an iCalendar timezone ignore daylight savings at the instant of a transition.
+     */
+    private static int getFormatOffset(final long time, final java.util.TimeZone timezone) {
+        if (timezone instanceof TimeZone) {
+            return timezone.getOffset(time);
+        }
+        final int rawOffset = timezone.getRawOffset();
+        // only check for daylight time where the offset differs from the raw offset, as
+        // java.util.TimeZone requires a date instance for the check..
+        if (timezone.getOffset(time) != rawOffset) {
+            final java.util.Date date = new java.util.Date(time);
+            if (timezone.inDaylightTime(date)) {
+                date.setTime(time - 1);
+                if (timezone.inDaylightTime(date)) {
+                    return rawOffset + timezone.getDSTSavings();
+                }
+            }
+        }
+        return rawOffset;
+    }
+
+    private static void appendDate(final StringBuilder b, final long epochDay) {
+        if (epochDay < EpochDays.GREGORIAN_CUTOVER) {
+            final java.util.Calendar cal = new GregorianCalendar(TimeZones.getUtcTimeZone());
+            cal.setTimeInMillis(epochDay * Dates.MILLIS_PER_DAY);
+            appendPadded(b, cal.get(java.util.Calendar.YEAR), 4);
+            appendPadded(b, cal.get(java.util.Calendar.MONTH) + 1, 2);
+            appendPadded(b, cal.get(java.util.Calendar.DAY_OF_MONTH), 2);
+            return;
+        }
+        appendPadded(b, EpochDays.getYear(epochDay), 4);
+        appendPadded(b, EpochDays.getMonth(epochDay), 2);
+        appendPadded(b, EpochDays.getDayOfMonth(epochDay), 2);
+    }
+
+    private static int writePadded(final char[] buffer, final int offset, final int value, final int width) {
+        int remaining = value;
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        return offset + width;
+    }
+
+    private static void appendPadded(final StringBuilder b, final long value, final int width) {
+        long limit = 10;
+        for (int i = 1; i < width; i++) {
+            if (value < limit) {
+                b.append('0');
+            }
+            limit *= 10;
+        }
+        b.append(value);
+    }
+}
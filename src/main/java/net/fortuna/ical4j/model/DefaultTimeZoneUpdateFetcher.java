@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import net.fortuna.ical4j.data.CalendarBuilder;
+import net.fortuna.ical4j.data.ParserException;
+import net.fortuna.ical4j.model.component.VTimeZone;
+import net.fortuna.ical4j.util.Configurator;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.URL;
+import java.net.URLConnection;
+
+/**
+ * $Id$
+ *
+ * The default implementation of a <code>TimeZoneUpdateFetcher</code>. This implementation retrieves updates via a
+ * <code>java.net.URLConnection</code>, applying the configured timeouts and proxy server.
+ */
+public class DefaultTimeZoneUpdateFetcher implements TimeZoneUpdateFetcher {
+
+    private static final String UPDATE_CONNECT_TIMEOUT = "net.fortuna.ical4j.timezone.update.timeout.connect";
+    private static final String UPDATE_READ_TIMEOUT = "net.fortuna.ical4j.timezone.update.timeout.read";
+    private static final String UPDATE_PROXY_ENABLED = "net.fortuna.ical4j.timezone.update.proxy.enabled";
+    private static final String UPDATE_PROXY_TYPE = "net.fortuna.ical4j.timezone.update.proxy.type";
+    private static final String UPDATE_PROXY_HOST = "net.fortuna.ical4j.timezone.update.proxy.host";
+    private static final String UPDATE_PROXY_PORT = "net.fortuna.ical4j.timezone.update.proxy.port";
+
+    private static Proxy proxy = null;
+
+    static {
+        try {
+            if ("true".equals(Configurator.getProperty(UPDATE_PROXY_ENABLED))) {
+                final Proxy.Type type = Proxy.Type.valueOf(Configurator.getProperty(UPDATE_PROXY_TYPE));
+                final String proxyHost = Configurator.getProperty(UPDATE_PROXY_HOST);
+                final int proxyPort = Integer.parseInt(Configurator.getProperty(UPDATE_PROXY_PORT));
+                proxy = new Proxy(type, new InetSocketAddress(proxyHost, proxyPort));
+            }
+        }
+        catch (Throwable e) {
+            LoggerFactory.getLogger(DefaultTimeZoneUpdateFetcher.class).debug(
+                    "Error loading proxy server configuration: " + e.getMessage());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public VTimeZone fetch(final URL url) throws IOException, ParserException {
+        final String connectTimeoutProperty = Configurator.getProperty(UPDATE_CONNECT_TIMEOUT);
+        final String readTimeoutProperty = Configurator.getProperty(UPDATE_READ_TIMEOUT);
+
+        final int connectTimeout = connectTimeoutProperty != null ? Integer.parseInt(connectTimeoutProperty) : 0;
+        final int readTimeout = readTimeoutProperty != null ? Integer.parseInt(readTimeoutProperty) : 0;
+
+        URLConnection connection;
+        if ("true".equals(Configurator.getProperty(UPDATE_PROXY_ENABLED)) && proxy != null) {
+            connection = url.openConnection(proxy);
+        }
+        else {
+            connection = url.openConnection();
+        }
+
+        connection.setConnectTimeout(connectTimeout);
+        connection.setReadTimeout(readTimeout);
+
+        final CalendarBuilder builder = new CalendarBuilder();
+
+        final InputStream in = connection.getInputStream();
+        try {
+            final Calendar calendar = builder.build(in);
+            return (VTimeZone) calendar.getComponent(Component.VTIMEZONE);
+        } catch (NotFoundException e) {
+            return null;
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,372 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import net.fortuna.ical4j.util.Dates;
+import net.fortuna.ical4j.util.EpochDays;
+import net.fortuna.ical4j.util.TimeZones;
+
+import java.io.Serializable;
+
+/**
+ * $Id$
+ *
+ * A lightweight, immutable representation of an iCalendar DATE or DATE-TIME value. Unlike {@link DateTime}
+ * an instance holds nothing more than the epoch milliseconds, a timezone reference and flags indicating
+ * whether the value is a DATE, a UTC DATE-TIME or a floating DATE-TIME.
+ *
+ * Comparison, arithmetic and formatting are implemented directly on the epoch value and do not require
+ * {@link java.util.Calendar} or {@link java.text.DateFormat} instances. Use {@link #from(java.util.Date)} and
+ * {@link #toDate()} to convert to and from the existing date types.
+ *
+ * Within the library this type is currently used only for duration arithmetic on period and recurrence
+ * start dates (see {@link Period} and {@link Component#calculateRecurrenceSet(Period)}) and for the keys of
+ * DATE-based recurrence exclusions. Rule expansion in {@link Recur} still operates on
+ * {@link java.util.Calendar} and {@link Date} instances.
+ */
+public final class EpochDateTime implements Comparable<EpochDateTime>, Serializable {
+
+    private static final long serialVersionUID = 2592093414506377468L;
+
+    private final long time;
+
+    private final TimeZone timezone;
+
+    private final boolean utc;
+
+    private final boolean date;
+
+    private EpochDateTime(final long time, final TimeZone timezone, final boolean utc, final boolean date) {
+        this.time = time;
+        this.timezone = timezone;
+        this.utc = utc;
+        this.date = date;
+    }
+
+    /**
+     * @param time epoch milliseconds of a DATE value, as held by {@link Date#getTime()}
+     * @return a DATE value
+     */
+    public static EpochDateTime date(final long time) {
+        return new EpochDateTime(time, null, false, true);
+    }
+
+    /**
+     * @param time epoch milliseconds
+     * @return a UTC DATE-TIME value
+     */
+    public static EpochDateTime utc(final long time) {
+        return new EpochDateTime(time, null, true, false);
+    }
+
+    /**
+     * @param time epoch milliseconds
+     * @param timezone the timezone of the value, or null for a floating value
+     * @return a DATE-TIME value in the specified timezone
+     */
+    public static EpochDateTime dateTime(final long time, final TimeZone timezone) {
+        return new EpochDateTime(time, timezone, false, false);
+    }
+
+    /**
+     * Creates an instance with the same epoch value, timezone and type as the specified date.
+     * Plain {@link java.util.Date} instances are treated as floating DATE-TIME values, consistent
+     * with {@link DateTime#DateTime(java.util.Date)}.
+     * @param date a date to convert
+     * @return a lightweight representation of the date
+     */
+    public static EpochDateTime from(final java.util.Date date) {
+        if (date instanceof DateTime) {
+            final DateTime dateTime = (DateTime) date;
+            if (dateTime.isUtc()) {
+                return utc(dateTime.getTime());
+            }
+            return dateTime(dateTime.getTime(), dateTime.getTimeZone());
+        }
+        else if (date instanceof Date) {
+            return date(date.getTime());
+        }
+        return dateTime(date.getTime(), null);
+    }
+
+    /**
+     * @return a new {@link Date} or {@link DateTime} equivalent to this value
+     */
+    public Date toDate() {
+        if (date) {
+            return new Date(time);
+        }
+        final DateTime dateTime = new DateTime(time);
+        if (utc) {
+            dateTime.setUtc(true);
+        }
+        else if (timezone != null) {
+            dateTime.setTimeZone(timezone);
+        }
+        return dateTime;
+    }
+
+    /**
+     * @return the epoch milliseconds of this value
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * @return the timezone of a DATE-TIME value, or null if the value is a DATE, UTC or floating
+     */
+    public TimeZone getTimeZone() {
+        return timezone;
+    }
+
+    /**
+     * @return true if this is a UTC DATE-TIME value
+     */
+    public boolean isUtc() {
+        return utc;
+    }
+
+    /**
+     * @return true if this is a DATE-TIME value with neither UTC nor a timezone
+     */
+    public boolean isFloating() {
+        return !date && !utc && timezone == null;
+    }
+
+    /**
+     * @return true if this is a DATE value
+     */
+    public boolean isDate() {
+        return date;
+    }
+
+    /**
+     * Returns the timezone used to interpret this value as local time. This is the UTC timezone for UTC values,
+     * the date timezone (see {@link TimeZones#getDateTimeZone()}) for DATE values and the default timezone for
+     * floating values.
+     * @return the effective timezone of this value
+     */
+    public java.util.TimeZone getEffectiveTimeZone() {
+        if (utc) {
+            return TimeZones.getUtcTimeZone();
+        }
+        else if (date) {
+            return TimeZones.getDateTimeZone();
+        }
+        else if (timezone != null) {
+            return timezone;
+        }
+        return java.util.TimeZone.getDefault();
+    }
+
+    /**
+     * @return the offset from UTC in milliseconds of the local time represented by this value
+     */
+    public int getOffset() {
+        if (utc) {
+            return 0;
+        }
+        return getEffectiveTimeZone().getOffset(time);
+    }
+
+    /**
+     * @return the local time represented by this value, in milliseconds since the epoch at UTC
+     */
+    public long getLocalTime() {
+        return time + getOffset();
+    }
+
+    /**
+     * @return the number of days since 1970-01-01 of the local date represented by this value
+     */
+    public long getEpochDay() {
+        return EpochDays.floorDiv(getLocalTime(), Dates.MILLIS_PER_DAY);
+    }
+
+    /**
+     * @param millis the number of milliseconds to add (may be negative)
+     * @return a value of the same type representing the specified amount of elapsed time after this value
+     */
+    public EpochDateTime plusMillis(final long millis) {
+        if (millis == 0) {
+            return this;
+        }
+        return new EpochDateTime(time + millis, timezone, utc, date);
+    }
+
+    /**
+     * Adds a number of days to this value. The local time of day is preserved across daylight
+     * savings transitions, consistent with {@link java.util.Calendar#add(int, int)} for day fields.
+     * @param days the number of days to add (may be negative)
+     * @return a value of the same type representing the same local time on a different day
+     */
+    public EpochDateTime plusDays(final long days) {
+        if (days == 0) {
+            return this;
+        }
+        return new EpochDateTime(addDays(time, days), timezone, utc, date);
+    }
+
+    /**
+     * Adds a duration to this value using the same semantics as {@link Dur#getTime(java.util.Date)}: weeks and
+     * days are added to the local date, whilst hours, minutes and seconds represent elapsed time.
+     * @param duration the duration to add
+     * @return a value of the same type representing the end of the duration starting at this value
+     */
+    public EpochDateTime plus(final Dur duration) {
+        final int sign = duration.isNegative() ? -1 : 1;
+        final long days = sign * (duration.getWeeks() * (long) Dates.DAYS_PER_WEEK + duration.getDays());
+        final long millis = sign * (duration.getHours() * Dates.MILLIS_PER_HOUR
+                + duration.getMinutes() * Dates.MILLIS_PER_MINUTE
+                + duration.getSeconds() * Dates.MILLIS_PER_SECOND);
+        long newTime = time;
+        if (days != 0) {
+            newTime = addDays(newTime, days);
+        }
+        return new EpochDateTime(newTime + millis, timezone, utc, date);
+    }
+
+    /**
+     * Returns the DATE value containing this value, equivalent to {@code new Date(toDate())}. Note that
+     * consistent with {@link Date} the day boundaries are determined by the date timezone rather than the
+     * timezone of this value.
+     * @return a DATE value
+     */
+    public EpochDateTime toDateValue() {
+        if (date) {
+            return this;
+        }
+        return date(startOfDay(time, TimeZones.getDateTimeZone()));
+    }
+
+    private long addDays(final long millis, final long days) {
+        final java.util.TimeZone tz = getEffectiveTimeZone();
+        final int offset = tz.getOffset(millis);
+        final long local = millis + offset + days * Dates.MILLIS_PER_DAY;
+        return toUtc(local, offset, tz);
+    }
+
+    /**
+     * @return the start of the day containing the specified time in the specified timezone
+     */
+    static long startOfDay(final long millis, final java.util.TimeZone tz) {
+        final int offset = tz.getOffset(millis);
+        final long local = EpochDays.floorDiv(millis + offset, Dates.MILLIS_PER_DAY) * Dates.MILLIS_PER_DAY;
+        return toUtc(local, offset, tz);
+    }
+
+    /**
+     * Converts a local time to UTC, using the offset of a nearby instant as the initial estimate. Where the
+     * local time falls the other side of an offset transition the estimate is adjusted, unless the adjustment
+     * would change the local date (as per {@link java.util.GregorianCalendar#add(int, int)}).
+     */
+    private static long toUtc(final long local, final int offsetEstimate, final java.util.TimeZone tz) {
+        final long estimate = local - offsetEstimate;
+        final int offset = tz.getOffset(estimate);
+        if (offset != offsetEstimate) {
+            final long adjusted = local - offset;
+            if (EpochDays.floorDiv(adjusted + tz.getOffset(adjusted), Dates.MILLIS_PER_DAY)
+                    == EpochDays.floorDiv(local, Dates.MILLIS_PER_DAY)) {
+                return adjusted;
+            }
+        }
+        return estimate;
+    }
+
+    /**
+     * Indicates whether this value occurs before the specified value.
+     * @param other a value to compare
+     * @return true if the epoch value of this instance is less than that of the other
+     */
+    public boolean before(final EpochDateTime other) {
+        return time < other.time;
+    }
+
+    /**
+     * Indicates whether this value occurs after the specified value.
+     * @param other a value to compare
+     * @return true if the epoch value of this instance is greater than that of the other
+     */
+    public boolean after(final EpochDateTime other) {
+        return time > other.time;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int compareTo(final EpochDateTime other) {
+        return time < other.time ? -1 : (time == other.time ? 0 : 1);
+    }
+
+    /**
+     * Appends the iCalendar string representation of this value to the specified buffer, in the same form as
+     * {@link Date#toString()} or {@link DateTime#toString()}.
+     * @param b a buffer to append to
+     * @return the specified buffer
+     */
+    public StringBuilder format(final StringBuilder b) {
+        if (date) {
+            return DateTimeCodec.formatDate(b, time, getEffectiveTimeZone());
+        }
+        return DateTimeCodec.formatDateTime(b, time, getEffectiveTimeZone(), utc);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean equals(final Object arg0) {
+        if (this == arg0) {
+            return true;
+        }
+        if (!(arg0 instanceof EpochDateTime)) {
+            return false;
+        }
+        final EpochDateTime other = (EpochDateTime) arg0;
+        return time == other.time && utc == other.utc && date == other.date
+                && (timezone == null ? other.timezone == null : timezone.equals(other.timezone));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int hashCode() {
+        return (int) (time ^ (time >>> 32));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String toString() {
+        return format(new StringBuilder(16)).toString();
+    }
+}
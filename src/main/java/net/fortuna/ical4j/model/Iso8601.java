@@ -62,6 +62,8 @@ public abstract class Iso8601 extends Date {
     
     private int precision;
 
+    private boolean immutable;
+
     /**
      * @param time a time value in milliseconds
      * @param pattern the formatting pattern to apply
@@ -143,6 +145,7 @@ public abstract class Iso8601 extends Date {
      * {@inheritDoc}
      */
     public void setTime(final long time) {
+        assertModifiable();
         // need to check for null format due to Android java.util.Date(long) constructor
         // calling this method..
         if (format != null) {
@@ -153,4 +156,92 @@ public abstract class Iso8601 extends Date {
             super.setTime(time);
         }
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Deprecated
+    public void setYear(final int year) {
+        assertModifiable();
+        super.setYear(year);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Deprecated
+    public void setMonth(final int month) {
+        assertModifiable();
+        super.setMonth(month);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Deprecated
+    public void setDate(final int date) {
+        assertModifiable();
+        super.setDate(date);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Deprecated
+    public void setHours(final int hours) {
+        assertModifiable();
+        super.setHours(hours);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Deprecated
+    public void setMinutes(final int minutes) {
+        assertModifiable();
+        super.setMinutes(minutes);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Deprecated
+    public void setSeconds(final int seconds) {
+        assertModifiable();
+        super.setSeconds(seconds);
+    }
+
+    /**
+     * A clone of an immutable instance may be modified.
+     * @return a copy of this instance
+     */
+    public Object clone() {
+        final Iso8601 clone = (Iso8601) super.clone();
+        clone.immutable = false;
+        return clone;
+    }
+
+    /**
+     * Prevents further modification of this instance, such as when it is the value of a
+     * property shared by frozen components.
+     */
+    final void freeze() {
+        immutable = true;
+    }
+
+    /**
+     * @return true if this instance may not be modified
+     */
+    public final boolean isImmutable() {
+        return immutable;
+    }
+
+    /**
+     * @throws UnsupportedOperationException where this instance is immutable
+     */
+    protected final void assertModifiable() {
+        if (immutable) {
+            throw new UnsupportedOperationException("Cannot modify immutable instances");
+        }
+    }
 }
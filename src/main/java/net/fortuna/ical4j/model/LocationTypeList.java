@@ -50,6 +50,8 @@ public class LocationTypeList implements Serializable {
 
     private List<String> locationTypes;
 
+    private boolean immutable;
+
     /**
      * Default constructor.
      */
@@ -94,6 +96,7 @@ public class LocationTypeList implements Serializable {
      * @see List#add(java.lang.Object)
      */
     public final boolean add(final String locationType) {
+        assertModifiable();
         return locationTypes.add(locationType);
     }
 
@@ -121,6 +124,7 @@ public class LocationTypeList implements Serializable {
      * @see List#remove(java.lang.Object)
      */
     public final boolean remove(final String locationType) {
+        assertModifiable();
         return locationTypes.remove(locationType);
     }
 
@@ -131,4 +135,24 @@ public class LocationTypeList implements Serializable {
     public final int size() {
         return locationTypes.size();
     }
+
+    /**
+     * Prevents further modification of this list.
+     */
+    final void freeze() {
+        immutable = true;
+    }
+
+    /**
+     * @return true if this list may not be modified
+     */
+    public final boolean isImmutable() {
+        return immutable;
+    }
+
+    private void assertModifiable() {
+        if (immutable) {
+            throw new UnsupportedOperationException("Cannot modify immutable instances");
+        }
+    }
 }
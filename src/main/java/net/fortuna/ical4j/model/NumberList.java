@@ -35,7 +35,11 @@ import net.fortuna.ical4j.util.Numbers;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
 import java.util.StringTokenizer;
 
 /**
@@ -54,6 +58,11 @@ public class NumberList extends ArrayList<Integer> implements Serializable {
     private final int maxValue;
 
     private final boolean allowsNegativeValues;
+
+    // reads of a frozen list are served from a read-only snapshot rather than the storage inherited from
+    // ArrayList, such that ArrayList mutators that cannot be overridden here (i.e. removeIf(), replaceAll() and
+    // sort() of Java 8) do not change the list as observed through the List interface..
+    private List<Integer> snapshot;
     
     /**
      * Default constructor.
@@ -102,6 +111,7 @@ public class NumberList extends ArrayList<Integer> implements Serializable {
      * @return true if the number was added, otherwise false
      */
     public final boolean add(final Integer aNumber) {
+        assertModifiable();
         int abs = aNumber;
         if ((abs >> 31 | -abs >>> 31) < 0) {
             if (!allowsNegativeValues) {
@@ -129,4 +139,236 @@ public class NumberList extends ArrayList<Integer> implements Serializable {
         }
         return b.toString();
     }
+
+    /**
+     * Prevents further modification of this list.
+     */
+    final void freeze() {
+        if (snapshot == null) {
+            snapshot = Collections.unmodifiableList(new ArrayList<Integer>(super.subList(0, super.size())));
+        }
+    }
+
+    /**
+     * @return true if this list may not be modified
+     */
+    public final boolean isImmutable() {
+        return snapshot != null;
+    }
+
+    private void assertModifiable() {
+        if (snapshot != null) {
+            throw new UnsupportedOperationException("Cannot modify immutable instances");
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void add(final int index, final Integer e) {
+        assertModifiable();
+        super.add(index, e);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean addAll(final Collection<? extends Integer> c) {
+        assertModifiable();
+        return super.addAll(c);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean addAll(final int index, final Collection<? extends Integer> c) {
+        assertModifiable();
+        return super.addAll(index, c);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Integer set(final int index, final Integer e) {
+        assertModifiable();
+        return super.set(index, e);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Integer remove(final int index) {
+        assertModifiable();
+        return super.remove(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean remove(final Object o) {
+        assertModifiable();
+        return super.remove(o);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean removeAll(final Collection<?> c) {
+        assertModifiable();
+        return super.removeAll(c);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean retainAll(final Collection<?> c) {
+        assertModifiable();
+        return super.retainAll(c);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void clear() {
+        assertModifiable();
+        super.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected void removeRange(final int fromIndex, final int toIndex) {
+        assertModifiable();
+        super.removeRange(fromIndex, toIndex);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int size() {
+        if (snapshot != null) {
+            return snapshot.size();
+        }
+        return super.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isEmpty() {
+        if (snapshot != null) {
+            return snapshot.isEmpty();
+        }
+        return super.isEmpty();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Integer get(final int index) {
+        if (snapshot != null) {
+            return snapshot.get(index);
+        }
+        return super.get(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean contains(final Object o) {
+        if (snapshot != null) {
+            return snapshot.contains(o);
+        }
+        return super.contains(o);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int indexOf(final Object o) {
+        if (snapshot != null) {
+            return snapshot.indexOf(o);
+        }
+        return super.indexOf(o);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int lastIndexOf(final Object o) {
+        if (snapshot != null) {
+            return snapshot.lastIndexOf(o);
+        }
+        return super.lastIndexOf(o);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Object[] toArray() {
+        if (snapshot != null) {
+            return snapshot.toArray();
+        }
+        return super.toArray();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public <A> A[] toArray(final A[] a) {
+        if (snapshot != null) {
+            return snapshot.toArray(a);
+        }
+        return super.toArray(a);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Iterator<Integer> iterator() {
+        if (snapshot != null) {
+            return snapshot.iterator();
+        }
+        return super.iterator();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ListIterator<Integer> listIterator() {
+        if (snapshot != null) {
+            return snapshot.listIterator();
+        }
+        return super.listIterator();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ListIterator<Integer> listIterator(final int index) {
+        if (snapshot != null) {
+            return snapshot.listIterator(index);
+        }
+        return super.listIterator(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public List<Integer> subList(final int fromIndex, final int toIndex) {
+        if (snapshot != null) {
+            return snapshot.subList(fromIndex, toIndex);
+        }
+        return super.subList(fromIndex, toIndex);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean equals(final Object o) {
+        if (snapshot != null) {
+            return o == this || snapshot.equals(o);
+        }
+        return super.equals(o);
+    }
 }
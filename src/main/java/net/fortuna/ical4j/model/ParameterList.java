@@ -54,6 +54,8 @@ public class ParameterList implements Serializable {
 
     private final List<Parameter> parameters;
 
+    private boolean unmodifiable;
+
     /**
      * Default constructor. Creates a modifiable parameter list.
      */
@@ -66,6 +68,7 @@ public class ParameterList implements Serializable {
      * @param unmodifiable indicates whether the list should be mutable
      */
     public ParameterList(final boolean unmodifiable) {
+        this.unmodifiable = unmodifiable;
         if (unmodifiable) {
             parameters = Collections.emptyList();
         }
@@ -89,6 +92,7 @@ public class ParameterList implements Serializable {
             final Parameter parameter = i.next();
             parameterList.add(parameter.copy());
         }
+        this.unmodifiable = unmodifiable;
         if (unmodifiable) {
             parameters = Collections.unmodifiableList(parameterList);
         }
@@ -97,6 +101,26 @@ public class ParameterList implements Serializable {
         }
     }
 
+    /**
+     * Prevents further modification of this list. Used when creating unmodifiable property lists.
+     */
+    final void freeze() {
+        unmodifiable = true;
+    }
+
+    private void assertModifiable() {
+        if (unmodifiable) {
+            throw new UnsupportedOperationException("Cannot modify an unmodifiable parameter list");
+        }
+    }
+
+    /**
+     * @return true if this list cannot be modified
+     */
+    public final boolean isUnmodifiable() {
+        return unmodifiable;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -150,6 +174,7 @@ public class ParameterList implements Serializable {
         if (parameter == null) {
             throw new IllegalArgumentException("Trying to add null Parameter");
         }
+        assertModifiable();
         return parameters.add(parameter);
     }
 
@@ -159,6 +184,7 @@ public class ParameterList implements Serializable {
      * @return true if successfully added to this list
      */
     public final boolean replace(final Parameter parameter) {
+        assertModifiable();
         for (final Iterator<Parameter> i = getParameters(parameter.getName()).iterator(); i.hasNext();) {
             remove(i.next());
         }
@@ -188,6 +214,7 @@ public class ParameterList implements Serializable {
      * @see List#remove(java.lang.Object)
      */
     public final boolean remove(final Parameter parameter) {
+        assertModifiable();
         return parameters.remove(parameter);
     }
 
@@ -196,6 +223,7 @@ public class ParameterList implements Serializable {
      * @param paramName the name of parameters to remove
      */
     public final void removeAll(final String paramName) {
+        assertModifiable();
         final ParameterList params = getParameters(paramName);
         parameters.removeAll(params.parameters);
     }
@@ -63,15 +63,20 @@ public class Period extends DateRange implements Comparable<Period> {
      *             where the specified string is not a valid representation
      */
     public Period(final String aValue) throws ParseException {
-        super(parseStartDate(aValue), parseEndDate(aValue, true));
+        this(new DateTime(aValue.substring(0, aValue.indexOf('/'))),
+                parseEnd(aValue.substring(aValue.indexOf('/') + 1)));
+    }
 
+    /**
+     * @param start the start date of the period
+     * @param end either the end date or the duration of the period
+     */
+    private Period(final DateTime start, final Object end) {
+        super(start, end instanceof Dur ? new DateTime(EpochDateTime.from(start).plus((Dur) end).getTime())
+                : (DateTime) end);
         // period may end in either a date-time or a duration..
-        try {
-            parseEndDate(aValue, false);
-        }
-        catch (ParseException pe) {
-            // duration = DurationFormat.getInstance().parse(aValue);
-            duration = parseDuration(aValue);
+        if (end instanceof Dur) {
+            duration = (Dur) end;
         }
         normalise();
     }
@@ -98,36 +103,38 @@ public class Period extends DateRange implements Comparable<Period> {
      *            the duration of the period
      */
     public Period(final DateTime start, final Dur duration) {
-        super(start, new DateTime(duration.getTime(start)));
+        super(start, new DateTime(EpochDateTime.from(start).plus(duration).getTime()));
         this.duration = duration;
         normalise();
     }
 
-    private static DateTime parseStartDate(String value) throws ParseException {
-        return new DateTime(value.substring(0, value.indexOf('/')));
+    /**
+     * Constructs a copy of the specified period. The start and end dates are copied such that updating the timezone
+     * of the new period does not affect the specified period.
+     *
+     * @param period a period to copy
+     */
+    Period(final Period period) {
+        super(new DateTime(period.getStart()), new DateTime(period.getEnd()));
+        this.duration = period.duration;
     }
-    
-    private static DateTime parseEndDate(String value, boolean resolve) throws ParseException {
-        DateTime end;
+
+    /**
+     * Parses the end of a period representation, which may be either a date-time or a duration.
+     * @return the end date-time, or the duration of the period
+     */
+    private static Object parseEnd(final String endValue) throws ParseException {
+        if (endValue.startsWith("P") || endValue.startsWith("+P") || endValue.startsWith("-P")) {
+            return new Dur(endValue);
+        }
         try {
-            end = new DateTime(value.substring(value.indexOf('/') + 1));
+            return new DateTime(endValue);
         }
         catch (ParseException e) {
-            if (resolve) {
-                final Dur duration = parseDuration(value);
-                end = new DateTime(duration.getTime(parseStartDate(value)));
-            }
-            else {
-                throw e;
-            }
+            return new Dur(endValue);
         }
-        return end;
     }
-    
-    private static Dur parseDuration(String value) {
-        return new Dur(value.substring(value.indexOf('/') + 1));
-    }
-    
+
     private void normalise() {
         // ensure the end timezone is the same as the start..
         if (getStart().isUtc()) {
@@ -59,6 +59,8 @@ public class PeriodList implements Set<Period>, Serializable {
     
     private final boolean unmodifiable;
 
+    private boolean immutable;
+
     /**
      * Default constructor.
      */
@@ -127,6 +129,7 @@ public class PeriodList implements Set<Period>, Serializable {
      * @see java.util.List#add(java.lang.Object)
      */
     public final boolean add(final Period period) {
+        assertModifiable();
         if (isUtc()) {
             period.setUtc(true);
         }
@@ -145,6 +148,7 @@ public class PeriodList implements Set<Period>, Serializable {
      * @see java.util.List#remove(java.lang.Object)
      */
     public final boolean remove(final Object period) {
+        assertModifiable();
         return periods.remove(period);
     }
 
@@ -275,6 +279,7 @@ public class PeriodList implements Set<Period>, Serializable {
      * @param utc The utc to set.
      */
     public final void setUtc(final boolean utc) {
+        assertModifiable();
         for (final Period period : this) {
             period.setUtc(utc);
         }
@@ -289,6 +294,7 @@ public class PeriodList implements Set<Period>, Serializable {
      * @param timeZone the timezone for the period list
      */
     public final void setTimeZone(final TimeZone timeZone) {
+        assertModifiable();
         for (final Period period : this) {
             period.setTimeZone(timeZone);
         }
@@ -303,6 +309,30 @@ public class PeriodList implements Set<Period>, Serializable {
         return timezone;
     }
 
+    /**
+     * Prevents further modification of this list and the periods it contains.
+     */
+    final void freeze() {
+        for (final Period period : periods) {
+            period.getStart().freeze();
+            period.getEnd().freeze();
+        }
+        immutable = true;
+    }
+
+    /**
+     * @return true if this list may not be modified
+     */
+    public final boolean isImmutable() {
+        return immutable;
+    }
+
+    private void assertModifiable() {
+        if (immutable) {
+            throw new UnsupportedOperationException("Cannot modify immutable instances");
+        }
+    }
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -317,6 +347,7 @@ public class PeriodList implements Set<Period>, Serializable {
 	 * {@inheritDoc}
 	 */
 	public void clear() {
+		assertModifiable();
 		periods.clear();
 	}
 
@@ -345,6 +376,9 @@ public class PeriodList implements Set<Period>, Serializable {
 	 * {@inheritDoc}
 	 */
 	public Iterator<Period> iterator() {
+		if (immutable) {
+			return Collections.unmodifiableSet(periods).iterator();
+		}
 		return periods.iterator();
 	}
 
@@ -352,6 +386,7 @@ public class PeriodList implements Set<Period>, Serializable {
 	 * {@inheritDoc}
 	 */
 	public boolean removeAll(Collection<?> arg0) {
+		assertModifiable();
 		return periods.removeAll(arg0);
 	}
 
@@ -359,6 +394,7 @@ public class PeriodList implements Set<Period>, Serializable {
 	 * {@inheritDoc}
 	 */
 	public boolean retainAll(Collection<?> arg0) {
+		assertModifiable();
 		return periods.retainAll(arg0);
 	}
 
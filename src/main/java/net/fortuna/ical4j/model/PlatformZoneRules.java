@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import net.fortuna.ical4j.util.TimeZones;
+
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * $Id$
+ *
+ * Delegates offset calculations for a range of time to the platform's rules for a timezone, where the
+ * platform rules have been verified as equivalent to the VTIMEZONE definition for that range.
+ */
+final class PlatformZoneRules {
+
+    /**
+     * The interval at which offsets are compared between the transitions of a definition.
+     */
+    private static final long SAMPLE_INTERVAL_MILLIS = 24 * 60 * 60 * 1000;
+
+    /**
+     * The maximum number of equivalence results retained.
+     */
+    private static final int MAX_EQUIVALENCE_RESULTS = 1000;
+
+    // equivalence is determined once per distinct definition and range..
+    private static final ConcurrentMap<String, Boolean> EQUIVALENCE_RESULTS =
+            new ConcurrentHashMap<String, Boolean>();
+
+    private final java.util.TimeZone zone;
+
+    private final long start;
+
+    private final long end;
+
+    private PlatformZoneRules(final java.util.TimeZone zone, final long start, final long end) {
+        this.zone = zone;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Returns platform rules equivalent to the definition of the specified timezone for the specified years.
+     *
+     * @param timezone  a timezone
+     * @param startYear the first year of the range (inclusive)
+     * @param endYear   the last year of the range (inclusive)
+     * @return equivalent platform rules, or null if the platform has no rules for the timezone identifier or
+     * the rules diverge from the definition
+     */
+    static PlatformZoneRules getInstance(final TimeZone timezone, final int startYear, final int endYear) {
+        final java.util.TimeZone zone = java.util.TimeZone.getTimeZone(timezone.getID());
+        // the platform returns GMT for unknown identifiers..
+        if (!zone.getID().equals(timezone.getID()) || startYear > endYear) {
+            return null;
+        }
+        final long start = getStartOfYear(startYear);
+        final long end = getStartOfYear(endYear + 1);
+
+        final String key = CanonicalTimeZoneRegistry.getFingerprint(timezone.getVTimeZone())
+                + ':' + startYear + '-' + endYear;
+        Boolean equivalent = EQUIVALENCE_RESULTS.get(key);
+        if (equivalent == null) {
+            equivalent = isEquivalent(timezone, zone, start, end);
+            if (EQUIVALENCE_RESULTS.size() < MAX_EQUIVALENCE_RESULTS) {
+                EQUIVALENCE_RESULTS.putIfAbsent(key, equivalent);
+            }
+        }
+        if (equivalent) {
+            return new PlatformZoneRules(zone, start, end);
+        }
+        return null;
+    }
+
+    /**
+     * Compares the transitions of the definition with the platform rules at each transition, and at regular
+     * intervals between transitions.
+     */
+    private static boolean isEquivalent(final TimeZone timezone, final java.util.TimeZone zone,
+                                        final long start, final long end) {
+        final TimeZone.TransitionTable table = timezone.compileTransitions(start, end);
+        final int rawOffset = timezone.getRawOffset();
+        long time = start;
+        for (int i = 0; i <= table.instants.length; i++) {
+            final long next = i < table.instants.length ? table.instants[i] : end;
+            for (long t = time; t < next - 1; t += SAMPLE_INTERVAL_MILLIS) {
+                if (!isEquivalent(table.offsets[i], table.types[i], rawOffset, zone, t)) {
+                    return false;
+                }
+            }
+            if (!isEquivalent(table.offsets[i], table.types[i], rawOffset, zone, next - 1)) {
+                return false;
+            }
+            time = next;
+        }
+        return true;
+    }
+
+    private static boolean isEquivalent(final int offset, final byte type, final int rawOffset,
+                                        final java.util.TimeZone zone, final long time) {
+        final int platformOffset = zone.getOffset(time);
+        // offsets must also agree with the adjustment applied by TimeZone.getOffset(long)..
+        return type != TimeZone.TransitionTable.NONE
+                && offset == platformOffset && Math.max(offset, rawOffset) == platformOffset
+                && (type == TimeZone.TransitionTable.DAYLIGHT) == zone.inDaylightTime(new Date(time));
+    }
+
+    private static long getStartOfYear(final int year) {
+        final GregorianCalendar cal = new GregorianCalendar(TimeZones.getUtcTimeZone());
+        cal.clear();
+        cal.set(year, 0, 1);
+        return cal.getTimeInMillis();
+    }
+
+    /**
+     * @param time a time in milliseconds
+     * @return true if the rules are applicable to the specified time
+     */
+    boolean covers(final long time) {
+        return time >= start && time < end;
+    }
+
+    /**
+     * @param time a time in milliseconds
+     * @return the offset from UTC at the specified time
+     */
+    int getOffset(final long time) {
+        return zone.getOffset(time);
+    }
+}
@@ -362,6 +362,8 @@ public abstract class Property extends Content {
 
     private final PropertyFactoryImpl factory;
 
+    private boolean immutable;
+
     /**
      * Constructor.
      *
@@ -489,6 +491,55 @@ public abstract class Property extends Content {
     public abstract void setValue(String aValue) throws IOException,
             URISyntaxException, ParseException;
 
+    /**
+     * Prevents further modification of this property, its parameters and its value, such that it may be shared by
+     * frozen components. Sub-classes with a mutable value type must override this method to also freeze the value.
+     */
+    protected void freeze() {
+        parameters.freeze();
+        immutable = true;
+    }
+
+    /**
+     * @return true if this property may not be modified
+     */
+    public final boolean isImmutable() {
+        return immutable;
+    }
+
+    /**
+     * Mutators of sub-classes must call this method before modifying the property.
+     *
+     * @throws UnsupportedOperationException where this property is immutable
+     */
+    protected final void assertModifiable() {
+        if (immutable) {
+            throw new UnsupportedOperationException("Cannot modify immutable instances");
+        }
+    }
+
+    /**
+     * Prevents further modification of the specified property value. Values of a type that cannot be modified, and
+     * null values, are ignored.
+     *
+     * @param value a property value
+     */
+    protected static void freezeValue(final Object value) {
+        if (value instanceof Iso8601) {
+            ((Iso8601) value).freeze();
+        } else if (value instanceof DateList) {
+            ((DateList) value).freeze();
+        } else if (value instanceof PeriodList) {
+            ((PeriodList) value).freeze();
+        } else if (value instanceof Recur) {
+            ((Recur) value).freeze();
+        } else if (value instanceof TextList) {
+            ((TextList) value).freeze();
+        } else if (value instanceof LocationTypeList) {
+            ((LocationTypeList) value).freeze();
+        }
+    }
+
     /**
      * Perform validation on a property.
      *
@@ -36,12 +36,22 @@ import java.io.Serializable;
 import java.net.URISyntaxException;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Locale;
+import java.util.Map;
 import net.fortuna.ical4j.model.PropertyNotFoundException;
 
 /**
  * $Id$ [Apr 5, 2004]
  *
- * Defines a list of iCalendar properties.
+ * Defines a list of iCalendar properties. A property list may be specified as unmodifiable at instantiation, in
+ * which case all mutators throw an <code>UnsupportedOperationException</code> and the name index and hash code of
+ * the list are computed once up front.
  * 
  * @author Ben Fortuna
  */
@@ -49,10 +59,25 @@ public class PropertyList extends ArrayList<Property> implements Serializable {
 
 	private static final long serialVersionUID = -8875923766224921031L;
 
+	private final boolean unmodifiable;
+
+	private final Map<String, PropertyList> index;
+
+	private final int hash;
+
+	// reads of an unmodifiable list are served from a read-only snapshot rather than the storage inherited from
+	// ArrayList, such that ArrayList mutators that cannot be overridden here (i.e. removeIf(), replaceAll() and
+	// sort() of Java 8) neither change the list as observed through the List interface nor invalidate its hash..
+	private final List<Property> snapshot;
+
 	/**
 	 * Default constructor.
 	 */
 	public PropertyList() {
+		this.unmodifiable = false;
+		this.index = null;
+		this.hash = 0;
+		this.snapshot = null;
 	}
 
 	/**
@@ -63,10 +88,16 @@ public class PropertyList extends ArrayList<Property> implements Serializable {
 	 */
 	public PropertyList(final int initialCapacity) {
 		super(initialCapacity);
+		this.unmodifiable = false;
+		this.index = null;
+		this.hash = 0;
+		this.snapshot = null;
 	}
 
 	/**
-	 * Creates a deep copy of the specified property list.
+	 * Creates a copy of the specified property list. Mutable properties are deep copied, whereas immutable properties
+	 * (i.e. the properties of frozen components) are shared with the specified list. Use {@link #getModifiableProperty(String)} to obtain a private copy of a shared
+	 * property before modifying it.
 	 * 
 	 * @param properties
 	 *            a property list
@@ -78,12 +109,83 @@ public class PropertyList extends ArrayList<Property> implements Serializable {
 	 *             where a property contains an invalid URI
 	 */
 	public PropertyList(PropertyList properties) throws ParseException, IOException, URISyntaxException {
-		super();
+		this(properties, false);
+	}
+
+	/**
+	 * Creates a copy of the specified property list. Immutable properties are shared rather than copied. If the copy
+	 * is unmodifiable each copied property, including its parameters and value, is also made immutable.
+	 * 
+	 * @param properties
+	 *            a property list
+	 * @param unmodifiable
+	 *            indicates whether the list should be mutable
+	 * @throws ParseException
+	 *             where property data cannot be parsed
+	 * @throws IOException
+	 *             where property data cannot be read
+	 * @throws URISyntaxException
+	 *             where a property contains an invalid URI
+	 */
+	public PropertyList(PropertyList properties, final boolean unmodifiable) throws ParseException, IOException,
+			URISyntaxException {
+		super(properties.size());
+		final Map<String, List<Property>> names = new HashMap<String, List<Property>>();
 		for (Property p : properties) {
-			add(p.copy());
+			final Property copy;
+			if (p.isImmutable()) {
+				copy = p;
+			} else {
+				copy = p.copy();
+			}
+			if (unmodifiable) {
+				copy.freeze();
+				List<Property> named = names.get(copy.getName().toUpperCase(Locale.US));
+				if (named == null) {
+					named = new ArrayList<Property>();
+					names.put(copy.getName().toUpperCase(Locale.US), named);
+				}
+				named.add(copy);
+			}
+			super.add(copy);
+		}
+		this.unmodifiable = unmodifiable;
+		if (unmodifiable) {
+			final Map<String, PropertyList> indexedProperties = new HashMap<String, PropertyList>();
+			for (final Map.Entry<String, List<Property>> entry : names.entrySet()) {
+				indexedProperties.put(entry.getKey(), new PropertyList(entry.getValue()));
+			}
+			this.index = Collections.unmodifiableMap(indexedProperties);
+			this.hash = super.hashCode();
+			this.snapshot = Collections.unmodifiableList(new ArrayList<Property>(super.subList(0, super.size())));
+		} else {
+			this.index = null;
+			this.hash = 0;
+			this.snapshot = null;
 		}
 	}
 
+	/**
+	 * Creates an unmodifiable list of properties that are already unmodifiable.
+	 * 
+	 * @param properties
+	 *            a list of properties
+	 */
+	private PropertyList(final List<Property> properties) {
+		super(properties);
+		this.unmodifiable = true;
+		this.index = null;
+		this.hash = super.hashCode();
+		this.snapshot = Collections.unmodifiableList(new ArrayList<Property>(super.subList(0, super.size())));
+	}
+
+	/**
+	 * @return true if this list cannot be modified
+	 */
+	public final boolean isUnmodifiable() {
+		return unmodifiable;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -109,6 +211,15 @@ public class PropertyList extends ArrayList<Property> implements Serializable {
 			throw new IllegalArgumentException("The name of the property must not be null!");
 		}
 
+		if (index != null) {
+			final PropertyList named = index.get(aName.toUpperCase(Locale.US));
+			if (named == null) {
+				throw new PropertyNotFoundException("There are no properties by the name of " + aName);
+			}
+			// consistent with the linear scan below the last match is returned..
+			return named.get(named.size() - 1);
+		}
+
 		Property property = null;
 		for (final Property currentProperty : this) {
 			if (currentProperty.getName().equalsIgnoreCase(aName)) {
@@ -124,6 +235,40 @@ public class PropertyList extends ArrayList<Property> implements Serializable {
 	}
 
 
+	/**
+	 * Returns a modifiable instance of the property with the specified name. Where the matching property is immutable
+	 * (for example because it is shared with a frozen component) it is first replaced in this list by a private copy,
+	 * such that changes to the returned property do not affect any other list.
+	 * 
+	 * @param aName
+	 *            name of property to return
+	 * @return a property that may be modified
+	 * @throws PropertyNotFoundException
+	 *             if no properties are found
+	 * @throws ParseException
+	 *             where property data cannot be parsed
+	 * @throws IOException
+	 *             where property data cannot be read
+	 * @throws URISyntaxException
+	 *             where a property contains an invalid URI
+	 */
+	public final Property getModifiableProperty(final String aName) throws PropertyNotFoundException,
+			ParseException, IOException, URISyntaxException {
+		assertModifiable();
+		final Property property = getProperty(aName);
+		if (!property.isImmutable()) {
+			return property;
+		}
+		final Property copy = property.copy();
+		for (int i = 0; i < size(); i++) {
+			if (get(i) == property) {
+				super.set(i, copy);
+				break;
+			}
+		}
+		return copy;
+	}
+
 	/**
 	 * Returns a list of properties with the specified name.
 	 * 
@@ -132,6 +277,12 @@ public class PropertyList extends ArrayList<Property> implements Serializable {
 	 * @return a property list
 	 */
 	public final PropertyList getProperties(final String name) {
+		if (index != null) {
+			final PropertyList named = index.get(name.toUpperCase(Locale.US));
+			if (named != null) {
+				return named;
+			}
+		}
 		final PropertyList list = new PropertyList();
 		for (final Property p : this) {
 			if (p.getName().equalsIgnoreCase(name)) {
@@ -152,4 +303,238 @@ public class PropertyList extends ArrayList<Property> implements Serializable {
 	public final boolean remove(final Property property) {
 		return remove((Object) property);
 	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int hashCode() {
+		if (unmodifiable) {
+			return hash;
+		}
+		return super.hashCode();
+	}
+
+	private void assertModifiable() {
+		if (unmodifiable) {
+			throw new UnsupportedOperationException("Cannot modify an unmodifiable property list");
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean add(final Property property) {
+		assertModifiable();
+		return super.add(property);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void add(final int index, final Property property) {
+		assertModifiable();
+		super.add(index, property);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean addAll(final Collection<? extends Property> c) {
+		assertModifiable();
+		return super.addAll(c);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean addAll(final int index, final Collection<? extends Property> c) {
+		assertModifiable();
+		return super.addAll(index, c);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Property set(final int index, final Property property) {
+		assertModifiable();
+		return super.set(index, property);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Property remove(final int index) {
+		assertModifiable();
+		return super.remove(index);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean remove(final Object o) {
+		assertModifiable();
+		return super.remove(o);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean removeAll(final Collection<?> c) {
+		assertModifiable();
+		return super.removeAll(c);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean retainAll(final Collection<?> c) {
+		assertModifiable();
+		return super.retainAll(c);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void clear() {
+		assertModifiable();
+		super.clear();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	protected void removeRange(final int fromIndex, final int toIndex) {
+		assertModifiable();
+		super.removeRange(fromIndex, toIndex);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int size() {
+		if (snapshot != null) {
+			return snapshot.size();
+		}
+		return super.size();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean isEmpty() {
+		if (snapshot != null) {
+			return snapshot.isEmpty();
+		}
+		return super.isEmpty();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Property get(final int index) {
+		if (snapshot != null) {
+			return snapshot.get(index);
+		}
+		return super.get(index);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean contains(final Object o) {
+		if (snapshot != null) {
+			return snapshot.contains(o);
+		}
+		return super.contains(o);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int indexOf(final Object o) {
+		if (snapshot != null) {
+			return snapshot.indexOf(o);
+		}
+		return super.indexOf(o);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int lastIndexOf(final Object o) {
+		if (snapshot != null) {
+			return snapshot.lastIndexOf(o);
+		}
+		return super.lastIndexOf(o);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Object[] toArray() {
+		if (snapshot != null) {
+			return snapshot.toArray();
+		}
+		return super.toArray();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public <A> A[] toArray(final A[] a) {
+		if (snapshot != null) {
+			return snapshot.toArray(a);
+		}
+		return super.toArray(a);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Iterator<Property> iterator() {
+		if (snapshot != null) {
+			return snapshot.iterator();
+		}
+		return super.iterator();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public ListIterator<Property> listIterator() {
+		if (snapshot != null) {
+			return snapshot.listIterator();
+		}
+		return super.listIterator();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public ListIterator<Property> listIterator(final int index) {
+		if (snapshot != null) {
+			return snapshot.listIterator(index);
+		}
+		return super.listIterator(index);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<Property> subList(final int fromIndex, final int toIndex) {
+		if (snapshot != null) {
+			return snapshot.subList(fromIndex, toIndex);
+		}
+		return super.subList(fromIndex, toIndex);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean equals(final Object o) {
+		if (snapshot != null) {
+			return o == this || snapshot.equals(o);
+		}
+		return super.equals(o);
+	}
 }
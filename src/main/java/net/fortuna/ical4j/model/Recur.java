@@ -35,6 +35,7 @@ import net.fortuna.ical4j.model.parameter.Value;
 import net.fortuna.ical4j.util.CompatibilityHints;
 import net.fortuna.ical4j.util.Configurator;
 import net.fortuna.ical4j.util.Dates;
+import net.fortuna.ical4j.util.EpochDays;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -129,6 +130,8 @@ public class Recur implements Serializable {
 
     private static int maxIncrementCount;
 
+    private static volatile RecurListener listener;
+
     static {
         final String value = Configurator.getProperty(KEY_MAX_INCREMENT_COUNT);
         if (value != null && value.length() > 0) {
@@ -138,6 +141,24 @@ public class Recur implements Serializable {
         }
     }
 
+    /**
+     * The maximum number of instances of a finite recurrence retained by the series memo.
+     */
+    private static final int MAX_SERIES_SIZE = 20000;
+
+    private static final List<String> FREQUENCIES = Arrays.asList(SECONDLY, MINUTELY, HOURLY, DAILY, WEEKLY,
+            MONTHLY, YEARLY);
+
+    private static final long YEAR_SPAN = (Dates.MAX_DAYS_PER_YEAR + 2 * Dates.DAYS_PER_WEEK) * Dates.MILLIS_PER_DAY;
+
+    private static final long MONTH_SPAN = (Dates.MAX_DAYS_PER_MONTH + 2) * Dates.MILLIS_PER_DAY;
+
+    /**
+     * The year of the default gregorian cutover of <code>java.util.GregorianCalendar</code>, prior to which the
+     * julian calendar applies.
+     */
+    private static final int GREGORIAN_CUTOVER_YEAR = 1582;
+
     private transient Logger log = LoggerFactory.getLogger(Recur.class);
 
     private String frequency;
@@ -175,6 +196,11 @@ public class Recur implements Serializable {
     // Calendar field we increment based on frequency.
     private int calIncField;
 
+    private boolean immutable;
+
+    // the instants of the most recently queried finite series..
+    private transient volatile Series series;
+
     /**
      * Default constructor.
      */
@@ -378,6 +404,9 @@ public class Recur implements Serializable {
      * @return Returns the experimentalValues.
      */
     public final Map<String, String> getExperimentalValues() {
+        if (immutable) {
+            return Collections.unmodifiableMap(experimentalValues);
+        }
         return experimentalValues;
     }
 
@@ -413,12 +442,23 @@ public class Recur implements Serializable {
      * @param weekStartDay The weekStartDay to set.
      */
     public final void setWeekStartDay(final WeekDay.Day weekStartDay) {
+        assertModifiable();
         this.weekStartDay = weekStartDay;
         if (weekStartDay != null) {
             calendarWeekStartDay = WeekDay.getCalendarDay(WeekDay.getWeekDay(weekStartDay));
         }
     }
 
+    /**
+     * Registers a listener notified of the cost of each expansion of a recurrence rule via {@code getDates()}.
+     * Expansions answered from a memoised series are not reported.
+     *
+     * @param listener a listener, or null to remove the current listener
+     */
+    public static void setListener(final RecurListener listener) {
+        Recur.listener = listener;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -574,6 +614,31 @@ public class Recur implements Serializable {
     public final DateList getDates(final Date seed, final Date periodStart,
                                    final Date periodEnd, final Value value,
                                    final int maxCount) {
+        return getDates(seed, periodStart, periodEnd, value, maxCount, null);
+    }
+
+    /**
+     * Returns a list of start dates in the specified period represented by this recur, where the cost of the
+     * expansion is limited by the specified budget. Where a limit of the budget is exceeded the expansion is
+     * abandoned, and the dates calculated up to that point are available via the resulting exception.
+     *
+     * @param seed        the start date of this Recurrence's first instance
+     * @param periodStart the start of the period
+     * @param periodEnd   the end of the period
+     * @param value       the type of dates to generate (i.e. date/date-time)
+     * @param budget      limits the cost of the expansion
+     * @return a list of dates represented by this recur instance
+     * @throws RecurBudgetExceededException where a limit of the specified budget is exceeded
+     */
+    public final DateList getDates(final Date seed, final Date periodStart,
+                                   final Date periodEnd, final Value value,
+                                   final RecurBudget budget) {
+        return getDates(seed, periodStart, periodEnd, value, -1, budget);
+    }
+
+    private DateList getDates(final Date seed, final Date periodStart,
+                              final Date periodEnd, final Value value,
+                              final int maxCount, final RecurBudget budget) {
 
         final DateList dates = new DateList(value);
         if (seed instanceof DateTime) {
@@ -583,31 +648,59 @@ public class Recur implements Serializable {
                 dates.setTimeZone(((DateTime) seed).getTimeZone());
             }
         }
+
+        // answer from the memoised series where available..
+        if (maxCount < 0 && budget == null) {
+            final long[] instants = getSeries(seed, value);
+            if (instants != null) {
+                final long end = periodEnd != null ? periodEnd.getTime() : Long.MAX_VALUE;
+                for (int i = indexOf(instants, periodStart.getTime()); i < instants.length && instants[i] < end; i++) {
+                    dates.add(Dates.getInstance(new java.util.Date(instants[i]), value));
+                }
+                return dates;
+            }
+        }
+
         final Calendar cal = getCalendarInstance(seed, true);
+        final long seedTime = cal.getTimeInMillis();
 
         // optimize the start time for selecting candidates
         // (only applicable where a COUNT is not specified)
+        long period = 0;
         if (getCount() < 1) {
-            final Calendar seededCal = (Calendar) cal.clone();
-            while (seededCal.getTime().before(periodStart)) {
-                cal.setTime(seededCal.getTime());
-                increment(seededCal);
-            }
+            period = skipTo(cal, seedTime, periodStart.getTime());
         }
 
+        // where the candidates of later periods may precede those of earlier periods expansion continues until no
+        // later period may generate a candidate in the period..
+        final boolean confined = isConfined();
+        final long span = confined ? 0 : getExpansionSpan();
+        final RecurPlan plan = RecurPlan.compile(this, calendarWeekStartDay, value);
         HashSet<Date> invalidCandidates = new HashSet<Date>();
         int noCandidateIncrementCount = 0;
         Date candidate = null;
+        final RecurListener listener = Recur.listener;
+        final long startNanos = budget != null && budget.getMaxTimeMillis() >= 0 ? System.nanoTime() : 0;
+        long incrementCount = 0;
+        long candidateCount = 0;
         while ((maxCount < 0) || (dates.size() < maxCount)) {
+            if (budget != null) {
+                final RecurBudget.Limit limit = budget.getExceededLimit(incrementCount, candidateCount, startNanos);
+                if (limit != null) {
+                    if (listener != null) {
+                        listener.expanded(this, incrementCount, candidateCount, candidateCount - dates.size());
+                    }
+                    Collections.sort(dates);
+                    throw new RecurBudgetExceededException(limit, dates);
+                }
+            }
             final Date candidateSeed = Dates.getInstance(cal.getTime(), value);
 
-            if (getUntil() != null && candidate != null
-                    && candidate.after(getUntil())) {
+            if (getUntil() != null && isExpanded(candidate, getUntil(), cal, span)) {
 
                 break;
             }
-            if (periodEnd != null && candidate != null
-                    && candidate.after(periodEnd)) {
+            if (periodEnd != null && isExpanded(candidate, periodEnd, cal, span)) {
 
                 break;
             }
@@ -626,7 +719,8 @@ public class Recur implements Serializable {
                 }
             }
 
-            final DateList candidates = getCandidates(candidateSeed, value);
+            final DateList candidates = getCandidates(plan, candidateSeed, value);
+            candidateCount += candidates.size();
             if (!candidates.isEmpty()) {
                 noCandidateIncrementCount = 0;
                 // sort candidates for identifying when UNTIL date is exceeded..
@@ -654,7 +748,11 @@ public class Recur implements Serializable {
                     break;
                 }
             }
-            increment(cal);
+            setPeriod(cal, seedTime, ++period);
+            incrementCount++;
+        }
+        if (listener != null) {
+            listener.expanded(this, incrementCount, candidateCount, candidateCount - dates.size());
         }
         // sort final list..
         Collections.sort(dates);
@@ -674,22 +772,48 @@ public class Recur implements Serializable {
      */
     public final Date getNextDate(final Date seed, final Date startDate) {
 
+        final Value value = seed instanceof DateTime ? Value.DATE_TIME : Value.DATE;
+
+        // answer from the memoised series where available..
+        final long[] instants = getSeries(seed, value);
+        if (instants != null) {
+            final int index = indexOf(instants, startDate.getTime() + 1);
+            if (index < instants.length) {
+                final Date next = Dates.getInstance(new java.util.Date(instants[index]), value);
+                if (next instanceof DateTime) {
+                    if (((DateTime) seed).isUtc()) {
+                        ((DateTime) next).setUtc(true);
+                    } else {
+                        ((DateTime) next).setTimeZone(((DateTime) seed).getTimeZone());
+                    }
+                }
+                return next;
+            }
+            return null;
+        }
+
+        // where the candidates of later periods may precede those of earlier periods the next date is not
+        // necessarily the first candidate generated..
+        if (!isConfined()) {
+            // (recurrence dates are of second precision)..
+            final Iterator<Date> dates = iterator(seed, new DateTime(startDate.getTime() + Dates.MILLIS_PER_SECOND));
+            return dates.hasNext() ? dates.next() : null;
+        }
+
         final Calendar cal = getCalendarInstance(seed, true);
+        final long seedTime = cal.getTimeInMillis();
 
         // optimize the start time for selecting candidates
         // (only applicable where a COUNT is not specified)
+        long period = 0;
         if (getCount() < 1) {
-            final Calendar seededCal = (Calendar) cal.clone();
-            while (seededCal.getTime().before(startDate)) {
-                cal.setTime(seededCal.getTime());
-                increment(seededCal);
-            }
+            period = skipTo(cal, seedTime, startDate.getTime());
         }
 
         int invalidCandidateCount = 0;
         int noCandidateIncrementCount = 0;
         Date candidate = null;
-        final Value value = seed instanceof DateTime ? Value.DATE_TIME : Value.DATE;
+        final RecurPlan plan = RecurPlan.compile(this, calendarWeekStartDay, value);
 
         while (true) {
             final Date candidateSeed = Dates.getInstance(cal.getTime(), value);
@@ -710,7 +834,7 @@ public class Recur implements Serializable {
                 }
             }
 
-            final DateList candidates = getCandidates(candidateSeed, value);
+            final DateList candidates = getCandidates(plan, candidateSeed, value);
             if (!candidates.isEmpty()) {
                 noCandidateIncrementCount = 0;
                 // sort candidates for identifying when UNTIL date is exceeded..
@@ -739,11 +863,447 @@ public class Recur implements Serializable {
                     break;
                 }
             }
-            increment(cal);
+            setPeriod(cal, seedTime, ++period);
         }
         return null;
     }
 
+    /**
+     * Returns an iterator over the dates represented by this recur, in chronological order, starting from the
+     * specified seed. Dates are generated lazily as the iterator is advanced, and as such the iterator may be used
+     * with recurrences that specify neither an UNTIL nor a COUNT, provided the caller stops iterating.
+     *
+     * @param seed the start date of this Recurrence's first instance
+     * @return an iterator over the dates of this recurrence
+     * @see #iterator(Date, Date)
+     */
+    public final Iterator<Date> iterator(final Date seed) {
+        return iterator(seed, seed);
+    }
+
+    /**
+     * Returns an iterator over the dates represented by this recur, in chronological order, starting from the
+     * specified start date (inclusive). The COUNT, UNTIL and BYSETPOS rule parts, and the maximum number of
+     * increments without a candidate date ({@link #KEY_MAX_INCREMENT_COUNT}), are applied in the same way as for
+     * {@link #getDates(Date, Date, Date, Value)}.
+     *
+     * @param seed  the start date of this Recurrence's first instance
+     * @param start the date from which to return recurrence dates
+     * @return an iterator over the dates of this recurrence
+     */
+    public final Iterator<Date> iterator(final Date seed, final Date start) {
+        return new RecurIterator(seed, start);
+    }
+
+    /**
+     * Determines whether the specified date is an instance of this recurrence. Rather than expanding the
+     * recurrence from the seed, the period of the recurrence containing the date is calculated directly from the
+     * frequency and interval, and only the BYxxx candidates of that period (and those either side of it) are
+     * considered. Recurrences limited by a COUNT are expanded from the seed, as the position
+     * of an instance in such a recurrence cannot otherwise be determined, as are recurrences of which the candidates
+     * are not confined to the period generating them.
+     *
+     * @param seed the start date of this Recurrence's first instance
+     * @param date a date to test
+     * @return true if the specified date is an instance of this recurrence, otherwise false
+     */
+    public final boolean occursAt(final Date seed, final Date date) {
+        // don't match dates before the seed date or after the until date..
+        if (date.before(seed) || (getUntil() != null && date.after(getUntil()))) {
+            return false;
+        }
+
+        if (getCount() >= 1 || !isConfined()) {
+            final Iterator<Date> dates = iterator(seed, date);
+            return dates.hasNext() && dates.next().getTime() == date.getTime();
+        }
+
+        final Value value = seed instanceof DateTime ? Value.DATE_TIME : Value.DATE;
+        final RecurPlan plan = RecurPlan.compile(this, calendarWeekStartDay, value);
+        final Calendar cal = getCalendarInstance(seed, true);
+        final long seedTime = cal.getTimeInMillis();
+        final long period = skipTo(cal, seedTime, date.getTime());
+
+        // the candidates of adjacent periods may overlap with the period containing the date (e.g. where a week
+        // or week number spans the start of the period)..
+        final long[] periods = {period, period + 1, period - 1};
+        for (final long p : periods) {
+            if (p < 0) {
+                continue;
+            }
+            setPeriod(cal, seedTime, p);
+            final Date candidateSeed = Dates.getInstance(cal.getTime(), value);
+            if (Value.DATE_TIME.equals(value)) {
+                if (((DateTime) seed).isUtc()) {
+                    ((DateTime) candidateSeed).setUtc(true);
+                } else {
+                    ((DateTime) candidateSeed).setTimeZone(((DateTime) seed).getTimeZone());
+                }
+            }
+            for (final Date candidate : getCandidates(plan, candidateSeed, value)) {
+                if (candidate.getTime() == date.getTime()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the instants of this recurrence for the specified seed where the recurrence is finite (i.e. limited by
+     * a COUNT or UNTIL rule part). As recurrences limited by a COUNT must otherwise be expanded from the seed for
+     * every query, the full series is memoised when the same series is queried more than once. Only series of which
+     * the candidates are generated in strictly chronological order are memoised, as the dates of other series depend
+     * on the window expanded (e.g. where duplicate candidates are counted differently either side of the window).
+     * Series of more than {@link #MAX_SERIES_SIZE} instances are not memoised.
+     *
+     * @return the sorted instants of the series, or null if the series is not memoised
+     */
+    private long[] getSeries(final Date seed, final Value value) {
+        if (getCount() < 1 && (getUntil() == null || !isOrdered())) {
+            return null;
+        }
+        // the memo is only applicable to dates of the same type as the seed..
+        final Value seedValue = seed instanceof DateTime ? Value.DATE_TIME : Value.DATE;
+        if (!seedValue.equals(value != null ? value : Value.DATE_TIME)) {
+            return null;
+        }
+
+        Series memo = series;
+        if (memo == null || !memo.isSeries(this, seed)) {
+            // defer expansion of the full series until it is queried again..
+            series = new Series(this, seed, null, false);
+            return null;
+        }
+        if (memo.instants == null && !memo.exceeded) {
+            long[] instants = new long[Math.min(getCount() >= 1 ? getCount() : 64, MAX_SERIES_SIZE)];
+            int size = 0;
+            final RecurIterator i = new RecurIterator(seed, seed);
+            while (i.hasNext()) {
+                final long next = i.next().getTime();
+                if (size == MAX_SERIES_SIZE) {
+                    instants = null;
+                    break;
+                } else if (size == instants.length) {
+                    instants = Arrays.copyOf(instants, Math.min(size * 2, MAX_SERIES_SIZE));
+                }
+                instants[size++] = next;
+            }
+            // a series generated out of order (or with duplicates) is dependent on the window expanded..
+            if (!i.isOrdered()) {
+                instants = null;
+            }
+            if (instants != null && size < instants.length) {
+                instants = Arrays.copyOf(instants, size);
+            }
+            memo = new Series(this, seed, instants, true);
+            series = memo;
+        }
+        return memo.instants;
+    }
+
+    /**
+     * @return the index of the first instant at or after the specified time
+     */
+    private static int indexOf(final long[] instants, final long time) {
+        int low = 0;
+        int high = instants.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (instants[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Generates the dates of a recurrence one period at a time. As the candidates of a period may precede those of
+     * earlier periods (e.g. where a BYMONTH rule part is applied to a WEEKLY recurrence), candidates are buffered
+     * until no subsequent period can generate an earlier date.
+     */
+    private class RecurIterator implements Iterator<Date> {
+
+        private final Date seed;
+
+        private final Date start;
+
+        private final Value value;
+
+        private final Calendar cal;
+
+        private final RecurPlan plan;
+
+        private final long seedTime;
+
+        private final boolean confined;
+
+        private final long span;
+
+        private final PriorityQueue<Date> buffer = new PriorityQueue<Date>();
+
+        // candidates before the start date, counted as per getDates()..
+        private final Set<Date> skipped = new HashSet<Date>();
+
+        private long period;
+
+        private Date candidate;
+
+        private Date last;
+
+        private boolean ordered = true;
+
+        private int instanceCount;
+
+        private int noCandidateIncrementCount;
+
+        private boolean done;
+
+        public RecurIterator(final Date seed, final Date start) {
+            this.seed = seed;
+            this.start = start;
+            this.value = seed instanceof DateTime ? Value.DATE_TIME : Value.DATE;
+            this.cal = getCalendarInstance(seed, true);
+            this.seedTime = cal.getTimeInMillis();
+            this.plan = RecurPlan.compile(Recur.this, calendarWeekStartDay, value);
+            this.confined = isConfined();
+            this.span = getExpansionSpan();
+
+            // optimize the start time for selecting candidates
+            // (only applicable where a COUNT is not specified)
+            if (getCount() < 1) {
+                period = skipTo(cal, seedTime, start.getTime());
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public boolean hasNext() {
+            while (!isReleasable()) {
+                if (done) {
+                    return false;
+                }
+                expandPeriod();
+            }
+            return true;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public Date next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return buffer.poll();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * @return true if the candidates generated so far were generated in chronological order without duplicates
+         */
+        public boolean isOrdered() {
+            return ordered;
+        }
+
+        /**
+         * @return true if the earliest buffered candidate precedes any candidate of the periods yet to be expanded
+         */
+        private boolean isReleasable() {
+            return !buffer.isEmpty()
+                    && (done || confined || buffer.peek().getTime() < cal.getTimeInMillis() - span);
+        }
+
+        /**
+         * Adds the candidates of the next period to the buffer, applying the COUNT and UNTIL rule parts in the same
+         * way as {@link Recur#getDates(Date, Date, Date, Value)}.
+         */
+        private void expandPeriod() {
+            if ((getUntil() != null && isExpanded(candidate, getUntil(), cal, confined ? 0 : span))
+                    || (getCount() >= 1 && instanceCount + skipped.size() >= getCount())) {
+                done = true;
+                return;
+            }
+
+            final Date candidateSeed = Dates.getInstance(cal.getTime(), value);
+            if (Value.DATE_TIME.equals(value)) {
+                if (((DateTime) seed).isUtc()) {
+                    ((DateTime) candidateSeed).setUtc(true);
+                } else {
+                    ((DateTime) candidateSeed).setTimeZone(((DateTime) seed).getTimeZone());
+                }
+            }
+            final DateList candidates = getCandidates(plan, candidateSeed, value);
+            if (!candidates.isEmpty()) {
+                noCandidateIncrementCount = 0;
+                // sort candidates for identifying when UNTIL date is exceeded..
+                Collections.sort(candidates);
+                for (final Date candidate1 : candidates) {
+                    candidate = candidate1;
+                    // don't count candidates that occur before the seed date..
+                    if (candidate.before(seed)) {
+                        continue;
+                    }
+                    if (candidate.before(start)) {
+                        if (getCount() >= 1) {
+                            skipped.add(candidate);
+                        }
+                    } else if (getCount() >= 1 && instanceCount + skipped.size() >= getCount()) {
+                        break;
+                    } else if (!(getUntil() != null && candidate.after(getUntil()))) {
+                        if (last != null && !candidate.after(last)) {
+                            ordered = false;
+                        }
+                        last = candidate;
+                        buffer.add(candidate);
+                        instanceCount++;
+                    }
+                }
+            } else {
+                noCandidateIncrementCount++;
+                if ((maxIncrementCount > 0) && (noCandidateIncrementCount > maxIncrementCount)) {
+                    done = true;
+                    return;
+                }
+            }
+            setPeriod(cal, seedTime, ++period);
+        }
+    }
+
+    /**
+     * Determines whether the candidates of each period of this recurrence are confined to the calendar unit of the
+     * frequency (e.g. the month of a MONTHLY recurrence) containing the start of the period, such that the
+     * candidates of successive periods are in chronological order.
+     *
+     * @return true if the candidates of successive periods cannot precede one another
+     */
+    private boolean isConfined() {
+        final int rank = FREQUENCIES.indexOf(getFrequency());
+        // week numbers may overlap the adjacent years..
+        if (!getWeekNoList().isEmpty()) {
+            return false;
+        }
+        if ((!getMonthList().isEmpty() || !getYearDayList().isEmpty()) && !YEARLY.equals(getFrequency())) {
+            return false;
+        }
+        if (!getMonthDayList().isEmpty() && rank < FREQUENCIES.indexOf(MONTHLY)) {
+            return false;
+        }
+        return (getHourList().isEmpty() || rank >= FREQUENCIES.indexOf(DAILY))
+                && (getMinuteList().isEmpty() || rank >= FREQUENCIES.indexOf(HOURLY))
+                && (getSecondList().isEmpty() || rank >= FREQUENCIES.indexOf(MINUTELY));
+    }
+
+    /**
+     * Determines whether the candidates of this recurrence are generated in strictly chronological order, such
+     * that the dates of any window of the recurrence are independent of where expansion begins.
+     *
+     * @return true if the candidates of this recurrence are in chronological order and distinct
+     */
+    boolean isOrdered() {
+        if (!isConfined() || !isDistinct(getMonthList()) || !isDistinct(getYearDayList())
+                || !isDistinct(getMonthDayList()) || !isDistinct(getHourList()) || !isDistinct(getMinuteList())
+                || !isDistinct(getSecondList()) || !isDistinct(getSetPosList())) {
+            return false;
+        }
+        int dayMask = 0;
+        for (final WeekDay weekDay : getDayList()) {
+            final int calDay = WeekDay.getCalendarDay(weekDay);
+            if (calDay == -1 || (dayMask & (1 << calDay)) != 0) {
+                return false;
+            }
+            dayMask |= 1 << calDay;
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the specified rule part values cannot identify the same date (i.e. they are unique and are
+     * either all positive or all negative)
+     */
+    private static boolean isDistinct(final List<Integer> list) {
+        boolean positive = false;
+        boolean negative = false;
+        for (int i = 0; i < list.size(); i++) {
+            if (list.indexOf(list.get(i)) != i) {
+                return false;
+            }
+            positive |= list.get(i) > 0;
+            negative |= list.get(i) < 0;
+        }
+        return !(positive && negative);
+    }
+
+    /**
+     * @return the BYxxx rule parts of this recurrence
+     */
+    private List<List<?>> getRuleParts() {
+        return Arrays.<List<?>>asList(getSecondList(), getMinuteList(), getHourList(), getDayList(),
+                getMonthDayList(), getYearDayList(), getWeekNoList(), getMonthList(), getSetPosList());
+    }
+
+    /**
+     * Determines whether expansion of this recurrence has passed the specified limit, that is whether the last
+     * candidate is after the limit and (where the candidates of later periods may precede it) no subsequent period
+     * may generate a candidate prior to the limit.
+     *
+     * @param candidate the last candidate generated, or null if no candidates have been generated
+     * @param limit     the limit of the expansion
+     * @param cal       the start of the next period
+     * @param span      the maximum time by which a candidate may precede the start of its period
+     * @return true if no further candidates within the limit may be generated
+     */
+    private static boolean isExpanded(final Date candidate, final Date limit, final Calendar cal, final long span) {
+        if (span > 0) {
+            return cal.getTimeInMillis() - span > limit.getTime();
+        }
+        return candidate != null && candidate.after(limit);
+    }
+
+    /**
+     * @return the maximum time by which a candidate may precede the start of its period, including an allowance
+     * for daylight savings and week numbers overlapping the adjacent years
+     */
+    private long getExpansionSpan() {
+        if (!getMonthList().isEmpty() || !getWeekNoList().isEmpty() || !getYearDayList().isEmpty()) {
+            return YEAR_SPAN;
+        }
+        long span = 0;
+        if (!getDayList().isEmpty() && getMonthDayList().isEmpty()) {
+            if (YEARLY.equals(getFrequency())) {
+                span = YEAR_SPAN;
+            } else if (MONTHLY.equals(getFrequency())) {
+                span = MONTH_SPAN;
+            } else if (WEEKLY.equals(getFrequency())) {
+                span = Dates.MILLIS_PER_WEEK + Dates.MILLIS_PER_DAY;
+            } else {
+                span = 2 * Dates.MILLIS_PER_DAY;
+            }
+        }
+        if (!getMonthDayList().isEmpty()) {
+            span = Math.max(span, MONTH_SPAN);
+        }
+        if (!getHourList().isEmpty()) {
+            span = Math.max(span, 2 * Dates.MILLIS_PER_DAY);
+        }
+        if (!getMinuteList().isEmpty()) {
+            span = Math.max(span, 2 * Dates.MILLIS_PER_HOUR);
+        }
+        if (!getSecondList().isEmpty()) {
+            span = Math.max(span, 2 * Dates.MILLIS_PER_MINUTE);
+        }
+        return span;
+    }
+
     /**
      * Increments the specified calendar according to the frequency and interval specified in this recurrence rule.
      *
@@ -755,14 +1315,110 @@ public class Recur implements Serializable {
         cal.add(calIncField, calInterval);
     }
 
+    /**
+     * Sets the specified calendar to the start of a period of this recurrence rule. Periods are always calculated
+     * relative to the seed (rather than by repeated increment) so that day-of-month and daylight savings
+     * adjustments do not accumulate, and so that the periods are the same irrespective of where expansion begins.
+     *
+     * @param cal      a java.util.Calendar to update
+     * @param seedTime the time of the seed date
+     * @param period   the number of periods after the seed
+     */
+    private void setPeriod(final Calendar cal, final long seedTime, final long period) {
+        // initialise interval..
+        final int calInterval = (getInterval() >= 1) ? getInterval() : 1;
+        final long amount = period * calInterval;
+        cal.setTimeInMillis(seedTime);
+        switch (calIncField) {
+            case Calendar.SECOND:
+                cal.setTimeInMillis(seedTime + amount * Dates.MILLIS_PER_SECOND);
+                break;
+            case Calendar.MINUTE:
+                cal.setTimeInMillis(seedTime + amount * Dates.MILLIS_PER_MINUTE);
+                break;
+            case Calendar.HOUR_OF_DAY:
+                cal.setTimeInMillis(seedTime + amount * Dates.MILLIS_PER_HOUR);
+                break;
+            default:
+                cal.add(calIncField, (int) amount);
+        }
+    }
+
+    /**
+     * Sets the specified calendar to the latest period of this recurrence rule that starts prior to the specified
+     * time (or the seed if no such period exists). The number of periods is estimated arithmetically and then
+     * corrected, such that the cost does not depend on the distance between the seed and the specified time. Where
+     * the candidates of a period are not confined to the period, the earliest period that may generate candidates
+     * after the specified time is selected instead.
+     *
+     * @param cal      a java.util.Calendar to update
+     * @param seedTime the time of the seed date
+     * @param skipTime the time to skip to
+     * @return the number of periods after the seed
+     */
+    private long skipTo(final Calendar cal, final long seedTime, final long skipTime) {
+        long period = 0;
+        long time = skipTime;
+        if (!isConfined()) {
+            // allow for earlier periods generating candidates after the time..
+            time -= getExpansionSpan();
+        }
+        if (time > seedTime) {
+            final int calInterval = (getInterval() >= 1) ? getInterval() : 1;
+            period = (time - seedTime) / (getAveragePeriodMillis() * calInterval);
+            // correct the estimate..
+            setPeriod(cal, seedTime, period);
+            while (period > 0 && cal.getTimeInMillis() >= time) {
+                setPeriod(cal, seedTime, --period);
+            }
+            setPeriod(cal, seedTime, period + 1);
+            while (cal.getTimeInMillis() < time) {
+                setPeriod(cal, seedTime, ++period + 1);
+            }
+        }
+        setPeriod(cal, seedTime, period);
+        return period;
+    }
+
+    /**
+     * @return the average duration of a single increment of the frequency of this recurrence rule
+     */
+    private long getAveragePeriodMillis() {
+        switch (calIncField) {
+            case Calendar.SECOND:
+                return Dates.MILLIS_PER_SECOND;
+            case Calendar.MINUTE:
+                return Dates.MILLIS_PER_MINUTE;
+            case Calendar.HOUR_OF_DAY:
+                return Dates.MILLIS_PER_HOUR;
+            case Calendar.DAY_OF_YEAR:
+                return Dates.MILLIS_PER_DAY;
+            case Calendar.WEEK_OF_YEAR:
+                return Dates.MILLIS_PER_WEEK;
+            case Calendar.MONTH:
+                // 365.2425 days / 12..
+                return 2629746000L;
+            default:
+                // 365.2425 days..
+                return 31556952000L;
+        }
+    }
+
     /**
      * Returns a list of possible dates generated from the applicable BY* rules, using the specified date as a seed.
      *
+     * @param plan  a compiled form of this recurrence rule, or null if not applicable
      * @param date  the seed date
      * @param value the type of date list to return
      * @return a DateList
      */
-    private DateList getCandidates(final Date date, final Value value) {
+    private DateList getCandidates(final RecurPlan plan, final Date date, final Value value) {
+        if (plan != null) {
+            final DateList planned = plan.getCandidates(date, value);
+            if (planned != null) {
+                return planned;
+            }
+        }
         DateList dates = new DateList(value);
         if (date instanceof DateTime) {
             if (((DateTime) date).isUtc()) {
@@ -889,8 +1545,16 @@ public class Recur implements Serializable {
         final DateList weekNoDates = getDateListInstance(dates);
         for (final Date date : dates) {
             final Calendar cal = getCalendarInstance(date, true);
+            final int weeksInYear = getWeeksInYear(cal);
             for (final Integer weekNo : getWeekNoList()) {
-                cal.set(Calendar.WEEK_OF_YEAR, Dates.getAbsWeekNo(cal.getTime(), weekNo));
+                final int week = weekNo > 0 ? weekNo : weeksInYear + weekNo + 1;
+                if (week < 1 || week > weeksInYear) {
+                    if (log.isTraceEnabled()) {
+                        log.trace("Invalid week of year: " + week);
+                    }
+                    continue;
+                }
+                cal.set(Calendar.WEEK_OF_YEAR, week);
                 weekNoDates.add(Dates.getInstance(cal.getTime(), weekNoDates.getType()));
             }
         }
@@ -911,8 +1575,16 @@ public class Recur implements Serializable {
         final DateList yearDayDates = getDateListInstance(dates);
         for (final Date date : dates) {
             final Calendar cal = getCalendarInstance(date, true);
+            final int yearLength = getYearLength(cal);
             for (final Integer yearDay : getYearDayList()) {
-                cal.set(Calendar.DAY_OF_YEAR, Dates.getAbsYearDay(cal.getTime(), yearDay));
+                final int day = yearDay > 0 ? yearDay : yearLength + yearDay + 1;
+                if (day < 1 || day > yearLength) {
+                    if (log.isTraceEnabled()) {
+                        log.trace("Invalid day of year: " + day);
+                    }
+                    continue;
+                }
+                cal.set(Calendar.DAY_OF_YEAR, day);
                 yearDayDates.add(Dates.getInstance(cal.getTime(), yearDayDates.getType()));
             }
         }
@@ -933,16 +1605,17 @@ public class Recur implements Serializable {
         final DateList monthDayDates = getDateListInstance(dates);
         for (final Date date : dates) {
             final Calendar cal = getCalendarInstance(date, false);
+            final int monthLength = getMonthLength(cal);
             for (final Integer monthDay : getMonthDayList()) {
-                try {
-                    cal.set(Calendar.DAY_OF_MONTH, Dates.getAbsMonthDay(cal.getTime(), monthDay));
-                    monthDayDates.add(Dates.getInstance(cal.getTime(), monthDayDates.getType()));
-                } catch (IllegalArgumentException iae) {
+                final int day = monthDay > 0 ? monthDay : monthLength + monthDay + 1;
+                if (day < 1 || day > monthLength) {
                     if (log.isTraceEnabled()) {
-                        log.trace("Invalid day of month: " + Dates.getAbsMonthDay(cal
-                                .getTime(), monthDay));
+                        log.trace("Invalid day of month: " + day);
                     }
+                    continue;
                 }
+                cal.set(Calendar.DAY_OF_MONTH, day);
+                monthDayDates.add(Dates.getInstance(cal.getTime(), monthDayDates.getType()));
             }
         }
         return monthDayDates;
@@ -961,16 +1634,18 @@ public class Recur implements Serializable {
         }
         final DateList weekDayDates = getDateListInstance(dates);
         for (final Date date : dates) {
-            for (final WeekDay weekDay : getDayList()) {
-                // if BYYEARDAY or BYMONTHDAY is specified filter existing
-                // list..
-                if (!getYearDayList().isEmpty() || !getMonthDayList().isEmpty()) {
-                    final Calendar cal = getCalendarInstance(date, true);
-                    if (weekDay.equals(WeekDay.getWeekDay(cal))) {
+            // if BYYEARDAY or BYMONTHDAY is specified filter existing
+            // list..
+            if (!getYearDayList().isEmpty() || !getMonthDayList().isEmpty()) {
+                final int dayOfWeek = getCalendarInstance(date, true).get(Calendar.DAY_OF_WEEK);
+                for (final WeekDay weekDay : getDayList()) {
+                    if (weekDay.getOffset() == 0 && WeekDay.getCalendarDay(weekDay) == dayOfWeek) {
                         weekDayDates.add(date);
                     }
-                } else {
-                    weekDayDates.addAll(getAbsWeekDays(date, dates.getType(), weekDay));
+                }
+            } else {
+                for (final WeekDay weekDay : getDayList()) {
+                    addAbsWeekDays(date, weekDay, weekDayDates);
                 }
             }
         }
@@ -978,90 +1653,72 @@ public class Recur implements Serializable {
     }
 
     /**
-     * Returns a list of applicable dates corresponding to the specified week day in accordance with the frequency
-     * specified by this recurrence rule.
+     * Adds the applicable dates corresponding to the specified week day in accordance with the frequency specified by
+     * this recurrence rule. Applicable days are identified with epoch day arithmetic relative to the specified date,
+     * such that only the dates added are calculated.
      *
      * @param date
      * @param weekDay
-     * @return
+     * @param days the list to add applicable dates to
      */
-    private List<Date> getAbsWeekDays(final Date date, final Value type, final WeekDay weekDay) {
-        final Calendar cal = getCalendarInstance(date, true);
-        final DateList days = new DateList(type);
-        if (date instanceof DateTime) {
-            if (((DateTime) date).isUtc()) {
-                days.setUtc(true);
-            } else {
-                days.setTimeZone(((DateTime) date).getTimeZone());
-            }
-        }
+    private void addAbsWeekDays(final Date date, final WeekDay weekDay, final DateList days) {
         final int calDay = WeekDay.getCalendarDay(weekDay);
         if (calDay == -1) {
             // a matching weekday cannot be identified..
-            return days;
+            return;
         }
+        final Calendar cal = getCalendarInstance(date, true);
+        final int dayOfWeek = cal.get(Calendar.DAY_OF_WEEK);
+
+        // the number of days from the date to the first applicable day, and the number of applicable days..
+        final int first;
+        final int count;
         if (DAILY.equals(getFrequency())) {
-            if (cal.get(Calendar.DAY_OF_WEEK) == calDay) {
-                days.add(Dates.getInstance(cal.getTime(), type));
+            if (dayOfWeek != calDay) {
+                return;
             }
+            first = 0;
+            count = 1;
         } else if (WEEKLY.equals(getFrequency()) || !getWeekNoList().isEmpty()) {
-            final int weekNo = cal.get(Calendar.WEEK_OF_YEAR);
-            // construct a list of possible week days..
-            cal.set(Calendar.DAY_OF_WEEK, cal.getFirstDayOfWeek());
-            while (cal.get(Calendar.DAY_OF_WEEK) != calDay) {
-                cal.add(Calendar.DAY_OF_WEEK, 1);
-            }
-//            final int weekNo = cal.get(Calendar.WEEK_OF_YEAR);
-            if (cal.get(Calendar.WEEK_OF_YEAR) == weekNo) {
-                days.add(Dates.getInstance(cal.getTime(), type));
-//                cal.add(Calendar.DAY_OF_WEEK, Dates.DAYS_PER_WEEK);
-            }
+            first = EpochDays.getDayOfWeekIndex(calDay, cal.getFirstDayOfWeek())
+                    - EpochDays.getDayOfWeekIndex(dayOfWeek, cal.getFirstDayOfWeek());
+            count = 1;
         } else if (MONTHLY.equals(getFrequency()) || !getMonthList().isEmpty()) {
-            final int month = cal.get(Calendar.MONTH);
-            // construct a list of possible month days..
-            cal.set(Calendar.DAY_OF_MONTH, 1);
-            while (cal.get(Calendar.DAY_OF_WEEK) != calDay) {
-                cal.add(Calendar.DAY_OF_MONTH, 1);
-            }
-            while (cal.get(Calendar.MONTH) == month) {
-                days.add(Dates.getInstance(cal.getTime(), type));
-                cal.add(Calendar.DAY_OF_MONTH, Dates.DAYS_PER_WEEK);
-            }
+            final int dayOfMonth = cal.get(Calendar.DAY_OF_MONTH);
+            first = EpochDays.getDayOfWeekIndex(calDay, EpochDays.shiftDayOfWeek(dayOfWeek, 1 - dayOfMonth))
+                    + 1 - dayOfMonth;
+            count = (getMonthLength(cal) - dayOfMonth - first) / Dates.DAYS_PER_WEEK + 1;
         } else if (YEARLY.equals(getFrequency())) {
-            final int year = cal.get(Calendar.YEAR);
-            // construct a list of possible year days..
-            cal.set(Calendar.DAY_OF_YEAR, 1);
-            while (cal.get(Calendar.DAY_OF_WEEK) != calDay) {
-                cal.add(Calendar.DAY_OF_YEAR, 1);
-            }
-            while (cal.get(Calendar.YEAR) == year) {
-                days.add(Dates.getInstance(cal.getTime(), type));
-                cal.add(Calendar.DAY_OF_YEAR, Dates.DAYS_PER_WEEK);
-            }
+            final int dayOfYear = cal.get(Calendar.DAY_OF_YEAR);
+            first = EpochDays.getDayOfWeekIndex(calDay, EpochDays.shiftDayOfWeek(dayOfWeek, 1 - dayOfYear))
+                    + 1 - dayOfYear;
+            count = (getYearLength(cal) - dayOfYear - first) / Dates.DAYS_PER_WEEK + 1;
+        } else {
+            return;
         }
-        return getOffsetDates(days, weekDay.getOffset());
-    }
 
-    /**
-     * Returns a single-element sublist containing the element of <code>list</code> at <code>offset</code>. Valid
-     * offsets are from 1 to the size of the list. If an invalid offset is supplied, all elements from <code>list</code>
-     * are added to <code>sublist</code>.
-     *
-     * @param dates
-     * @param offset
-     */
-    private List<Date> getOffsetDates(final DateList dates, final int offset) {
+        // select the applicable days corresponding to the week day offset..
+        final int offset = weekDay.getOffset();
+        final int from;
+        final int to;
         if (offset == 0) {
-            return dates;
+            from = 0;
+            to = count;
+        } else if (offset > 0 && offset <= count) {
+            from = offset - 1;
+            to = offset;
+        } else if (offset < 0 && offset >= -count) {
+            from = count + offset;
+            to = from + 1;
+        } else {
+            return;
         }
-        final List<Date> offsetDates = getDateListInstance(dates);
-        final int size = dates.size();
-        if (offset < 0 && offset >= -size) {
-            offsetDates.add(dates.get(size + offset));
-        } else if (offset > 0 && offset <= size) {
-            offsetDates.add(dates.get(offset - 1));
+        final long time = cal.getTimeInMillis();
+        for (int i = from; i < to; i++) {
+            cal.setTimeInMillis(time);
+            cal.add(Calendar.DAY_OF_YEAR, first + i * Dates.DAYS_PER_WEEK);
+            days.add(Dates.getInstance(cal.getTime(), days.getType()));
         }
-        return offsetDates;
     }
 
     /**
@@ -1159,6 +1816,7 @@ public class Recur implements Serializable {
      * @param count The count to set.
      */
     public final void setCount(final int count) {
+        assertModifiable();
         this.count = count;
         this.until = null;
     }
@@ -1167,6 +1825,7 @@ public class Recur implements Serializable {
      * @param frequency The frequency to set.
      */
     public final void setFrequency(final String frequency) {
+        assertModifiable();
         this.frequency = frequency;
         validateFrequency();
     }
@@ -1175,6 +1834,7 @@ public class Recur implements Serializable {
      * @param interval The interval to set.
      */
     public final void setInterval(final int interval) {
+        assertModifiable();
         this.interval = interval;
     }
 
@@ -1182,10 +1842,75 @@ public class Recur implements Serializable {
      * @param until The until to set.
      */
     public final void setUntil(final Date until) {
+        assertModifiable();
         this.until = until;
         this.count = -1;
     }
 
+    /**
+     * Prevents further modification of this rule, its rule part lists and its until date.
+     */
+    final void freeze() {
+        getSecondList().freeze();
+        getMinuteList().freeze();
+        getHourList().freeze();
+        getDayList().freeze();
+        getMonthDayList().freeze();
+        getYearDayList().freeze();
+        getWeekNoList().freeze();
+        getMonthList().freeze();
+        getSetPosList().freeze();
+        if (until != null) {
+            until.freeze();
+        }
+        immutable = true;
+    }
+
+    /**
+     * @return true if this rule may not be modified
+     */
+    public final boolean isImmutable() {
+        return immutable;
+    }
+
+    private void assertModifiable() {
+        if (immutable) {
+            throw new UnsupportedOperationException("Cannot modify immutable instances");
+        }
+    }
+
+    /**
+     * @param cal a calendar
+     * @return true if the specified calendar represents a date in the gregorian calendar, and so may be used with
+     * epoch day arithmetic
+     */
+    private static boolean isGregorian(final Calendar cal) {
+        return cal.getClass() == GregorianCalendar.class && cal.get(Calendar.ERA) == GregorianCalendar.AD
+                && cal.get(Calendar.YEAR) > GREGORIAN_CUTOVER_YEAR;
+    }
+
+    private static int getMonthLength(final Calendar cal) {
+        if (isGregorian(cal)) {
+            return EpochDays.getMonthLength(cal.get(Calendar.YEAR), cal.get(Calendar.MONTH) + 1);
+        }
+        return cal.getActualMaximum(Calendar.DAY_OF_MONTH);
+    }
+
+    private static int getYearLength(final Calendar cal) {
+        if (isGregorian(cal)) {
+            return EpochDays.getYearLength(cal.get(Calendar.YEAR));
+        }
+        return cal.getActualMaximum(Calendar.DAY_OF_YEAR);
+    }
+
+    private static int getWeeksInYear(final Calendar cal) {
+        if (isGregorian(cal)) {
+            return EpochDays.getWeeksInYear(cal.get(Calendar.YEAR), cal.getFirstDayOfWeek(),
+                    cal.getMinimalDaysInFirstWeek());
+        }
+        return cal.getActualMaximum(Calendar.WEEK_OF_YEAR);
+    }
+
     /**
      * Construct a Calendar object and sets the time.
      *
@@ -1231,4 +1956,92 @@ public class Recur implements Serializable {
         return list;
     }
 
+    /**
+     * The instants of a finite recurrence for a specific seed.
+     */
+    private static final class Series {
+
+        private final String frequency;
+
+        private final int interval;
+
+        private final int count;
+
+        private final long untilTime;
+
+        private final boolean untilDateTime;
+
+        private final WeekDay.Day weekStartDay;
+
+        private final List<List<?>> ruleParts;
+
+        private final long seedTime;
+
+        private final boolean dateTime;
+
+        private final boolean utc;
+
+        private final java.util.TimeZone timezone;
+
+        private final long[] instants;
+
+        private final boolean exceeded;
+
+        /**
+         * @param recur    the recurrence rule, of which the rule parts are copied
+         * @param seed     the seed of the series
+         * @param instants the instants of the series, or null if not expanded
+         * @param expanded indicates whether expansion of the series was attempted
+         */
+        public Series(final Recur recur, final Date seed, final long[] instants, final boolean expanded) {
+            this.frequency = recur.getFrequency();
+            this.interval = recur.getInterval();
+            this.count = recur.getCount();
+            this.untilTime = recur.getUntil() != null ? recur.getUntil().getTime() : Long.MIN_VALUE;
+            this.untilDateTime = recur.getUntil() instanceof DateTime;
+            this.weekStartDay = recur.getWeekStartDay();
+            this.ruleParts = new ArrayList<List<?>>();
+            for (final List<?> rulePart : recur.getRuleParts()) {
+                ruleParts.add(new ArrayList<Object>(rulePart));
+            }
+            this.seedTime = seed.getTime();
+            this.dateTime = seed instanceof DateTime;
+            this.utc = dateTime && ((DateTime) seed).isUtc();
+            if (dateTime && ((DateTime) seed).getTimeZone() != null) {
+                this.timezone = ((DateTime) seed).getTimeZone();
+            } else if (dateTime && !utc) {
+                // floating date-times are expanded in the default timezone..
+                this.timezone = java.util.TimeZone.getDefault();
+            } else {
+                this.timezone = null;
+            }
+            this.instants = instants;
+            this.exceeded = expanded && instants == null;
+        }
+
+        /**
+         * @return true if this series has the same rule parts as the specified recurrence, and the specified seed
+         */
+        public boolean isSeries(final Recur recur, final Date seed) {
+            if (seedTime != seed.getTime() || dateTime != seed instanceof DateTime) {
+                return false;
+            }
+            if (dateTime) {
+                final DateTime seedDateTime = (DateTime) seed;
+                final java.util.TimeZone seedTimezone = seedDateTime.getTimeZone() != null
+                        ? seedDateTime.getTimeZone() : (seedDateTime.isUtc() ? null : java.util.TimeZone.getDefault());
+                if (utc != seedDateTime.isUtc() || !(timezone == seedTimezone
+                        || (timezone != null && timezone.equals(seedTimezone)))) {
+                    return false;
+                }
+            }
+            final Date until = recur.getUntil();
+            return interval == recur.getInterval() && count == recur.getCount()
+                    && untilTime == (until != null ? until.getTime() : Long.MIN_VALUE)
+                    && untilDateTime == until instanceof DateTime
+                    && (frequency == null ? recur.getFrequency() == null : frequency.equals(recur.getFrequency()))
+                    && weekStartDay == recur.getWeekStartDay()
+                    && ruleParts.equals(recur.getRuleParts());
+        }
+    }
 }
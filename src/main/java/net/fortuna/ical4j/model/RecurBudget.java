@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+/**
+ * $Id$
+ *
+ * Limits the cost of a single expansion of a recurrence rule via
+ * {@link Recur#getDates(Date, Date, Date, net.fortuna.ical4j.model.parameter.Value, RecurBudget)}. An expansion may
+ * be limited by the number of periods of the recurrence frequency evaluated (increments), the number of candidate
+ * dates generated from the BYxxx rule parts, and the elapsed time. A negative limit indicates no limit applies.
+ *
+ * The budget complements the global {@link Recur#KEY_MAX_INCREMENT_COUNT} limit, which continues to apply to
+ * consecutive increments that generate no candidates.
+ */
+public final class RecurBudget {
+
+    /**
+     * The limits of a budget.
+     */
+    public enum Limit {
+        /**
+         * The maximum number of increments.
+         */
+        INCREMENTS,
+
+        /**
+         * The maximum number of candidate dates.
+         */
+        CANDIDATES,
+
+        /**
+         * The maximum elapsed time.
+         */
+        TIME
+    }
+
+    private final long maxIncrements;
+
+    private final long maxCandidates;
+
+    private final long maxTimeMillis;
+
+    /**
+     * @param maxIncrements the maximum number of increments, or a negative value for no limit
+     * @param maxCandidates the maximum number of candidate dates, or a negative value for no limit
+     * @param maxTimeMillis the maximum elapsed time in milliseconds, or a negative value for no limit
+     */
+    public RecurBudget(final long maxIncrements, final long maxCandidates, final long maxTimeMillis) {
+        this.maxIncrements = maxIncrements;
+        this.maxCandidates = maxCandidates;
+        this.maxTimeMillis = maxTimeMillis;
+    }
+
+    /**
+     * @return the maximum number of increments, or a negative value for no limit
+     */
+    public long getMaxIncrements() {
+        return maxIncrements;
+    }
+
+    /**
+     * @return the maximum number of candidate dates, or a negative value for no limit
+     */
+    public long getMaxCandidates() {
+        return maxCandidates;
+    }
+
+    /**
+     * @return the maximum elapsed time in milliseconds, or a negative value for no limit
+     */
+    public long getMaxTimeMillis() {
+        return maxTimeMillis;
+    }
+
+    /**
+     * @param increments the number of increments of an expansion
+     * @param candidates the number of candidate dates generated by an expansion
+     * @param startNanos the start time of an expansion, as per {@link System#nanoTime()}
+     * @return the first limit exceeded by the specified expansion, or null if no limits are exceeded
+     */
+    Limit getExceededLimit(final long increments, final long candidates, final long startNanos) {
+        if (maxIncrements >= 0 && increments > maxIncrements) {
+            return Limit.INCREMENTS;
+        }
+        if (maxCandidates >= 0 && candidates > maxCandidates) {
+            return Limit.CANDIDATES;
+        }
+        if (maxTimeMillis >= 0 && (System.nanoTime() - startNanos) / 1000000 > maxTimeMillis) {
+            return Limit.TIME;
+        }
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "RecurBudget[maxIncrements=" + maxIncrements + ", maxCandidates=" + maxCandidates
+                + ", maxTimeMillis=" + maxTimeMillis + "]";
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+/**
+ * $Id$
+ *
+ * Indicates the expansion of a recurrence rule was abandoned as it exceeded a limit of its {@link RecurBudget}. The
+ * dates calculated prior to the limit being exceeded are available as a partial result.
+ */
+public class RecurBudgetExceededException extends CalendarException {
+
+    private static final long serialVersionUID = -4290347712284163187L;
+
+    private final RecurBudget.Limit limit;
+
+    private final DateList dates;
+
+    /**
+     * @param limit the exceeded limit
+     * @param dates the dates calculated prior to the limit being exceeded
+     */
+    public RecurBudgetExceededException(final RecurBudget.Limit limit, final DateList dates) {
+        super("Recurrence expansion exceeded limit: " + limit);
+        this.limit = limit;
+        this.dates = dates;
+    }
+
+    /**
+     * @return the exceeded limit
+     */
+    public final RecurBudget.Limit getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return the dates calculated prior to the limit being exceeded, in chronological order
+     */
+    public final DateList getDates() {
+        return dates;
+    }
+}
@@ -0,0 +1,490 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import net.fortuna.ical4j.model.parameter.Value;
+import net.fortuna.ical4j.util.Dates;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * $Id$
+ *
+ * A size-bounded, least recently used cache of recurrence expansions. Expansions are keyed by the recurrence rule,
+ * the seed date (including its timezone) and the type of dates generated, and hold the instants of the recurrence
+ * as a primitive array covering a window of time. Queries for a window already covered by a cached expansion are
+ * answered from the cache, whilst queries for a window overlapping or adjoining cached expansions extend them to
+ * cover all where the dates of the recurrence are independent of the window expanded (i.e. where the recurrence
+ * generates dates in chronological order). Otherwise the overlapping expansions are replaced.
+ *
+ * Up to {@value #MAX_WINDOWS} disjoint expansions are retained for each key, such that alternating between
+ * disjoint windows (e.g. paging back and forth) is answered from the cache. Beyond this the least recently added
+ * expansion of the key is discarded.
+ *
+ * The cache is bounded by both the number of expansions and the total number of dates retained.
+ *
+ * The cache is opt-in, and may be used in place of {@link Recur#getDates(Date, Date, Date, Value)} or passed to
+ * {@link Component#calculateRecurrenceSet(Period, RecurCache)}. Instances are thread-safe.
+ */
+public class RecurCache {
+
+    /**
+     * The maximum number of disjoint expansions retained for a recurrence.
+     */
+    public static final int MAX_WINDOWS = 8;
+
+    private static final Expansion[] NO_EXPANSIONS = new Expansion[0];
+
+    private static final int DEFAULT_MAXIMUM_DATES = 100000;
+
+    private final int maximumSize;
+
+    private final int maximumDates;
+
+    private final int maximumWindows;
+
+    private long dateCount;
+
+    private int expansionCount;
+
+    // the disjoint expansions of each key, in the order added..
+    private final Map<Key, Expansion[]> expansions;
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * @param maximumSize the maximum number of expansions retained by the cache
+     */
+    public RecurCache(final int maximumSize) {
+        this(maximumSize, DEFAULT_MAXIMUM_DATES);
+    }
+
+    /**
+     * @param maximumSize  the maximum number of expansions retained by the cache
+     * @param maximumDates the maximum total number of dates of the expansions retained by the cache
+     */
+    public RecurCache(final int maximumSize, final int maximumDates) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+        }
+        if (maximumDates < 1) {
+            throw new IllegalArgumentException("Maximum dates must be positive: " + maximumDates);
+        }
+        this.maximumSize = maximumSize;
+        this.maximumDates = maximumDates;
+        // a single key may not exceed the maximum size, as the most recently used key is not evicted..
+        this.maximumWindows = Math.min(MAX_WINDOWS, maximumSize);
+        this.expansions = new LinkedHashMap<Key, Expansion[]>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns the dates of the specified recurrence in the specified period, as per
+     * {@link Recur#getDates(Date, Period, Value)}.
+     *
+     * @param recur  a recurrence rule
+     * @param seed   the start date of the recurrence's first instance
+     * @param period the period of returned recurrence dates
+     * @param value  the type of dates to generate
+     * @return a list of dates
+     */
+    public DateList getDates(final Recur recur, final Date seed, final Period period, final Value value) {
+        return getDates(recur, seed, period.getStart(), period.getEnd(), value);
+    }
+
+    /**
+     * Returns the dates of the specified recurrence in the specified period, as per
+     * {@link Recur#getDates(Date, Date, Date, Value)}.
+     *
+     * @param recur       a recurrence rule
+     * @param seed        the start date of the recurrence's first instance
+     * @param periodStart the start of the period
+     * @param periodEnd   the end of the period
+     * @param value       the type of dates to generate
+     * @return a list of dates
+     */
+    public DateList getDates(final Recur recur, final Date seed, final Date periodStart,
+                             final Date periodEnd, final Value value) {
+
+        final Key key = new Key(recur.toString(), seed, value);
+        final long start = periodStart.getTime();
+        final long end = periodEnd.getTime();
+
+        Expansion[] windows;
+        synchronized (expansions) {
+            windows = expansions.get(key);
+        }
+        if (windows == null) {
+            windows = NO_EXPANSIONS;
+        }
+        for (final Expansion expansion : windows) {
+            if (expansion.covers(start, end)) {
+                hitCount.incrementAndGet();
+                return expansion.getDates(seed, value, start, end);
+            }
+        }
+        missCount.incrementAndGet();
+        final Expansion expansion = expand(recur, seed, value, windows, start, end);
+        put(key, windows, expansion);
+        return expansion.getDates(seed, value, start, end);
+    }
+
+    /**
+     * Adds the specified expansion to the disjoint expansions of a key, replacing any expansions it overlaps and
+     * evicting the least recently used keys as required to satisfy the limits of the cache. Expansions exceeding
+     * the maximum number of dates are not retained.
+     */
+    private void put(final Key key, final Expansion[] windows, final Expansion expansion) {
+        if (expansion.instants.length > maximumDates) {
+            return;
+        }
+        final List<Expansion> retained = new ArrayList<Expansion>(windows.length + 1);
+        for (final Expansion window : windows) {
+            if (!expansion.overlaps(window) && !expansion.covers(window.start, window.end)) {
+                retained.add(window);
+            }
+        }
+        if (retained.size() >= maximumWindows) {
+            retained.subList(0, retained.size() - maximumWindows + 1).clear();
+        }
+        retained.add(expansion);
+        final Expansion[] updated = retained.toArray(new Expansion[retained.size()]);
+
+        synchronized (expansions) {
+            final Expansion[] previous = expansions.put(key, updated);
+            if (previous != null) {
+                remove(previous);
+            }
+            add(updated);
+            // the most recently used key is last, and so is not evicted..
+            final Iterator<Expansion[]> eldest = expansions.values().iterator();
+            while (expansionCount > maximumSize || dateCount > maximumDates) {
+                final Expansion[] evicted = eldest.next();
+                eldest.remove();
+                remove(evicted);
+                evictionCount.addAndGet(evicted.length);
+            }
+        }
+    }
+
+    private void add(final Expansion[] windows) {
+        for (final Expansion window : windows) {
+            dateCount += window.instants.length;
+        }
+        expansionCount += windows.length;
+    }
+
+    private void remove(final Expansion[] windows) {
+        for (final Expansion window : windows) {
+            dateCount -= window.instants.length;
+        }
+        expansionCount -= windows.length;
+    }
+
+    /**
+     * Removes all expansions from the cache.
+     */
+    public void clear() {
+        synchronized (expansions) {
+            expansions.clear();
+            dateCount = 0;
+            expansionCount = 0;
+        }
+    }
+
+    /**
+     * @return the number of expansions currently cached
+     */
+    public int size() {
+        synchronized (expansions) {
+            return expansionCount;
+        }
+    }
+
+    /**
+     * @return the maximum number of expansions retained by the cache
+     */
+    public final int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * @return the maximum total number of dates of the expansions retained by the cache
+     */
+    public final int getMaximumDates() {
+        return maximumDates;
+    }
+
+    /**
+     * @return the total number of dates of the expansions currently cached
+     */
+    public long getDateCount() {
+        synchronized (expansions) {
+            return dateCount;
+        }
+    }
+
+    /**
+     * @return the number of queries answered entirely from the cache
+     */
+    public final long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @return the number of queries requiring (at least partial) expansion of a recurrence
+     */
+    public final long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * @return the number of expansions evicted from the cache due to the size or date limits
+     */
+    public final long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * Expands the recurrence for the specified window, reusing the instants of existing expansions where the
+     * windows overlap or adjoin, such that only the gaps between them are expanded. As the dates of a recurrence
+     * of which the candidates are not generated in order may depend on the window expanded, the instants of such
+     * recurrences are not reused.
+     */
+    private static Expansion expand(final Recur recur, final Date seed, final Value value,
+                                    final Expansion[] windows, final long start, final long end) {
+
+        if (!recur.isOrdered()) {
+            return new Expansion(start, end, getInstants(recur, seed, value, start, end));
+        }
+        final List<Expansion> adjoining = new ArrayList<Expansion>();
+        for (final Expansion window : windows) {
+            if (window.start <= end && window.end >= start) {
+                adjoining.add(window);
+            }
+        }
+        if (adjoining.isEmpty()) {
+            return new Expansion(start, end, getInstants(recur, seed, value, start, end));
+        }
+        // the windows of a key are disjoint, and so ordered by start are also ordered by end..
+        Collections.sort(adjoining, new Comparator<Expansion>() {
+            public int compare(final Expansion o1, final Expansion o2) {
+                return o1.start < o2.start ? -1 : (o1.start == o2.start ? 0 : 1);
+            }
+        });
+        final long mergedStart = Math.min(start, adjoining.get(0).start);
+        final long mergedEnd = Math.max(end, adjoining.get(adjoining.size() - 1).end);
+
+        final List<long[]> parts = new ArrayList<long[]>(adjoining.size() * 2 + 1);
+        long time = mergedStart;
+        for (final Expansion window : adjoining) {
+            if (time < window.start) {
+                parts.add(getInstants(recur, seed, value, time, window.start));
+            }
+            parts.add(window.instants);
+            time = window.end;
+        }
+        if (time < mergedEnd) {
+            parts.add(getInstants(recur, seed, value, time, mergedEnd));
+        }
+
+        int length = 0;
+        for (final long[] part : parts) {
+            length += part.length;
+        }
+        final long[] instants = new long[length];
+        int offset = 0;
+        for (final long[] part : parts) {
+            System.arraycopy(part, 0, instants, offset, part.length);
+            offset += part.length;
+        }
+        return new Expansion(mergedStart, mergedEnd, instants);
+    }
+
+    private static long[] getInstants(final Recur recur, final Date seed, final Value value,
+                                      final long start, final long end) {
+
+        final DateList dates = recur.getDates(seed, new DateTime(start), new DateTime(end), value);
+        final long[] instants = new long[dates.size()];
+        for (int i = 0; i < instants.length; i++) {
+            instants[i] = dates.get(i).getTime();
+        }
+        return instants;
+    }
+
+    /**
+     * The instants of a recurrence within the window [start, end).
+     */
+    private static class Expansion {
+
+        private final long start;
+
+        private final long end;
+
+        private final long[] instants;
+
+        public Expansion(final long start, final long end, final long[] instants) {
+            this.start = start;
+            this.end = end;
+            this.instants = instants;
+        }
+
+        public boolean covers(final long start, final long end) {
+            return start >= this.start && end <= this.end;
+        }
+
+        /**
+         * @return true if the windows of the expansions intersect
+         */
+        public boolean overlaps(final Expansion other) {
+            return start < other.end && end > other.start;
+        }
+
+        public DateList getDates(final Date seed, final Value value, final long start, final long end) {
+            final DateList dates = new DateList(value);
+            if (seed instanceof DateTime) {
+                if (((DateTime) seed).isUtc()) {
+                    dates.setUtc(true);
+                } else {
+                    dates.setTimeZone(((DateTime) seed).getTimeZone());
+                }
+            }
+            for (int i = indexOf(start); i < instants.length && instants[i] < end; i++) {
+                dates.add(Dates.getInstance(new java.util.Date(instants[i]), value));
+            }
+            return dates;
+        }
+
+        /**
+         * @return the index of the first instant at or after the specified time
+         */
+        private int indexOf(final long time) {
+            int low = 0;
+            int high = instants.length;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (instants[mid] < time) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * Identifies the expansions of a recurrence rule for a seed and date type.
+     */
+    private static class Key {
+
+        private final String rule;
+
+        private final long seedTime;
+
+        private final boolean dateTime;
+
+        private final boolean utc;
+
+        private final java.util.TimeZone timezone;
+
+        private final Value value;
+
+        public Key(final String rule, final Date seed, final Value value) {
+            this.rule = rule;
+            this.seedTime = seed.getTime();
+            this.dateTime = seed instanceof DateTime;
+            this.utc = dateTime && ((DateTime) seed).isUtc();
+            if (dateTime && ((DateTime) seed).getTimeZone() != null) {
+                this.timezone = ((DateTime) seed).getTimeZone();
+            } else if (dateTime && !utc) {
+                // floating date-times are expanded in the default timezone..
+                this.timezone = java.util.TimeZone.getDefault();
+            } else {
+                this.timezone = null;
+            }
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return seedTime == key.seedTime && dateTime == key.dateTime && utc == key.utc
+                    && rule.equals(key.rule)
+                    && isEquivalent(timezone, key.timezone)
+                    && (value == key.value || (value != null && value.equals(key.value)));
+        }
+
+        /**
+         * Compares timezones without a full comparison of the definitions of iCalendar timezones, which would
+         * otherwise dominate the cost of a lookup.
+         */
+        private static boolean isEquivalent(final java.util.TimeZone tz1, final java.util.TimeZone tz2) {
+            if (tz1 == tz2) {
+                return true;
+            }
+            if (tz1 == null || tz2 == null) {
+                return false;
+            }
+            if (tz1 instanceof TimeZone && tz2 instanceof TimeZone) {
+                return tz1.getID().equals(tz2.getID())
+                        && ((TimeZone) tz1).getFingerprint().equals(((TimeZone) tz2).getFingerprint());
+            }
+            return tz1.equals(tz2);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = rule.hashCode();
+            result = 31 * result + (int) (seedTime ^ (seedTime >>> 32));
+            result = 31 * result + (timezone != null ? timezone.getID().hashCode() : 0);
+            result = 31 * result + (utc ? 1 : 0);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,386 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import net.fortuna.ical4j.model.parameter.Value;
+import net.fortuna.ical4j.util.Dates;
+import net.fortuna.ical4j.util.EpochDays;
+import net.fortuna.ical4j.util.TimeZones;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.List;
+
+/**
+ * $Id$
+ *
+ * A compiled form of a {@link Recur} that generates the candidate dates of a single recurrence period without the
+ * intermediate date lists and calendar instances used by the general BYxxx expansion. The BYDAY, BYMONTHDAY,
+ * BYHOUR, BYMINUTE, BYSECOND and BYSETPOS rule parts are reduced to weekday bitmasks and offset tables when the plan
+ * is compiled, and candidates are then selected with epoch day arithmetic into a reusable buffer of epoch
+ * milliseconds.
+ *
+ * Only DAILY, WEEKLY and MONTHLY rules without BYMONTH, BYWEEKNO or BYYEARDAY parts are compiled, which covers
+ * the majority of rules found in practice. A plan is not thread-safe and is intended to be used for the duration
+ * of a single expansion.
+ */
+final class RecurPlan {
+
+    private static final int MIN_YEAR = 1600;
+
+    private static final int[] NONE = new int[0];
+
+    private final int frequency;
+
+    private final int weekStartDay;
+
+    private final int[] monthDays;
+
+    private final boolean byDay;
+
+    // weekdays (as bits indexed by java.util.Calendar day) applicable to a DAILY or WEEKLY period..
+    private final int periodDayMask;
+
+    // weekdays applicable as a filter of BYMONTHDAY candidates..
+    private final int filterDayMask;
+
+    // weekdays and offsets applicable to a MONTHLY period..
+    private final int[] monthlyDays;
+
+    private final int[] monthlyOffsets;
+
+    private final int[] hours;
+
+    private final int[] minutes;
+
+    private final int[] seconds;
+
+    private final int[] setPositions;
+
+    private long[] buffer = new long[16];
+
+    private int size;
+
+    private GregorianCalendar calendar;
+
+    private java.util.TimeZone zone;
+
+    private boolean utc;
+
+    // local time fields of the current period..
+    private int periodYear;
+
+    private int periodMonth;
+
+    private int periodDayOfMonth;
+
+    private int periodHour;
+
+    private int periodMinute;
+
+    private int periodSecond;
+
+    private int periodMillis;
+
+    private RecurPlan(final Recur recur, final int frequency, final int weekStartDay) {
+        this.frequency = frequency;
+        this.weekStartDay = weekStartDay;
+        this.monthDays = toArray(recur.getMonthDayList());
+        this.byDay = !recur.getDayList().isEmpty();
+
+        int periodMask = 0;
+        int filterMask = 0;
+        final int[] days = new int[recur.getDayList().size()];
+        final int[] offsets = new int[days.length];
+        for (int i = 0; i < days.length; i++) {
+            final WeekDay weekDay = recur.getDayList().get(i);
+            days[i] = WeekDay.getCalendarDay(weekDay);
+            offsets[i] = weekDay.getOffset();
+            // a period of a single day can only satisfy the first or last occurrence..
+            if (Math.abs(weekDay.getOffset()) <= 1) {
+                periodMask |= 1 << days[i];
+            }
+            if (weekDay.getOffset() == 0) {
+                filterMask |= 1 << days[i];
+            }
+        }
+        this.periodDayMask = periodMask;
+        this.filterDayMask = filterMask;
+        this.monthlyDays = days;
+        this.monthlyOffsets = offsets;
+
+        this.hours = recur.getHourList().isEmpty() ? null : toArray(recur.getHourList());
+        this.minutes = recur.getMinuteList().isEmpty() ? null : toArray(recur.getMinuteList());
+        this.seconds = recur.getSecondList().isEmpty() ? null : toArray(recur.getSecondList());
+        this.setPositions = toArray(recur.getSetPosList());
+    }
+
+    /**
+     * @param recur        the recurrence rule to compile
+     * @param weekStartDay the first day of the week (as per java.util.Calendar)
+     * @param value        the type of dates to generate
+     * @return a compiled plan, or null if the rule cannot be compiled
+     */
+    static RecurPlan compile(final Recur recur, final int weekStartDay, final Value value) {
+        final int frequency;
+        if (Recur.DAILY.equals(recur.getFrequency())) {
+            frequency = Calendar.DAY_OF_YEAR;
+        } else if (Recur.WEEKLY.equals(recur.getFrequency())) {
+            frequency = Calendar.WEEK_OF_YEAR;
+        } else if (Recur.MONTHLY.equals(recur.getFrequency())) {
+            frequency = Calendar.MONTH;
+        } else {
+            return null;
+        }
+        if (!recur.getMonthList().isEmpty() || !recur.getWeekNoList().isEmpty()
+                || !recur.getYearDayList().isEmpty()) {
+            return null;
+        }
+        // time of day variants are not meaningful for dates..
+        if (Value.DATE.equals(value) && (!recur.getHourList().isEmpty() || !recur.getMinuteList().isEmpty()
+                || !recur.getSecondList().isEmpty())) {
+            return null;
+        }
+        // duplicate rule parts produce duplicate candidates in the general expansion..
+        if (hasDuplicates(recur.getMonthDayList()) || hasDuplicates(recur.getHourList())
+                || hasDuplicates(recur.getMinuteList()) || hasDuplicates(recur.getSecondList())
+                || hasDuplicates(recur.getSetPosList())) {
+            return null;
+        }
+        int dayMask = 0;
+        for (final WeekDay weekDay : recur.getDayList()) {
+            final int calDay = WeekDay.getCalendarDay(weekDay);
+            if (calDay == -1 || (dayMask & (1 << calDay)) != 0) {
+                return null;
+            }
+            dayMask |= 1 << calDay;
+        }
+        return new RecurPlan(recur, frequency, weekStartDay);
+    }
+
+    /**
+     * Returns the candidate dates for the recurrence period starting at the specified date, equivalent to
+     * the general BYxxx expansion of the period.
+     *
+     * @param date  the start of a recurrence period
+     * @param value the type of dates to generate
+     * @return a list of candidate dates in chronological order, or null if the period cannot be expanded
+     * with this plan (e.g. where the applicable calendar is not gregorian)
+     */
+    DateList getCandidates(final Date date, final Value value) {
+        final GregorianCalendar cal = getCalendar(date);
+        if (cal == null) {
+            return null;
+        }
+        cal.setTimeInMillis(date.getTime());
+        final int year = cal.get(Calendar.YEAR);
+        if (year < MIN_YEAR) {
+            return null;
+        }
+        final int month = cal.get(Calendar.MONTH) + 1;
+        final int dayOfMonth = cal.get(Calendar.DAY_OF_MONTH);
+        periodYear = year;
+        periodMonth = month - 1;
+        periodDayOfMonth = dayOfMonth;
+        periodHour = cal.get(Calendar.HOUR_OF_DAY);
+        periodMinute = cal.get(Calendar.MINUTE);
+        periodSecond = cal.get(Calendar.SECOND);
+        periodMillis = cal.get(Calendar.MILLISECOND);
+        final long epochDay = EpochDays.toEpochDay(year, month, dayOfMonth);
+
+        size = 0;
+        if (monthDays.length > 0) {
+            final int monthLength = EpochDays.getMonthLength(year, month);
+            for (final int monthDay : monthDays) {
+                final int day = monthDay > 0 ? monthDay : monthLength + monthDay + 1;
+                if (day < 1 || day > monthLength) {
+                    continue;
+                }
+                final long candidateDay = epochDay - dayOfMonth + day;
+                if (!byDay || (filterDayMask & (1 << EpochDays.getDayOfWeek(candidateDay))) != 0) {
+                    addTimes(cal, candidateDay - epochDay);
+                }
+            }
+        } else if (!byDay) {
+            addTimes(cal, 0);
+        } else if (frequency == Calendar.DAY_OF_YEAR) {
+            if ((periodDayMask & (1 << EpochDays.getDayOfWeek(epochDay))) != 0) {
+                addTimes(cal, 0);
+            }
+        } else if (frequency == Calendar.WEEK_OF_YEAR) {
+            final long weekStart = EpochDays.getWeekStart(epochDay, weekStartDay);
+            for (int i = 0; i < 7; i++) {
+                if ((periodDayMask & (1 << EpochDays.getDayOfWeek(weekStart + i))) != 0) {
+                    addTimes(cal, weekStart + i - epochDay);
+                }
+            }
+        } else {
+            final long monthStart = epochDay - dayOfMonth + 1;
+            final long monthEnd = monthStart + EpochDays.getMonthLength(year, month) - 1;
+            for (int i = 0; i < monthlyDays.length; i++) {
+                final long first = monthStart
+                        + EpochDays.getDayOfWeekIndex(monthlyDays[i], EpochDays.getDayOfWeek(monthStart));
+                final int occurrences = (int) ((monthEnd - first) / 7) + 1;
+                final int offset = monthlyOffsets[i];
+                if (offset == 0) {
+                    for (int j = 0; j < occurrences; j++) {
+                        addTimes(cal, first + j * 7 - epochDay);
+                    }
+                } else if (offset > 0 && offset <= occurrences) {
+                    addTimes(cal, first + (offset - 1) * 7 - epochDay);
+                } else if (offset < 0 && offset >= -occurrences) {
+                    addTimes(cal, first + (occurrences + offset) * 7 - epochDay);
+                }
+            }
+        }
+        Arrays.sort(buffer, 0, size);
+
+        final DateList dates = new DateList(value);
+        if (date instanceof DateTime) {
+            if (((DateTime) date).isUtc()) {
+                dates.setUtc(true);
+            } else {
+                dates.setTimeZone(((DateTime) date).getTimeZone());
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if (isSetPosition(i)) {
+                dates.add(Dates.getInstance(new java.util.Date(buffer[i]), value));
+            }
+        }
+        return dates;
+    }
+
+    /**
+     * Adds the time of day variants of the specified day to the candidate buffer.
+     * @param cal a calendar in the timezone of the period
+     * @param days the number of days between the period start and the candidate day
+     */
+    private void addTimes(final GregorianCalendar cal, final long days) {
+        final int dayOfMonth = periodDayOfMonth + (int) days;
+        final long epochDay = EpochDays.toEpochDay(periodYear, periodMonth + 1, 1) + dayOfMonth - 1;
+        final int hourCount = hours != null ? hours.length : 1;
+        final int minuteCount = minutes != null ? minutes.length : 1;
+        final int secondCount = seconds != null ? seconds.length : 1;
+        for (int h = 0; h < hourCount; h++) {
+            final int hour = hours != null ? hours[h] : periodHour;
+            for (int m = 0; m < minuteCount; m++) {
+                final int minute = minutes != null ? minutes[m] : periodMinute;
+                for (int s = 0; s < secondCount; s++) {
+                    final int second = seconds != null ? seconds[s] : periodSecond;
+                    if (utc) {
+                        add(epochDay * Dates.MILLIS_PER_DAY + hour * Dates.MILLIS_PER_HOUR
+                                + minute * Dates.MILLIS_PER_MINUTE + second * Dates.MILLIS_PER_SECOND
+                                + periodMillis);
+                    } else {
+                        // resolve local time (including daylight savings transitions) as per the general expansion..
+                        cal.set(periodYear, periodMonth, dayOfMonth, hour, minute, second);
+                        cal.set(Calendar.MILLISECOND, periodMillis);
+                        add(cal.getTimeInMillis());
+                    }
+                }
+            }
+        }
+    }
+
+    private void add(final long time) {
+        if (size == buffer.length) {
+            buffer = Arrays.copyOf(buffer, size * 2);
+        }
+        buffer[size++] = time;
+    }
+
+    private boolean isSetPosition(final int index) {
+        if (setPositions.length == 0) {
+            return true;
+        }
+        for (final int setPos : setPositions) {
+            if (setPos == index + 1 || setPos == index - size) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param date a date
+     * @return a reusable gregorian calendar in the timezone applicable to the specified date, or null if
+     * the applicable calendar is not gregorian
+     */
+    private GregorianCalendar getCalendar(final Date date) {
+        final java.util.TimeZone dateZone;
+        if (date instanceof DateTime) {
+            final DateTime dateTime = (DateTime) date;
+            if (dateTime.getTimeZone() != null) {
+                dateZone = dateTime.getTimeZone();
+            } else if (dateTime.isUtc()) {
+                dateZone = TimeZones.getUtcTimeZone();
+            } else {
+                dateZone = java.util.TimeZone.getDefault();
+            }
+        } else {
+            dateZone = TimeZones.getDateTimeZone();
+        }
+        if (calendar == null || !dateZone.equals(zone)) {
+            final Calendar cal = Calendar.getInstance(dateZone);
+            if (cal.getClass() != GregorianCalendar.class) {
+                return null;
+            }
+            calendar = (GregorianCalendar) cal;
+            calendar.setLenient(true);
+            zone = dateZone;
+            utc = TimeZones.isUtc(dateZone);
+        }
+        return calendar;
+    }
+
+    private static int[] toArray(final List<Integer> list) {
+        if (list.isEmpty()) {
+            return NONE;
+        }
+        final int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    private static boolean hasDuplicates(final List<Integer> list) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.indexOf(list.get(i)) != i) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,327 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import net.fortuna.ical4j.model.parameter.Range;
+import net.fortuna.ical4j.model.property.DateProperty;
+import net.fortuna.ical4j.model.property.DtStart;
+import net.fortuna.ical4j.model.property.Duration;
+import net.fortuna.ical4j.model.property.RecurrenceId;
+import net.fortuna.ical4j.util.Dates;
+
+/**
+ * $Id$
+ *
+ * Resolves the effective instances of recurring components, where instances of a recurring (master) component
+ * are overridden by components with the same UID and a RECURRENCE-ID property. Components are grouped by UID, and
+ * overrides indexed by the time of their RECURRENCE-ID, once on construction such that resolving instances for a
+ * period requires a single expansion of each master component.
+ *
+ * An override replaces the master instance that starts at the time of its RECURRENCE-ID, and occurs in the period
+ * defined by its own DTSTART and DTEND (or DURATION). An override with a RECURRENCE-ID range of THISANDFUTURE also
+ * applies to all subsequent master instances (up to the next such override), which are offset by the difference
+ * between the override DTSTART and RECURRENCE-ID and take the duration of the override.
+ *
+ * Resolution doesn't copy any components: the component of an instance is either the master or the applicable
+ * override, and the period of the instance is the effective period of the occurrence. Note that the components
+ * should not be modified whilst in use by a resolver.
+ *
+ * @param <T> the component type
+ */
+public class RecurrenceOverrideResolver<T extends Component> {
+
+    private final List<Series<T>> series;
+
+    private final Map<String, Series<T>> seriesByUid;
+
+    /**
+     * @param components a list of components, including any overrides
+     */
+    public RecurrenceOverrideResolver(final List<T> components) {
+        series = new ArrayList<Series<T>>();
+        seriesByUid = new LinkedHashMap<String, Series<T>>();
+
+        // group components by UID, where components with no UID are considered independently..
+        for (final T component : components) {
+            final Property uid = component.getProperty(Property.UID);
+            final RecurrenceId recurrenceId = (RecurrenceId) component.getProperty(Property.RECURRENCE_ID);
+            Series<T> s = uid != null ? seriesByUid.get(uid.getValue()) : null;
+            if (s == null) {
+                s = new Series<T>(null);
+                if (uid != null) {
+                    seriesByUid.put(uid.getValue(), s);
+                }
+                series.add(s);
+            }
+            if (recurrenceId != null) {
+                s.addOverride(component, recurrenceId);
+            } else if (s.master == null) {
+                s.master = component;
+            } else {
+                // additional components with the same UID and no RECURRENCE-ID are resolved independently..
+                series.add(new Series<T>(component));
+            }
+        }
+    }
+
+    /**
+     * Returns the effective instances of all components that intersect the specified period.
+     *
+     * @param period a range to resolve instances for
+     * @return a list of instances in chronological order. Instances with the same period are ordered by the first
+     * appearance of their UID in the components of this resolver
+     */
+    public final List<Instance<T>> resolve(final Period period) {
+        final List<Instance<T>> instances = new ArrayList<Instance<T>>();
+        for (final Series<T> s : series) {
+            s.resolve(period, instances);
+        }
+        // stable sort retains series order for equal periods..
+        Collections.sort(instances, new InstanceComparator<T>());
+        return instances;
+    }
+
+    /**
+     * Returns the effective instances of the components with the specified UID that intersect the specified period.
+     *
+     * @param uid    a component UID
+     * @param period a range to resolve instances for
+     * @return a list of instances in chronological order, or an empty list if no components have the specified UID
+     */
+    public final List<Instance<T>> resolve(final String uid, final Period period) {
+        final List<Instance<T>> instances = new ArrayList<Instance<T>>();
+        final Series<T> s = seriesByUid.get(uid);
+        if (s != null) {
+            s.resolve(period, instances);
+            Collections.sort(instances, new InstanceComparator<T>());
+        }
+        return instances;
+    }
+
+    /**
+     * Returns the period of the single instance defined by the DTSTART and DTEND (or DUE or DURATION) properties of
+     * a component, as per the initial instance of {@link Component#calculateRecurrenceSet(Period)}.
+     */
+    private static Period getStartPeriod(final Component component) {
+        final DtStart start = (DtStart) component.getProperty(Property.DTSTART);
+        if (start == null) {
+            return null;
+        }
+        DateProperty end = (DateProperty) component.getProperty(Property.DTEND);
+        if (end == null) {
+            end = (DateProperty) component.getProperty(Property.DUE);
+        }
+        final Duration duration = (Duration) component.getProperty(Property.DURATION);
+        if (end != null) {
+            return new Period(new DateTime(start.getDate()), new DateTime(end.getDate()));
+        } else if (duration != null) {
+            return new Period(new DateTime(start.getDate()), duration.getDuration());
+        }
+        return new Period(new DateTime(start.getDate()), new Dur(start.getDate(), start.getDate()));
+    }
+
+    /**
+     * A single effective instance of a component.
+     *
+     * @param <T> the component type
+     */
+    public static final class Instance<T extends Component> {
+
+        private final T component;
+
+        private final Period period;
+
+        private final Date recurrenceId;
+
+        private final boolean overridden;
+
+        Instance(final T component, final Period period, final Date recurrenceId, final boolean overridden) {
+            this.component = component;
+            this.period = period;
+            this.recurrenceId = recurrenceId;
+            this.overridden = overridden;
+        }
+
+        /**
+         * @return the master component, or the override applicable to this instance
+         */
+        public T getComponent() {
+            return component;
+        }
+
+        /**
+         * @return the effective period of the instance
+         */
+        public Period getPeriod() {
+            return period;
+        }
+
+        /**
+         * @return the start of the instance as defined by the master component, that is the RECURRENCE-ID of the
+         * instance. For overrides with no master component this is the RECURRENCE-ID of the override
+         */
+        public Date getRecurrenceId() {
+            return recurrenceId;
+        }
+
+        /**
+         * @return true if the instance is defined by an override, otherwise false
+         */
+        public boolean isOverridden() {
+            return overridden;
+        }
+    }
+
+    /**
+     * A master component and its overrides.
+     */
+    private static class Series<T extends Component> {
+
+        private T master;
+
+        /**
+         * All overrides indexed by RECURRENCE-ID time.
+         */
+        private final Map<Long, RecurrenceOverride<T>> overrides = new LinkedHashMap<Long, RecurrenceOverride<T>>();
+
+        /**
+         * Overrides with a range of THISANDFUTURE indexed by RECURRENCE-ID time.
+         */
+        private final TreeMap<Long, RecurrenceOverride<T>> rangeOverrides = new TreeMap<Long, RecurrenceOverride<T>>();
+
+        /**
+         * The maximum extent of instances offset by range overrides, beyond the instances of the master.
+         */
+        private long rangeExtent;
+
+        public Series(final T master) {
+            this.master = master;
+        }
+
+        public void addOverride(final T component, final RecurrenceId recurrenceId) {
+            final Period startPeriod = getStartPeriod(component);
+            if (startPeriod == null) {
+                return;
+            }
+            final RecurrenceOverride<T> override = new RecurrenceOverride<T>(component, recurrenceId.getDate(), startPeriod);
+            overrides.put(recurrenceId.getDate().getTime(), override);
+            if (Range.THISANDFUTURE.equals(recurrenceId.getParameter(Parameter.RANGE))) {
+                rangeOverrides.put(recurrenceId.getDate().getTime(), override);
+                rangeExtent = Math.max(rangeExtent, Math.abs(startPeriod.getStart().getTime()
+                        - recurrenceId.getDate().getTime()) + startPeriod.getEnd().getTime()
+                        - startPeriod.getStart().getTime() + Dates.MILLIS_PER_DAY);
+            }
+        }
+
+        public void resolve(final Period period, final List<Instance<T>> instances) {
+            // overrides occur in their own period..
+            for (final RecurrenceOverride<T> override : overrides.values()) {
+                if (period.intersects(override.period)) {
+                    instances.add(new Instance<T>(override.component, override.period, override.recurrenceId,
+                            true));
+                }
+            }
+            if (master == null) {
+                return;
+            }
+
+            // widen the master expansion for instances offset into the period by a range override..
+            final Period expansion;
+            if (rangeOverrides.isEmpty()) {
+                expansion = period;
+            } else {
+                expansion = new Period(new DateTime(period.getStart().getTime() - rangeExtent),
+                        new DateTime(period.getEnd().getTime() + rangeExtent));
+            }
+
+            for (final Iterator<Period> i = master.recurrenceSetIterator(expansion); i.hasNext();) {
+                final Period instance = i.next();
+                final long recurrenceStart = instance.getStart().getTime();
+                if (overrides.containsKey(recurrenceStart)) {
+                    continue;
+                }
+                final Map.Entry<Long, RecurrenceOverride<T>> range = rangeOverrides.floorEntry(recurrenceStart);
+                if (range == null) {
+                    if (expansion == period || period.intersects(instance)) {
+                        instances.add(new Instance<T>(master, instance, instance.getStart(), false));
+                    }
+                } else {
+                    final RecurrenceOverride<T> override = range.getValue();
+                    final DateTime start = new DateTime(instance.getStart());
+                    start.setTime(EpochDateTime.from(start).plus(override.offset).getTime());
+                    final Period offsetInstance = new Period(start, override.duration);
+                    if (period.intersects(offsetInstance)) {
+                        instances.add(new Instance<T>(override.component, offsetInstance, instance.getStart(),
+                                true));
+                    }
+                }
+            }
+        }
+    }
+
+    private static class RecurrenceOverride<T extends Component> {
+
+        private final T component;
+
+        private final Date recurrenceId;
+
+        private final Period period;
+
+        private final Dur offset;
+
+        private final Dur duration;
+
+        public RecurrenceOverride(final T component, final Date recurrenceId, final Period period) {
+            this.component = component;
+            this.recurrenceId = recurrenceId;
+            this.period = period;
+            this.offset = new Dur(recurrenceId, period.getStart());
+            this.duration = period.getDuration();
+        }
+    }
+
+    private static class InstanceComparator<T extends Component> implements Comparator<Instance<T>> {
+
+        public int compare(final Instance<T> o1, final Instance<T> o2) {
+            return o1.period.compareTo(o2.period);
+        }
+    }
+}
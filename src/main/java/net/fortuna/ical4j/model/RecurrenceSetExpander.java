@@ -0,0 +1,252 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * $Id$
+ *
+ * Calculates the recurrence sets of many components concurrently. Components are partitioned into batches which
+ * are expanded as per {@link Component#calculateRecurrenceSet(Period, RecurCache)} on the specified executor,
+ * with results available either per component or as a single chronological sequence of occurrences.
+ *
+ * The executor is supplied (and managed) by the caller, allowing expansion to share an existing thread pool such
+ * as a <code>ForkJoinPool</code>. An optional {@link RecurCache} may be shared between the expansion threads.
+ * Note that a component should not be expanded concurrently with modification of its properties.
+ */
+public class RecurrenceSetExpander {
+
+    private static final int BATCHES_PER_PROCESSOR = 4;
+
+    private final ExecutorService executor;
+
+    private final RecurCache cache;
+
+    /**
+     * @param executor the executor used to expand components
+     */
+    public RecurrenceSetExpander(final ExecutorService executor) {
+        this(executor, null);
+    }
+
+    /**
+     * @param executor the executor used to expand components
+     * @param cache    a cache of recurrence expansions, or null to expand rules directly
+     */
+    public RecurrenceSetExpander(final ExecutorService executor, final RecurCache cache) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor must not be null");
+        }
+        this.executor = executor;
+        this.cache = cache;
+    }
+
+    /**
+     * Calculates the recurrence set of each of the specified components in the specified period.
+     *
+     * @param components a list of components to expand
+     * @param period     a range to calculate recurrences for
+     * @param <T>        the component type
+     * @return a list of recurrence sets, in the same order as the specified components
+     * @throws InterruptedException if interrupted whilst waiting for expansion to complete
+     */
+    public <T extends Component> List<PeriodList> expand(final List<T> components, final Period period)
+            throws InterruptedException {
+
+        final PeriodList[] recurrenceSets = new PeriodList[components.size()];
+        final int batchSize = getBatchSize(components.size());
+
+        final List<Future<?>> batches = new ArrayList<Future<?>>();
+        try {
+            for (int i = 0; i < components.size(); i += batchSize) {
+                final int from = i;
+                final int to = Math.min(i + batchSize, components.size());
+                batches.add(executor.submit(new Callable<Void>() {
+                    public Void call() {
+                        for (int j = from; j < to; j++) {
+                            recurrenceSets[j] = components.get(j).calculateRecurrenceSet(period, cache);
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (final Future<?> batch : batches) {
+                batch.get();
+            }
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            // abandon any outstanding batches on failure..
+            for (final Future<?> batch : batches) {
+                batch.cancel(true);
+            }
+        }
+
+        final List<PeriodList> result = new ArrayList<PeriodList>(recurrenceSets.length);
+        Collections.addAll(result, recurrenceSets);
+        return result;
+    }
+
+    /**
+     * Calculates the recurrence sets of the specified components in the specified period, returning an iterator
+     * over all occurrences in chronological order. Occurrences with the same period are returned in the order of
+     * their components.
+     *
+     * @param components a list of components to expand
+     * @param period     a range to calculate recurrences for
+     * @param <T>        the component type
+     * @return an iterator over the occurrences of all components
+     * @throws InterruptedException if interrupted whilst waiting for expansion to complete
+     */
+    public <T extends Component> Iterator<Occurrence<T>> expandMerged(final List<T> components,
+                                                                     final Period period)
+            throws InterruptedException {
+
+        final List<PeriodList> recurrenceSets = expand(components, period);
+        final PriorityQueue<Cursor<T>> cursors = new PriorityQueue<Cursor<T>>(
+                Math.max(1, components.size()), new CursorComparator<T>());
+        for (int i = 0; i < components.size(); i++) {
+            final Cursor<T> cursor = new Cursor<T>(i, components.get(i), recurrenceSets.get(i).iterator());
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+        }
+
+        return new Iterator<Occurrence<T>>() {
+            public boolean hasNext() {
+                return !cursors.isEmpty();
+            }
+
+            public Occurrence<T> next() {
+                final Cursor<T> cursor = cursors.poll();
+                if (cursor == null) {
+                    throw new NoSuchElementException();
+                }
+                final Occurrence<T> occurrence = new Occurrence<T>(cursor.component, cursor.head);
+                if (cursor.advance()) {
+                    cursors.add(cursor);
+                }
+                return occurrence;
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private static int getBatchSize(final int componentCount) {
+        final int batches = Runtime.getRuntime().availableProcessors() * BATCHES_PER_PROCESSOR;
+        return Math.max(1, (componentCount + batches - 1) / batches);
+    }
+
+    /**
+     * A single occurrence of a component.
+     *
+     * @param <T> the component type
+     */
+    public static final class Occurrence<T extends Component> {
+
+        private final T component;
+
+        private final Period period;
+
+        Occurrence(final T component, final Period period) {
+            this.component = component;
+            this.period = period;
+        }
+
+        /**
+         * @return the component that occurs
+         */
+        public T getComponent() {
+            return component;
+        }
+
+        /**
+         * @return the period of the occurrence
+         */
+        public Period getPeriod() {
+            return period;
+        }
+    }
+
+    private static class Cursor<T extends Component> {
+
+        private final int index;
+
+        private final T component;
+
+        private final Iterator<Period> periods;
+
+        private Period head;
+
+        public Cursor(final int index, final T component, final Iterator<Period> periods) {
+            this.index = index;
+            this.component = component;
+            this.periods = periods;
+        }
+
+        public boolean advance() {
+            head = periods.hasNext() ? periods.next() : null;
+            return head != null;
+        }
+    }
+
+    private static class CursorComparator<T extends Component> implements Comparator<Cursor<T>> {
+
+        public int compare(final Cursor<T> o1, final Cursor<T> o2) {
+            final int result = o1.head.compareTo(o2.head);
+            if (result == 0) {
+                return o1.index - o2.index;
+            }
+            return result;
+        }
+    }
+}
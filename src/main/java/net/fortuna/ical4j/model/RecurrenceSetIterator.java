@@ -0,0 +1,369 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import net.fortuna.ical4j.model.parameter.Value;
+import net.fortuna.ical4j.model.property.DateProperty;
+import net.fortuna.ical4j.model.property.DtStart;
+import net.fortuna.ical4j.model.property.Duration;
+import net.fortuna.ical4j.model.property.ExDate;
+import net.fortuna.ical4j.model.property.ExRule;
+import net.fortuna.ical4j.model.property.RDate;
+import net.fortuna.ical4j.model.property.RRule;
+import net.fortuna.ical4j.util.TimeZones;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * $Id$
+ *
+ * Iterates over the recurrence set of a component in chronological order, as per
+ * {@link Component#calculateRecurrenceSet(Period)}. Recurrence rules are expanded lazily and merged with the
+ * recurrence dates (and initial instance) as the iterator is advanced, and exception rules are likewise expanded
+ * only as far as required to filter the merged instances. As such a caller may stop iterating at any point
+ * without the cost of expanding the full recurrence set.
+ */
+final class RecurrenceSetIterator implements Iterator<Period> {
+
+    /**
+     * Orders sources by their next period. Where periods are equal the source added first takes precedence, such
+     * that the retained instance is the same as for {@link Component#calculateRecurrenceSet(Period)}.
+     */
+    private static final Comparator<PeriodSource> HEAD_ORDER = new Comparator<PeriodSource>() {
+        public int compare(final PeriodSource o1, final PeriodSource o2) {
+            final int result = o1.head.compareTo(o2.head);
+            if (result == 0) {
+                return o1.index - o2.index;
+            }
+            return result;
+        }
+    };
+
+    private final PriorityQueue<PeriodSource> sources = new PriorityQueue<PeriodSource>(4, HEAD_ORDER);
+
+    private int sourceCount;
+
+    private final Set<Long> exclusions = new HashSet<Long>();
+
+    private final List<ExclusionCursor> exclusionCursors = new ArrayList<ExclusionCursor>();
+
+    private final java.util.TimeZone dateTimeZone = TimeZones.getDateTimeZone();
+
+    private boolean utc = true;
+
+    private TimeZone timezone;
+
+    private Period last;
+
+    private Period next;
+
+    /**
+     * @param component a component with recurrence properties
+     * @param period    the range of the recurrence set
+     */
+    RecurrenceSetIterator(final Component component, final Period period) {
+        final DtStart start = (DtStart) component.getProperty(Property.DTSTART);
+        DateProperty end = (DateProperty) component.getProperty(Property.DTEND);
+        if (end == null) {
+            end = (DateProperty) component.getProperty(Property.DUE);
+        }
+        Duration duration = (Duration) component.getProperty(Property.DURATION);
+
+        // if no start date specified the recurrence set is empty..
+        if (start == null) {
+            return;
+        }
+
+        // initialise timezone..
+        if (start.isUtc()) {
+            utc = true;
+        } else if (start.getDate() instanceof DateTime) {
+            utc = false;
+            timezone = ((DateTime) start.getDate()).getTimeZone();
+        }
+
+        // if an explicit event duration is not specified, derive a value for recurring
+        // periods from the end date..
+        final Dur rDuration;
+        if (end == null && duration == null) {
+            rDuration = new Dur(start.getDate(), start.getDate());
+        } else if (duration == null) {
+            rDuration = new Dur(start.getDate(), end.getDate());
+        } else {
+            rDuration = duration.getDuration();
+        }
+
+        // recurrence dates..
+        final List<Period> periods = new ArrayList<Period>();
+        for (final Property property : component.getProperties(Property.RDATE)) {
+            final RDate rdate = (RDate) property;
+            final Value rdateValue = (Value) rdate.getParameter(Parameter.VALUE);
+            if (Value.PERIOD.equals(rdateValue)) {
+                for (final Period rdatePeriod : rdate.getPeriods()) {
+                    if (period.intersects(rdatePeriod)) {
+                        periods.add(new Period(rdatePeriod));
+                    }
+                }
+            } else if (Value.DATE_TIME.equals(rdateValue)) {
+                for (final Date rdateTime : rdate.getDates()) {
+                    if (period.includes(rdateTime)) {
+                        periods.add(new Period(new DateTime(rdateTime), rDuration));
+                    }
+                }
+            } else {
+                for (final Date rdateDate : rdate.getDates()) {
+                    if (period.includes(rdateDate)) {
+                        periods.add(new Period(new DateTime(rdateDate), rDuration));
+                    }
+                }
+            }
+        }
+        Collections.sort(periods);
+        addSource(new ListSource(periods.iterator()));
+
+        // allow for recurrence rules that start prior to the specified period
+        // but still intersect with it..
+        final DateTime startMinusDuration = new DateTime(period.getStart());
+        startMinusDuration.setTime(EpochDateTime.from(period.getStart()).plus(
+                rDuration.negate()).getTime());
+
+        for (final Property property : component.getProperties(Property.RRULE)) {
+            final Recur recur = ((RRule) property).getRecur();
+            addSource(new RecurSource(recur.iterator(start.getDate(), startMinusDuration),
+                    period.getEnd().getTime(), rDuration));
+        }
+
+        // initial instance if intersection with the specified period..
+        final Period startPeriod;
+        if (end != null) {
+            startPeriod = new Period(new DateTime(start.getDate()), new DateTime(end.getDate()));
+        } else {
+            if (duration == null) {
+                duration = new Duration(rDuration);
+            }
+            startPeriod = new Period(new DateTime(start.getDate()), duration.getDuration());
+        }
+        if (period.intersects(startPeriod)) {
+            addSource(new ListSource(Collections.singletonList(startPeriod).iterator()));
+        }
+
+        // exception dates and rules..
+        for (final Property property : component.getProperties(Property.EXDATE)) {
+            for (final Date exdate : ((ExDate) property).getDates()) {
+                exclusions.add(exdate.getTime());
+            }
+        }
+        for (final Property property : component.getProperties(Property.EXRULE)) {
+            final Recur recur = ((ExRule) property).getRecur();
+            exclusionCursors.add(new ExclusionCursor(recur.iterator(start.getDate(), period.getStart()),
+                    period.getEnd().getTime()));
+            // a second cursor to match the DATE values of instances..
+            exclusionCursors.add(new ExclusionCursor(recur.iterator(start.getDate(), period.getStart()),
+                    period.getEnd().getTime()));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean hasNext() {
+        if (next == null) {
+            next = findNext();
+        }
+        return next != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Period next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final Period result = next;
+        next = null;
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    private Period findNext() {
+        while (!sources.isEmpty()) {
+            final PeriodSource source = sources.poll();
+            final Period candidate = source.head;
+            addSource(source);
+
+            // the recurrence set does not contain duplicate periods..
+            if (last != null && last.compareTo(candidate) == 0) {
+                continue;
+            }
+            last = candidate;
+
+            if (!isExcluded(candidate.getStart().getTime())) {
+                if (utc) {
+                    candidate.setUtc(true);
+                } else {
+                    candidate.setTimeZone(timezone);
+                }
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private boolean isExcluded(final long recurrenceStart) {
+        // for DATE-TIME instances check for DATE-based exclusions also..
+        final long recurrenceDate = EpochDateTime.startOfDay(recurrenceStart, dateTimeZone);
+        if (exclusions.contains(recurrenceStart) || exclusions.contains(recurrenceDate)) {
+            return true;
+        }
+        for (int i = 0; i < exclusionCursors.size(); i += 2) {
+            if (exclusionCursors.get(i).contains(recurrenceStart)
+                    || exclusionCursors.get(i + 1).contains(recurrenceDate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Advances the specified source and adds it to the merge if not exhausted.
+     */
+    private void addSource(final PeriodSource source) {
+        if (source.index < 0) {
+            source.index = sourceCount++;
+        }
+        source.head = source.advance();
+        if (source.head != null) {
+            sources.add(source);
+        }
+    }
+
+    /**
+     * An ordered source of periods.
+     */
+    private abstract static class PeriodSource {
+
+        private Period head;
+
+        private int index = -1;
+
+        /**
+         * @return the next period of this source, or null if the source is exhausted
+         */
+        protected abstract Period advance();
+    }
+
+    private static class ListSource extends PeriodSource {
+
+        private final Iterator<Period> periods;
+
+        public ListSource(final Iterator<Period> periods) {
+            this.periods = periods;
+        }
+
+        @Override
+        protected Period advance() {
+            return periods.hasNext() ? periods.next() : null;
+        }
+    }
+
+    private static class RecurSource extends PeriodSource {
+
+        private final Iterator<Date> dates;
+
+        private final long end;
+
+        private final Dur duration;
+
+        public RecurSource(final Iterator<Date> dates, final long end, final Dur duration) {
+            this.dates = dates;
+            this.end = end;
+            this.duration = duration;
+        }
+
+        @Override
+        protected Period advance() {
+            if (dates.hasNext()) {
+                final Date date = dates.next();
+                if (date.getTime() < end) {
+                    return new Period(new DateTime(date), duration);
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Matches an ascending sequence of times against the dates of an exception rule.
+     */
+    private static class ExclusionCursor {
+
+        private final Iterator<Date> dates;
+
+        private final long end;
+
+        private long head = Long.MIN_VALUE;
+
+        private boolean exhausted;
+
+        public ExclusionCursor(final Iterator<Date> dates, final long end) {
+            this.dates = dates;
+            this.end = end;
+        }
+
+        public boolean contains(final long time) {
+            while (!exhausted && head < time) {
+                if (dates.hasNext()) {
+                    head = dates.next().getTime();
+                    exhausted = head >= end;
+                } else {
+                    exhausted = true;
+                }
+            }
+            return !exhausted && head == time;
+        }
+    }
+}
@@ -53,6 +53,8 @@ public class TextList implements Serializable {
 	
 	private List<String> texts;
 
+    private boolean immutable;
+
     /**
      * Default constructor.
      */
@@ -104,6 +106,7 @@ public class TextList implements Serializable {
      * @see List#add(java.lang.Object)
      */
     public final boolean add(final String text) {
+        assertModifiable();
         return texts.add(text);
     }
 
@@ -130,6 +133,7 @@ public class TextList implements Serializable {
      * @see List#remove(java.lang.Object)
      */
     public final boolean remove(final String text) {
+        assertModifiable();
         return texts.remove(text);
     }
 
@@ -140,4 +144,24 @@ public class TextList implements Serializable {
     public final int size() {
         return texts.size();
     }
+
+    /**
+     * Prevents further modification of this list.
+     */
+    final void freeze() {
+        immutable = true;
+    }
+
+    /**
+     * @return true if this list may not be modified
+     */
+    public final boolean isImmutable() {
+        return immutable;
+    }
+
+    private void assertModifiable() {
+        if (immutable) {
+            throw new UnsupportedOperationException("Cannot modify immutable instances");
+        }
+    }
 }
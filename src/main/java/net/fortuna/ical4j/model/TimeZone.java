@@ -36,9 +36,15 @@ import net.fortuna.ical4j.model.component.Observance;
 import net.fortuna.ical4j.model.component.VTimeZone;
 import net.fortuna.ical4j.model.property.TzId;
 import net.fortuna.ical4j.model.property.TzOffsetTo;
+import net.fortuna.ical4j.util.EpochDays;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 /**
  * $Id$
@@ -54,8 +60,38 @@ public class TimeZone extends java.util.TimeZone {
 
     private static final long serialVersionUID = -5620979316746547234L;
 
-    private final VTimeZone vTimeZone;
-    private final int rawOffset;
+    /**
+     * The span of time for which transitions are compiled when the transition table is extended.
+     */
+    private static final long TRANSITION_BLOCK_MILLIS = 10L * 366 * 24 * 60 * 60 * 1000;
+
+    /**
+     * Times beyond this limit (in either direction) are not merged into the transition table.
+     */
+    private static final long TRANSITION_LIMIT_MILLIS = 1000 * TRANSITION_BLOCK_MILLIS;
+
+    // may be loaded on demand for timezones compiled into a zoneinfo bundle..
+    private volatile VTimeZone vTimeZone;
+    private final String definition;
+    private final boolean daylight;
+    private int rawOffset;
+
+    // the raw offset is resolved on first use, as instances that are discarded in favour of an equivalent
+    // (e.g. by a canonicalising registry) never require it..
+    private transient volatile boolean rawOffsetResolved;
+
+    // transitions are compiled lazily and published as a single immutable snapshot, such that lookups
+    // never require synchronization..
+    private transient volatile TransitionTable transitions;
+
+    // the most recently compiled block of transitions beyond the limit of the transition table..
+    private transient volatile TransitionTable outlyingTransitions;
+
+    // platform rules verified as equivalent to the definition for a range of time..
+    private transient volatile PlatformZoneRules platformRules;
+
+    // a digest of the definition, computed on first use..
+    private transient volatile String fingerprint;
 
     /**
      * Constructs a new instance based on the specified VTimeZone.
@@ -64,9 +100,50 @@ public class TimeZone extends java.util.TimeZone {
      */
     public TimeZone(final VTimeZone vTimeZone) {
         this.vTimeZone = vTimeZone;
+        this.definition = null;
         final TzId tzId = (TzId) vTimeZone.getProperty(Property.TZID);
         setID(tzId.getValue());
-        this.rawOffset = getRawOffset(vTimeZone);
+        this.daylight = false;
+    }
+
+    /**
+     * Constructs a new instance based on precompiled transitions. The underlying VTimeZone is only loaded
+     * from the specified definition when required.
+     *
+     * @param id          the timezone identifier
+     * @param definition  the name of a resource containing the VTIMEZONE definition
+     * @param transitions precompiled transitions of the VTIMEZONE definition
+     * @param rawOffset   the raw offset of the timezone
+     * @param daylight    indicates whether the VTIMEZONE definition includes daylight observances
+     */
+    TimeZone(final String id, final String definition, final TransitionTable transitions, final int rawOffset,
+             final boolean daylight) {
+        this.definition = definition;
+        setID(id);
+        this.transitions = transitions;
+        this.rawOffset = rawOffset;
+        this.rawOffsetResolved = true;
+        this.daylight = daylight;
+    }
+
+    /**
+     * Constructs a copy of the specified timezone that delegates offset calculations to the specified rules.
+     * Transitions compiled for the specified timezone are shared with the copy.
+     *
+     * @param timezone      the timezone to copy
+     * @param platformRules platform rules equivalent to the underlying VTimeZone
+     */
+    private TimeZone(final TimeZone timezone, final PlatformZoneRules platformRules) {
+        this.vTimeZone = timezone.vTimeZone;
+        this.definition = timezone.definition;
+        setID(timezone.getID());
+        this.transitions = timezone.transitions;
+        this.outlyingTransitions = timezone.outlyingTransitions;
+        this.fingerprint = timezone.fingerprint;
+        this.rawOffset = timezone.rawOffset;
+        this.rawOffsetResolved = timezone.rawOffsetResolved;
+        this.daylight = timezone.daylight;
+        this.platformRules = platformRules;
     }
 
     /**
@@ -93,34 +170,95 @@ public class TimeZone extends java.util.TimeZone {
         cal.set(year, month, dayOfMonth, hour, minute, second);
         cal.set(Calendar.MILLISECOND, ms);
 
-        final Observance observance = vTimeZone.getApplicableObservance(new DateTime(cal.getTime()));
-        if (observance != null) {
-            final TzOffsetTo offset = (TzOffsetTo) observance.getProperty(Property.TZOFFSETTO);
-            return (int) offset.getOffset().getOffset();
+        final long time = cal.getTimeInMillis();
+        final PlatformZoneRules rules = platformRules;
+        if (rules != null && rules.covers(time)) {
+            return rules.getOffset(time);
         }
-        return 0;
+        return getTransitions(time).getOffset(time);
     }
 
     /**
      * {@inheritDoc}
      */
     public int getOffset(long date) {
-        final Observance observance = vTimeZone.getApplicableObservance(new DateTime(date));
-        if (observance != null) {
-            final TzOffsetTo offset = (TzOffsetTo) observance.getProperty(Property.TZOFFSETTO);
-            if (offset.getOffset().getOffset() < getRawOffset()) {
-                return getRawOffset();
+        final PlatformZoneRules rules = platformRules;
+        if (rules != null && rules.covers(date)) {
+            return rules.getOffset(date);
+        }
+        return getOffset(getTransitions(date), date);
+    }
+
+    private int getOffset(final TransitionTable table, final long date) {
+        final int index = table.indexOf(date);
+        if (table.types[index] != TransitionTable.NONE) {
+            return Math.max(table.offsets[index], getRawOffset());
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the offsets from UTC of the specified times, consistent with {@link #getOffset(long)}. Transitions
+     * are retained across the batch such that offsets are determined without allocating objects for each time.
+     *
+     * @param instants an array of times in milliseconds
+     * @param offsets  an array to populate with the offset of each corresponding time
+     * @throws IllegalArgumentException where the offsets array is shorter than the array of times
+     */
+    public final void getOffsets(final long[] instants, final int[] offsets) {
+        if (offsets.length < instants.length) {
+            throw new IllegalArgumentException("Insufficient capacity for offsets: " + offsets.length);
+        }
+        getOffsets(instants, offsets, null);
+    }
+
+    /**
+     * Converts the specified UTC times to local times in this timezone, that is, each time plus its offset from
+     * UTC. The local times may be decomposed using {@link net.fortuna.ical4j.util.EpochDays}, or formatted
+     * using {@link DateTimeCodec#formatLocalDateTimes(long[], char[])}. The same array may be specified for both
+     * arguments to convert times in place.
+     *
+     * @param instants   an array of UTC times in milliseconds
+     * @param localTimes an array to populate with the local time of each corresponding UTC time
+     * @throws IllegalArgumentException where the local times array is shorter than the array of UTC times
+     */
+    public final void getLocalTimes(final long[] instants, final long[] localTimes) {
+        if (localTimes.length < instants.length) {
+            throw new IllegalArgumentException("Insufficient capacity for local times: " + localTimes.length);
+        }
+        getOffsets(instants, null, localTimes);
+    }
+
+    private void getOffsets(final long[] instants, final int[] offsets, final long[] localTimes) {
+        final PlatformZoneRules rules = platformRules;
+        TransitionTable table = transitions;
+        for (int i = 0; i < instants.length; i++) {
+            final long time = instants[i];
+            final int offset;
+            if (rules != null && rules.covers(time)) {
+                offset = rules.getOffset(time);
             } else {
-                return (int) offset.getOffset().getOffset();
+                if (table == null || !table.covers(time)) {
+                    table = getTransitions(time);
+                }
+                offset = getOffset(table, time);
+            }
+            if (offsets != null) {
+                offsets[i] = offset;
+            } else {
+                localTimes[i] = time + offset;
             }
         }
-        return 0;
     }
 
     /**
      * {@inheritDoc}
      */
     public final int getRawOffset() {
+        if (!rawOffsetResolved) {
+            rawOffset = getRawOffset(getVTimeZone());
+            rawOffsetResolved = true;
+        }
         return rawOffset;
     }
 
@@ -134,8 +272,18 @@ public class TimeZone extends java.util.TimeZone {
      * @return true if the specified date is in daylight time, otherwise false
      */
     public final boolean inDaylightTime(final Date date) {
-        final Observance observance = vTimeZone.getApplicableObservance(new DateTime(date));
-        return (observance != null && observance instanceof Daylight);
+        return inDaylightTime(date.getTime());
+    }
+
+    /**
+     * @param time an instant in milliseconds
+     * @return true if the specified instant is in daylight time, otherwise false
+     * @see #inDaylightTime(Date)
+     */
+    final boolean inDaylightTime(final long time) {
+        // platform rules are verified to agree with the observance types of the transitions wherever they apply,
+        // so daylight time is resolved from the transitions without allocating a date for the platform..
+        return getTransitions(time).inDaylightTime(time);
     }
 
     /**
@@ -149,7 +297,12 @@ public class TimeZone extends java.util.TimeZone {
      * {@inheritDoc}
      */
     public final boolean useDaylightTime() {
-        final ComponentList<Observance> daylights = vTimeZone.getObservances().getComponents(Observance.DAYLIGHT);
+        final VTimeZone loadedVTimeZone = vTimeZone;
+        if (loadedVTimeZone == null) {
+            return daylight;
+        }
+        final ComponentList<Observance> daylights =
+                loadedVTimeZone.getObservances().getComponents(Observance.DAYLIGHT);
         return (!daylights.isEmpty());
     }
 
@@ -157,7 +310,160 @@ public class TimeZone extends java.util.TimeZone {
      * @return Returns the VTimeZone backing this instance.
      */
     public final VTimeZone getVTimeZone() {
-        return vTimeZone;
+        VTimeZone loadedVTimeZone = vTimeZone;
+        if (loadedVTimeZone == null) {
+            synchronized (this) {
+                loadedVTimeZone = vTimeZone;
+                if (loadedVTimeZone == null) {
+                    loadedVTimeZone = ZoneInfoBundle.loadVTimeZone(definition);
+                    vTimeZone = loadedVTimeZone;
+                }
+            }
+        }
+        return loadedVTimeZone;
+    }
+
+    /**
+     * Returns a digest of the underlying VTimeZone, such that equivalent definitions may be identified without
+     * comparing them in full. As with the transition table, the digest is not updated for subsequent changes to
+     * the underlying VTimeZone.
+     *
+     * @return a digest of the underlying VTimeZone
+     * @see CanonicalTimeZoneRegistry#getFingerprint(VTimeZone)
+     */
+    String getFingerprint() {
+        String digest = fingerprint;
+        if (digest == null) {
+            digest = CanonicalTimeZoneRegistry.getFingerprint(getVTimeZone());
+            fingerprint = digest;
+        }
+        return digest;
+    }
+
+    /**
+     * @return platform rules equivalent to the underlying VTimeZone, or null if not applicable
+     */
+    PlatformZoneRules getPlatformRules() {
+        return platformRules;
+    }
+
+    /**
+     * Returns a copy of this timezone that delegates offset calculations within the range of the specified rules
+     * to the platform. The rules must be equivalent to the underlying VTimeZone. This instance is not modified,
+     * such that instances shared with other registries are unaffected.
+     *
+     * @param platformRules platform rules equivalent to the underlying VTimeZone
+     * @return a copy of this timezone using the specified rules
+     */
+    TimeZone withPlatformRules(final PlatformZoneRules platformRules) {
+        return new TimeZone(this, platformRules);
+    }
+
+    /**
+     * Returns a transition table applicable to the specified time, compiling additional transitions if required.
+     *
+     * @param time a time in milliseconds
+     * @return a transition table that covers the specified time
+     */
+    private TransitionTable getTransitions(final long time) {
+        final TransitionTable table = transitions;
+        if (table != null && table.covers(time)) {
+            return table;
+        }
+        final TransitionTable outlying = outlyingTransitions;
+        if (outlying != null && outlying.covers(time)) {
+            return outlying;
+        }
+        return extendTransitions(time);
+    }
+
+    private synchronized TransitionTable extendTransitions(final long time) {
+        TransitionTable table = transitions;
+        if (table != null && table.covers(time)) {
+            return table;
+        }
+        final long start = EpochDays.floorDiv(time, TRANSITION_BLOCK_MILLIS) * TRANSITION_BLOCK_MILLIS;
+        final long end = start + TRANSITION_BLOCK_MILLIS;
+        if (time <= -TRANSITION_LIMIT_MILLIS || time >= TRANSITION_LIMIT_MILLIS) {
+            // don't merge transitions for extreme values, but retain the block for subsequent lookups..
+            TransitionTable outlying = outlyingTransitions;
+            if (outlying == null || !outlying.covers(time)) {
+                outlying = compileTransitions(start, end);
+                outlyingTransitions = outlying;
+            }
+            return outlying;
+        }
+        // compile only the blocks not already covered by the table..
+        if (table == null) {
+            table = compileTransitions(start, end);
+        } else if (time >= table.end) {
+            table = table.append(compileTransitions(table.end, end));
+        } else {
+            table = compileTransitions(start, table.start).append(table);
+        }
+        transitions = table;
+        return table;
+    }
+
+    /**
+     * Compiles the transitions of the underlying VTimeZone for the specified range. As onsets are always
+     * specified in whole seconds the observance applicable to any time in the range may be determined by the
+     * latest transition that is not after that time.
+     *
+     * @param start the start of the range (inclusive)
+     * @param end   the end of the range (exclusive)
+     * @return a transition table for the specified range
+     */
+    TransitionTable compileTransitions(final long start, final long end) {
+        final DateTime rangeStart = new DateTime(start);
+        final DateTime rangeEnd = new DateTime(end - 1);
+        final VTimeZone vTimeZone = getVTimeZone();
+        final SortedSet<Long> onsets = new TreeSet<Long>();
+        for (final Observance observance : vTimeZone.getObservances()) {
+            for (final Date onset : observance.getOnsets(rangeStart, rangeEnd)) {
+                if (onset.getTime() > start) {
+                    onsets.add(onset.getTime());
+                }
+            }
+        }
+
+        final long[] instants = new long[onsets.size()];
+        final int[] offsets = new int[instants.length + 1];
+        final byte[] types = new byte[instants.length + 1];
+        int count = 0;
+        Observance observance = vTimeZone.getApplicableObservance(rangeStart);
+        offsets[count] = getOffsetTo(observance);
+        types[count] = getType(observance);
+        for (final Long onset : onsets) {
+            observance = vTimeZone.getApplicableObservance(new DateTime(onset));
+            final int offset = getOffsetTo(observance);
+            final byte type = getType(observance);
+            // only retain onsets that result in a change of offset or type..
+            if (offset != offsets[count] || type != types[count]) {
+                instants[count++] = onset;
+                offsets[count] = offset;
+                types[count] = type;
+            }
+        }
+        return new TransitionTable(start, end, Arrays.copyOf(instants, count),
+                Arrays.copyOf(offsets, count + 1), Arrays.copyOf(types, count + 1));
+    }
+
+    private static int getOffsetTo(final Observance observance) {
+        if (observance != null) {
+            final TzOffsetTo offset = (TzOffsetTo) observance.getProperty(Property.TZOFFSETTO);
+            return (int) offset.getOffset().getOffset();
+        }
+        return 0;
+    }
+
+    private static byte getType(final Observance observance) {
+        if (observance == null) {
+            return TransitionTable.NONE;
+        } else if (observance instanceof Daylight) {
+            return TransitionTable.DAYLIGHT;
+        }
+        return TransitionTable.STANDARD;
     }
 
     private static int getRawOffset(VTimeZone vt) {
@@ -204,13 +510,127 @@ public class TimeZone extends java.util.TimeZone {
 
         TimeZone timeZone = (TimeZone) o;
 
-        return rawOffset == timeZone.rawOffset
-                && !(vTimeZone != null ? !vTimeZone.equals(timeZone.vTimeZone) : timeZone.vTimeZone != null);
+        if (getRawOffset() != timeZone.getRawOffset()) {
+            return false;
+        }
+        // avoid loading definitions where both instances are compiled from the same definition..
+        if (definition != null && definition.equals(timeZone.definition)
+                && vTimeZone == null && timeZone.vTimeZone == null) {
+            return true;
+        }
+        return getVTimeZone().equals(timeZone.getVTimeZone());
     }
 
     public int hashCode() {
-        int result = vTimeZone != null ? vTimeZone.hashCode() : 0;
-        result = 31 * result + rawOffset;
+        // equal VTIMEZONE definitions share the same TZID..
+        int result = getID() != null ? getID().hashCode() : 0;
+        result = 31 * result + getRawOffset();
         return result;
     }
+
+    private void writeObject(final ObjectOutputStream out) throws IOException {
+        // ensure the definition and raw offset are serialized..
+        getVTimeZone();
+        getRawOffset();
+        out.defaultWriteObject();
+    }
+
+    /**
+     * An immutable table of the offset transitions for a range of time. Note that the table is not updated
+     * for subsequent changes to the underlying VTimeZone.
+     */
+    static final class TransitionTable {
+
+        static final byte NONE = 0;
+
+        static final byte STANDARD = 1;
+
+        static final byte DAYLIGHT = 2;
+
+        final long start;
+
+        final long end;
+
+        final long[] instants;
+
+        final int[] offsets;
+
+        final byte[] types;
+
+        /**
+         * @param start    the start of the range covered by the table (inclusive)
+         * @param end      the end of the range covered by the table (exclusive)
+         * @param instants the ascending transition instants within the range
+         * @param offsets  the offset applicable prior to the first transition, followed by the offset
+         *                 applicable from each transition
+         * @param types    the observance types corresponding to each offset
+         */
+        public TransitionTable(final long start, final long end, final long[] instants, final int[] offsets,
+                               final byte[] types) {
+            this.start = start;
+            this.end = end;
+            this.instants = instants;
+            this.offsets = offsets;
+            this.types = types;
+        }
+
+        public boolean covers(final long time) {
+            return time >= start && time < end;
+        }
+
+        /**
+         * @param next a table for the range immediately following this table
+         * @return a table for the combined range of this table and the specified table
+         */
+        public TransitionTable append(final TransitionTable next) {
+            final int count = instants.length;
+            // a change of offset or type at the start of the next table is a transition at the boundary..
+            final boolean boundary = next.offsets[0] != offsets[count] || next.types[0] != types[count];
+            final int length = count + (boundary ? 1 : 0) + next.instants.length;
+            final long[] mergedInstants = Arrays.copyOf(instants, length);
+            final int[] mergedOffsets = Arrays.copyOf(offsets, length + 1);
+            final byte[] mergedTypes = Arrays.copyOf(types, length + 1);
+            int index = count;
+            if (boundary) {
+                mergedInstants[index++] = next.start;
+                mergedOffsets[index] = next.offsets[0];
+                mergedTypes[index] = next.types[0];
+            }
+            System.arraycopy(next.instants, 0, mergedInstants, index, next.instants.length);
+            System.arraycopy(next.offsets, 1, mergedOffsets, index + 1, next.instants.length);
+            System.arraycopy(next.types, 1, mergedTypes, index + 1, next.instants.length);
+            return new TransitionTable(start, next.end, mergedInstants, mergedOffsets, mergedTypes);
+        }
+
+        public int getOffset(final long time) {
+            return offsets[indexOf(time)];
+        }
+
+        public boolean inDaylightTime(final long time) {
+            return types[indexOf(time)] == DAYLIGHT;
+        }
+
+        public int indexOf(final long time) {
+            final int index = Arrays.binarySearch(instants, time);
+            if (index >= 0) {
+                return index + 1;
+            }
+            return -index - 1;
+        }
+
+        /**
+         * @param time a time in milliseconds
+         * @param type an observance type
+         * @return the offset of the latest transition of the specified type that is not after the specified
+         * time, or 0 if no such transition exists
+         */
+        public int getLatestOffset(final long time, final byte type) {
+            for (int i = indexOf(time); i >= 0; i--) {
+                if (types[i] == type) {
+                    return offsets[i];
+                }
+            }
+            return 0;
+        }
+    }
 }
@@ -43,13 +43,18 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.InetSocketAddress;
-import java.net.Proxy;
 import java.net.URL;
-import java.net.URLConnection;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -70,16 +75,29 @@ public class TimeZoneRegistryImpl implements TimeZoneRegistry {
     private static final Pattern TZ_ID_SUFFIX = Pattern.compile("(?<=/)[^/]*/[^/]*$");
 
     private static final String UPDATE_ENABLED = "net.fortuna.ical4j.timezone.update.enabled";
-    private static final String UPDATE_CONNECT_TIMEOUT = "net.fortuna.ical4j.timezone.update.timeout.connect";
-    private static final String UPDATE_READ_TIMEOUT = "net.fortuna.ical4j.timezone.update.timeout.read";
-    private static final String UPDATE_PROXY_ENABLED = "net.fortuna.ical4j.timezone.update.proxy.enabled";
-    private static final String UPDATE_PROXY_TYPE = "net.fortuna.ical4j.timezone.update.proxy.type";
-    private static final String UPDATE_PROXY_HOST = "net.fortuna.ical4j.timezone.update.proxy.host";
-    private static final String UPDATE_PROXY_PORT = "net.fortuna.ical4j.timezone.update.proxy.port";
+    private static final String UPDATE_MODE = "net.fortuna.ical4j.timezone.update.mode";
+    private static final String UPDATE_RETRY_DELAY = "net.fortuna.ical4j.timezone.update.retry.delay";
 
-    private static Proxy proxy = null;
+    private static final String PLATFORM_ENABLED = "net.fortuna.ical4j.timezone.platform.enabled";
+    private static final String PLATFORM_START_YEAR = "net.fortuna.ical4j.timezone.platform.year.start";
+    private static final String PLATFORM_END_YEAR = "net.fortuna.ical4j.timezone.platform.year.end";
 
-    private static final Map<String, TimeZone> DEFAULT_TIMEZONES = new ConcurrentHashMap<String, TimeZone>();
+    private static final String UPDATE_MODE_ASYNC = "async";
+
+    private static final int DEFAULT_PLATFORM_START_YEAR = 1970;
+    private static final int DEFAULT_PLATFORM_END_YEAR = 2037;
+
+    private static final long DEFAULT_UPDATE_RETRY_DELAY = 60 * 1000;
+    private static final long MAX_UPDATE_RETRY_DELAY = 60 * 60 * 1000;
+    private static final int MAX_UPDATE_ATTEMPTS = 5;
+
+    // default timezones and loads in progress are keyed by resource path (see getDefaultKey()), such that
+    // registries loading definitions from different resources neither share timezones nor loads..
+    private static final ConcurrentMap<String, TimeZone> DEFAULT_TIMEZONES =
+            new ConcurrentHashMap<String, TimeZone>();
+
+    private static final ConcurrentMap<String, FutureTask<TimeZone>> LOADING_TIMEZONES =
+            new ConcurrentHashMap<String, FutureTask<TimeZone>>();
 
     private static final Properties ALIASES = new Properties();
 
@@ -118,24 +136,21 @@ public class TimeZoneRegistryImpl implements TimeZoneRegistry {
                 }
             }
         }
-        try {
-            if ("true".equals(Configurator.getProperty(UPDATE_PROXY_ENABLED))) {
-                final Proxy.Type type = Proxy.Type.valueOf(Configurator.getProperty(UPDATE_PROXY_TYPE));
-                final String proxyHost = Configurator.getProperty(UPDATE_PROXY_HOST);
-                final int proxyPort = Integer.parseInt(Configurator.getProperty(UPDATE_PROXY_PORT));
-                proxy = new Proxy(type, new InetSocketAddress(proxyHost, proxyPort));
-            }
-        }
-        catch (Throwable e) {
-            LoggerFactory.getLogger(TimeZoneRegistryImpl.class).debug(
-                    "Error loading proxy server configuration: " + e.getMessage());
-        }
     }
 
     private Map<String, TimeZone> timezones;
 
     private String resourcePrefix;
 
+    private volatile TimeZoneUpdateFetcher updateFetcher = new DefaultTimeZoneUpdateFetcher();
+
+    // the initial delay between attempts to retrieve updates, resolved once from configuration..
+    private final long updateRetryDelay;
+
+    // the range of years compared with the platform's zone rules, resolved once from configuration..
+    private final int platformStartYear;
+    private final int platformEndYear;
+
     /**
      * Default constructor.
      */
@@ -151,6 +166,20 @@ public class TimeZoneRegistryImpl implements TimeZoneRegistry {
     public TimeZoneRegistryImpl(final String resourcePrefix) {
         this.resourcePrefix = resourcePrefix;
         timezones = new ConcurrentHashMap<String, TimeZone>();
+
+        final int startYear = getYear(PLATFORM_START_YEAR, DEFAULT_PLATFORM_START_YEAR);
+        final int endYear = getYear(PLATFORM_END_YEAR, DEFAULT_PLATFORM_END_YEAR);
+        if (startYear > endYear) {
+            LoggerFactory.getLogger(TimeZoneRegistryImpl.class).warn(
+                    "Invalid range of years for platform zone rules: " + startYear + "-" + endYear
+                    + ", using defaults");
+            platformStartYear = DEFAULT_PLATFORM_START_YEAR;
+            platformEndYear = DEFAULT_PLATFORM_END_YEAR;
+        } else {
+            platformStartYear = startYear;
+            platformEndYear = endYear;
+        }
+        updateRetryDelay = getUpdateRetryDelay();
     }
 
     /**
@@ -167,12 +196,22 @@ public class TimeZoneRegistryImpl implements TimeZoneRegistry {
     public final void register(final TimeZone timezone, boolean update) {
         if (update) {
             // load any available updates for the timezone..
-            timezones.put(timezone.getID(), new TimeZone(updateDefinition(timezone.getVTimeZone())));
+            timezones.put(timezone.getID(),
+                    applyPlatformRules(new TimeZone(updateDefinition(timezone.getVTimeZone()))));
         } else {
-            timezones.put(timezone.getID(), timezone);
+            timezones.put(timezone.getID(), applyPlatformRules(timezone));
         }
     }
 
+    /**
+     * Specifies the means of retrieving updated definitions of timezones.
+     *
+     * @param updateFetcher a timezone update fetcher
+     */
+    public final void setUpdateFetcher(final TimeZoneUpdateFetcher updateFetcher) {
+        this.updateFetcher = updateFetcher;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -190,36 +229,30 @@ public class TimeZoneRegistryImpl implements TimeZoneRegistry {
 
         TimeZone timezone = timezones.get(id);
         if (timezone == null) {
-            timezone = DEFAULT_TIMEZONES.get(id);
+            timezone = DEFAULT_TIMEZONES.get(getDefaultKey(id));
             if (timezone == null) {
                 // if timezone not found with identifier, try loading an alias..
                 final String alias = ALIASES.getProperty(id);
                 if (alias != null) {
                     return getTimeZone(alias);
                 } else {
-                    synchronized (DEFAULT_TIMEZONES) {
-                        // check again as it may be loaded now..
-                        timezone = DEFAULT_TIMEZONES.get(id);
-                        if (timezone == null) {
-                            try {
-                                final VTimeZone vTimeZone = loadVTimeZone(id);
-                                if (vTimeZone != null) {
-                                    // XXX: temporary kludge..
-                                    // ((TzId) vTimeZone.getProperties().getProperty(Property.TZID)).setValue(id);
-                                    timezone = new TimeZone(vTimeZone);
-                                    DEFAULT_TIMEZONES.put(timezone.getID(), timezone);
-                                } else if (CompatibilityHints.isHintEnabled(CompatibilityHints.KEY_RELAXED_PARSING)) {
-                                    // strip global part of id and match on default tz..
-                                    Matcher matcher = TZ_ID_SUFFIX.matcher(id);
-                                    if (matcher.find()) {
-                                        return getTimeZone(matcher.group());
-                                    }
-                                }
-                            } catch (Exception e) {
-                                Logger log = LoggerFactory.getLogger(TimeZoneRegistryImpl.class);
-                                log.warn("Error occurred loading VTimeZone", e);
+                    try {
+                        timezone = loadDefaultTimeZone(id);
+                        if (timezone == null
+                                && CompatibilityHints.isHintEnabled(CompatibilityHints.KEY_RELAXED_PARSING)) {
+                            // strip global part of id and match on default tz..
+                            Matcher matcher = TZ_ID_SUFFIX.matcher(id);
+                            if (matcher.find()) {
+                                return getTimeZone(matcher.group());
                             }
                         }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        Logger log = LoggerFactory.getLogger(TimeZoneRegistryImpl.class);
+                        log.warn("Interrupted loading VTimeZone: " + id);
+                    } catch (Exception e) {
+                        Logger log = LoggerFactory.getLogger(TimeZoneRegistryImpl.class);
+                        log.warn("Error occurred loading VTimeZone", e);
                     }
                 }
             }
@@ -227,6 +260,74 @@ public class TimeZoneRegistryImpl implements TimeZoneRegistry {
         return timezone;
     }
 
+    /**
+     * Loads a default timezone corresponding to the specified identifier. Concurrent requests for the same
+     * identifier wait on a single load, whereas different identifiers may be loaded concurrently.
+     *
+     * @param id a timezone identifier
+     * @return the loaded timezone, or null if no definition exists for the identifier
+     */
+    private TimeZone loadDefaultTimeZone(final String id) throws Exception {
+        final FutureTask<TimeZone> task = new FutureTask<TimeZone>(new Callable<TimeZone>() {
+            public TimeZone call() throws Exception {
+                // check again as it may be loaded now..
+                TimeZone timezone = DEFAULT_TIMEZONES.get(getDefaultKey(id));
+                if (timezone == null) {
+                    // precompiled definitions are only applicable where updates are not applied on loading..
+                    if (!isUpdateEnabled() || isAsyncUpdate()) {
+                        timezone = ZoneInfoBundle.getInstance(resourcePrefix).getTimeZone(id);
+                    }
+                    if (timezone == null) {
+                        final VTimeZone vTimeZone = loadVTimeZone(id);
+                        if (vTimeZone != null) {
+                            // XXX: temporary kludge..
+                            // ((TzId) vTimeZone.getProperties().getProperty(Property.TZID)).setValue(id);
+                            timezone = applyPlatformRules(new TimeZone(vTimeZone));
+                        }
+                    }
+                    if (timezone != null) {
+                        DEFAULT_TIMEZONES.put(getDefaultKey(timezone.getID()), timezone);
+                        if (isUpdateEnabled() && isAsyncUpdate()) {
+                            scheduleUpdate(timezone, 0, 0);
+                        }
+                    }
+                }
+                return timezone;
+            }
+        });
+
+        final String key = getDefaultKey(id);
+        FutureTask<TimeZone> loading = LOADING_TIMEZONES.putIfAbsent(key, task);
+        if (loading == null) {
+            loading = task;
+            try {
+                task.run();
+            } finally {
+                // subsequent requests are served from the default timezones..
+                LOADING_TIMEZONES.remove(key, task);
+            }
+        }
+        try {
+            return loading.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @param id a timezone identifier
+     * @return the key of the default timezone with the specified identifier loaded by this registry, being the
+     * path of the resource from which it is loaded
+     */
+    private String getDefaultKey(final String id) {
+        return resourcePrefix + id;
+    }
+
     /**
      * Loads an existing VTimeZone from the classpath corresponding to the specified Java timezone.
      */
@@ -244,7 +345,7 @@ public class TimeZoneRegistryImpl implements TimeZoneRegistry {
 			
 
             // load any available updates for the timezone.. can be explicility disabled via configuration
-            if (!"false".equals(Configurator.getProperty(UPDATE_ENABLED))) {
+            if (isUpdateEnabled() && !isAsyncUpdate()) {
                 return updateDefinition(vTimeZone);
             }
             return vTimeZone;
@@ -260,29 +361,7 @@ public class TimeZoneRegistryImpl implements TimeZoneRegistry {
         final TzUrl tzUrl = vTimeZone.getTimeZoneUrl();
         if (tzUrl != null) {
             try {
-                final String connectTimeoutProperty = Configurator.getProperty(UPDATE_CONNECT_TIMEOUT);
-                final String readTimeoutProperty = Configurator.getProperty(UPDATE_READ_TIMEOUT);
-
-                final int connectTimeout = connectTimeoutProperty != null ? Integer.parseInt(connectTimeoutProperty) : 0;
-                final int readTimeout = readTimeoutProperty != null ? Integer.parseInt(readTimeoutProperty) : 0;
-
-                URLConnection connection;
-                URL url = tzUrl.getUri().toURL();
-
-                if ("true".equals(Configurator.getProperty(UPDATE_PROXY_ENABLED)) && proxy != null) {
-                    connection = url.openConnection(proxy);
-                }
-                else {
-                    connection = url.openConnection();
-                }
-
-                connection.setConnectTimeout(connectTimeout);
-                connection.setReadTimeout(readTimeout);
-
-                final CalendarBuilder builder = new CalendarBuilder();
-
-                final Calendar calendar = builder.build(connection.getInputStream());
-                final VTimeZone updatedVTimeZone = (VTimeZone) calendar.getComponent(Component.VTIMEZONE);
+                final VTimeZone updatedVTimeZone = updateFetcher.fetch(tzUrl.getUri().toURL());
                 if (updatedVTimeZone != null) {
                     return updatedVTimeZone;
                 }
@@ -293,4 +372,120 @@ public class TimeZoneRegistryImpl implements TimeZoneRegistry {
         }
         return vTimeZone;
     }
+
+    /**
+     * Schedules retrieval of an updated definition of a default timezone. An updated definition replaces the
+     * timezone for subsequent lookups, whilst failed attempts are retried with an increasing delay.
+     *
+     * @param timezone the timezone to update
+     * @param attempt  the number of previous attempts
+     * @param delay    the delay in milliseconds before attempting the update
+     */
+    private void scheduleUpdate(final TimeZone timezone, final int attempt, final long delay) {
+        UpdateExecutorHolder.EXECUTOR.schedule(new Runnable() {
+            public void run() {
+                final VTimeZone vTimeZone = timezone.getVTimeZone();
+                final TzUrl tzUrl = vTimeZone.getTimeZoneUrl();
+                if (tzUrl == null) {
+                    return;
+                }
+                try {
+                    final VTimeZone updatedVTimeZone = updateFetcher.fetch(tzUrl.getUri().toURL());
+                    if (updatedVTimeZone != null) {
+                        // don't replace the timezone if it has since been replaced..
+                        DEFAULT_TIMEZONES.replace(getDefaultKey(timezone.getID()), timezone,
+                                applyPlatformRules(new TimeZone(updatedVTimeZone)));
+                    }
+                } catch (Exception e) {
+                    Logger log = LoggerFactory.getLogger(TimeZoneRegistryImpl.class);
+                    if (attempt + 1 < MAX_UPDATE_ATTEMPTS) {
+                        final long retryDelay = Math.min(updateRetryDelay << attempt, MAX_UPDATE_RETRY_DELAY);
+                        log.debug("Unable to retrieve updates for timezone: " + timezone.getID()
+                                + ", retrying in " + retryDelay + "ms", e);
+                        scheduleUpdate(timezone, attempt + 1, retryDelay);
+                    } else {
+                        log.warn("Unable to retrieve updates for timezone: " + timezone.getID(), e);
+                    }
+                }
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Where enabled, delegates offset calculations of the specified timezone to the platform's rules for the
+     * same identifier, provided the rules are equivalent to the timezone definition for the configured range
+     * of years. Otherwise offsets continue to be calculated from the definition. The rules are applied to a
+     * copy, as the specified timezone may be owned by the caller or shared with other registries.
+     *
+     * @param timezone a timezone
+     * @return a copy of the specified timezone using platform rules, or the specified timezone if not applicable
+     */
+    private TimeZone applyPlatformRules(final TimeZone timezone) {
+        if ("true".equals(Configurator.getProperty(PLATFORM_ENABLED)) && timezone.getPlatformRules() == null) {
+            final PlatformZoneRules platformRules = PlatformZoneRules.getInstance(timezone,
+                    platformStartYear, platformEndYear);
+            if (platformRules != null) {
+                return timezone.withPlatformRules(platformRules);
+            }
+        }
+        return timezone;
+    }
+
+    private static int getYear(final String key, final int defaultYear) {
+        final String yearProperty = Configurator.getProperty(key);
+        if (yearProperty != null) {
+            try {
+                return Integer.parseInt(yearProperty.trim());
+            } catch (NumberFormatException e) {
+                LoggerFactory.getLogger(TimeZoneRegistryImpl.class).warn(
+                        "Invalid year for " + key + ": " + yearProperty + ", using default: " + defaultYear);
+            }
+        }
+        return defaultYear;
+    }
+
+    private static boolean isUpdateEnabled() {
+        return !"false".equals(Configurator.getProperty(UPDATE_ENABLED));
+    }
+
+    private static boolean isAsyncUpdate() {
+        return UPDATE_MODE_ASYNC.equals(Configurator.getProperty(UPDATE_MODE));
+    }
+
+    /**
+     * @return the configured retry delay in milliseconds, limited to the maximum delay, or the default delay where
+     * the configured value is not a positive number
+     */
+    private static long getUpdateRetryDelay() {
+        final String retryDelayProperty = Configurator.getProperty(UPDATE_RETRY_DELAY);
+        if (retryDelayProperty != null) {
+            try {
+                final long retryDelay = Long.parseLong(retryDelayProperty.trim());
+                if (retryDelay > 0) {
+                    return Math.min(retryDelay, MAX_UPDATE_RETRY_DELAY);
+                }
+            } catch (NumberFormatException e) {
+                // fall through to the default..
+            }
+            LoggerFactory.getLogger(TimeZoneRegistryImpl.class).warn(
+                    "Invalid value for " + UPDATE_RETRY_DELAY + ": " + retryDelayProperty
+                    + ", using default: " + DEFAULT_UPDATE_RETRY_DELAY);
+        }
+        return DEFAULT_UPDATE_RETRY_DELAY;
+    }
+
+    /**
+     * Holder for the executor of asynchronous updates, such that it is only created when required.
+     */
+    private static final class UpdateExecutorHolder {
+
+        private static final ScheduledExecutorService EXECUTOR =
+                Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                    public Thread newThread(final Runnable r) {
+                        final Thread thread = new Thread(r, "ical4j-timezone-update");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+    }
 }
@@ -0,0 +1,342 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import net.fortuna.ical4j.data.CalendarBuilder;
+import net.fortuna.ical4j.model.component.Observance;
+import net.fortuna.ical4j.model.component.VTimeZone;
+import net.fortuna.ical4j.util.ResourceLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * $Id$
+ *
+ * A compact binary representation of the transitions of a set of VTIMEZONE definitions, such that timezones may be
+ * constructed without parsing the definitions. Bundles are compiled from the zoneinfo resources at build time (see
+ * {@link ZoneInfoCompiler}) and read with a single stream on first use. The VTIMEZONE definition of a timezone
+ * constructed from a bundle is only loaded if it is requested, or the timezone is queried for a time outside the
+ * range of the bundle.
+ */
+final class ZoneInfoBundle {
+
+    /**
+     * The name of a bundle resource, relative to the resource prefix of the definitions it is compiled from.
+     */
+    static final String RESOURCE_NAME = "zoneinfo.bin";
+
+    private static final int MAGIC = 0x69637A62;
+
+    private static final int VERSION = 1;
+
+    private static final int STANDARD_OBSERVANCES = 1;
+
+    private static final int DAYLIGHT_OBSERVANCES = 2;
+
+    private static final ConcurrentMap<String, ZoneInfoBundle> BUNDLES = new ConcurrentHashMap<String, ZoneInfoBundle>();
+
+    private final String resourcePrefix;
+
+    private final long start;
+
+    private final long end;
+
+    private final Map<String, byte[]> zones;
+
+    private ZoneInfoBundle(final String resourcePrefix, final long start, final long end,
+                           final Map<String, byte[]> zones) {
+        this.resourcePrefix = resourcePrefix;
+        this.start = start;
+        this.end = end;
+        this.zones = zones;
+    }
+
+    /**
+     * @param resourcePrefix a prefix of the zoneinfo resources
+     * @return the bundle compiled from resources with the specified prefix. If no bundle exists an empty bundle is
+     * returned
+     */
+    static ZoneInfoBundle getInstance(final String resourcePrefix) {
+        ZoneInfoBundle bundle = BUNDLES.get(resourcePrefix);
+        if (bundle == null) {
+            bundle = load(resourcePrefix);
+            final ZoneInfoBundle existing = BUNDLES.putIfAbsent(resourcePrefix, bundle);
+            if (existing != null) {
+                bundle = existing;
+            }
+        }
+        return bundle;
+    }
+
+    private static ZoneInfoBundle load(final String resourcePrefix) {
+        return load(resourcePrefix, ResourceLoader.getResource(resourcePrefix + RESOURCE_NAME));
+    }
+
+    /**
+     * @param resourcePrefix a prefix of the zoneinfo resources the bundle is compiled from
+     * @param resource       the location of a bundle, or null if no bundle exists
+     * @return the specified bundle, or an empty bundle if it cannot be read
+     */
+    static ZoneInfoBundle load(final String resourcePrefix, final URL resource) {
+        final Map<String, byte[]> zones = new HashMap<String, byte[]>();
+        if (resource != null) {
+            try {
+                final InputStream in = resource.openStream();
+                try {
+                    final DataInputStream din = new DataInputStream(new BufferedInputStream(in));
+                    if (din.readInt() != MAGIC || din.readInt() != VERSION) {
+                        throw new IOException("Unsupported zoneinfo bundle: " + resource);
+                    }
+                    final long start = din.readLong();
+                    final long end = din.readLong();
+                    final int count = din.readInt();
+                    for (int i = 0; i < count; i++) {
+                        final String id = din.readUTF();
+                        final byte[] data = new byte[din.readInt()];
+                        din.readFully(data);
+                        zones.put(id, data);
+                    }
+                    return new ZoneInfoBundle(resourcePrefix, start, end, zones);
+                } finally {
+                    in.close();
+                }
+            } catch (IOException e) {
+                Logger log = LoggerFactory.getLogger(ZoneInfoBundle.class);
+                log.warn("Error loading zoneinfo bundle: " + resource, e);
+            }
+        }
+        return new ZoneInfoBundle(resourcePrefix, 0, 0, Collections.<String, byte[]>emptyMap());
+    }
+
+    /**
+     * @param id a timezone identifier
+     * @return a timezone constructed from the compiled transitions of the identified definition, or null if the
+     * definition is not included in this bundle
+     */
+    TimeZone getTimeZone(final String id) {
+        final byte[] data = zones.get(id);
+        if (data == null) {
+            return null;
+        }
+        try {
+            final DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+            final String tzId = in.readUTF();
+            final int observances = in.readUnsignedByte();
+
+            final int[] offsetPool = new int[in.readUnsignedByte()];
+            final byte[] typePool = new byte[offsetPool.length];
+            for (int i = 0; i < offsetPool.length; i++) {
+                offsetPool[i] = in.readInt();
+                typePool[i] = in.readByte();
+            }
+
+            final long[] instants = new long[in.readInt()];
+            final int[] offsets = new int[instants.length + 1];
+            final byte[] types = new byte[instants.length + 1];
+            int index = in.readUnsignedByte();
+            offsets[0] = offsetPool[index];
+            types[0] = typePool[index];
+            long instant = start;
+            for (int i = 0; i < instants.length; i++) {
+                instant += readVarLong(in) * 1000;
+                instants[i] = instant;
+                index = in.readUnsignedByte();
+                offsets[i + 1] = offsetPool[index];
+                types[i + 1] = typePool[index];
+            }
+            final TimeZone.TransitionTable transitions = new TimeZone.TransitionTable(start, end, instants,
+                    offsets, types);
+
+            // per java spec the raw offset is the raw offset at the current date..
+            int rawOffset = 0;
+            final long now = System.currentTimeMillis();
+            if ((observances & STANDARD_OBSERVANCES) != 0) {
+                rawOffset = transitions.getLatestOffset(now, TimeZone.TransitionTable.STANDARD);
+            } else if ((observances & DAYLIGHT_OBSERVANCES) != 0) {
+                rawOffset = transitions.getLatestOffset(now, TimeZone.TransitionTable.DAYLIGHT);
+            }
+            return new TimeZone(tzId, resourcePrefix + id + ".ics", transitions, rawOffset,
+                    (observances & DAYLIGHT_OBSERVANCES) != 0);
+        } catch (IOException e) {
+            Logger log = LoggerFactory.getLogger(ZoneInfoBundle.class);
+            log.warn("Error reading zoneinfo bundle entry: " + id, e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes a bundle of the specified VTIMEZONE definitions.
+     *
+     * @param out         the output stream to write to
+     * @param start       the start of the range of compiled transitions (inclusive)
+     * @param end         the end of the range of compiled transitions (exclusive)
+     * @param definitions the definitions to compile, keyed by timezone identifier
+     * @throws IOException where an error occurs writing to the output stream
+     */
+    static void write(final OutputStream out, final long start, final long end,
+                      final Map<String, VTimeZone> definitions) throws IOException {
+
+        final DataOutputStream dout = new DataOutputStream(out);
+        dout.writeInt(MAGIC);
+        dout.writeInt(VERSION);
+        dout.writeLong(start);
+        dout.writeLong(end);
+        dout.writeInt(definitions.size());
+        for (final Map.Entry<String, VTimeZone> definition : definitions.entrySet()) {
+            final byte[] data = compile(definition.getValue(), start, end);
+            dout.writeUTF(definition.getKey());
+            dout.writeInt(data.length);
+            dout.write(data);
+        }
+        dout.flush();
+    }
+
+    private static byte[] compile(final VTimeZone vTimeZone, final long start, final long end) throws IOException {
+        final TimeZone timezone = new TimeZone(vTimeZone);
+        final TimeZone.TransitionTable transitions = timezone.compileTransitions(start, end);
+
+        int observances = 0;
+        final List<Observance> standards = vTimeZone.getObservances().getComponents(Observance.STANDARD);
+        if (!standards.isEmpty()) {
+            observances |= STANDARD_OBSERVANCES;
+        }
+        if (timezone.useDaylightTime()) {
+            observances |= DAYLIGHT_OBSERVANCES;
+        }
+
+        // each distinct offset and type is written once and referenced by index..
+        final Map<Long, Integer> pool = new LinkedHashMap<Long, Integer>();
+        for (int i = 0; i < transitions.offsets.length; i++) {
+            final Long key = getPoolKey(transitions.offsets[i], transitions.types[i]);
+            if (!pool.containsKey(key)) {
+                pool.put(key, pool.size());
+            }
+        }
+        if (pool.size() > 255) {
+            throw new IOException("Too many distinct offsets: " + timezone.getID());
+        }
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeUTF(timezone.getID());
+        out.writeByte(observances);
+        out.writeByte(pool.size());
+        for (final Long key : pool.keySet()) {
+            out.writeInt((int) (key >> 8));
+            out.writeByte((int) (key & 0xFF));
+        }
+        out.writeInt(transitions.instants.length);
+        out.writeByte(pool.get(getPoolKey(transitions.offsets[0], transitions.types[0])));
+        long previous = start;
+        for (int i = 0; i < transitions.instants.length; i++) {
+            final long delta = transitions.instants[i] - previous;
+            if (delta % 1000 != 0) {
+                throw new IOException("Unsupported transition: " + timezone.getID() + " ["
+                        + transitions.instants[i] + "]");
+            }
+            writeVarLong(out, delta / 1000);
+            out.writeByte(pool.get(getPoolKey(transitions.offsets[i + 1], transitions.types[i + 1])));
+            previous = transitions.instants[i];
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static Long getPoolKey(final int offset, final byte type) {
+        return ((long) offset << 8) | type;
+    }
+
+    private static void writeVarLong(final DataOutput out, final long value) throws IOException {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            out.writeByte((int) (remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        out.writeByte((int) remaining);
+    }
+
+    private static long readVarLong(final DataInput in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * Loads a VTIMEZONE definition from the classpath.
+     *
+     * @param definition the name of a resource containing the definition
+     * @return the loaded definition
+     * @throws IllegalStateException where the definition cannot be loaded
+     */
+    static VTimeZone loadVTimeZone(final String definition) {
+        final URL resource = ResourceLoader.getResource(definition);
+        if (resource == null) {
+            throw new IllegalStateException("Timezone definition not found: " + definition);
+        }
+        try {
+            final InputStream in = resource.openStream();
+            try {
+                final Calendar calendar = new CalendarBuilder().build(in);
+                return (VTimeZone) calendar.getComponent(Component.VTIMEZONE);
+            } finally {
+                in.close();
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Error loading timezone definition: " + definition, e);
+        }
+    }
+}
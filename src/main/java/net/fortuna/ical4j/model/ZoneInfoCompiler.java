@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import net.fortuna.ical4j.data.CalendarBuilder;
+import net.fortuna.ical4j.data.ParserException;
+import net.fortuna.ical4j.model.component.VTimeZone;
+import net.fortuna.ical4j.util.Dates;
+import net.fortuna.ical4j.util.EpochDays;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * $Id$
+ *
+ * Compiles a directory of zoneinfo resources into a binary bundle that is read by {@link TimeZoneRegistryImpl} in
+ * place of the individual definitions. This class is intended to be run as part of the build, for example:
+ * <pre>
+ * java net.fortuna.ical4j.model.ZoneInfoCompiler src/main/resources/zoneinfo build/resources/main/zoneinfo
+ * </pre>
+ * Transitions are compiled from the start of 1900 until the end of 2099 by default. An alternative range may be
+ * specified with two further arguments indicating the first and last year.
+ */
+public final class ZoneInfoCompiler {
+
+    private static final int DEFAULT_START_YEAR = 1900;
+
+    private static final int DEFAULT_END_YEAR = 2099;
+
+    /**
+     * Constructor made private to enforce static nature.
+     */
+    private ZoneInfoCompiler() {
+    }
+
+    /**
+     * @param args the directory of zoneinfo resources, the output directory of the bundle, and optionally the first
+     *             and last year of compiled transitions
+     * @throws Exception where an error occurs compiling the bundle
+     */
+    public static void main(final String[] args) throws Exception {
+        if (args.length != 2 && args.length != 4) {
+            System.err.println("Usage: ZoneInfoCompiler <zoneinfo dir> <output dir> [<first year> <last year>]");
+            System.exit(1);
+        }
+        int startYear = DEFAULT_START_YEAR;
+        int endYear = DEFAULT_END_YEAR;
+        if (args.length == 4) {
+            startYear = Integer.parseInt(args[2]);
+            endYear = Integer.parseInt(args[3]);
+        }
+        final File outputDir = new File(args[1]);
+        if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+            throw new IOException("Unable to create output directory: " + outputDir);
+        }
+        final File output = new File(outputDir, ZoneInfoBundle.RESOURCE_NAME);
+        final int count = compile(new File(args[0]), output, startYear, endYear);
+        System.out.println("Compiled " + count + " timezones to " + output);
+    }
+
+    /**
+     * Compiles all definitions in a directory of zoneinfo resources.
+     *
+     * @param zoneinfoDir the directory of zoneinfo resources
+     * @param output      the bundle file to write
+     * @param startYear   the first year of compiled transitions
+     * @param endYear     the last year of compiled transitions
+     * @return the number of compiled timezones
+     * @throws IOException     where an error occurs reading or writing files
+     * @throws ParserException where a definition is invalid
+     */
+    public static int compile(final File zoneinfoDir, final File output, final int startYear, final int endYear)
+            throws IOException, ParserException {
+
+        final Map<String, VTimeZone> definitions = new TreeMap<String, VTimeZone>();
+        collect(zoneinfoDir, "", definitions);
+
+        final long start = EpochDays.toEpochDay(startYear, 1, 1) * Dates.MILLIS_PER_DAY;
+        final long end = EpochDays.toEpochDay(endYear + 1, 1, 1) * Dates.MILLIS_PER_DAY;
+        final OutputStream out = new BufferedOutputStream(new FileOutputStream(output));
+        try {
+            ZoneInfoBundle.write(out, start, end, definitions);
+        } finally {
+            out.close();
+        }
+        return definitions.size();
+    }
+
+    private static void collect(final File dir, final String path, final Map<String, VTimeZone> definitions)
+            throws IOException, ParserException {
+
+        final File[] files = dir.listFiles();
+        if (files == null) {
+            throw new IOException("Not a directory: " + dir);
+        }
+        for (final File file : files) {
+            if (file.isDirectory()) {
+                collect(file, path + file.getName() + "/", definitions);
+            } else if (file.getName().endsWith(".ics")) {
+                final InputStream in = new FileInputStream(file);
+                try {
+                    final Calendar calendar = new CalendarBuilder().build(in);
+                    final String name = file.getName();
+                    definitions.put(path + name.substring(0, name.length() - ".ics".length()),
+                            (VTimeZone) calendar.getComponent(Component.VTIMEZONE));
+                } catch (NotFoundException e) {
+                    throw new IOException("No VTIMEZONE definition found: " + file);
+                } finally {
+                    in.close();
+                }
+            }
+        }
+    }
+}
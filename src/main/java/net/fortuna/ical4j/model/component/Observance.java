@@ -47,6 +47,7 @@ import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * $Id$ [05-Apr-2004]
@@ -74,25 +75,19 @@ public abstract class Observance extends Component {
     public static final String DAYLIGHT = "DAYLIGHT";
 
     // TODO: clear cache when observance definition changes (??)
-    private long[] onsetsMillisec;
-    private DateTime[] onsetsDates;
+    // onsets are published as a single immutable snapshot so that concurrent lookups never observe a
+    // partially rebuilt cache..
+    private transient volatile OnsetCache onsets;
     //    private Map onsets = new TreeMap();
-    private Date initialOnset = null;
+    private volatile Date initialOnset = null;
 
     /**
      * Used for parsing times in a UTC date-time representation.
      */
     private static final String UTC_PATTERN = "yyyyMMdd'T'HHmmss";
-    private static final DateFormat UTC_FORMAT = new SimpleDateFormat(
-            UTC_PATTERN);
 
-    static {
-        UTC_FORMAT.setTimeZone(TimeZones.getUtcTimeZone());
-        UTC_FORMAT.setLenient(false);
-    }
-
-    /* If this is set we have rrules. If we get a date after this rebuild onsets */
-    private Date onsetLimit;
+    private static final AtomicReferenceFieldUpdater<Observance, OnsetCache> ONSETS_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(Observance.class, OnsetCache.class, "onsets");
 
     /**
      * Constructs a timezone observance with the specified name and no properties.
@@ -154,6 +149,58 @@ public abstract class Observance extends Component {
      */
     public final Date getLatestOnset(final Date date) {
 
+        final Date effectiveOnset = getInitialOnset();
+        // observance not applicable if date is before the effective date of this observance..
+        if (effectiveOnset == null || date.before(effectiveOnset)) {
+            return null;
+        }
+
+        final OnsetCache cachedOnsets = getOnsetCache(date);
+        if (cachedOnsets == null) {
+            return null;
+        }
+        return cachedOnsets.getOnset(date);
+    }
+
+    /**
+     * Returns all onsets of this observance that occur within the specified range. Onsets prior to the
+     * effective date of this observance are never applicable and are therefore not included.
+     *
+     * @param rangeStart the start of the range (inclusive)
+     * @param rangeEnd   the end of the range (inclusive)
+     * @return a list of UTC onset dates in ascending order, which may be empty
+     */
+    public final DateList getOnsets(final Date rangeStart, final Date rangeEnd) {
+        final DateList result = new DateList();
+        result.setUtc(true);
+
+        final Date effectiveOnset = getInitialOnset();
+        // no applicable onset up to the end of the range..
+        if (effectiveOnset == null || rangeEnd.before(effectiveOnset)) {
+            return result;
+        }
+        final OnsetCache cachedOnsets = getOnsetCache(rangeEnd);
+        if (cachedOnsets == null) {
+            return result;
+        }
+
+        int index = Arrays.binarySearch(cachedOnsets.onsetsMillisec, rangeStart.getTime());
+        if (index < 0) {
+            index = -index - 1;
+        }
+        for (; index < cachedOnsets.onsetsMillisec.length
+                && cachedOnsets.onsetsMillisec[index] <= rangeEnd.getTime(); index++) {
+            if (!cachedOnsets.onsetsDates[index].before(effectiveOnset)) {
+                result.add(cachedOnsets.onsetsDates[index]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the effective onset of this observance, or null if it cannot be determined
+     */
+    private Date getInitialOnset() {
         if (initialOnset == null) {
             try {
                 DtStart dtStart = (DtStart) getRequiredProperty(Property.DTSTART);
@@ -170,17 +217,33 @@ public abstract class Observance extends Component {
                 return null;
             }
         }
+        return initialOnset;
+    }
 
-        // observance not applicable if date is before the effective date of this observance..
-        if (date.before(initialOnset)) {
-            return null;
-        }
-
-        if ((onsetsMillisec != null) && (onsetLimit == null || date.before(onsetLimit))) {
-            return getCachedOnset(date);
+    /**
+     * Returns a snapshot of cached onsets that is applicable for the specified date, calculating
+     * further onsets where required.
+     *
+     * @param date a date on or after the initial onset
+     * @return a snapshot of cached onsets, or null if onsets cannot be determined
+     */
+    private OnsetCache getOnsetCache(final Date date) {
+        final OnsetCache cachedOnsets = onsets;
+        if (cachedOnsets != null && cachedOnsets.covers(date)) {
+            return cachedOnsets;
         }
+        return extendOnsets(cachedOnsets, date);
+    }
 
-        Date onset = initialOnset;
+    /**
+     * Calculates a new snapshot of onsets applicable up to the specified date. Where an existing snapshot is
+     * specified only those recurrences beyond its limit are calculated.
+     *
+     * @param base an existing snapshot to extend, or null to calculate all onsets
+     * @param date the date the new snapshot must be applicable for
+     * @return a new snapshot of onsets, or null if onsets cannot be determined
+     */
+    private OnsetCache extendOnsets(final OnsetCache base, final Date date) {
         Date initialOnsetUTC;
         // get first onset without adding TZFROM as this may lead to a day boundary
         // change which would be incompatible with BYDAY RRULES
@@ -196,31 +259,30 @@ public abstract class Observance extends Component {
         // collect all onsets for the purposes of caching..
         final DateList cacheableOnsets = new DateList();
         cacheableOnsets.setUtc(true);
-        cacheableOnsets.add(initialOnset);
-
-        // check rdates for latest applicable onset..
-        final PropertyList rdates = getProperties(Property.RDATE);
-        for (Property rdate1 : rdates) {
-            final RDate rdate = (RDate) rdate1;
-            for (final Date rdateDate : rdate.getDates()) {
-                try {
-                    final DateTime rdateOnset = applyOffsetFrom(calculateOnset(rdateDate));
-                    if (!rdateOnset.after(date) && rdateOnset.after(onset)) {
-                        onset = rdateOnset;
+
+        Date rangeStart = initialOnsetUTC;
+        if (base != null) {
+            cacheableOnsets.addAll(Arrays.asList(base.onsetsDates));
+            rangeStart = base.limit;
+        } else {
+            cacheableOnsets.add(initialOnset);
+
+            final PropertyList rdates = getProperties(Property.RDATE);
+            for (Property rdate1 : rdates) {
+                final RDate rdate = (RDate) rdate1;
+                for (final Date rdateDate : rdate.getDates()) {
+                    try {
+                        cacheableOnsets.add(applyOffsetFrom(calculateOnset(rdateDate)));
+                    } catch (ParseException e) {
+                        Logger log = LoggerFactory.getLogger(Observance.class);
+                        log.error("Unexpected error calculating onset", e);
                     }
-                    /*
-                     * else if (rdateOnset.after(date) && rdateOnset.after(onset) && (nextOnset == null ||
-                     * rdateOnset.before(nextOnset))) { nextOnset = rdateOnset; }
-                     */
-                    cacheableOnsets.add(rdateOnset);
-                } catch (ParseException e) {
-                    Logger log = LoggerFactory.getLogger(Observance.class);
-                    log.error("Unexpected error calculating onset", e);
                 }
             }
         }
 
-        // check recurrence rules for latest applicable onset..
+        // if this is set we have rrules. If we get a date after this extend onsets..
+        Date onsetLimit = null;
         final PropertyList rrules = getProperties(Property.RRULE);
         for (Property rrule1 : rrules) {
             final RRule rrule = (RRule) rrule1;
@@ -229,50 +291,30 @@ public abstract class Observance extends Component {
             cal.setTime(date);
             cal.add(Calendar.YEAR, 10);
             onsetLimit = Dates.getInstance(cal.getTime(), Value.DATE_TIME);
-            final DateList recurrenceDates = rrule.getRecur().getDates(initialOnsetUTC,
+            final DateList recurrenceDates = rrule.getRecur().getDates(initialOnsetUTC, rangeStart,
                     onsetLimit, Value.DATE_TIME);
             for (final Date recurDate : recurrenceDates) {
-                final DateTime rruleOnset = applyOffsetFrom((DateTime) recurDate);
-                if (!rruleOnset.after(date) && rruleOnset.after(onset)) {
-                    onset = rruleOnset;
-                }
-                /*
-                 * else if (rruleOnset.after(date) && rruleOnset.after(onset) && (nextOnset == null ||
-                 * rruleOnset.before(nextOnset))) { nextOnset = rruleOnset; }
-                 */
-                cacheableOnsets.add(rruleOnset);
+                cacheableOnsets.add(applyOffsetFrom((DateTime) recurDate));
             }
         }
 
         // cache onsets..
         Collections.sort(cacheableOnsets);
-        DateTime cacheableOnset;
-        this.onsetsMillisec = new long[cacheableOnsets.size()];
-        this.onsetsDates = new DateTime[onsetsMillisec.length];
-
+        final long[] onsetsMillisec = new long[cacheableOnsets.size()];
+        final DateTime[] onsetsDates = new DateTime[onsetsMillisec.length];
         for (int i = 0; i < onsetsMillisec.length; i++) {
-            cacheableOnset = (DateTime) cacheableOnsets.get(i);
-            onsetsMillisec[i] = cacheableOnset.getTime();
-            onsetsDates[i] = cacheableOnset;
+            onsetsDates[i] = (DateTime) cacheableOnsets.get(i);
+            onsetsMillisec[i] = onsetsDates[i].getTime();
         }
+        final OnsetCache updated = new OnsetCache(onsetsMillisec, onsetsDates, onsetLimit);
 
-        return onset;
-    }
-
-    /**
-     * Returns a cached onset for the specified date.
-     *
-     * @param date
-     * @return a cached onset date or null if no cached onset is applicable for the specified date
-     */
-    private DateTime getCachedOnset(final Date date) {
-        int index = Arrays.binarySearch(onsetsMillisec, date.getTime());
-        if (index >= 0) {
-            return onsetsDates[index];
-        } else {
-            int insertionIndex = -index - 1;
-            return onsetsDates[insertionIndex - 1];
+        // publish the new snapshot unless a concurrent update has already extended further..
+        OnsetCache current = onsets;
+        while ((current == null || current.isBefore(updated))
+                && !ONSETS_UPDATER.compareAndSet(this, current, updated)) {
+            current = onsets;
         }
+        return updated;
     }
 
     /**
@@ -315,9 +357,14 @@ public abstract class Observance extends Component {
         // Translate local onset into UTC time by parsing local time 
         // as GMT and adjusting by TZOFFSETFROM if required
         long utcOnset;
-
-        synchronized (UTC_FORMAT) {
-            utcOnset = UTC_FORMAT.parse(dateStr).getTime();
+        try {
+            utcOnset = DateTimeCodec.parseDateTime(dateStr, TimeZones.getUtcTimeZone());
+        } catch (ParseException e) {
+            // fall back to a calendar-based parser for dates prior to the gregorian cutover..
+            final DateFormat utcFormat = new SimpleDateFormat(UTC_PATTERN);
+            utcFormat.setTimeZone(TimeZones.getUtcTimeZone());
+            utcFormat.setLenient(false);
+            utcOnset = utcFormat.parse(dateStr).getTime();
         }
 
         // return a UTC
@@ -331,4 +378,54 @@ public abstract class Observance extends Component {
         withOffset.setTime(orig.getTime() - getOffsetFrom().getOffset().getOffset());
         return withOffset;
     }
+
+    /**
+     * An immutable set of calculated onsets.
+     */
+    private static final class OnsetCache {
+
+        private final long[] onsetsMillisec;
+
+        private final DateTime[] onsetsDates;
+
+        private final Date limit;
+
+        public OnsetCache(final long[] onsetsMillisec, final DateTime[] onsetsDates, final Date limit) {
+            this.onsetsMillisec = onsetsMillisec;
+            this.onsetsDates = onsetsDates;
+            this.limit = limit;
+        }
+
+        /**
+         * @param date a date to check
+         * @return true if cached onsets are applicable for the specified date, otherwise false
+         */
+        public boolean covers(final Date date) {
+            return limit == null || date.before(limit);
+        }
+
+        /**
+         * @param other another snapshot of onsets
+         * @return true if the other snapshot is applicable beyond the limit of this snapshot, otherwise false
+         */
+        public boolean isBefore(final OnsetCache other) {
+            return limit != null && (other.limit == null || limit.before(other.limit));
+        }
+
+        /**
+         * Returns a cached onset for the specified date.
+         *
+         * @param date
+         * @return a cached onset date or null if no cached onset is applicable for the specified date
+         */
+        public DateTime getOnset(final Date date) {
+            int index = Arrays.binarySearch(onsetsMillisec, date.getTime());
+            if (index >= 0) {
+                return onsetsDates[index];
+            } else {
+                int insertionIndex = -index - 1;
+                return onsetsDates[insertionIndex - 1];
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -44,6 +44,9 @@ import net.fortuna.ical4j.validate.Validator;
 import org.apache.commons.collections4.Closure;
 import org.apache.commons.collections4.CollectionUtils;
 
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.text.ParseException;
 import java.util.Arrays;
 
 /**
@@ -101,7 +104,7 @@ public class VAvailability extends CalendarComponent {
 
 	private static final long serialVersionUID = -3001603309266267258L;
 	
-	private ComponentList<Available> available;
+	private final ComponentList<Available> available;
 
     /**
      * Default constructor.
@@ -133,7 +136,7 @@ public class VAvailability extends CalendarComponent {
      * @param available a list of available components
      */
     public VAvailability(final PropertyList properties, final ComponentList<Available> available) {
-        super(VEVENT, properties);
+        super(VAVAILABILITY, properties);
         this.available = available;
     }
 
@@ -254,6 +257,20 @@ public class VAvailability extends CalendarComponent {
         return null;
     }
 
+    /**
+     * Overrides default freeze method to add support for freezing available sub-components.
+     * @return an unmodifiable copy of the instance
+     * @throws ParseException where values in the instance cannot be parsed
+     * @throws IOException where values in the instance cannot be read
+     * @throws URISyntaxException where an invalid URI value is encountered in the instance
+     * @see net.fortuna.ical4j.model.Component#freeze()
+     */
+    public Component freeze() throws ParseException, IOException,
+            URISyntaxException {
+        return new VAvailability(new PropertyList(getProperties(), true),
+                new ComponentList<Available>(available, true));
+    }
+
     public static class Factory extends Content.Factory implements ComponentFactory<VAvailability> {
 
         public Factory() {
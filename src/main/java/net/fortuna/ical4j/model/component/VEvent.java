@@ -208,7 +208,7 @@ public class VEvent extends CalendarComponent {
         methodValidators.put(Method.REQUEST, new VEventRequestValidator());
     }
     
-    private ComponentList<VAlarm> alarms;
+    private final ComponentList<VAlarm> alarms;
 
     /**
      * Default constructor.
@@ -480,7 +480,10 @@ public class VEvent extends CalendarComponent {
     }
 
     /**
-     * Returns a single occurrence of a recurring event.
+     * Returns a single occurrence of a recurring event. The occurrence is a copy of this event with an additional
+     * RECURRENCE-ID property. Where this event is frozen (see {@link #freeze()}) the occurrence shares all property
+     * instances with this event, so materialising many occurrences of a frozen event does not re-parse any property
+     * values.
      * @param date a date on which the occurence should occur
      * @return a single non-recurring event instance for the specified date, or null if the event doesn't
      * occur on the specified date
@@ -701,9 +704,20 @@ public class VEvent extends CalendarComponent {
      */
     public Component copy() throws ParseException, IOException,
             URISyntaxException {
-        final VEvent copy = (VEvent) super.copy();
-        copy.alarms = new ComponentList<VAlarm>(alarms);
-        return copy;
+        return new VEvent(new PropertyList(getProperties()), new ComponentList<VAlarm>(alarms));
+    }
+
+    /**
+     * Overrides default freeze method to add support for freezing alarm sub-components.
+     * @return an unmodifiable copy of the instance
+     * @throws ParseException where values in the instance cannot be parsed
+     * @throws IOException where values in the instance cannot be read
+     * @throws URISyntaxException where an invalid URI value is encountered in the instance
+     * @see net.fortuna.ical4j.model.Component#freeze()
+     */
+    public Component freeze() throws ParseException, IOException,
+            URISyntaxException {
+        return new VEvent(new PropertyList(getProperties(), true), new ComponentList<VAlarm>(alarms, true));
     }
 
     public static class Factory extends Content.Factory implements ComponentFactory<VEvent> {
@@ -127,7 +127,7 @@ public class VTimeZone extends CalendarComponent {
 
     private final Validator itipValidator = new VTimeZoneITIPValidator();
     
-    private ComponentList<Observance> observances;
+    private final ComponentList<Observance> observances;
 
     /**
      * Default constructor.
@@ -332,9 +332,21 @@ public class VTimeZone extends CalendarComponent {
      * @see net.fortuna.ical4j.model.Component#copy()
      */
     public Component copy() throws ParseException, IOException, URISyntaxException {
-        final VTimeZone copy = (VTimeZone) super.copy();
-        copy.observances = new ComponentList<Observance>(observances);
-        return copy;
+        return new VTimeZone(new PropertyList(getProperties()), new ComponentList<Observance>(observances));
+    }
+
+    /**
+     * Overrides default freeze method to add support for freezing observance sub-components.
+     * @return an unmodifiable copy of the instance
+     * @throws ParseException where values in the instance cannot be parsed
+     * @throws IOException where values in the instance cannot be read
+     * @throws URISyntaxException where an invalid URI value is encountered in the instance
+     * @see net.fortuna.ical4j.model.Component#freeze()
+     */
+    public Component freeze() throws ParseException, IOException,
+            URISyntaxException {
+        return new VTimeZone(new PropertyList(getProperties(), true),
+                new ComponentList<Observance>(observances, true));
     }
 
     public static class Factory extends Content.Factory implements ComponentFactory<VTimeZone> {
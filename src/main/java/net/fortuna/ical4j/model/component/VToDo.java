@@ -134,7 +134,7 @@ public class VToDo extends CalendarComponent {
         methodValidators.put(Method.REQUEST, new VToDoRequestValidator());
     }
     
-    private ComponentList<VAlarm> alarms = new ComponentList<VAlarm>();
+    private final ComponentList<VAlarm> alarms;
 
     /**
      * Default constructor.
@@ -145,6 +145,7 @@ public class VToDo extends CalendarComponent {
 
     public VToDo(boolean initialise) {
         super(VTODO);
+        this.alarms = new ComponentList<VAlarm>();
         if (initialise) {
             getProperties().add(new DtStamp());
         }
@@ -156,6 +157,17 @@ public class VToDo extends CalendarComponent {
      */
     public VToDo(final PropertyList properties) {
         super(VTODO, properties);
+        this.alarms = new ComponentList<VAlarm>();
+    }
+
+    /**
+     * Constructor.
+     * @param properties a list of properties
+     * @param alarms a list of alarms
+     */
+    public VToDo(final PropertyList properties, final ComponentList<VAlarm> alarms) {
+        super(VTODO, properties);
+        this.alarms = alarms;
     }
 
     /**
@@ -472,9 +484,20 @@ public class VToDo extends CalendarComponent {
      * @see net.fortuna.ical4j.model.Component#copy()
      */
     public Component copy() throws ParseException, IOException, URISyntaxException {
-        final VToDo copy = (VToDo) super.copy();
-        copy.alarms = new ComponentList<VAlarm>(alarms);
-        return copy;
+        return new VToDo(new PropertyList(getProperties()), new ComponentList<VAlarm>(alarms));
+    }
+
+    /**
+     * Overrides default freeze method to add support for freezing alarm sub-components.
+     * @return an unmodifiable copy of the instance
+     * @throws ParseException where values in the instance cannot be parsed
+     * @throws IOException where values in the instance cannot be read
+     * @throws URISyntaxException where an invalid URI value is encountered in the instance
+     * @see net.fortuna.ical4j.model.Component#freeze()
+     */
+    public Component freeze() throws ParseException, IOException,
+            URISyntaxException {
+        return new VToDo(new PropertyList(getProperties(), true), new ComponentList<VAlarm>(alarms, true));
     }
 
     public static class Factory extends Content.Factory implements ComponentFactory<VToDo> {
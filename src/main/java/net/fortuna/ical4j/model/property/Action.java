@@ -124,6 +124,7 @@ public class Action extends Property {
      * {@inheritDoc}
      */
     public void setValue(final String aValue) {
+        assertModifiable();
         this.value = aValue;
     }
 
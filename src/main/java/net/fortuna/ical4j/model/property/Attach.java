@@ -203,9 +203,12 @@ public class Attach extends Property {
     }
 
     /**
-     * @return Returns the binary.
+     * @return Returns the binary, or a copy of the binary where this property is immutable.
      */
     public final byte[] getBinary() {
+        if (isImmutable() && binary != null) {
+            return binary.clone();
+        }
         return binary;
     }
 
@@ -228,6 +231,7 @@ public class Attach extends Property {
      */
     public final void setValue(final String aValue) throws IOException,
             URISyntaxException {
+        assertModifiable();
 
         // determine if ATTACH is a URI or an embedded
         // binary..
@@ -264,7 +268,7 @@ public class Attach extends Property {
                 final BinaryEncoder encoder = EncoderFactory.getInstance()
                         .createBinaryEncoder(
                                 (Encoding) getParameter(Parameter.ENCODING));
-                return new String(encoder.encode(getBinary()));
+                return new String(encoder.encode(binary));
             } catch (UnsupportedEncodingException uee) {
                 Logger log = LoggerFactory.getLogger(Attach.class);
                 log.error("Error encoding binary data", uee);
@@ -280,6 +284,7 @@ public class Attach extends Property {
      * @param binary The binary to set.
      */
     public final void setBinary(final byte[] binary) {
+        assertModifiable();
         this.binary = binary;
         // unset uri..
         this.uri = null;
@@ -289,6 +294,7 @@ public class Attach extends Property {
      * @param uri The uri to set.
      */
     public final void setUri(final URI uri) {
+        assertModifiable();
         this.uri = uri;
         // unset binary..
         this.binary = null;
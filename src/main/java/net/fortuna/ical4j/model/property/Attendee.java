@@ -108,6 +108,7 @@ public class Attendee extends Property {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) throws URISyntaxException {
+        assertModifiable();
         calAddress = Uris.create(aValue);
     }
 
@@ -159,6 +160,7 @@ public class Attendee extends Property {
      * @param calAddress The calAddress to set.
      */
     public final void setCalAddress(final URI calAddress) {
+        assertModifiable();
         this.calAddress = calAddress;
     }
 
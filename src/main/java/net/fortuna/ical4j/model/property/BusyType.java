@@ -133,6 +133,7 @@ public class BusyType extends Property {
      * {@inheritDoc}
      */
     public void setValue(final String aValue) {
+        assertModifiable();
         this.value = aValue;
     }
 
@@ -110,6 +110,7 @@ public class CalScale extends Property {
      * {@inheritDoc}
      */
     public void setValue(final String aValue) {
+        assertModifiable();
         this.value = aValue;
     }
 
@@ -142,6 +142,7 @@ public class Categories extends Property {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) {
+        assertModifiable();
         categories = new TextList(aValue);
     }
 
@@ -168,6 +169,14 @@ public class Categories extends Property {
         return categories;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected void freeze() {
+        super.freeze();
+        freezeValue(categories);
+    }
+
     /**
      * {@inheritDoc}
      */
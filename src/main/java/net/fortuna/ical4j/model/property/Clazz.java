@@ -165,6 +165,7 @@ public class Clazz extends Property {
      * {@inheritDoc}
      */
     public void setValue(final String aValue) {
+        assertModifiable();
         this.value = aValue;
     }
 
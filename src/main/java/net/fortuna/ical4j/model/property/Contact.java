@@ -100,6 +100,7 @@ public class Contact extends Property implements Escapable {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) {
+        assertModifiable();
         this.value = aValue;
     }
 
@@ -99,6 +99,7 @@ public class Country extends Property implements Escapable {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) {
+        assertModifiable();
         this.value = aValue;
     }
 
@@ -108,10 +108,19 @@ public abstract class DateListProperty extends Property {
      * {@inheritDoc}
      */
     public void setValue(final String aValue) throws ParseException {
+        assertModifiable();
         dates = new DateList(aValue, (Value) getParameter(Parameter.VALUE),
                 timeZone);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected void freeze() {
+        super.freeze();
+        freezeValue(dates);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -125,6 +134,7 @@ public abstract class DateListProperty extends Property {
      * @param timezone a timezone to associate with this property
      */
     public void setTimeZone(final TimeZone timezone) {
+        assertModifiable();
         if (dates == null) {
             throw new UnsupportedOperationException(
                     "TimeZone is not applicable to current value");
@@ -160,6 +170,7 @@ public abstract class DateListProperty extends Property {
      * @param utc the UTC value
      */
     public final void setUtc(final boolean utc) {
+        assertModifiable();
         if (dates == null || !Value.DATE_TIME.equals(dates.getType())) {
             throw new UnsupportedOperationException(
                     "TimeZone is not applicable to current value");
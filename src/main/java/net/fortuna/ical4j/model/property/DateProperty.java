@@ -100,6 +100,7 @@ public abstract class DateProperty extends Property {
      * @param date The date to set.
      */
     public final void setDate(final Date date) {
+        assertModifiable();
         this.date = date;
         if (date instanceof DateTime) {
             if (Value.DATE.equals(getParameter(Parameter.VALUE))) {
@@ -128,6 +129,7 @@ public abstract class DateProperty extends Property {
      *                        representation
      */
     public void setValue(final String value) throws ParseException {
+        assertModifiable();
         // value can be either a date-time or a date..
         if (Value.DATE.equals(getParameter(Parameter.VALUE))) {
             // ensure timezone is null for VALUE=DATE properties..
@@ -138,6 +140,14 @@ public abstract class DateProperty extends Property {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected void freeze() {
+        super.freeze();
+        freezeValue(date);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -151,6 +161,7 @@ public abstract class DateProperty extends Property {
      * @param timezone a timezone instance
      */
     public void setTimeZone(final TimeZone timezone) {
+        assertModifiable();
         updateTimeZone(timezone);
     }
 
@@ -166,6 +177,10 @@ public abstract class DateProperty extends Property {
      */
     @Override
     public int hashCode() {
+        // no date where the value is a duration (i.e. a relative trigger)..
+        if (getDate() == null) {
+            return super.hashCode();
+        }
         return getDate().hashCode();
     }
 
@@ -203,6 +218,7 @@ public abstract class DateProperty extends Property {
      * @param utc a UTC value
      */
     public final void setUtc(final boolean utc) {
+        assertModifiable();
         if (getDate() != null && (getDate() instanceof DateTime)) {
             ((DateTime) getDate()).setUtc(utc);
         }
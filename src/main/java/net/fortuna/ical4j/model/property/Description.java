@@ -100,6 +100,7 @@ public class Description extends Property implements Escapable {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) {
+        assertModifiable();
         this.value = aValue;
     }
 
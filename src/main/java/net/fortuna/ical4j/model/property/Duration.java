@@ -148,6 +148,7 @@ public class Duration extends Property {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) {
+        assertModifiable();
         // duration = DurationFormat.getInstance().parse(aValue);
         duration = new Dur(aValue);
     }
@@ -164,6 +165,7 @@ public class Duration extends Property {
      * @param duration The duration to set.
      */
     public final void setDuration(final Dur duration) {
+        assertModifiable();
         this.duration = duration;
     }
 
@@ -101,9 +101,18 @@ public class ExRule extends Property {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) throws ParseException {
+        assertModifiable();
         recur = new Recur(aValue);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected void freeze() {
+        super.freeze();
+        freezeValue(recur);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -115,6 +124,7 @@ public class ExRule extends Property {
      * @param recur The recur to set.
      */
     public final void setRecur(final Recur recur) {
+        assertModifiable();
         this.recur = recur;
     }
 
@@ -92,6 +92,7 @@ public class ExtendedAddress extends Property implements Escapable {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) {
+        assertModifiable();
         this.value = aValue;
     }
 
@@ -192,9 +192,18 @@ public class FreeBusy extends Property {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) throws ParseException {
+        assertModifiable();
         periods = new PeriodList(aValue);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected void freeze() {
+        super.freeze();
+        freezeValue(periods);
+    }
+
     /**
      * {@inheritDoc}
      */
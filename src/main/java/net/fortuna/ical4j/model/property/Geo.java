@@ -206,6 +206,7 @@ public class Geo extends Property {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) {
+        assertModifiable();
         final String latitudeString = aValue.substring(0, aValue.indexOf(';'));
         if (StringUtils.isNotBlank(latitudeString)) {
             latitude = new BigDecimal(latitudeString);
@@ -233,6 +234,7 @@ public class Geo extends Property {
      * @param latitude The latitude to set.
      */
     public final void setLatitude(final BigDecimal latitude) {
+        assertModifiable();
         this.latitude = latitude;
     }
 
@@ -240,6 +242,7 @@ public class Geo extends Property {
      * @param longitude The longitude to set.
      */
     public final void setLongitude(final BigDecimal longitude) {
+        assertModifiable();
         this.longitude = longitude;
     }
 
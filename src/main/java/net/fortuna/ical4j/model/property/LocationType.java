@@ -100,6 +100,7 @@ public class LocationType extends Property {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) {
+        assertModifiable();
         locationTypes = new LocationTypeList(aValue);
     }
 
@@ -126,6 +127,14 @@ public class LocationType extends Property {
         return locationTypes;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected void freeze() {
+        super.freeze();
+        freezeValue(locationTypes);
+    }
+
     /**
      * {@inheritDoc}
      */
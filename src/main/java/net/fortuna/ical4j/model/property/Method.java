@@ -146,6 +146,7 @@ public class Method extends Property {
      * {@inheritDoc}
      */
     public void setValue(final String aValue) {
+        assertModifiable();
         this.value = aValue;
     }
 
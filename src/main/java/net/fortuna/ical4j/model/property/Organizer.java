@@ -221,6 +221,7 @@ public class Organizer extends Property {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) throws URISyntaxException {
+        assertModifiable();
         calAddress = Uris.create(aValue);
     }
 
@@ -235,6 +236,7 @@ public class Organizer extends Property {
      * @param calAddress The calAddress to set.
      */
     public final void setCalAddress(final URI calAddress) {
+        assertModifiable();
         this.calAddress = calAddress;
     }
 
@@ -97,6 +97,7 @@ public class PercentComplete extends Property {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) {
+        assertModifiable();
         percentage = Integer.parseInt(aValue);
     }
 
@@ -111,6 +112,7 @@ public class PercentComplete extends Property {
      * @param percentage The percentage to set.
      */
     public final void setPercentage(final int percentage) {
+        assertModifiable();
         this.percentage = percentage;
     }
 
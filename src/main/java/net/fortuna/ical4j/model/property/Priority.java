@@ -215,6 +215,7 @@ public class Priority extends Property {
      * {@inheritDoc}
      */
     public void setValue(final String aValue) {
+        assertModifiable();
         level = Integer.parseInt(aValue);
     }
 
@@ -229,6 +230,7 @@ public class Priority extends Property {
      * @param level The level to set.
      */
     public void setLevel(final int level) {
+        assertModifiable();
         this.level = level;
     }
 
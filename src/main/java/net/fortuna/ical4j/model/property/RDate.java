@@ -235,6 +235,7 @@ public class RDate extends DateListProperty {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) throws ParseException {
+        assertModifiable();
         if (Value.PERIOD.equals(getParameter(Parameter.VALUE))) {
             periods = new PeriodList(aValue);
         } else {
@@ -242,6 +243,14 @@ public class RDate extends DateListProperty {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected void freeze() {
+        super.freeze();
+        freezeValue(periods);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -256,6 +265,7 @@ public class RDate extends DateListProperty {
      * {@inheritDoc}
      */
     public final void setTimeZone(TimeZone timezone) {
+        assertModifiable();
         if (periods != null && !(periods.isEmpty() && periods.isUnmodifiable())) {
             periods.setTimeZone(timezone);
         } else {
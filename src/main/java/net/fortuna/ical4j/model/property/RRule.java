@@ -110,9 +110,18 @@ public class RRule extends Property {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) throws ParseException {
+        assertModifiable();
         recur = new Recur(aValue);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected void freeze() {
+        super.freeze();
+        freezeValue(recur);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -97,6 +97,7 @@ public class Repeat extends Property {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) {
+        assertModifiable();
         count = Integer.parseInt(aValue);
     }
 
@@ -111,6 +112,7 @@ public class Repeat extends Property {
      * @param count The count to set.
      */
     public final void setCount(final int count) {
+        assertModifiable();
         this.count = count;
     }
 
@@ -163,6 +163,7 @@ public class RequestStatus extends Property {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) {
+        assertModifiable();
         final StringTokenizer t = new StringTokenizer(aValue, ";");
 
         if (t.hasMoreTokens()) {
@@ -205,6 +206,7 @@ public class RequestStatus extends Property {
      * @param description The description to set.
      */
     public final void setDescription(final String description) {
+        assertModifiable();
         this.description = description;
     }
 
@@ -212,6 +214,7 @@ public class RequestStatus extends Property {
      * @param exData The exData to set.
      */
     public final void setExData(final String exData) {
+        assertModifiable();
         this.exData = exData;
     }
 
@@ -219,6 +222,7 @@ public class RequestStatus extends Property {
      * @param statusCode The statusCode to set.
      */
     public final void setStatusCode(final String statusCode) {
+        assertModifiable();
         this.statusCode = statusCode;
     }
 
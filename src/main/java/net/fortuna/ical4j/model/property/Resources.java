@@ -117,9 +117,18 @@ public class Resources extends Property {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) {
+        assertModifiable();
         resources = new TextList(aValue);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected void freeze() {
+        super.freeze();
+        freezeValue(resources);
+    }
+
     /**
      * {@inheritDoc}
      */
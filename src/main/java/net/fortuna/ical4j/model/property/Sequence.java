@@ -187,6 +187,7 @@ public class Sequence extends Property {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) {
+        assertModifiable();
         sequenceNo = Integer.parseInt(aValue);
     }
 
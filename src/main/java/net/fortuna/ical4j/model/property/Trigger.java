@@ -242,6 +242,7 @@ public class Trigger extends UtcProperty {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) {
+        assertModifiable();
         try {
             super.setValue(aValue);
             duration = null;
@@ -265,6 +266,7 @@ public class Trigger extends UtcProperty {
      * @param dateTime The dateTime to set.
      */
     public final void setDateTime(final DateTime dateTime) {
+        assertModifiable();
         super.setDateTime(dateTime);
         duration = null;
         getParameters().replace(Value.DATE_TIME);
@@ -274,6 +276,7 @@ public class Trigger extends UtcProperty {
      * @param duration The duration to set.
      */
     public final void setDuration(final Dur duration) {
+        assertModifiable();
         this.duration = duration;
         super.setDateTime(null);
         // duration is the default value type for Trigger..
@@ -105,6 +105,7 @@ public class TzOffsetTo extends Property {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) {
+        assertModifiable();
         offset = new UtcOffset(aValue);
     }
 
@@ -122,6 +123,7 @@ public class TzOffsetTo extends Property {
      * @param offset The offset to set.
      */
     public final void setOffset(final UtcOffset offset) {
+        assertModifiable();
         this.offset = offset;
     }
 
@@ -137,6 +137,7 @@ public class Url extends Property {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) throws URISyntaxException {
+        assertModifiable();
         uri = Uris.create(aValue);
     }
 
@@ -151,6 +152,7 @@ public class Url extends Property {
      * @param uri The uri to set.
      */
     public final void setUri(final URI uri) {
+        assertModifiable();
         this.uri = uri;
     }
 
@@ -81,6 +81,7 @@ public abstract class UtcProperty extends DateProperty {
      * @param dateTime The dateTime to set.
      */
     public void setDateTime(final DateTime dateTime) {
+        assertModifiable();
         // time must be in UTC..
         if (dateTime != null) {
             final DateTime utcDateTime = new DateTime(dateTime);
@@ -95,6 +96,7 @@ public abstract class UtcProperty extends DateProperty {
      * {@inheritDoc}
      */
     public void setTimeZone(TimeZone timezone) {
+        assertModifiable();
         throw new UnsupportedOperationException("Cannot set timezone for UTC properties");
     }
 
@@ -150,6 +150,7 @@ public class Version extends Property {
      * {@inheritDoc}
      */
     public void setValue(final String aValue) {
+        assertModifiable();
         if (aValue.indexOf(';') >= 0) {
             this.minVersion = aValue.substring(0, aValue.indexOf(';') - 1);
             this.maxVersion = aValue.substring(aValue.indexOf(';'));
@@ -179,6 +180,7 @@ public class Version extends Property {
      * @param maxVersion The maxVersion to set.
      */
     public void setMaxVersion(final String maxVersion) {
+        assertModifiable();
         this.maxVersion = maxVersion;
     }
 
@@ -186,6 +188,7 @@ public class Version extends Property {
      * @param minVersion The minVersion to set.
      */
     public void setMinVersion(final String minVersion) {
+        assertModifiable();
         this.minVersion = minVersion;
     }
 
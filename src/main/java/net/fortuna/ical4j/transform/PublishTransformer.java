@@ -54,7 +54,7 @@ public class PublishTransformer extends Transformer {
     public final Calendar transform(final Calendar calendar) {
         PropertyList calProps = calendar.getProperties();
 
-        Property method = calProps.getProperty(Property.METHOD);
+        Property method = calendar.getProperty(Property.METHOD);
 
         if (method != null) {
             calProps.remove(method);
@@ -67,7 +67,7 @@ public class PublishTransformer extends Transformer {
         for (Component component : calendar.getComponents()) {
             PropertyList compProps = component.getProperties();
 
-            Sequence sequence = (Sequence) compProps
+            Sequence sequence = (Sequence) component
                     .getProperty(Property.SEQUENCE);
 
             if (sequence == null) {
@@ -166,17 +166,20 @@ public final class Dates {
         if (yearDay > 0) {
             return yearDay;
         }
-        final Calendar cal = Calendar.getInstance();
-        cal.setTime(date);
-        final int year = cal.get(Calendar.YEAR);
-        // construct a list of possible year days..
-        final List<Integer> days = new ArrayList<Integer>();
-        cal.set(Calendar.DAY_OF_YEAR, 1);
-        while (cal.get(Calendar.YEAR) == year) {
-            days.add(cal.get(Calendar.DAY_OF_YEAR));
-            cal.add(Calendar.DAY_OF_YEAR, 1);
+        final long epochDay = getEpochDay(date);
+        final int yearLength;
+        if (epochDay >= EpochDays.GREGORIAN_CUTOVER) {
+            yearLength = EpochDays.getYearLength(EpochDays.getYear(epochDay));
+        } else {
+            final Calendar cal = Calendar.getInstance();
+            cal.setTime(date);
+            yearLength = cal.getActualMaximum(Calendar.DAY_OF_YEAR);
+        }
+        if (-yearDay > yearLength) {
+            throw new IllegalArgumentException(MessageFormat.format(INVALID_YEAR_DAY_MESSAGE,
+                    new Object[] {yearDay}));
         }
-        return days.get(days.size() + yearDay);
+        return yearLength + yearDay + 1;
     }
 
     /**
@@ -196,17 +199,29 @@ public final class Dates {
         if (monthDay > 0) {
             return monthDay;
         }
-        final Calendar cal = Calendar.getInstance();
-        cal.setTime(date);
-        final int month = cal.get(Calendar.MONTH);
-        // construct a list of possible month days..
-        final List<Integer> days = new ArrayList<Integer>();
-        cal.set(Calendar.DAY_OF_MONTH, 1);
-        while (cal.get(Calendar.MONTH) == month) {
-            days.add(cal.get(Calendar.DAY_OF_MONTH));
-            cal.add(Calendar.DAY_OF_MONTH, 1);
+        final long epochDay = getEpochDay(date);
+        final int monthLength;
+        if (epochDay >= EpochDays.GREGORIAN_CUTOVER) {
+            monthLength = EpochDays.getMonthLength(EpochDays.getYear(epochDay), EpochDays.getMonth(epochDay));
+        } else {
+            final Calendar cal = Calendar.getInstance();
+            cal.setTime(date);
+            monthLength = cal.getActualMaximum(Calendar.DAY_OF_MONTH);
         }
-        return days.get(days.size() + monthDay);
+        if (-monthDay > monthLength) {
+            throw new IllegalArgumentException(MessageFormat.format(INVALID_MONTH_DAY_MESSAGE,
+                    new Object[] {monthDay}));
+        }
+        return monthLength + monthDay + 1;
+    }
+
+    /**
+     * @param date a date instance
+     * @return the epoch day of the specified date in the default timezone
+     */
+    private static long getEpochDay(final java.util.Date date) {
+        final long time = date.getTime();
+        return EpochDays.floorDiv(time + TimeZone.getDefault().getOffset(time), MILLIS_PER_DAY);
     }
     
     /**
@@ -286,6 +301,9 @@ public final class Dates {
         if ((precision == PRECISION_SECOND) && ((time % Dates.MILLIS_PER_SECOND) == 0)) {
             return time;
         }
+        if ((precision == PRECISION_DAY) && (((time + tz.getOffset(time)) % Dates.MILLIS_PER_DAY) == 0)) {
+            return time;
+        }
         final Calendar cal = Calendar.getInstance(tz);
         cal.setTimeInMillis(time);
         if (precision == PRECISION_DAY) {
@@ -0,0 +1,291 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.util;
+
+import java.util.Calendar;
+
+/**
+ * $Id$
+ *
+ * Implements calendar arithmetic on epoch days, that is the number of days since 1970-01-01, in the proleptic
+ * gregorian calendar. All methods use integer arithmetic only and don't allocate any objects, such that they may be
+ * used in place of <code>java.util.Calendar</code> field manipulation when expanding recurrences.
+ *
+ * Days of the week are represented by the <code>java.util.Calendar</code> constants ({@link Calendar#SUNDAY} to
+ * {@link Calendar#SATURDAY}), and months are one-based. Week numbers are calculated in the same way as
+ * {@link Calendar#WEEK_OF_YEAR}, where week one of a year is the first week (starting on the specified first day of
+ * the week) with at least the specified minimal number of days in that year. RFC5545 week numbers correspond to a
+ * minimum of four days (see {@link #MIN_DAYS_IN_FIRST_WEEK}).
+ *
+ * Note that unlike <code>java.util.GregorianCalendar</code> no julian calendar is applied to dates prior to the
+ * gregorian cutover (see {@link #GREGORIAN_CUTOVER}).
+ */
+public final class EpochDays {
+
+    /**
+     * The epoch day of the default gregorian cutover (1582-10-15) of <code>java.util.GregorianCalendar</code>.
+     */
+    public static final long GREGORIAN_CUTOVER = -141427;
+
+    /**
+     * The minimal number of days in the first week of a year as defined by RFC5545.
+     */
+    public static final int MIN_DAYS_IN_FIRST_WEEK = 4;
+
+    private static final long DAYS_0000_TO_1970 = 719468;
+
+    private static final long DAYS_PER_ERA = 146097;
+
+    /**
+     * Constructor made private to enforce static nature.
+     */
+    private EpochDays() {
+    }
+
+    /**
+     * @param year a year
+     * @return true if the specified year is a leap year, otherwise false
+     */
+    public static boolean isLeapYear(final int year) {
+        return (year % 4 == 0) && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    /**
+     * @param year a year
+     * @return the number of days in the specified year
+     */
+    public static int getYearLength(final int year) {
+        return isLeapYear(year) ? 366 : 365;
+    }
+
+    /**
+     * @param year the year
+     * @param month the month of the year (1-12)
+     * @return the number of days in the specified month
+     */
+    public static int getMonthLength(final int year, final int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * @param year the year
+     * @param month the month of the year (1-12)
+     * @param dayOfMonth the day of the month (1-31)
+     * @return the epoch day of the specified date
+     */
+    public static long toEpochDay(final int year, final int month, final int dayOfMonth) {
+        final long y = month <= 2 ? year - 1 : year;
+        final long era = floorDiv(y, 400);
+        final long yearOfEra = y - era * 400;
+        final long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + dayOfMonth - 1;
+        final long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_ERA + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * @param year the year
+     * @param dayOfYear the day of the year (1-366)
+     * @return the epoch day of the specified date
+     */
+    public static long toEpochDay(final int year, final int dayOfYear) {
+        return toEpochDay(year, 1, 1) + dayOfYear - 1;
+    }
+
+    /**
+     * @param epochDay an epoch day
+     * @return the year of the specified epoch day
+     */
+    public static int getYear(final long epochDay) {
+        final long z = epochDay + DAYS_0000_TO_1970;
+        final long era = floorDiv(z, DAYS_PER_ERA);
+        final long dayOfEra = z - era * DAYS_PER_ERA;
+        final long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        final long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        // years start on the 1st of march..
+        return (int) (yearOfEra + era * 400 + (dayOfYear >= 306 ? 1 : 0));
+    }
+
+    /**
+     * @param epochDay an epoch day
+     * @return the month of the year (1-12) of the specified epoch day
+     */
+    public static int getMonth(final long epochDay) {
+        final int mp = (5 * getMarchDayOfYear(epochDay) + 2) / 153;
+        return mp < 10 ? mp + 3 : mp - 9;
+    }
+
+    /**
+     * @param epochDay an epoch day
+     * @return the day of the month (1-31) of the specified epoch day
+     */
+    public static int getDayOfMonth(final long epochDay) {
+        final int dayOfYear = getMarchDayOfYear(epochDay);
+        final int mp = (5 * dayOfYear + 2) / 153;
+        return dayOfYear - (153 * mp + 2) / 5 + 1;
+    }
+
+    /**
+     * @param epochDay an epoch day
+     * @return the day of the year (1-366) of the specified epoch day
+     */
+    public static int getDayOfYear(final long epochDay) {
+        return (int) (epochDay - toEpochDay(getYear(epochDay), 1, 1)) + 1;
+    }
+
+    /**
+     * @param epochDay an epoch day
+     * @return the day of the week ({@link Calendar#SUNDAY} to {@link Calendar#SATURDAY}) of the specified epoch day
+     */
+    public static int getDayOfWeek(final long epochDay) {
+        // 1970-01-01 is a thursday..
+        return (int) floorMod(epochDay + 4, 7) + Calendar.SUNDAY;
+    }
+
+    /**
+     * @param dayOfWeek a day of the week
+     * @param firstDayOfWeek the first day of the week
+     * @return the number of days (0-6) from the first day of the week to the specified day of the week
+     */
+    public static int getDayOfWeekIndex(final int dayOfWeek, final int firstDayOfWeek) {
+        return (int) floorMod(dayOfWeek - firstDayOfWeek, 7);
+    }
+
+    /**
+     * @param dayOfWeek a day of the week
+     * @param days a number of days
+     * @return the day of the week the specified number of days after the specified day of the week
+     */
+    public static int shiftDayOfWeek(final int dayOfWeek, final long days) {
+        return (int) floorMod(dayOfWeek - Calendar.SUNDAY + days, 7) + Calendar.SUNDAY;
+    }
+
+    /**
+     * @param epochDay an epoch day
+     * @param firstDayOfWeek the first day of the week
+     * @return the epoch day of the first day of the week containing the specified epoch day
+     */
+    public static long getWeekStart(final long epochDay, final int firstDayOfWeek) {
+        return epochDay - getDayOfWeekIndex(getDayOfWeek(epochDay), firstDayOfWeek);
+    }
+
+    /**
+     * @param year a year
+     * @param firstDayOfWeek the first day of the week
+     * @param minimalDays the minimal number of days in the first week of the year
+     * @return the epoch day of the first day of week one of the specified year, which may be in the prior year
+     */
+    public static long getFirstWeekStart(final int year, final int firstDayOfWeek, final int minimalDays) {
+        final long jan1 = toEpochDay(year, 1, 1);
+        final long weekStart = getWeekStart(jan1, firstDayOfWeek);
+        // the week containing the 1st of january is week one where it includes enough days of the year..
+        if (weekStart + 7 - jan1 >= minimalDays) {
+            return weekStart;
+        }
+        return weekStart + 7;
+    }
+
+    /**
+     * @param year a year
+     * @param firstDayOfWeek the first day of the week
+     * @param minimalDays the minimal number of days in the first week of the year
+     * @return the number of weeks (52 or 53) in the specified year
+     */
+    public static int getWeeksInYear(final int year, final int firstDayOfWeek, final int minimalDays) {
+        return (int) ((getFirstWeekStart(year + 1, firstDayOfWeek, minimalDays)
+                - getFirstWeekStart(year, firstDayOfWeek, minimalDays)) / 7);
+    }
+
+    /**
+     * Returns the week number of the specified epoch day. As with {@link Calendar#WEEK_OF_YEAR}, days at the end of
+     * a year that fall in week one of the following year are in week one, and days at the start of a year that fall
+     * in the last week of the prior year are in that week.
+     *
+     * @param epochDay an epoch day
+     * @param firstDayOfWeek the first day of the week
+     * @param minimalDays the minimal number of days in the first week of the year
+     * @return the week of the year (1-53) of the specified epoch day
+     */
+    public static int getWeekOfYear(final long epochDay, final int firstDayOfWeek, final int minimalDays) {
+        final int year = getYear(epochDay);
+        if (epochDay >= getFirstWeekStart(year + 1, firstDayOfWeek, minimalDays)) {
+            return 1;
+        }
+        long firstWeekStart = getFirstWeekStart(year, firstDayOfWeek, minimalDays);
+        if (epochDay < firstWeekStart) {
+            firstWeekStart = getFirstWeekStart(year - 1, firstDayOfWeek, minimalDays);
+        }
+        return (int) ((epochDay - firstWeekStart) / 7) + 1;
+    }
+
+    /**
+     * @param x the dividend
+     * @param y the divisor
+     * @return the largest value less than or equal to the algebraic quotient
+     */
+    public static long floorDiv(final long x, final long y) {
+        final long q = x / y;
+        if ((x % y != 0) && ((x ^ y) < 0)) {
+            return q - 1;
+        }
+        return q;
+    }
+
+    /**
+     * @param x the dividend
+     * @param y the divisor
+     * @return the floor modulus, having the same sign as the divisor
+     */
+    public static long floorMod(final long x, final long y) {
+        return x - floorDiv(x, y) * y;
+    }
+
+    /**
+     * @return the day of a year starting on the 1st of march (0-365)
+     */
+    private static int getMarchDayOfYear(final long epochDay) {
+        final long z = epochDay + DAYS_0000_TO_1970;
+        final long era = floorDiv(z, DAYS_PER_ERA);
+        final long dayOfEra = z - era * DAYS_PER_ERA;
+        final long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        return (int) (dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100));
+    }
+}
@@ -120,7 +120,7 @@ public final class PropertyValidator {
      * is found in the list of properties
      */
     public void assertNone(final String propertyName, final PropertyList properties) throws ValidationException {
-        if (properties.getProperty(propertyName) != null) {
+        if (!properties.getProperties(propertyName).isEmpty()) {
             throw new ValidationException(ASSERT_NONE_MESSAGE, new Object[] {propertyName});
         }
     }
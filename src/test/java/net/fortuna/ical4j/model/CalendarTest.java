@@ -33,6 +33,7 @@ package net.fortuna.ical4j.model;
 
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
+import net.fortuna.ical4j.model.component.VAlarm;
 import net.fortuna.ical4j.model.component.VEvent;
 import net.fortuna.ical4j.model.component.VFreeBusy;
 import net.fortuna.ical4j.model.component.VTimeZone;
@@ -44,8 +45,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.net.URISyntaxException;
 import java.text.ParseException;
+import java.util.List;
 
 /**
  * Created on 16/03/2005
@@ -91,6 +96,131 @@ public class CalendarTest extends TestCase {
         }
     }
     
+    /**
+     * @throws ParseException
+     * @throws IOException
+     * @throws URISyntaxException
+     * @throws NotFoundException
+     * @throws Exception
+     */
+    public void testFreeze() throws Exception {
+        Calendar copy = new Calendar(calendar);
+        Calendar frozen = calendar.freeze();
+        assertTrue(frozen.isFrozen());
+        assertFalse(copy.isFrozen());
+        assertEquals(copy, frozen);
+        assertEquals(copy.hashCode(), frozen.hashCode());
+        assertEquals(copy.getComponents(Component.VEVENT), frozen.getComponents(Component.VEVENT));
+        assertEquals(copy.getComponent(Component.VTIMEZONE), frozen.getComponent(Component.VTIMEZONE));
+
+        try {
+            frozen.getProperties().add(new XProperty("X-TEST", "test"));
+            fail("Should throw an UnsupportedOperationException");
+        }
+        catch (UnsupportedOperationException uoe) {
+            log.trace(uoe.toString());
+        }
+        try {
+            frozen.getComponents().clear();
+            fail("Should throw an UnsupportedOperationException");
+        }
+        catch (UnsupportedOperationException uoe) {
+            log.trace(uoe.toString());
+        }
+
+        VEvent event = (VEvent) frozen.getComponent(Component.VEVENT);
+        assertSame(event.getProperty(Property.DTSTART), event.getProperties(Property.DTSTART).get(0));
+        try {
+            event.getProperties().remove(event.getProperty(Property.UID));
+            fail("Should throw an UnsupportedOperationException");
+        }
+        catch (UnsupportedOperationException uoe) {
+            log.trace(uoe.toString());
+        }
+        try {
+            event.getProperty(Property.DTSTART).getParameters().remove(Value.DATE);
+            fail("Should throw an UnsupportedOperationException");
+        }
+        catch (UnsupportedOperationException uoe) {
+            log.trace(uoe.toString());
+        }
+        try {
+            event.getAlarms().add(new VAlarm(new Dur(0, 0, -15, 0)));
+            fail("Should throw an UnsupportedOperationException");
+        }
+        catch (UnsupportedOperationException uoe) {
+            log.trace(uoe.toString());
+        }
+        try {
+            event.getSummary().setValue("changed");
+            fail("Should throw an UnsupportedOperationException");
+        }
+        catch (UnsupportedOperationException uoe) {
+            log.trace(uoe.toString());
+        }
+        try {
+            event.getStartDate().getDate().setTime(0);
+            fail("Should throw an UnsupportedOperationException");
+        }
+        catch (UnsupportedOperationException uoe) {
+            log.trace(uoe.toString());
+        }
+        try {
+            ((RRule) event.getProperty(Property.RRULE)).getRecur().getDayList().clear();
+            fail("Should throw an UnsupportedOperationException");
+        }
+        catch (UnsupportedOperationException uoe) {
+            log.trace(uoe.toString());
+        }
+
+        try {
+            event.getProperties().subList(0, 1).clear();
+            fail("Should throw an UnsupportedOperationException");
+        }
+        catch (UnsupportedOperationException uoe) {
+            log.trace(uoe.toString());
+        }
+
+        // mutators of ArrayList that are not overridden don't change the snapshot..
+        final int hash = frozen.hashCode();
+        final int propertyCount = event.getProperties().size();
+        final int dayCount = ((RRule) event.getProperty(Property.RRULE)).getRecur().getDayList().size();
+        removeAll(event.getProperties());
+        removeAll(frozen.getComponents());
+        removeAll(((RRule) event.getProperty(Property.RRULE)).getRecur().getDayList());
+        assertEquals(propertyCount, event.getProperties().size());
+        assertEquals(dayCount, ((RRule) event.getProperty(Property.RRULE)).getRecur().getDayList().size());
+        assertEquals(copy, frozen);
+        assertEquals(hash, frozen.hashCode());
+
+        // the snapshot is not affected by later changes to the original..
+        Component original = calendar.getComponent(Component.VEVENT);
+        assertFalse(original.getProperty(Property.SUMMARY).isImmutable());
+        original.getProperties().add(new Description("changed"));
+        assertNull(event.getProperty(Property.DESCRIPTION));
+        original.getProperties().remove(original.getProperty(Property.DESCRIPTION));
+    }
+
+    /**
+     * Invokes removeIf() with a predicate that matches all elements, where supported by the runtime.
+     */
+    private static void removeAll(List<?> list) throws Exception {
+        final Class<?> predicate;
+        try {
+            predicate = Class.forName("java.util.function.Predicate");
+        }
+        catch (ClassNotFoundException e) {
+            return;
+        }
+        final Object all = Proxy.newProxyInstance(CalendarTest.class.getClassLoader(), new Class<?>[] {predicate},
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        return Boolean.TRUE;
+                    }
+                });
+        list.getClass().getMethod("removeIf", predicate).invoke(list, all);
+    }
+
     /**
      * @return
      * @throws URISyntaxException 
@@ -267,6 +397,7 @@ public class CalendarTest extends TestCase {
         calendar.getComponents().add(week2UserB);
         calendar.getComponents().add(week3UserC);
         suite.addTest(new CalendarTest("testValid", calendar));
+        suite.addTest(new CalendarTest("testFreeze", calendar));
         
         // test invalid calendar..
 //        calendar = new Calendar(baseCalendar);
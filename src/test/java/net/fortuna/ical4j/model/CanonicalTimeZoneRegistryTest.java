@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import java.io.StringReader;
+
+import junit.framework.TestCase;
+import net.fortuna.ical4j.data.CalendarBuilder;
+import net.fortuna.ical4j.model.component.VEvent;
+
+/**
+ * $Id$
+ *
+ * Unit tests for {@link CanonicalTimeZoneRegistry}.
+ */
+public class CanonicalTimeZoneRegistryTest extends TestCase {
+
+    private static final String CALENDAR = "BEGIN:VCALENDAR\r\n"
+            + "VERSION:2.0\r\n"
+            + "PRODID:-//Ben Fortuna//iCal4j 1.0//EN\r\n"
+            + "%s"
+            + "BEGIN:VEVENT\r\n"
+            + "UID:1\r\n"
+            + "DTSTAMP:20150101T000000Z\r\n"
+            + "DTSTART;TZID=Canonical/Test:20150701T090000\r\n"
+            + "END:VEVENT\r\n"
+            + "END:VCALENDAR\r\n";
+
+    private static final String STANDARD = "BEGIN:STANDARD\r\n"
+            + "DTSTART:19700405T030000\r\n"
+            + "RRULE:FREQ=YEARLY;BYMONTH=4;BYDAY=1SU\r\n"
+            + "TZOFFSETFROM:+1100\r\n"
+            + "TZOFFSETTO:+1000\r\n"
+            + "TZNAME:TST\r\n"
+            + "END:STANDARD\r\n";
+
+    private static final String DAYLIGHT = "BEGIN:DAYLIGHT\r\n"
+            + "DTSTART:19701004T020000\r\n"
+            + "RRULE:FREQ=YEARLY;BYMONTH=10;BYDAY=1SU\r\n"
+            + "TZOFFSETFROM:+1000\r\n"
+            + "TZOFFSETTO:+1100\r\n"
+            + "TZNAME:TDT\r\n"
+            + "END:DAYLIGHT\r\n";
+
+    /**
+     * Assert equivalent definitions in separately parsed calendars resolve to a single timezone instance.
+     */
+    public void testRegisterEquivalentDefinitions() throws Exception {
+        TimeZone timezone = getStartTimeZone("BEGIN:VTIMEZONE\r\n"
+                + "TZID:Canonical/Test\r\n"
+                + "LAST-MODIFIED:20150101T000000Z\r\n"
+                + STANDARD + DAYLIGHT
+                + "END:VTIMEZONE\r\n");
+        // observances and properties reordered, with a different LAST-MODIFIED..
+        TimeZone reordered = getStartTimeZone("BEGIN:VTIMEZONE\r\n"
+                + "LAST-MODIFIED:20160101T000000Z\r\n"
+                + "TZID:Canonical/Test\r\n"
+                + DAYLIGHT.replace("TZNAME:TDT\r\n", "").replace("BEGIN:DAYLIGHT\r\n", "BEGIN:DAYLIGHT\r\nTZNAME:TDT\r\n")
+                + STANDARD
+                + "END:VTIMEZONE\r\n");
+
+        assertNotNull(timezone);
+        assertSame(timezone, reordered);
+        assertEquals(10 * 60 * 60 * 1000, timezone.getRawOffset());
+        assertEquals(10 * 60 * 60 * 1000, timezone.getOffset(new DateTime("20150701T000000Z").getTime()));
+        assertEquals(11 * 60 * 60 * 1000, timezone.getOffset(new DateTime("20150101T000000Z").getTime()));
+    }
+
+    /**
+     * Assert distinct definitions with the same identifier are not shared.
+     */
+    public void testRegisterDistinctDefinitions() throws Exception {
+        TimeZone timezone = getStartTimeZone("BEGIN:VTIMEZONE\r\n"
+                + "TZID:Canonical/Test\r\n"
+                + STANDARD + DAYLIGHT
+                + "END:VTIMEZONE\r\n");
+        TimeZone standardOnly = getStartTimeZone("BEGIN:VTIMEZONE\r\n"
+                + "TZID:Canonical/Test\r\n"
+                + STANDARD
+                + "END:VTIMEZONE\r\n");
+
+        assertNotSame(timezone, standardOnly);
+        assertFalse(timezone.getVTimeZone().equals(standardOnly.getVTimeZone()));
+    }
+
+    /**
+     * Assert the shared instance is unaffected by changes to the calendar from which it was registered.
+     */
+    public void testCanonicalTimeZoneIsolated() throws Exception {
+        String definition = "BEGIN:VTIMEZONE\r\n"
+                + "TZID:Canonical/Test\r\n"
+                + "X-CANONICAL-TEST:isolated\r\n"
+                + STANDARD + DAYLIGHT
+                + "END:VTIMEZONE\r\n";
+        Calendar calendar = new CalendarBuilder(new CanonicalTimeZoneRegistry()).build(
+                new StringReader(String.format(CALENDAR, definition)));
+        calendar.getComponent(Component.VTIMEZONE).getProperties().clear();
+
+        TimeZone timezone = getStartTimeZone(definition);
+        assertNotNull(timezone.getVTimeZone().getProperty(Property.TZID));
+    }
+
+    private TimeZone getStartTimeZone(String definition) throws Exception {
+        Calendar calendar = new CalendarBuilder(new CanonicalTimeZoneRegistry()).build(
+                new StringReader(String.format(CALENDAR, definition)));
+        VEvent event = (VEvent) calendar.getComponent(Component.VEVENT);
+        return ((DateTime) event.getStartDate().getDate()).getTimeZone();
+    }
+}
@@ -35,9 +35,12 @@ import junit.framework.TestCase;
 import junit.framework.TestSuite;
 import net.fortuna.ical4j.data.ParserException;
 import net.fortuna.ical4j.model.component.CalendarComponent;
+import net.fortuna.ical4j.model.parameter.Value;
 import net.fortuna.ical4j.model.property.DtEnd;
 import net.fortuna.ical4j.model.property.DtStart;
 import net.fortuna.ical4j.model.property.Due;
+import net.fortuna.ical4j.model.property.ExDate;
+import net.fortuna.ical4j.model.property.ExRule;
 import net.fortuna.ical4j.model.property.RRule;
 import net.fortuna.ical4j.util.CompatibilityHints;
 import net.fortuna.ical4j.validate.ValidationException;
@@ -47,6 +50,9 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 
 /**
  * $Id$
@@ -140,7 +146,36 @@ public class ComponentTest extends TestCase {
         assertEquals("Wrong number of periods", expectedPeriods.size(), periods.size());
         assertEquals(expectedPeriods, periods);
     }
+
+    public void testRecurrenceSetIterator() {
+        PeriodList periods = new PeriodList();
+        for (Iterator<Period> i = component.recurrenceSetIterator(period); i.hasNext();) {
+            periods.add(i.next());
+        }
+        assertEquals("Wrong number of periods", expectedPeriods.size(), periods.size());
+        assertEquals(expectedPeriods, periods);
+    }
     
+    public void testOccursAt() {
+        List<Date> probes = new ArrayList<Date>();
+        probes.add(period.getStart());
+        for (Period expectedPeriod : expectedPeriods) {
+            probes.add(expectedPeriod.getStart());
+            probes.add(new DateTime(expectedPeriod.getStart().getTime() + 1000));
+            probes.add(expectedPeriod.getEnd());
+        }
+        for (Date probe : probes) {
+            if (period.includes(probe, Period.INCLUSIVE_START)) {
+                boolean expected = false;
+                for (Period expectedPeriod : expectedPeriods) {
+                    expected |= expectedPeriod.getStart().equals(probe)
+                            || expectedPeriod.includes(probe, 0);
+                }
+                assertEquals("Unexpected result for: " + probe, expected, component.occursAt(probe));
+            }
+        }
+    }
+
     /**
      * @return
      */
@@ -153,6 +188,8 @@ public class ComponentTest extends TestCase {
             }
         };
         suite.addTest(new ComponentTest("testCalculateRecurrenceSet", component, new Period(new DateTime(), new Dur(1, 0, 0, 0)), new PeriodList()));
+        suite.addTest(new ComponentTest("testOccursAt", component, new Period(new DateTime(), new Dur(1, 0, 0, 0)), new PeriodList()));
+        suite.addTest(new ComponentTest("testRecurrenceSetIterator", component, new Period(new DateTime(), new Dur(1, 0, 0, 0)), new PeriodList()));
         
         component = new Component("test") {
             public void validate(boolean recurse) throws ValidationException {
@@ -172,6 +209,8 @@ public class ComponentTest extends TestCase {
         expectedPeriods.add(new Period("20080606T100000Z/PT2H"));
         expectedPeriods.add(new Period("20080607T100000Z/PT2H"));
         suite.addTest(new ComponentTest("testCalculateRecurrenceSet", component, new Period(new DateTime("20080601T000000Z"), new Dur(7, 0, 0, 0)), expectedPeriods));
+        suite.addTest(new ComponentTest("testOccursAt", component, new Period(new DateTime("20080601T000000Z"), new Dur(7, 0, 0, 0)), expectedPeriods));
+        suite.addTest(new ComponentTest("testRecurrenceSetIterator", component, new Period(new DateTime("20080601T000000Z"), new Dur(7, 0, 0, 0)), expectedPeriods));
 
         component = new Component("test") {
             public void validate(boolean recurse) throws ValidationException {
@@ -189,6 +228,54 @@ public class ComponentTest extends TestCase {
         expectedPeriods.add(new Period("20080622T000000Z/P1D"));
         expectedPeriods.add(new Period("20080629T000000Z/P1D"));
         suite.addTest(new ComponentTest("testCalculateRecurrenceSet", component, new Period(new DateTime("20080601T000000Z"), new Dur(6)), expectedPeriods));
+        suite.addTest(new ComponentTest("testOccursAt", component, new Period(new DateTime("20080601T000000Z"), new Dur(6)), expectedPeriods));
+        suite.addTest(new ComponentTest("testRecurrenceSetIterator", component, new Period(new DateTime("20080601T000000Z"), new Dur(6)), expectedPeriods));
+
+        component = new Component("test") {
+            public void validate(boolean recurse) throws ValidationException {
+            }
+        };
+        // daily for 10 days excluding date-time, date and rule-based exceptions..
+        component.getProperties().add(new DtStart("20080601T100000Z"));
+        component.getProperties().add(new DtEnd("20080601T120000Z"));
+        component.getProperties().add(new RRule(new Recur(Recur.DAILY, 10)));
+        component.getProperties().add(new ExDate(new ParameterList(), "20080603T100000Z"));
+        ParameterList dateParams = new ParameterList();
+        dateParams.add(Value.DATE);
+        component.getProperties().add(new ExDate(dateParams, "20080605"));
+        component.getProperties().add(new ExRule(new Recur("FREQ=WEEKLY;BYDAY=SA")));
+        expectedPeriods = new PeriodList();
+        expectedPeriods.add(new Period("20080601T100000Z/PT2H"));
+        expectedPeriods.add(new Period("20080602T100000Z/PT2H"));
+        expectedPeriods.add(new Period("20080604T100000Z/PT2H"));
+        expectedPeriods.add(new Period("20080606T100000Z/PT2H"));
+        expectedPeriods.add(new Period("20080608T100000Z/PT2H"));
+        expectedPeriods.add(new Period("20080609T100000Z/PT2H"));
+        expectedPeriods.add(new Period("20080610T100000Z/PT2H"));
+        suite.addTest(new ComponentTest("testCalculateRecurrenceSet", component, new Period(new DateTime("20080601T000000Z"), new Dur(14, 0, 0, 0)), expectedPeriods));
+        suite.addTest(new ComponentTest("testOccursAt", component, new Period(new DateTime("20080601T000000Z"), new Dur(14, 0, 0, 0)), expectedPeriods));
+        suite.addTest(new ComponentTest("testRecurrenceSetIterator", component, new Period(new DateTime("20080601T000000Z"), new Dur(14, 0, 0, 0)), expectedPeriods));
+
+        component = new Component("test") {
+            public void validate(boolean recurse) throws ValidationException {
+            }
+        };
+        // weekly rules of which the candidates of later weeks precede those of earlier weeks..
+        component.getProperties().add(new DtStart("20180101T090000Z"));
+        component.getProperties().add(new DtEnd("20180101T100000Z"));
+        component.getProperties().add(new RRule(new Recur("FREQ=WEEKLY;BYMONTH=1;COUNT=10")));
+        component.getProperties().add(new ExDate(new ParameterList(), "20180115T090000Z"));
+        component.getProperties().add(new ExRule(new Recur("FREQ=WEEKLY;BYMONTH=1;BYDAY=FR")));
+        expectedPeriods = new PeriodList();
+        expectedPeriods.add(new Period("20180101T090000Z/PT1H"));
+        expectedPeriods.add(new Period("20180108T090000Z/PT1H"));
+        expectedPeriods.add(new Period("20180122T090000Z/PT1H"));
+        expectedPeriods.add(new Period("20180129T090000Z/PT1H"));
+        suite.addTest(new ComponentTest("testCalculateRecurrenceSet", component, new Period(new DateTime("20180101T000000Z"), new Dur(365, 0, 0, 0)), expectedPeriods));
+        suite.addTest(new ComponentTest("testOccursAt", component, new Period(new DateTime("20180101T000000Z"), new Dur(365, 0, 0, 0)), expectedPeriods));
+        suite.addTest(new ComponentTest("testRecurrenceSetIterator", component, new Period(new DateTime("20180101T000000Z"), new Dur(365, 0, 0, 0)), expectedPeriods));
+        suite.addTest(new ComponentTest("testRecurrenceSetIterator", component, new Period(new DateTime("20180101T000000Z"), new Dur(10, 0, 0, 0)),
+                component.calculateRecurrenceSet(new Period(new DateTime("20180101T000000Z"), new Dur(10, 0, 0, 0)))));
         return suite;
     }
 }
@@ -0,0 +1,214 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import junit.framework.TestCase;
+import net.fortuna.ical4j.util.TimeZones;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Unit tests for the pool of date formats used by {@link DateTime}.
+ * <p/>
+ * {@link #testThroughput()} is a manual benchmark that compares the pool with a single synchronized format and with
+ * a format per thread (as retained by a <code>ThreadLocal</code>), and logs the elapsed time and number of retained
+ * formats of each for an increasing number of threads. It doesn't assert relative timings, as these depend on the
+ * number of available processors.
+ *
+ * @author Ben Fortuna
+ */
+public class DateFormatCacheTest extends TestCase {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DateFormatCacheTest.class);
+
+    private static final String VALUE = "20050230T120000";
+
+    private static final int OPERATIONS = 40000;
+
+    private DateFormat template;
+
+    /* (non-Javadoc)
+     * @see junit.framework.TestCase#setUp()
+     */
+    protected void setUp() throws Exception {
+        template = new SimpleDateFormat("yyyyMMdd'T'HHmmss");
+    }
+
+    /**
+     * Verifies the pool retains no more than its configured number of formats, regardless of the number of threads
+     * borrowing formats concurrently.
+     */
+    public void testPoolSize() throws Exception {
+        final DateTime.DateFormatCache cache = new DateTime.DateFormatCache(template);
+        final ExecutorService executor = Executors.newFixedThreadPool(32);
+        final List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+        for (int n = 0; n < 64; n++) {
+            results.add(executor.submit(new Callable<Boolean>() {
+                public Boolean call() {
+                    for (int i = 0; i < 200; i++) {
+                        // hold several formats at once, such that the pool is exhausted..
+                        final DateFormat[] formats = new DateFormat[3];
+                        for (int j = 0; j < formats.length; j++) {
+                            formats[j] = cache.get();
+                        }
+                        for (int j = 0; j < formats.length; j++) {
+                            cache.release(formats[j]);
+                        }
+                        if (cache.getRetainedCount() > DateTime.DateFormatCache.getPoolSize()) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+            }));
+        }
+        executor.shutdown();
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get());
+        }
+        assertTrue(cache.getRetainedCount() > 0);
+        assertTrue(cache.getRetainedCount() <= DateTime.DateFormatCache.getPoolSize());
+    }
+
+    /**
+     * Verifies a timezone applied by a borrower is not retained by the pool.
+     */
+    public void testReleaseResetsTimeZone() {
+        final DateTime.DateFormatCache cache = new DateTime.DateFormatCache(template);
+        final DateFormat format = cache.get();
+        format.setTimeZone(TimeZones.getUtcTimeZone());
+        cache.release(format);
+        assertEquals(template.getTimeZone(), cache.get().getTimeZone());
+    }
+
+    /**
+     * Compares the elapsed time of parsing with the pool, a synchronized format and a format per thread.
+     */
+    public void testThroughput() throws Exception {
+        final int processors = Runtime.getRuntime().availableProcessors();
+        final Set<Integer> threadCounts = new TreeSet<Integer>(Arrays.asList(1, processors, processors * 4, 64));
+        // warm up..
+        for (int i = 0; i < 3; i++) {
+            runPooled(4);
+            runSynchronized(4);
+            runThreadLocal(4);
+        }
+        for (int threads : threadCounts) {
+            final long pooled = runPooled(threads);
+            final long synchronised = runSynchronized(threads);
+            final long threadLocal = runThreadLocal(threads);
+            LOG.info(OPERATIONS + " parses with " + threads + " threads (" + processors + " processors): pooled "
+                    + pooled + "ms (" + DateTime.DateFormatCache.getPoolSize() + " formats max), synchronized "
+                    + synchronised + "ms (1 format), thread-local " + threadLocal + "ms (" + threads + " formats)");
+        }
+    }
+
+    private long runPooled(final int threads) throws Exception {
+        final DateTime.DateFormatCache cache = new DateTime.DateFormatCache(template);
+        return run(threads, new Callable<Long>() {
+            public Long call() throws ParseException {
+                final DateFormat format = cache.get();
+                try {
+                    return format.parse(VALUE).getTime();
+                } finally {
+                    cache.release(format);
+                }
+            }
+        });
+    }
+
+    private long runSynchronized(final int threads) throws Exception {
+        final DateFormat format = (DateFormat) template.clone();
+        return run(threads, new Callable<Long>() {
+            public Long call() throws ParseException {
+                synchronized (format) {
+                    return format.parse(VALUE).getTime();
+                }
+            }
+        });
+    }
+
+    private long runThreadLocal(final int threads) throws Exception {
+        final ThreadLocal<DateFormat> formats = new ThreadLocal<DateFormat>() {
+            protected DateFormat initialValue() {
+                return (DateFormat) template.clone();
+            }
+        };
+        return run(threads, new Callable<Long>() {
+            public Long call() throws ParseException {
+                return formats.get().parse(VALUE).getTime();
+            }
+        });
+    }
+
+    /**
+     * @return the elapsed time in milliseconds of performing the operation a fixed number of times across the
+     * specified number of threads
+     */
+    private long run(final int threads, final Callable<Long> operation) throws Exception {
+        final long expected = operation.call();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+        final long start = System.nanoTime();
+        for (int n = 0; n < threads; n++) {
+            results.add(executor.submit(new Callable<Boolean>() {
+                public Boolean call() throws Exception {
+                    for (int i = 0; i < OPERATIONS / threads; i++) {
+                        if (operation.call() != expected) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+            }));
+        }
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get());
+        }
+        final long elapsed = (System.nanoTime() - start) / 1000000;
+        executor.shutdown();
+        return elapsed;
+    }
+}
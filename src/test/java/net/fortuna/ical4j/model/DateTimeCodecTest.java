@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+
+import junit.framework.TestCase;
+import net.fortuna.ical4j.util.Dates;
+import net.fortuna.ical4j.util.EpochDays;
+import net.fortuna.ical4j.util.TimeZones;
+
+/**
+ * Unit tests for {@link DateTimeCodec}, verifying consistency with {@link SimpleDateFormat}.
+ */
+public class DateTimeCodecTest extends TestCase {
+
+    private static final long START = 1104537600000L; // 2005-01-01T00:00:00Z
+
+    private final TimeZoneRegistry registry = TimeZoneRegistryFactory.getInstance().createRegistry();
+
+    /**
+     * Verifies round-trip parsing and formatting of local date-times, including times around
+     * daylight savings transitions.
+     */
+    public void testDateTime() throws ParseException {
+        final java.util.TimeZone[] zones = new java.util.TimeZone[] {TimeZones.getUtcTimeZone(),
+                java.util.TimeZone.getTimeZone("America/New_York"), java.util.TimeZone.getTimeZone("Australia/Lord_Howe"),
+                registry.getTimeZone("America/New_York"), registry.getTimeZone("Europe/London")};
+
+        for (java.util.TimeZone tz : zones) {
+            final SimpleDateFormat format = new SimpleDateFormat("yyyyMMdd'T'HHmmss");
+            format.setTimeZone(tz);
+            format.setLenient(false);
+            for (long time = START; time < START + 2 * 365 * Dates.MILLIS_PER_DAY; time += 17 * Dates.MILLIS_PER_MINUTE) {
+                final String value = format.format(new java.util.Date(time));
+                assertEquals(value, format.parse(value).getTime(), DateTimeCodec.parseDateTime(value, tz));
+            }
+        }
+    }
+
+    /**
+     * Verifies bulk formatting of local DATE-TIME values is consistent with individual values.
+     */
+    public void testFormatLocalDateTimes() {
+        final TimeZone tz = registry.getTimeZone("America/New_York");
+        final long[] instants = new long[3000];
+        for (int i = 0; i < instants.length; i++) {
+            instants[i] = START + i * (7 * Dates.MILLIS_PER_HOUR + 13 * Dates.MILLIS_PER_SECOND + 7);
+        }
+        final long[] localTimes = new long[instants.length];
+        tz.getLocalTimes(instants, localTimes);
+        final char[] buffer = new char[instants.length * DateTimeCodec.LOCAL_DATE_TIME_LENGTH];
+        DateTimeCodec.formatLocalDateTimes(localTimes, buffer);
+
+        final StringBuilder b = new StringBuilder();
+        for (int i = 0; i < instants.length; i++) {
+            b.setLength(0);
+            assertEquals(DateTimeCodec.formatDateTime(b, instants[i], tz, false).toString(),
+                    new String(buffer, i * DateTimeCodec.LOCAL_DATE_TIME_LENGTH, DateTimeCodec.LOCAL_DATE_TIME_LENGTH));
+        }
+
+        // values either side of the gregorian cutover..
+        final long[] julianTimes = new long[40];
+        for (int i = 0; i < julianTimes.length; i++) {
+            julianTimes[i] = (EpochDays.GREGORIAN_CUTOVER - 20 + i) * Dates.MILLIS_PER_DAY + i * Dates.MILLIS_PER_HOUR;
+        }
+        final char[] julianBuffer = new char[julianTimes.length * DateTimeCodec.LOCAL_DATE_TIME_LENGTH];
+        DateTimeCodec.formatLocalDateTimes(julianTimes, julianBuffer);
+        for (int i = 0; i < julianTimes.length; i++) {
+            b.setLength(0);
+            assertEquals(DateTimeCodec.formatDateTime(b, julianTimes[i], TimeZones.getUtcTimeZone(), false).toString(),
+                    new String(julianBuffer, i * DateTimeCodec.LOCAL_DATE_TIME_LENGTH,
+                            DateTimeCodec.LOCAL_DATE_TIME_LENGTH));
+        }
+
+        try {
+            DateTimeCodec.formatLocalDateTimes(new long[] {Long.MAX_VALUE / 2}, new char[DateTimeCodec.LOCAL_DATE_TIME_LENGTH]);
+            fail("Should throw IllegalArgumentException");
+        } catch (IllegalArgumentException iae) {
+            // expected..
+        }
+    }
+
+    /**
+     * Verifies formatting of DATE-TIME values.
+     */
+    public void testFormatDateTime() {
+        final SimpleDateFormat format = new SimpleDateFormat("yyyyMMdd'T'HHmmss'Z'");
+        format.setTimeZone(TimeZones.getUtcTimeZone());
+        final StringBuilder b = new StringBuilder();
+        for (long time = -START; time < 3 * START; time += 7 * Dates.MILLIS_PER_DAY + 13 * Dates.MILLIS_PER_SECOND) {
+            b.setLength(0);
+            assertEquals(format.format(new java.util.Date(time)),
+                    DateTimeCodec.formatDateTime(b, time, null, true).toString());
+        }
+    }
+
+    /**
+     * Verifies parsing and formatting of DATE values.
+     */
+    public void testDate() throws ParseException {
+        final SimpleDateFormat format = new SimpleDateFormat("yyyyMMdd");
+        format.setTimeZone(TimeZones.getUtcTimeZone());
+        final StringBuilder b = new StringBuilder();
+        for (long time = -START; time < 3 * START; time += Dates.MILLIS_PER_DAY) {
+            final String value = format.format(new java.util.Date(time));
+            assertEquals(time, DateTimeCodec.parseDate(value, TimeZones.getUtcTimeZone()));
+            b.setLength(0);
+            assertEquals(value, DateTimeCodec.formatDate(b, time, TimeZones.getUtcTimeZone()).toString());
+        }
+    }
+
+    /**
+     * Verifies UTC values are parsed irrespective of the specified timezone.
+     */
+    public void testUtc() throws ParseException {
+        assertTrue(DateTimeCodec.isUtc("20050309T093000Z"));
+        assertFalse(DateTimeCodec.isUtc("20050309T093000"));
+        assertEquals(new DateTime("20050309T093000Z").getTime(),
+                DateTimeCodec.parseDateTime("20050309T093000Z", registry.getTimeZone("Australia/Melbourne")));
+    }
+
+    /**
+     * Verifies values that are not strictly valid are rejected.
+     */
+    public void testInvalid() {
+        final java.util.TimeZone tz = java.util.TimeZone.getTimeZone("America/New_York");
+        final String[] values = new String[] {"", "2005030", "200503090", "20050230", "20051301", "2005030a",
+                "20050309X093000", "20050309T240000", "20050309T096000", "20050309T093000X", "20050309T0930",
+                "20050309T093000Z1", "20050403T023000"};
+        for (String value : values) {
+            try {
+                if (value.length() > 8) {
+                    DateTimeCodec.parseDateTime(value, tz);
+                }
+                else {
+                    DateTimeCodec.parseDate(value, tz);
+                }
+                fail("Should throw ParseException: " + value);
+            }
+            catch (ParseException pe) {
+                // expected..
+            }
+        }
+    }
+}
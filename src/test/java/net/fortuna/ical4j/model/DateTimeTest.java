@@ -42,7 +42,13 @@ import org.slf4j.LoggerFactory;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * $Id$
@@ -218,6 +224,38 @@ public class DateTimeTest extends TestCase {
         assertFalse(date5.isUtc());
     }
 
+    /**
+     * Test parsing of date-times via the shared date formats from multiple threads.
+     */
+    public void testConcurrentParsing() throws Exception {
+        // values not in the strict fixed form are parsed via the lenient date formats..
+        final String[] values = new String[] {"20050230T120000", "20051301T093000", "20050631T250000"};
+        final long[] expected = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            expected[i] = new DateTime(values[i]).getTime();
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(16);
+        final List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+        for (int n = 0; n < 64; n++) {
+            results.add(executor.submit(new Callable<Boolean>() {
+                public Boolean call() throws ParseException {
+                    for (int i = 0; i < 500; i++) {
+                        final int index = i % values.length;
+                        if (new DateTime(values[index]).getTime() != expected[index]) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+            }));
+        }
+        executor.shutdown();
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get());
+        }
+    }
+
     public String getName() {
         if (StringUtils.isNotEmpty(expectedToString)) {
             return super.getName() + " [" + expectedToString + "]";
@@ -285,6 +323,7 @@ public class DateTimeTest extends TestCase {
         suite.addTest(new DateTimeTest("testDateTimeEquals"));
         suite.addTest(new DateTimeTest("testDateTimeHashCode"));
         suite.addTest(new DateTimeTest("testUtc"));
+        suite.addTest(new DateTimeTest("testConcurrentParsing"));
 
         suite.addTest(new DateTimeTest("00001231T000000Z", "00011231T000000"));
 
@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import java.text.ParseException;
+
+import net.fortuna.ical4j.util.Dates;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for {@link EpochDateTime}, verifying consistency with the {@link Date} and {@link DateTime}
+ * implementations.
+ */
+public class EpochDateTimeTest extends TestCase {
+
+    private static final long START = 1104537600000L; // 2005-01-01T00:00:00Z
+
+    private final TimeZoneRegistry registry = TimeZoneRegistryFactory.getInstance().createRegistry();
+
+    /**
+     * Verifies conversion to and from the existing date types.
+     */
+    public void testAdapters() throws ParseException {
+        final TimeZone tz = registry.getTimeZone("America/New_York");
+
+        final DateTime zoned = new DateTime("20050309T093000", tz);
+        EpochDateTime value = EpochDateTime.from(zoned);
+        assertEquals(zoned.getTime(), value.getTime());
+        assertSame(tz, value.getTimeZone());
+        assertFalse(value.isUtc());
+        assertFalse(value.isFloating());
+        assertEquals(zoned, value.toDate());
+        assertEquals(tz, ((DateTime) value.toDate()).getTimeZone());
+
+        final DateTime utc = new DateTime("20050309T093000Z");
+        value = EpochDateTime.from(utc);
+        assertTrue(value.isUtc());
+        assertTrue(((DateTime) value.toDate()).isUtc());
+
+        value = EpochDateTime.from(new DateTime("20050309T093000"));
+        assertTrue(value.isFloating());
+
+        final Date date = new Date("20050309");
+        value = EpochDateTime.from(date);
+        assertTrue(value.isDate());
+        assertFalse(value.toDate() instanceof DateTime);
+        assertEquals(date, value.toDate());
+    }
+
+    /**
+     * Verifies the string representation matches that of the existing date types.
+     */
+    public void testFormat() {
+        final TimeZone[] zones = new TimeZone[] {null, registry.getTimeZone("America/New_York"),
+                registry.getTimeZone("Australia/Melbourne"), registry.getTimeZone("Asia/Kolkata")};
+
+        for (long time = START; time < START + 400 * Dates.MILLIS_PER_DAY; time += 7 * 3600000L + 13 * 60000L) {
+            final DateTime utc = new DateTime(time);
+            utc.setUtc(true);
+            assertEquals(utc.toString(), EpochDateTime.from(utc).toString());
+
+            for (TimeZone tz : zones) {
+                final DateTime dateTime = new DateTime(time);
+                dateTime.setTimeZone(tz);
+                assertEquals(dateTime.toString(), EpochDateTime.from(dateTime).toString());
+            }
+
+            final Date date = new Date(time);
+            assertEquals(date.toString(), EpochDateTime.from(date).toString());
+        }
+    }
+
+    /**
+     * Verifies duration arithmetic matches {@link Dur#getTime(java.util.Date)}, including across daylight
+     * savings transitions.
+     */
+    public void testPlusDur() {
+        final TimeZone tz = registry.getTimeZone("America/New_York");
+        final Dur[] durations = new Dur[] {new Dur(1), new Dur(0, 1, 0, 0), new Dur(1, 2, 30, 15),
+                new Dur(0, 25, 0, 0), new Dur(-1, 0, 0, 0), new Dur(2).negate()};
+
+        for (long time = START; time < START + 400 * Dates.MILLIS_PER_DAY; time += 5 * 3600000L) {
+            final DateTime dateTime = new DateTime(time);
+            dateTime.setTimeZone(tz);
+            for (Dur dur : durations) {
+                assertEquals(dur.getTime(dateTime).getTime(), EpochDateTime.from(dateTime).plus(dur).getTime());
+            }
+        }
+    }
+
+    /**
+     * Verifies conversion of a DATE-TIME to the DATE containing it.
+     */
+    public void testToDateValue() {
+        for (long time = START; time < START + 40 * Dates.MILLIS_PER_DAY; time += 3 * 3600000L + 1000) {
+            final DateTime dateTime = new DateTime(time);
+            assertEquals(new Date(dateTime).getTime(), EpochDateTime.from(dateTime).toDateValue().getTime());
+        }
+    }
+
+    /**
+     * Verifies comparison is based on the epoch value only.
+     */
+    public void testCompare() {
+        final EpochDateTime a = EpochDateTime.utc(START);
+        final EpochDateTime b = EpochDateTime.dateTime(START + 1000, null);
+
+        assertTrue(a.before(b));
+        assertTrue(b.after(a));
+        assertTrue(a.compareTo(b) < 0);
+        assertEquals(0, a.compareTo(EpochDateTime.dateTime(START, null)));
+        assertFalse(a.equals(EpochDateTime.dateTime(START, null)));
+        assertEquals(a, EpochDateTime.utc(START + 1000).plusMillis(-1000));
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import java.text.ParseException;
+
+import net.fortuna.ical4j.model.parameter.Value;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for {@link RecurBudget} and {@link RecurListener}.
+ */
+public class RecurBudgetTest extends TestCase {
+
+    private DateTime seed;
+
+    private DateTime periodEnd;
+
+    @Override
+    protected void setUp() throws Exception {
+        seed = new DateTime("20150101T000000Z");
+        periodEnd = new DateTime("21000101T000000Z");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        Recur.setListener(null);
+    }
+
+    /**
+     * An unbounded rule is abandoned after the maximum number of increments, with the dates calculated so far.
+     */
+    public void testMaxIncrements() throws ParseException {
+        final Recur recur = new Recur("FREQ=SECONDLY");
+        try {
+            recur.getDates(seed, seed, periodEnd, Value.DATE_TIME, new RecurBudget(500, -1, -1));
+            fail("Budget not exceeded");
+        } catch (RecurBudgetExceededException e) {
+            assertEquals(RecurBudget.Limit.INCREMENTS, e.getLimit());
+            assertEquals(501, e.getDates().size());
+            assertEquals(seed, e.getDates().get(0));
+            assertEquals(new DateTime("20150101T000820Z"), e.getDates().get(500));
+            assertTrue(e.getDates().isUtc());
+        }
+    }
+
+    public void testMaxCandidates() throws ParseException {
+        final Recur recur = new Recur("FREQ=MINUTELY;BYSECOND=0,15,30,45");
+        try {
+            recur.getDates(seed, seed, periodEnd, Value.DATE_TIME, new RecurBudget(-1, 100, -1));
+            fail("Budget not exceeded");
+        } catch (RecurBudgetExceededException e) {
+            assertEquals(RecurBudget.Limit.CANDIDATES, e.getLimit());
+            assertEquals(104, e.getDates().size());
+        }
+    }
+
+    public void testMaxTime() throws ParseException {
+        final Recur recur = new Recur("FREQ=SECONDLY");
+        try {
+            recur.getDates(seed, seed, periodEnd, Value.DATE_TIME, new RecurBudget(-1, -1, 10));
+            fail("Budget not exceeded");
+        } catch (RecurBudgetExceededException e) {
+            assertEquals(RecurBudget.Limit.TIME, e.getLimit());
+            assertFalse(e.getDates().isEmpty());
+        }
+    }
+
+    /**
+     * A budget that is not exceeded doesn't affect the result.
+     */
+    public void testWithinBudget() throws ParseException {
+        final Recur recur = new Recur("FREQ=WEEKLY;BYDAY=MO,WE,FR");
+        final DateTime end = new DateTime("20150301T000000Z");
+        final DateList expected = new Recur(recur.toString()).getDates(seed, seed, end, Value.DATE_TIME);
+        assertEquals(expected, recur.getDates(seed, seed, end, Value.DATE_TIME, new RecurBudget(100, 100, 60000)));
+    }
+
+    public void testListener() throws ParseException {
+        final long[] counts = new long[4];
+        Recur.setListener(new RecurListener() {
+            @Override
+            public void expanded(final Recur recur, final long increments, final long candidates,
+                                 final long discardedCandidates) {
+                counts[0]++;
+                counts[1] += increments;
+                counts[2] += candidates;
+                counts[3] += discardedCandidates;
+            }
+        });
+
+        final Recur recur = new Recur("FREQ=DAILY;COUNT=10");
+        final DateList dates = recur.getDates(seed, new DateTime("20150105T000000Z"),
+                new DateTime("20150201T000000Z"), Value.DATE_TIME);
+        assertEquals(6, dates.size());
+        assertEquals(1, counts[0]);
+        assertEquals(10, counts[1]);
+        assertEquals(10, counts[2]);
+        assertEquals(4, counts[3]);
+
+        // budget exceeded expansions are also reported..
+        try {
+            new Recur("FREQ=SECONDLY").getDates(seed, seed, periodEnd, Value.DATE_TIME,
+                    new RecurBudget(20, -1, -1));
+            fail("Budget not exceeded");
+        } catch (RecurBudgetExceededException e) {
+            assertEquals(2, counts[0]);
+            assertEquals(31, counts[1]);
+            assertEquals(31, counts[2]);
+            assertEquals(4, counts[3]);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import java.text.ParseException;
+
+import net.fortuna.ical4j.model.component.VEvent;
+import net.fortuna.ical4j.model.parameter.Value;
+import net.fortuna.ical4j.model.property.ExRule;
+import net.fortuna.ical4j.model.property.RRule;
+import net.fortuna.ical4j.util.TimeZones;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for {@link RecurCache}.
+ */
+public class RecurCacheTest extends TestCase {
+
+    private final TimeZoneRegistry registry = TimeZoneRegistryFactory.getInstance().createRegistry();
+
+    private Recur recur;
+
+    private DateTime seed;
+
+    @Override
+    protected void setUp() throws Exception {
+        recur = new Recur("FREQ=WEEKLY;BYDAY=MO,WE,FR");
+        seed = new DateTime("20150105T093000", registry.getTimeZone("America/New_York"));
+    }
+
+    private DateList getDates(final Date start, final Date end) {
+        return recur.getDates(seed, start, end, Value.DATE_TIME);
+    }
+
+    /**
+     * Verifies queries for a window covered by a previous query are answered from the cache.
+     */
+    public void testSubWindow() throws ParseException {
+        final RecurCache cache = new RecurCache(10);
+        final DateTime start = new DateTime("20150101T000000Z");
+        final DateTime end = new DateTime("20160101T000000Z");
+        assertEquals(getDates(start, end), cache.getDates(recur, seed, start, end, Value.DATE_TIME));
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        final DateTime subStart = new DateTime("20150306T093000", registry.getTimeZone("America/New_York"));
+        final DateTime subEnd = new DateTime("20150313T093000", registry.getTimeZone("America/New_York"));
+        final DateList dates = cache.getDates(recur, seed, subStart, subEnd, Value.DATE_TIME);
+        assertEquals(getDates(subStart, subEnd), dates);
+        assertEquals(3, dates.size());
+        assertEquals(registry.getTimeZone("America/New_York"), ((DateTime) dates.get(0)).getTimeZone());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    /**
+     * Verifies overlapping windows are merged into a single expansion.
+     */
+    public void testMergedWindows() throws ParseException {
+        final RecurCache cache = new RecurCache(10);
+        final DateTime first = new DateTime("20150301T000000Z");
+        final DateTime second = new DateTime("20150601T000000Z");
+        final DateTime third = new DateTime("20150901T000000Z");
+        final DateTime fourth = new DateTime("20151201T000000Z");
+        cache.getDates(recur, seed, second, third, Value.DATE_TIME);
+        assertEquals(getDates(first, third), cache.getDates(recur, seed, first, third, Value.DATE_TIME));
+        assertEquals(getDates(second, fourth), cache.getDates(recur, seed, second, fourth, Value.DATE_TIME));
+        assertEquals(getDates(first, fourth), cache.getDates(recur, seed, first, fourth, Value.DATE_TIME));
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    /**
+     * Verifies disjoint windows are retained alongside each other, up to a limit, and merged once bridged.
+     */
+    public void testDisjointWindows() throws ParseException {
+        final RecurCache cache = new RecurCache(20);
+        final DateTime first = new DateTime("20150101T000000Z");
+        final DateTime second = new DateTime("20150201T000000Z");
+        final DateTime third = new DateTime("20150601T000000Z");
+        final DateTime fourth = new DateTime("20150701T000000Z");
+        for (int i = 0; i < 2; i++) {
+            assertEquals(getDates(first, second), cache.getDates(recur, seed, first, second, Value.DATE_TIME));
+            assertEquals(getDates(third, fourth), cache.getDates(recur, seed, third, fourth, Value.DATE_TIME));
+        }
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+
+        // a window bridging the gap merges both..
+        assertEquals(getDates(second, third), cache.getDates(recur, seed, second, third, Value.DATE_TIME));
+        assertEquals(1, cache.size());
+        assertEquals(getDates(first, fourth), cache.getDates(recur, seed, first, fourth, Value.DATE_TIME));
+        assertEquals(3, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+
+        // the least recently added windows are discarded beyond the limit..
+        cache.clear();
+        final java.util.Calendar cal = java.util.Calendar.getInstance(TimeZones.getUtcTimeZone());
+        cal.setTime(first);
+        for (int i = 0; i < RecurCache.MAX_WINDOWS + 2; i++) {
+            final DateTime start = new DateTime(cal.getTime());
+            cal.add(java.util.Calendar.DAY_OF_YEAR, 7);
+            final DateTime end = new DateTime(cal.getTime());
+            cal.add(java.util.Calendar.DAY_OF_YEAR, 7);
+            assertEquals(getDates(start, end), cache.getDates(recur, seed, start, end, Value.DATE_TIME));
+        }
+        assertEquals(RecurCache.MAX_WINDOWS, cache.size());
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    /**
+     * Verifies seeds in distinct instances of an equivalent timezone share expansions.
+     */
+    public void testEquivalentTimeZones() throws ParseException {
+        final RecurCache cache = new RecurCache(10);
+        final Period period = new Period(new DateTime("20150101T000000Z"), new DateTime("20150201T000000Z"));
+        final TimeZone timezone = registry.getTimeZone("America/New_York");
+        final DateTime equivalentSeed = new DateTime("20150105T093000", new TimeZone(timezone.getVTimeZone()));
+        cache.getDates(recur, seed, period, Value.DATE_TIME);
+        assertEquals(recur.getDates(equivalentSeed, period, Value.DATE_TIME),
+                cache.getDates(recur, equivalentSeed, period, Value.DATE_TIME));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.size());
+    }
+
+    /**
+     * Verifies expansions are keyed by seed and zone, and evicted in least recently used order.
+     */
+    public void testEviction() throws ParseException {
+        final RecurCache cache = new RecurCache(2);
+        final Period period = new Period(new DateTime("20150101T000000Z"), new DateTime("20150201T000000Z"));
+        final DateTime utcSeed = new DateTime("20150105T093000Z");
+        final DateTime zonedSeed = new DateTime("20150105T093000", registry.getTimeZone("Europe/London"));
+
+        cache.getDates(recur, seed, period, Value.DATE_TIME);
+        cache.getDates(recur, utcSeed, period, Value.DATE_TIME);
+        cache.getDates(recur, seed, period, Value.DATE_TIME);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(recur.getDates(zonedSeed, period, Value.DATE_TIME),
+                cache.getDates(recur, zonedSeed, period, Value.DATE_TIME));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(2, cache.size());
+
+        // utc seed was least recently used..
+        cache.getDates(recur, utcSeed, period, Value.DATE_TIME);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(4, cache.getMissCount());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    /**
+     * Verifies expansions are evicted to limit the total number of dates retained.
+     */
+    public void testEvictionByDates() throws ParseException {
+        final Period period = new Period(new DateTime("20150101T000000Z"), new DateTime("20150201T000000Z"));
+        final int monthDates = recur.getDates(seed, period, Value.DATE_TIME).size();
+        final RecurCache cache = new RecurCache(10, monthDates * 2);
+        final DateTime utcSeed = new DateTime("20150105T093000Z");
+        final DateTime zonedSeed = new DateTime("20150105T093000", registry.getTimeZone("Europe/London"));
+
+        cache.getDates(recur, seed, period, Value.DATE_TIME);
+        cache.getDates(recur, utcSeed, period, Value.DATE_TIME);
+        assertEquals(2 * monthDates, cache.getDateCount());
+        cache.getDates(recur, zonedSeed, period, Value.DATE_TIME);
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(2, cache.size());
+        assertEquals(2 * monthDates, cache.getDateCount());
+
+        // expansions exceeding the limit are not retained..
+        final Period year = new Period(new DateTime("20150101T000000Z"), new DateTime("20160101T000000Z"));
+        assertEquals(recur.getDates(seed, year, Value.DATE_TIME), cache.getDates(recur, seed, year, Value.DATE_TIME));
+        assertEquals(2, cache.size());
+        assertEquals(2 * monthDates, cache.getDateCount());
+    }
+
+    /**
+     * Verifies the windows of recurrences generating dates out of order are not merged.
+     */
+    public void testUnorderedWindows() throws ParseException {
+        final Recur unordered = new Recur("FREQ=WEEKLY;BYMONTH=1;COUNT=10");
+        final RecurCache cache = new RecurCache(10);
+        final DateTime first = new DateTime("20150101T000000Z");
+        final DateTime second = new DateTime("20150115T000000Z");
+        final DateTime third = new DateTime("20160101T000000Z");
+        assertEquals(unordered.getDates(seed, second, third, Value.DATE_TIME),
+                cache.getDates(unordered, seed, second, third, Value.DATE_TIME));
+        assertEquals(unordered.getDates(seed, first, second, Value.DATE_TIME),
+                cache.getDates(unordered, seed, first, second, Value.DATE_TIME));
+        assertEquals(unordered.getDates(seed, first, third, Value.DATE_TIME),
+                cache.getDates(unordered, seed, first, third, Value.DATE_TIME));
+        assertEquals(3, cache.getMissCount());
+    }
+
+    /**
+     * Verifies the recurrence set of a component is unaffected by the use of a cache.
+     */
+    public void testCalculateRecurrenceSet() throws ParseException {
+        final VEvent event = new VEvent(seed, new Dur(0, 0, 30, 0), "Standup");
+        event.getProperties().add(new RRule(new Recur("FREQ=DAILY;BYDAY=MO,TU,WE,TH,FR")));
+        event.getProperties().add(new ExRule(new Recur("FREQ=WEEKLY;BYDAY=WE")));
+        final Period period = new Period(new DateTime("20150201T000000Z"), new DateTime("20150401T000000Z"));
+
+        final RecurCache cache = new RecurCache(10);
+        assertEquals(event.calculateRecurrenceSet(period), event.calculateRecurrenceSet(period, cache));
+        assertEquals(event.calculateRecurrenceSet(period), event.calculateRecurrenceSet(period, cache));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+}
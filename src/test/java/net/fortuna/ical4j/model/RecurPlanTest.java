@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import java.text.ParseException;
+import java.util.Calendar;
+
+import net.fortuna.ical4j.model.parameter.Value;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for {@link RecurPlan}.
+ */
+public class RecurPlanTest extends TestCase {
+
+    private final TimeZoneRegistry registry = TimeZoneRegistryFactory.getInstance().createRegistry();
+
+    private static RecurPlan compile(final String rule, final Value value) throws ParseException {
+        return RecurPlan.compile(new Recur(rule), Calendar.MONDAY, value);
+    }
+
+    private static void assertCandidates(final String expected, final DateList candidates) {
+        assertEquals(expected, candidates.toString());
+    }
+
+    /**
+     * Rules outside the scope of a plan are expanded by the general implementation.
+     */
+    public void testCompileUnsupported() throws ParseException {
+        assertNull(compile("FREQ=YEARLY;BYDAY=MO", Value.DATE_TIME));
+        assertNull(compile("FREQ=HOURLY", Value.DATE_TIME));
+        assertNull(compile("FREQ=MONTHLY;BYMONTH=1,2", Value.DATE_TIME));
+        assertNull(compile("FREQ=WEEKLY;BYWEEKNO=1", Value.DATE_TIME));
+        assertNull(compile("FREQ=DAILY;BYHOUR=9", Value.DATE));
+        assertNull(compile("FREQ=WEEKLY;BYDAY=MO,1MO", Value.DATE_TIME));
+        assertNotNull(compile("FREQ=WEEKLY;BYDAY=MO,WE", Value.DATE_TIME));
+    }
+
+    public void testWeekly() throws ParseException {
+        final DateTime period = new DateTime("20150107T090000Z");
+        assertCandidates("20150105T090000Z,20150107T090000Z,20150111T090000Z",
+                compile("FREQ=WEEKLY;BYDAY=SU,MO,WE", Value.DATE_TIME).getCandidates(period, Value.DATE_TIME));
+        assertCandidates("20150104T090000Z,20150105T090000Z,20150107T090000Z",
+                RecurPlan.compile(new Recur("FREQ=WEEKLY;BYDAY=SU,MO,WE"), Calendar.SUNDAY, Value.DATE_TIME)
+                        .getCandidates(period, Value.DATE_TIME));
+    }
+
+    public void testMonthly() throws ParseException {
+        final Date period = new Date("20150301");
+        assertCandidates("20150310,20150327",
+                compile("FREQ=MONTHLY;BYDAY=2TU,-1FR", Value.DATE).getCandidates(period, Value.DATE));
+        assertCandidates("20150331",
+                compile("FREQ=MONTHLY;BYDAY=MO,TU,WE,TH,FR;BYSETPOS=-1", Value.DATE)
+                        .getCandidates(period, Value.DATE));
+        assertCandidates("20150313",
+                compile("FREQ=MONTHLY;BYMONTHDAY=13;BYDAY=FR", Value.DATE).getCandidates(period, Value.DATE));
+    }
+
+    /**
+     * Invalid month days are skipped without affecting the remaining month days.
+     */
+    public void testMonthDays() throws ParseException {
+        final RecurPlan plan = compile("FREQ=MONTHLY;BYMONTHDAY=31,30,-3", Value.DATE);
+        assertCandidates("20150226", plan.getCandidates(new Date("20150201"), Value.DATE));
+        assertCandidates("20150428,20150430", plan.getCandidates(new Date("20150401"), Value.DATE));
+        assertCandidates("20150529,20150530,20150531", plan.getCandidates(new Date("20150501"), Value.DATE));
+    }
+
+    public void testTimes() throws ParseException {
+        final RecurPlan plan = compile("FREQ=DAILY;BYHOUR=17,9;BYMINUTE=30,0", Value.DATE_TIME);
+        assertCandidates("20150105T090000,20150105T093000,20150105T170000,20150105T173000",
+                plan.getCandidates(new DateTime("20150105T120000"), Value.DATE_TIME));
+    }
+
+    /**
+     * Candidates following a daylight savings transition retain the wall-clock time of the period.
+     */
+    public void testDaylightSavings() throws ParseException {
+        final TimeZone tz = registry.getTimeZone("America/New_York");
+        final DateTime period = new DateTime("20150301T023000", tz);
+        final DateList candidates = compile("FREQ=MONTHLY;BYDAY=SU", Value.DATE_TIME)
+                .getCandidates(period, Value.DATE_TIME);
+        assertEquals(5, candidates.size());
+        assertEquals("20150315T023000", candidates.get(2).toString());
+        assertEquals("20150329T023000", candidates.get(4).toString());
+        assertEquals(tz, ((DateTime) candidates.get(0)).getTimeZone());
+    }
+}
@@ -266,6 +266,90 @@ public class RecurTest extends TestCase {
         }
     }
     
+    /**
+     * Ensure skipping ahead to a distant period start yields the same dates as expanding from the seed.
+     */
+    public void testGetDatesSkipAhead() {
+        DateList expected = recur.getDates(seed, seed, periodEnd, value);
+        DateList actual = recur.getDates(seed, periodStart, periodEnd, value);
+        for (Iterator i = expected.iterator(); i.hasNext();) {
+            if (((Date) i.next()).before(periodStart)) {
+                i.remove();
+            }
+        }
+        assertFalse(actual.isEmpty());
+        assertEquals(expected, actual);
+    }
+
+    /**
+     * Ensure the recurrence iterator produces the same dates as a list expansion.
+     */
+    public void testIterator() {
+        DateList expected = recur.getDates(seed, periodStart, periodEnd, value);
+        List<Date> actual = new ArrayList<Date>();
+        for (Iterator<Date> i = recur.iterator(seed, periodStart); i.hasNext();) {
+            Date next = i.next();
+            if (!next.before(periodEnd)) {
+                break;
+            }
+            actual.add(next);
+        }
+        assertEquals(new ArrayList<Date>(expected), actual);
+    }
+
+    public void testGetDatesMemoised() throws ParseException {
+        Calendar window = Calendar.getInstance(TimeZones.getUtcTimeZone());
+        window.setTime(periodStart);
+        while (window.getTime().before(periodEnd)) {
+            DateTime windowStart = new DateTime(window.getTime());
+            window.add(Calendar.WEEK_OF_YEAR, 1);
+            DateTime windowEnd = new DateTime(window.getTime());
+
+            // an unused recur instance has no memoised series..
+            Recur unused = new Recur(recur.toString());
+            assertEquals(unused.getDates(seed, windowStart, windowEnd, value),
+                    recur.getDates(seed, windowStart, windowEnd, value));
+            assertEquals(new Recur(recur.toString()).getNextDate(seed, windowStart),
+                    recur.getNextDate(seed, windowStart));
+        }
+    }
+
+    /**
+     * Ensure repeated queries of the same window return the same dates as a fresh expansion, including where the
+     * rule parts are changed between queries.
+     */
+    public void testGetDatesRepeated() throws ParseException {
+        DateList expected = new Recur(recur.toString()).getDates(seed, periodStart, periodEnd, value);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(expected, recur.getDates(seed, periodStart, periodEnd, value));
+        }
+
+        Recur changed = new Recur(recur.toString());
+        changed.getDates(seed, periodStart, periodEnd, value);
+        changed.getDates(seed, periodStart, periodEnd, value);
+        changed.setInterval(2);
+        assertEquals(new Recur(changed.toString()).getDates(seed, periodStart, periodEnd, value),
+                changed.getDates(seed, periodStart, periodEnd, value));
+        changed.getSetPosList().add(-1);
+        assertEquals(new Recur(changed.toString()).getDates(seed, periodStart, periodEnd, value),
+                changed.getDates(seed, periodStart, periodEnd, value));
+    }
+
+    public void testOccursAt() {
+        for (Date date : recur.getDates(seed, periodStart, periodEnd, value)) {
+            assertTrue("Expected occurrence: " + date, recur.occursAt(seed, date));
+
+            DateTime later = new DateTime(date.getTime() + 60000);
+            assertEquals(isInstance(later), recur.occursAt(seed, later));
+            DateTime earlier = new DateTime(date.getTime() - 86400000);
+            assertEquals(isInstance(earlier), recur.occursAt(seed, earlier));
+        }
+    }
+
+    private boolean isInstance(Date date) {
+        return !recur.getDates(seed, date, new DateTime(date.getTime() + 1000), value).isEmpty();
+    }
+
     /**
      * 
      */
@@ -829,7 +913,21 @@ public class RecurTest extends TestCase {
                 new DateTime("20130101T120000Z"), new DateTime("20130123T120000Z"), Value.DATE_TIME, 4));
         suite.addTest(new RecurTest(recur, new DateTime("20130101T120000Z"),
                 new DateTime("20160101T120000Z"), new DateTime("20160123T120000Z"), Value.DATE_TIME, 3));
-        
+
+        // week numbers and year days applicable only to long years..
+        recur = new Recur("FREQ=YEARLY;BYWEEKNO=-1;BYDAY=TH");
+        suite.addTest(new RecurTest(recur, new DateTime("20150101T120000Z"),
+                new DateTime("20150101T120000Z"), new DateTime("20170101T120000Z"), Value.DATE_TIME, 2));
+        recur = new Recur("FREQ=YEARLY;BYWEEKNO=53;BYDAY=MO");
+        suite.addTest(new RecurTest(recur, new DateTime("20150101T120000Z"),
+                new DateTime("20150101T120000Z"), new DateTime("20180101T120000Z"), Value.DATE_TIME, 1));
+        recur = new Recur("FREQ=YEARLY;BYYEARDAY=366");
+        suite.addTest(new RecurTest(recur, new DateTime("20150101T120000Z"),
+                new DateTime("20150101T120000Z"), new DateTime("20180101T120000Z"), Value.DATE_TIME, 1));
+        recur = new Recur("FREQ=YEARLY;BYYEARDAY=-366");
+        suite.addTest(new RecurTest(recur, new DateTime("20150101T120000Z"),
+                new DateTime("20150101T120000Z"), new DateTime("20180101T120000Z"), Value.DATE_TIME, 1));
+
         recur = new Recur("FREQ=DAILY;COUNT=3;INTERVAL=1;BYDAY=MO,TU,WE,TH,FR");
         suite.addTest(new RecurTest(recur, new DateTime("20131215T000000Z"),
                 new DateTime("20131215T000000Z"), new DateTime("20180101T120000Z"), Value.DATE_TIME, 3));
@@ -845,7 +943,87 @@ public class RecurTest extends TestCase {
         recur = new Recur("FREQ=MONTHLY;WKST=MO;INTERVAL=1;BYMONTH=2,3,9,10;BYMONTHDAY=28,29,30,31;BYSETPOS=-1");
         suite.addTest(new RecurTest(recur, new DateTime("20150701T000000"),
                 new DateTime("20150701T000000"), new DateTime("20150930T000000")));
-      
+
+        // skip ahead to a distant period start..
+        Date skipSeed = new DateTime("20000131T013000", tzreg.getTimeZone("America/New_York"));
+        Date skipStart = new DateTime("20170301T000000Z");
+        Date skipEnd = new DateTime("20170501T000000Z");
+        suite.addTest(new RecurTest("testGetDatesSkipAhead", new Recur("FREQ=SECONDLY;INTERVAL=7000"),
+                skipSeed, skipStart, skipEnd, Value.DATE_TIME));
+        suite.addTest(new RecurTest("testGetDatesSkipAhead", new Recur("FREQ=HOURLY;INTERVAL=5"),
+                skipSeed, skipStart, skipEnd, Value.DATE_TIME));
+        suite.addTest(new RecurTest("testGetDatesSkipAhead", new Recur("FREQ=DAILY;INTERVAL=3;BYHOUR=2,14"),
+                skipSeed, skipStart, skipEnd, Value.DATE_TIME));
+        suite.addTest(new RecurTest("testGetDatesSkipAhead", new Recur("FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,SU"),
+                skipSeed, skipStart, skipEnd, Value.DATE_TIME));
+        suite.addTest(new RecurTest("testGetDatesSkipAhead", new Recur("FREQ=MONTHLY;BYMONTHDAY=-1"),
+                skipSeed, skipStart, skipEnd, Value.DATE_TIME));
+        suite.addTest(new RecurTest("testGetDatesSkipAhead", new Recur("FREQ=MONTHLY;INTERVAL=5"),
+                skipSeed, new DateTime("20160101T000000Z"), skipEnd, Value.DATE_TIME));
+        suite.addTest(new RecurTest("testGetDatesSkipAhead", new Recur("FREQ=YEARLY;BYMONTH=3,4;BYDAY=-1SU"),
+                skipSeed, skipStart, skipEnd, Value.DATE_TIME));
+
+        // lazy iteration..
+        Date iterSeed = new DateTime("20150105T090000", tzreg.getTimeZone("Europe/London"));
+        Date iterStart = new DateTime("20150301T000000Z");
+        Date iterEnd = new DateTime("20160101T000000Z");
+        suite.addTest(new RecurTest("testIterator", new Recur("FREQ=WEEKLY;BYDAY=MO,WE,FR"),
+                iterSeed, iterStart, iterEnd, Value.DATE_TIME));
+        suite.addTest(new RecurTest("testIterator", new Recur("FREQ=WEEKLY;COUNT=30;BYDAY=MO,WE,FR"),
+                iterSeed, iterStart, iterEnd, Value.DATE_TIME));
+        suite.addTest(new RecurTest("testIterator", new Recur("FREQ=DAILY;UNTIL=20150612T090000Z;INTERVAL=3"),
+                iterSeed, iterStart, iterEnd, Value.DATE_TIME));
+        suite.addTest(new RecurTest("testIterator", new Recur("FREQ=MONTHLY;BYDAY=MO,TU,WE,TH,FR;BYSETPOS=-1"),
+                iterSeed, iterStart, iterEnd, Value.DATE_TIME));
+        suite.addTest(new RecurTest("testIterator", new Recur("FREQ=YEARLY;BYMONTH=2;BYMONTHDAY=29"),
+                iterSeed, iterSeed, new DateTime("20250101T000000Z"), Value.DATE_TIME));
+        suite.addTest(new RecurTest("testIterator", new Recur("FREQ=DAILY;COUNT=60;BYDAY=TU,TH;BYSETPOS=2"),
+                iterSeed, iterStart, iterEnd, Value.DATE_TIME));
+        // candidates of later periods precede those of earlier periods..
+        suite.addTest(new RecurTest("testIterator", new Recur("FREQ=WEEKLY;BYMONTH=1"),
+                iterSeed, iterSeed, iterEnd, Value.DATE_TIME));
+        suite.addTest(new RecurTest("testIterator", new Recur("FREQ=WEEKLY;BYMONTH=1;COUNT=10"),
+                iterSeed, iterSeed, iterEnd, Value.DATE_TIME));
+        suite.addTest(new RecurTest("testIterator", new Recur("FREQ=WEEKLY;BYMONTH=1;COUNT=10"),
+                iterSeed, new DateTime("20150115T000000Z"), iterEnd, Value.DATE_TIME));
+        suite.addTest(new RecurTest("testIterator", new Recur("FREQ=HOURLY;BYHOUR=9,10;COUNT=10"),
+                iterSeed, iterSeed, iterEnd, Value.DATE_TIME));
+
+        // memoised finite series..
+        suite.addTest(new RecurTest("testGetDatesMemoised", new Recur("FREQ=WEEKLY;COUNT=100;BYDAY=MO,WE"),
+                iterSeed, iterStart, iterEnd, Value.DATE_TIME));
+        suite.addTest(new RecurTest("testGetDatesMemoised", new Recur("FREQ=DAILY;UNTIL=20151010T090000Z;BYHOUR=9,17"),
+                iterSeed, iterStart, iterEnd, Value.DATE_TIME));
+        suite.addTest(new RecurTest("testGetDatesMemoised", new Recur("FREQ=MONTHLY;COUNT=12;BYMONTHDAY=31"),
+                new Date("20150131"), iterStart, new DateTime("20170101T000000Z"), Value.DATE));
+
+        suite.addTest(new RecurTest("testGetDatesRepeated", new Recur("FREQ=WEEKLY;COUNT=100;BYDAY=MO,WE"),
+                iterSeed, iterStart, iterEnd, Value.DATE_TIME));
+        suite.addTest(new RecurTest("testGetDatesRepeated", new Recur("FREQ=WEEKLY;BYMONTH=1;COUNT=10"),
+                iterSeed, iterSeed, iterEnd, Value.DATE_TIME));
+        suite.addTest(new RecurTest("testGetDatesRepeated", new Recur("FREQ=HOURLY;BYHOUR=9,10;COUNT=10"),
+                iterSeed, iterSeed, iterEnd, Value.DATE_TIME));
+        suite.addTest(new RecurTest("testGetDatesRepeated", new Recur("FREQ=MONTHLY;UNTIL=20151231T090000Z;BYMONTHDAY=1,15"),
+                iterSeed, iterStart, iterEnd, Value.DATE_TIME));
+
+        // point-in-time queries..
+        suite.addTest(new RecurTest("testOccursAt", new Recur("FREQ=WEEKLY;WKST=SU;BYDAY=MO,WE,FR"),
+                iterSeed, iterStart, iterEnd, Value.DATE_TIME));
+        suite.addTest(new RecurTest("testOccursAt", new Recur("FREQ=WEEKLY;COUNT=30;BYDAY=MO,WE,FR"),
+                iterSeed, iterStart, iterEnd, Value.DATE_TIME));
+        suite.addTest(new RecurTest("testOccursAt", new Recur("FREQ=DAILY;UNTIL=20150612T090000Z;INTERVAL=3"),
+                iterSeed, iterStart, iterEnd, Value.DATE_TIME));
+        suite.addTest(new RecurTest("testOccursAt", new Recur("FREQ=MONTHLY;BYDAY=MO,TU,WE,TH,FR;BYSETPOS=-1"),
+                iterSeed, iterStart, iterEnd, Value.DATE_TIME));
+        suite.addTest(new RecurTest("testOccursAt", new Recur("FREQ=YEARLY;BYWEEKNO=1,52,53;BYDAY=MO,SU"),
+                iterSeed, iterSeed, new DateTime("20250101T000000Z"), Value.DATE_TIME));
+        suite.addTest(new RecurTest("testOccursAt", new Recur("FREQ=HOURLY;INTERVAL=5;BYMINUTE=0,20"),
+                iterSeed, iterStart, new DateTime("20150401T000000Z"), Value.DATE_TIME));
+        suite.addTest(new RecurTest("testOccursAt", new Recur("FREQ=WEEKLY;BYMONTH=12"),
+                iterSeed, iterStart, iterEnd, Value.DATE_TIME));
+        suite.addTest(new RecurTest("testOccursAt", new Recur("FREQ=WEEKLY;COUNT=60;BYMONTH=1,4"),
+                iterSeed, iterSeed, iterEnd, Value.DATE_TIME));
+
         return suite;
     }
 }
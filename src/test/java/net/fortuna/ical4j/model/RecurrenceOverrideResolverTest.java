@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import java.io.StringReader;
+import java.util.List;
+
+import net.fortuna.ical4j.data.CalendarBuilder;
+import net.fortuna.ical4j.model.component.VEvent;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for {@link RecurrenceOverrideResolver}.
+ */
+public class RecurrenceOverrideResolverTest extends TestCase {
+
+    private static final String CALENDAR = "BEGIN:VCALENDAR\r\n"
+            + "VERSION:2.0\r\n"
+            + "PRODID:-//ical4j//RecurrenceOverrideResolverTest//EN\r\n"
+            // daily master, 1 hour instances..
+            + "BEGIN:VEVENT\r\n"
+            + "UID:series-1\r\n"
+            + "DTSTAMP:20150101T000000Z\r\n"
+            + "DTSTART:20150105T090000Z\r\n"
+            + "DURATION:PT1H\r\n"
+            + "RRULE:FREQ=DAILY;COUNT=10\r\n"
+            + "EXDATE:20150108T090000Z\r\n"
+            + "SUMMARY:Master\r\n"
+            + "END:VEVENT\r\n"
+            // single instance moved to the afternoon..
+            + "BEGIN:VEVENT\r\n"
+            + "UID:series-1\r\n"
+            + "DTSTAMP:20150101T000000Z\r\n"
+            + "RECURRENCE-ID:20150106T090000Z\r\n"
+            + "DTSTART:20150106T150000Z\r\n"
+            + "DTEND:20150106T153000Z\r\n"
+            + "SUMMARY:Moved\r\n"
+            + "END:VEVENT\r\n"
+            // this and future instances start an hour later and last 2 hours..
+            + "BEGIN:VEVENT\r\n"
+            + "UID:series-1\r\n"
+            + "DTSTAMP:20150101T000000Z\r\n"
+            + "RECURRENCE-ID;RANGE=THISANDFUTURE:20150110T090000Z\r\n"
+            + "DTSTART:20150110T100000Z\r\n"
+            + "DURATION:PT2H\r\n"
+            + "SUMMARY:Rescheduled\r\n"
+            + "END:VEVENT\r\n"
+            // single instance overriding a rescheduled instance..
+            + "BEGIN:VEVENT\r\n"
+            + "UID:series-1\r\n"
+            + "DTSTAMP:20150101T000000Z\r\n"
+            + "RECURRENCE-ID:20150112T090000Z\r\n"
+            + "DTSTART:20150112T080000Z\r\n"
+            + "DTEND:20150112T083000Z\r\n"
+            + "SUMMARY:Early\r\n"
+            + "END:VEVENT\r\n"
+            // unrelated single event..
+            + "BEGIN:VEVENT\r\n"
+            + "UID:single-1\r\n"
+            + "DTSTAMP:20150101T000000Z\r\n"
+            + "DTSTART:20150106T090000Z\r\n"
+            + "DURATION:PT1H\r\n"
+            + "SUMMARY:Single\r\n"
+            + "END:VEVENT\r\n"
+            // all-day series with an override moved into the following week..
+            + "BEGIN:VEVENT\r\n"
+            + "UID:series-2\r\n"
+            + "DTSTAMP:20150101T000000Z\r\n"
+            + "DTSTART;VALUE=DATE:20150105\r\n"
+            + "RRULE:FREQ=WEEKLY;BYDAY=MO\r\n"
+            + "SUMMARY:Weekly\r\n"
+            + "END:VEVENT\r\n"
+            + "BEGIN:VEVENT\r\n"
+            + "UID:series-2\r\n"
+            + "DTSTAMP:20150101T000000Z\r\n"
+            + "RECURRENCE-ID;VALUE=DATE:20150112\r\n"
+            + "DTSTART;VALUE=DATE:20150120\r\n"
+            + "SUMMARY:Weekly moved\r\n"
+            + "END:VEVENT\r\n"
+            + "END:VCALENDAR\r\n";
+
+    private RecurrenceOverrideResolver<VEvent> resolver;
+
+    @Override
+    protected void setUp() throws Exception {
+        final Calendar calendar = new CalendarBuilder().build(new StringReader(CALENDAR));
+        final List<VEvent> events = calendar.getComponents(Component.VEVENT);
+        resolver = new RecurrenceOverrideResolver<VEvent>(events);
+    }
+
+    private static String toString(final List<RecurrenceOverrideResolver.Instance<VEvent>> instances) {
+        final StringBuilder b = new StringBuilder();
+        for (final RecurrenceOverrideResolver.Instance<VEvent> instance : instances) {
+            b.append(instance.getComponent().getSummary().getValue()).append(' ')
+                    .append(instance.getPeriod()).append('\n');
+        }
+        return b.toString();
+    }
+
+    public void testResolve() throws Exception {
+        final Period period = new Period(new DateTime("20150105T000000Z"), new DateTime("20150115T000000Z"));
+        final List<RecurrenceOverrideResolver.Instance<VEvent>> instances = resolver.resolve("series-1", period);
+        assertEquals("Master 20150105T090000Z/PT1H\n"
+                + "Moved 20150106T150000Z/20150106T153000Z\n"
+                + "Master 20150107T090000Z/PT1H\n"
+                + "Master 20150109T090000Z/PT1H\n"
+                + "Rescheduled 20150110T100000Z/PT2H\n"
+                + "Rescheduled 20150111T100000Z/PT2H\n"
+                + "Early 20150112T080000Z/20150112T083000Z\n"
+                + "Rescheduled 20150113T100000Z/PT2H\n"
+                + "Rescheduled 20150114T100000Z/PT2H\n", toString(instances));
+
+        // recurrence ids are those of the master instances..
+        assertEquals(new DateTime("20150106T090000Z"), instances.get(1).getRecurrenceId());
+        assertTrue(instances.get(1).isOverridden());
+        assertEquals(new DateTime("20150111T090000Z"), instances.get(5).getRecurrenceId());
+        assertTrue(instances.get(5).isOverridden());
+        assertFalse(instances.get(0).isOverridden());
+    }
+
+    /**
+     * Overridden instances are resolved by their effective period rather than their recurrence id.
+     */
+    public void testResolveMovedInstances() throws Exception {
+        // the moved instance no longer intersects the morning..
+        Period period = new Period(new DateTime("20150106T000000Z"), new DateTime("20150106T120000Z"));
+        assertEquals("", toString(resolver.resolve("series-1", period)));
+
+        // a rescheduled instance offset into the period..
+        period = new Period(new DateTime("20150111T103000Z"), new DateTime("20150111T110000Z"));
+        assertEquals("Rescheduled 20150111T100000Z/PT2H\n", toString(resolver.resolve("series-1", period)));
+
+        // an all-day instance moved into the following week..
+        period = new Period(new DateTime("20150110T000000Z"), new DateTime("20150121T000000Z"));
+        final List<RecurrenceOverrideResolver.Instance<VEvent>> instances = resolver.resolve("series-2", period);
+        assertEquals(2, instances.size());
+        assertEquals("Weekly", instances.get(0).getComponent().getSummary().getValue());
+        assertEquals("Weekly moved", instances.get(1).getComponent().getSummary().getValue());
+        assertEquals(new Date("20150112"), instances.get(1).getRecurrenceId());
+    }
+
+    /**
+     * Instances of all components are merged in chronological order.
+     */
+    public void testResolveAll() throws Exception {
+        final Period period = new Period(new DateTime("20150106T000000Z"), new DateTime("20150107T000000Z"));
+        final List<RecurrenceOverrideResolver.Instance<VEvent>> instances = resolver.resolve(period);
+        assertEquals(2, instances.size());
+        assertEquals("Single", instances.get(0).getComponent().getSummary().getValue());
+        assertEquals("Moved", instances.get(1).getComponent().getSummary().getValue());
+
+        assertTrue(resolver.resolve("unknown", period).isEmpty());
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import net.fortuna.ical4j.model.component.VEvent;
+import net.fortuna.ical4j.model.property.RRule;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for {@link RecurrenceSetExpander}.
+ */
+public class RecurrenceSetExpanderTest extends TestCase {
+
+    private static final String[] TZIDS = {"America/New_York", "Europe/London", "Australia/Melbourne",
+            "Asia/Tokyo"};
+
+    private static final String[] RULES = {"FREQ=DAILY", "FREQ=WEEKLY;BYDAY=MO,WE,FR",
+            "FREQ=MONTHLY;BYDAY=-1FR", "FREQ=DAILY;INTERVAL=3;BYHOUR=9,17", "FREQ=WEEKLY;COUNT=20"};
+
+    private ExecutorService executor;
+
+    private Period period;
+
+    @Override
+    protected void setUp() throws Exception {
+        executor = Executors.newFixedThreadPool(4);
+        period = new Period(new DateTime("20150101T000000Z"), new DateTime("20160101T000000Z"));
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        executor.shutdownNow();
+    }
+
+    private List<VEvent> createEvents(final TimeZoneRegistry registry) throws ParseException {
+        final List<VEvent> events = new ArrayList<VEvent>();
+        for (int i = 0; i < 40; i++) {
+            final DateTime start = new DateTime("20141215T093000", registry.getTimeZone(TZIDS[i % TZIDS.length]));
+            start.setTime(start.getTime() + i * 60000L);
+            final VEvent event = new VEvent(start, new Dur(0, 1, 0, 0), "Event " + i);
+            event.getProperties().add(new RRule(new Recur(RULES[i % RULES.length])));
+            events.add(event);
+        }
+        return events;
+    }
+
+    /**
+     * Verifies concurrent expansion (sharing timezones not previously used) matches sequential expansion.
+     */
+    public void testExpand() throws Exception {
+        final List<VEvent> events = createEvents(TimeZoneRegistryFactory.getInstance().createRegistry());
+        final List<VEvent> expectedEvents = createEvents(TimeZoneRegistryFactory.getInstance().createRegistry());
+
+        final List<PeriodList> recurrenceSets = new RecurrenceSetExpander(executor, new RecurCache(100))
+                .expand(events, period);
+        assertEquals(events.size(), recurrenceSets.size());
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(expectedEvents.get(i).calculateRecurrenceSet(period).toString(),
+                    recurrenceSets.get(i).toString());
+        }
+
+        assertTrue(new RecurrenceSetExpander(executor).expand(Collections.<VEvent>emptyList(), period).isEmpty());
+    }
+
+    /**
+     * Verifies merged occurrences are returned in chronological order.
+     */
+    public void testExpandMerged() throws Exception {
+        final List<VEvent> events = createEvents(TimeZoneRegistryFactory.getInstance().createRegistry());
+        final RecurrenceSetExpander expander = new RecurrenceSetExpander(executor);
+
+        int expectedCount = 0;
+        for (final PeriodList recurrenceSet : expander.expand(events, period)) {
+            expectedCount += recurrenceSet.size();
+        }
+
+        final Set<VEvent> components = Collections.newSetFromMap(new IdentityHashMap<VEvent, Boolean>());
+        components.addAll(events);
+
+        int count = 0;
+        Period last = null;
+        for (final Iterator<RecurrenceSetExpander.Occurrence<VEvent>> i = expander.expandMerged(events, period);
+                i.hasNext();) {
+            final RecurrenceSetExpander.Occurrence<VEvent> occurrence = i.next();
+            assertTrue(components.contains(occurrence.getComponent()));
+            if (last != null) {
+                assertFalse(last.getStart().after(occurrence.getPeriod().getStart()));
+            }
+            last = occurrence.getPeriod();
+            count++;
+        }
+        assertEquals(expectedCount, count);
+    }
+}
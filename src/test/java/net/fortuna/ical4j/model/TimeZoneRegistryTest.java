@@ -2,6 +2,20 @@ package net.fortuna.ical4j.model;
 
 import static org.junit.Assert.*;
 
+import java.io.IOException;
+import java.net.URL;
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.fortuna.ical4j.model.component.Standard;
+import net.fortuna.ical4j.model.component.VTimeZone;
+import net.fortuna.ical4j.model.property.DtStart;
+import net.fortuna.ical4j.model.property.TzId;
+import net.fortuna.ical4j.model.property.TzOffsetFrom;
+import net.fortuna.ical4j.model.property.TzOffsetTo;
+import net.fortuna.ical4j.model.property.XProperty;
+
 import org.junit.Test;
 
 public class TimeZoneRegistryTest {
@@ -15,4 +29,165 @@ public class TimeZoneRegistryTest {
 		fail("Not yet implemented");
 	}
 
+	/**
+	 * Assert concurrent lookups by registries loading from different resources each resolve to their own definition.
+	 */
+	@Test
+	public void testGetTimeZoneConcurrentResourcePrefix() throws Exception {
+		final String[] prefixes = {"zoneinfo/", "zoneinfo-global/"};
+		final TimeZone[] results = new TimeZone[prefixes.length * 4];
+		final CountDownLatch start = new CountDownLatch(1);
+		final Thread[] threads = new Thread[results.length];
+		for (int i = 0; i < threads.length; i++) {
+			final int index = i;
+			threads[i] = new Thread() {
+				public void run() {
+					TimeZoneRegistry registry = new TimeZoneRegistryImpl(prefixes[index % prefixes.length]);
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					results[index] = registry.getTimeZone("Europe/Dublin");
+				}
+			};
+			threads[i].start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		for (int i = 0; i < results.length; i++) {
+			assertNotNull(results[i]);
+			Property tzUrl = results[i].getVTimeZone().getProperty(Property.TZURL);
+			assertEquals("http://tzurl.org/" + prefixes[i % prefixes.length] + "Europe/Dublin", tzUrl.getValue());
+			assertSame(results[i % prefixes.length], results[i]);
+		}
+	}
+
+	/**
+	 * Assert concurrent lookups of uncached zones each resolve to a single loaded instance.
+	 */
+	@Test
+	public void testGetTimeZoneConcurrent() throws Exception {
+		final String[] ids = {"Pacific/Chatham", "Pacific/Marquesas", "Asia/Kathmandu"};
+		final TimeZone[][] results = new TimeZone[6][ids.length];
+		final Thread[] threads = new Thread[results.length];
+		for (int i = 0; i < threads.length; i++) {
+			final int index = i;
+			threads[i] = new Thread() {
+				public void run() {
+					TimeZoneRegistry registry = new TimeZoneRegistryImpl();
+					for (int j = 0; j < ids.length; j++) {
+						results[index][j] = registry.getTimeZone(ids[(index + j) % ids.length]);
+					}
+				}
+			};
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		for (int i = 0; i < results.length; i++) {
+			for (int j = 0; j < ids.length; j++) {
+				assertNotNull(results[i][j]);
+				assertEquals(ids[(i + j) % ids.length], results[i][j].getID());
+				assertSame(results[0][(j + i) % ids.length], results[i][j]);
+			}
+		}
+	}
+
+
+	/**
+	 * Assert asynchronous updates don't block lookups, and updated definitions replace the loaded timezone.
+	 */
+	@Test
+	public void testGetTimeZoneAsyncUpdate() throws Exception {
+		final CountDownLatch fetched = new CountDownLatch(1);
+		final AtomicInteger attempts = new AtomicInteger();
+		final TimeZoneUpdateFetcher fetcher = new TimeZoneUpdateFetcher() {
+			public VTimeZone fetch(URL url) throws IOException {
+				// fail the first attempt to ensure the update is retried..
+				if (attempts.incrementAndGet() == 1) {
+					throw new IOException("Connection refused: " + url);
+				}
+				try {
+					fetched.await();
+				} catch (InterruptedException e) {
+					throw new IOException(e.getMessage());
+				}
+				VTimeZone updated = ZoneInfoBundle.loadVTimeZone("zoneinfo/Antarctica/Vostok.ics");
+				updated.getProperties().add(new XProperty("X-UPDATED", "TRUE"));
+				return updated;
+			}
+		};
+
+		System.setProperty("net.fortuna.ical4j.timezone.update.mode", "async");
+		System.setProperty("net.fortuna.ical4j.timezone.update.retry.delay", "10");
+		try {
+			// the retry delay is resolved when the registry is created..
+			TimeZoneRegistryImpl registry = new TimeZoneRegistryImpl();
+			registry.setUpdateFetcher(fetcher);
+			TimeZone timezone = registry.getTimeZone("Antarctica/Vostok");
+			assertNotNull(timezone);
+			assertNull(timezone.getVTimeZone().getProperty("X-UPDATED"));
+
+			fetched.countDown();
+			for (int i = 0; i < 500 && registry.getTimeZone("Antarctica/Vostok") == timezone; i++) {
+				Thread.sleep(10);
+			}
+			TimeZone updated = registry.getTimeZone("Antarctica/Vostok");
+			assertNotNull(updated.getVTimeZone().getProperty("X-UPDATED"));
+			assertEquals(timezone.getID(), updated.getID());
+			assertEquals(2, attempts.get());
+		} finally {
+			System.clearProperty("net.fortuna.ical4j.timezone.update.mode");
+			System.clearProperty("net.fortuna.ical4j.timezone.update.retry.delay");
+		}
+	}
+
+	/**
+	 * Assert platform rules are only applied to registered definitions that are equivalent to them.
+	 */
+	@Test
+	public void testRegisterPlatformRules() throws Exception {
+		VTimeZone definition = ZoneInfoBundle.loadVTimeZone("zoneinfo/Australia/Melbourne.ics");
+		TimeZone expected = new TimeZone(definition);
+
+		VTimeZone divergent = new VTimeZone();
+		divergent.getProperties().add(new TzId("Australia/Melbourne"));
+		Standard standard = new Standard();
+		standard.getProperties().add(new DtStart(new DateTime("19700101T000000")));
+		standard.getProperties().add(new TzOffsetFrom(new UtcOffset("+0930")));
+		standard.getProperties().add(new TzOffsetTo(new UtcOffset("+0930")));
+		divergent.getObservances().add(standard);
+
+		System.setProperty("net.fortuna.ical4j.timezone.platform.enabled", "true");
+		System.setProperty("net.fortuna.ical4j.timezone.platform.year.start", "2008");
+		System.setProperty("net.fortuna.ical4j.timezone.platform.year.end", "2030");
+		try {
+			TimeZoneRegistry registry = new TimeZoneRegistryImpl();
+			TimeZone registered = new TimeZone(definition);
+			registry.register(registered);
+			TimeZone timezone = registry.getTimeZone("Australia/Melbourne");
+			assertNotNull(timezone.getPlatformRules());
+			// the caller's instance is not modified..
+			assertNull(registered.getPlatformRules());
+			for (long time = 1000000000000L; time < 2000000000000L; time += 7L * 24 * 60 * 60 * 1000 + 3599999) {
+				assertEquals(expected.getOffset(time), timezone.getOffset(time));
+				assertEquals(expected.inDaylightTime(new Date(time)), timezone.inDaylightTime(new Date(time)));
+			}
+
+			registry.register(new TimeZone(divergent));
+			timezone = registry.getTimeZone("Australia/Melbourne");
+			assertNull(timezone.getPlatformRules());
+			assertEquals(570 * 60 * 1000, timezone.getOffset(new DateTime("20150101T000000Z").getTime()));
+		} finally {
+			System.clearProperty("net.fortuna.ical4j.timezone.platform.enabled");
+			System.clearProperty("net.fortuna.ical4j.timezone.platform.year.start");
+			System.clearProperty("net.fortuna.ical4j.timezone.platform.year.end");
+		}
+	}
 }
@@ -331,6 +331,89 @@ public class TimeZoneTest extends TestCase {
         assertEquals(tz.getDSTSavings(), timezone.getDSTSavings());
     }
 
+    /**
+     * Assert offsets either side of each transition of the past and next decade are the same as its Java
+     * timezone equivalent.
+     */
+    public void testGetOffsetAtTransitions() {
+        Calendar cal = Calendar.getInstance();
+        cal.add(Calendar.YEAR, -10);
+        long time = cal.getTimeInMillis() / 1000 * 1000;
+        final long end = time + 20L * 366 * 24 * 60 * 60 * 1000;
+        int transitions = 0;
+        for (; time < end; time += 60 * 60 * 1000) {
+            if (tz.getOffset(time) != tz.getOffset(time + 60 * 60 * 1000)) {
+                long lo = time;
+                long hi = time + 60 * 60 * 1000;
+                while (hi - lo > 1) {
+                    final long mid = lo + (hi - lo) / 2;
+                    if (tz.getOffset(mid) == tz.getOffset(lo)) {
+                        lo = mid;
+                    } else {
+                        hi = mid;
+                    }
+                }
+                assertEquals(tz.getOffset(lo), timezone.getOffset(lo));
+                assertEquals(tz.getOffset(hi), timezone.getOffset(hi));
+                assertEquals(tz.inDaylightTime(new Date(lo)), timezone.inDaylightTime(new Date(lo)));
+                assertEquals(tz.inDaylightTime(new Date(hi)), timezone.inDaylightTime(new Date(hi)));
+                transitions++;
+            }
+        }
+        assertEquals(tz.useDaylightTime(), transitions > 0);
+    }
+
+    /**
+     * Assert offsets of transitions compiled in separate blocks are the same as those compiled for the whole range.
+     */
+    public void testGetOffsetAfterExtension() {
+        final TimeZone extended = new TimeZone(timezone.getVTimeZone());
+        final long decade = 10L * 366 * 24 * 60 * 60 * 1000;
+        final long now = System.currentTimeMillis();
+        // extend the transitions forwards then backwards, leaving gaps between the blocks..
+        extended.getOffset(now);
+        extended.getOffset(now + 5 * decade);
+        extended.getOffset(now - 5 * decade);
+
+        final TimeZone.TransitionTable table = timezone.compileTransitions(now - 6 * decade, now + 6 * decade);
+        for (final long instant : table.instants) {
+            assertEquals(table.getOffset(instant - 1), extended.getOffset(instant - 1));
+            assertEquals(table.getOffset(instant), extended.getOffset(instant));
+            assertEquals(table.inDaylightTime(instant), extended.inDaylightTime(new Date(instant)));
+        }
+        // times beyond the limit of the table..
+        final long distant = 2000 * decade;
+        assertEquals(timezone.compileTransitions(distant, distant + decade).getOffset(distant),
+                extended.getOffset(distant));
+    }
+
+    /**
+     * Assert batch offsets and local times are consistent with individual lookups, for unordered times spanning
+     * multiple centuries.
+     */
+    public void testGetOffsets() {
+        long[] instants = new long[5000];
+        for (int i = 0; i < instants.length; i++) {
+            // alternate between the past and future to span multiple transition blocks..
+            instants[i] = (i % 2 == 0 ? -1 : 1) * (i * 20011L * 60 * 1000 + i);
+        }
+        int[] offsets = new int[instants.length];
+        timezone.getOffsets(instants, offsets);
+        long[] localTimes = instants.clone();
+        timezone.getLocalTimes(localTimes, localTimes);
+        for (int i = 0; i < instants.length; i++) {
+            assertEquals(timezone.getOffset(instants[i]), offsets[i]);
+            assertEquals(instants[i] + offsets[i], localTimes[i]);
+        }
+
+        try {
+            timezone.getOffsets(instants, new int[instants.length - 1]);
+            fail("Should throw IllegalArgumentException");
+        } catch (IllegalArgumentException iae) {
+            // expected..
+        }
+    }
+
     /* (non-Javadoc)
      * @see junit.framework.TestCase#getName()
      */
@@ -380,6 +463,13 @@ public class TimeZoneTest extends TestCase {
         suite.addTest(new TimeZoneTest("testGetDSTSavings", "Australia/Melbourne", 3600000));
 
         suite.addTest(new TimeZoneTest("testGetOffset", "Australia/Melbourne"));
+        suite.addTest(new TimeZoneTest("testGetOffsetAtTransitions", "Australia/Melbourne"));
+        suite.addTest(new TimeZoneTest("testGetOffsetAtTransitions", "America/New_York"));
+        suite.addTest(new TimeZoneTest("testGetOffsetAtTransitions", "Asia/Kolkata"));
+        suite.addTest(new TimeZoneTest("testGetOffsetAfterExtension", "Australia/Melbourne"));
+        suite.addTest(new TimeZoneTest("testGetOffsetAfterExtension", "America/New_York"));
+        suite.addTest(new TimeZoneTest("testGetOffsets", "Australia/Melbourne"));
+        suite.addTest(new TimeZoneTest("testGetOffsets", "America/New_York"));
         //testHonoluluCurrentOffset..
         suite.addTest(new TimeZoneTest("testGetOffset", "Pacific/Honolulu", new Date(), GMT_MINUS_10));
         //testHonoluluHistoricalOffset..
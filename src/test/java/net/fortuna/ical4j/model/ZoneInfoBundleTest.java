@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import java.io.File;
+import java.util.Date;
+
+import junit.framework.TestCase;
+import net.fortuna.ical4j.util.ResourceLoader;
+
+/**
+ * $Id$
+ *
+ * Unit tests for {@link ZoneInfoBundle}.
+ */
+public class ZoneInfoBundleTest extends TestCase {
+
+    private static final String RESOURCE_PREFIX = "zoneinfo/Australia/";
+
+    private File zoneinfoDir;
+
+    private ZoneInfoBundle bundle;
+
+    protected void setUp() throws Exception {
+        zoneinfoDir = new File(ResourceLoader.getResource(RESOURCE_PREFIX + "Melbourne.ics").toURI()).getParentFile();
+        File output = File.createTempFile("zoneinfo", ".bin");
+        output.deleteOnExit();
+        ZoneInfoCompiler.compile(zoneinfoDir, output, 1970, 2037);
+        bundle = ZoneInfoBundle.load(RESOURCE_PREFIX, output.toURI().toURL());
+    }
+
+    /**
+     * Assert timezones constructed from the bundle are consistent with those constructed from the definitions,
+     * including times outside the compiled range.
+     */
+    public void testGetTimeZone() {
+        for (File file : zoneinfoDir.listFiles()) {
+            String id = file.getName().substring(0, file.getName().length() - ".ics".length());
+            TimeZone expected = new TimeZone(ZoneInfoBundle.loadVTimeZone(RESOURCE_PREFIX + file.getName()));
+            TimeZone timezone = bundle.getTimeZone(id);
+
+            assertEquals(expected.getID(), timezone.getID());
+            assertEquals(expected.getRawOffset(), timezone.getRawOffset());
+            assertEquals(expected.useDaylightTime(), timezone.useDaylightTime());
+            for (long time = -1000000000000L; time < 3000000000000L; time += 7L * 24 * 60 * 60 * 1000 + 3599999) {
+                assertEquals(id + " [" + time + "]", expected.getOffset(time), timezone.getOffset(time));
+                assertEquals(id + " [" + time + "]", expected.inDaylightTime(new Date(time)),
+                        timezone.inDaylightTime(new Date(time)));
+            }
+            assertEquals(expected, timezone);
+            assertEquals(expected.hashCode(), timezone.hashCode());
+            assertEquals(expected.getVTimeZone(), timezone.getVTimeZone());
+        }
+    }
+
+    public void testGetTimeZoneNotFound() {
+        assertNull(bundle.getTimeZone("Europe/London"));
+        assertNull(ZoneInfoBundle.load(RESOURCE_PREFIX, null).getTimeZone("Melbourne"));
+    }
+}
@@ -31,9 +31,13 @@
  */
 package net.fortuna.ical4j.model.component;
 
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.List;
 
 import net.fortuna.ical4j.model.Date;
+import net.fortuna.ical4j.model.DateList;
+import net.fortuna.ical4j.model.DateTime;
 import net.fortuna.ical4j.model.property.DtStart;
 import net.fortuna.ical4j.model.property.RRule;
 import net.fortuna.ical4j.model.property.TzOffsetFrom;
@@ -56,11 +60,16 @@ public class ObservanceTest extends TestCase {
      * @see junit.framework.TestCase#setUp()
      */
     protected void setUp() throws Exception {
-        observance = new Standard();
+        observance = createObservance();
+    }
+
+    private static Observance createObservance() throws Exception {
+        Observance observance = new Standard();
         observance.getProperties().add(new DtStart("16010101T030000"));
         observance.getProperties().add(new TzOffsetFrom("+0200"));
         observance.getProperties().add(new TzOffsetTo("+0100"));
         observance.getProperties().add(new RRule("FREQ=YEARLY;WKST=MO;INTERVAL=1;BYMONTH=10;BYDAY=-1SU"));
+        return observance;
     }
 
     /**
@@ -75,4 +84,65 @@ public class ObservanceTest extends TestCase {
         }
     }
 
+    /**
+     * Assert onsets calculated when extending the cached onsets in both directions are consistent with
+     * those of a new observance.
+     */
+    public void testGetLatestOnsetExtended() throws Exception {
+        Observance expected = createObservance();
+        DateTime date = new DateTime("21000101T000000Z");
+        Date expectedOnset = expected.getLatestOnset(date);
+        assertEquals(new DateTime("20991025T010000Z"), expectedOnset);
+
+        assertEquals(new DateTime("19991031T010000Z"), observance.getLatestOnset(new DateTime("20000101T000000Z")));
+        assertEquals(new DateTime("20491031T010000Z"), observance.getLatestOnset(new DateTime("20500101T000000Z")));
+        assertEquals(expectedOnset, observance.getLatestOnset(date));
+        assertEquals(new DateTime("19991031T010000Z"), observance.getLatestOnset(new DateTime("20000101T000000Z")));
+    }
+
+    /**
+     * Test method for {@link Observance#getOnsets(Date, Date)}.
+     */
+    public void testGetOnsets() throws Exception {
+        DateList onsets = observance.getOnsets(new DateTime("20101031T010000Z"), new DateTime("20131027T010000Z"));
+        assertEquals(4, onsets.size());
+        assertEquals(new DateTime("20101031T010000Z"), onsets.get(0));
+        assertEquals(new DateTime("20131027T010000Z"), onsets.get(3));
+
+        assertTrue(observance.getOnsets(new DateTime("15000101T000000Z"), new DateTime("16000101T000000Z")).isEmpty());
+    }
+
+    /**
+     * Assert concurrent lookups are consistent with those of a single thread.
+     */
+    public void testGetLatestOnsetConcurrent() throws Exception {
+        final Observance expected = createObservance();
+        final List<Thread> threads = new ArrayList<Thread>();
+        final List<Throwable> errors = new ArrayList<Throwable>();
+        for (int i = 0; i < 4; i++) {
+            final int offset = i;
+            threads.add(new Thread() {
+                public void run() {
+                    try {
+                        for (int year = 1990 + offset; year < 2200; year += 3) {
+                            DateTime date = new DateTime(year + "0601T000000Z");
+                            assertEquals(expected.getLatestOnset(date), observance.getLatestOnset(date));
+                        }
+                    } catch (Throwable e) {
+                        synchronized (errors) {
+                            errors.add(e);
+                        }
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(errors.toString(), errors.isEmpty());
+    }
+
 }
@@ -563,6 +563,46 @@ public class VEventTest extends CalendarComponentTest {
         assertEquals(event.getUid(), occurrence.getUid());
     }
 
+    /**
+     * Unit tests for {@link VEvent#getOccurrence(Date)} on a frozen event.
+     */
+    public void testGetOccurrenceShared() throws IOException, ParseException, URISyntaxException,
+            PropertyNotFoundException {
+        VEvent frozen = (VEvent) event.freeze();
+        VEvent occurrence = frozen.getOccurrence(date);
+        assertNotNull(occurrence);
+        assertSame(frozen.getUid(), occurrence.getUid());
+        assertSame(frozen.getStartDate(), occurrence.getStartDate());
+        assertNotNull(occurrence.getRecurrenceId());
+
+        try {
+            occurrence.getSummary().setValue("Changed");
+            fail("Should throw an UnsupportedOperationException");
+        }
+        catch (UnsupportedOperationException uoe) {
+            log.trace(uoe.toString());
+        }
+
+        // modifying the occurrence replaces the shared property with a private copy..
+        Summary summary = (Summary) occurrence.getProperties().getModifiableProperty(Property.SUMMARY);
+        summary.setValue("Changed");
+        assertNotSame(frozen.getSummary(), occurrence.getSummary());
+        assertEquals("Changed", occurrence.getSummary().getValue());
+        assertFalse("Changed".equals(frozen.getSummary().getValue()));
+    }
+
+    /**
+     * Properties of a mutable event are not shared with a copy, even where their parameters cannot be modified.
+     */
+    public void testCopyNotShared() throws IOException, ParseException, URISyntaxException {
+        VEvent master = new VEvent();
+        master.getProperties().add(new Summary(new ParameterList(true), "Master"));
+        VEvent copy = (VEvent) master.copy();
+        assertNotSame(master.getSummary(), copy.getSummary());
+        copy.getSummary().setValue("Changed");
+        assertEquals("Master", master.getSummary().getValue());
+    }
+
     /**
      * @return
      * @throws ValidationException
@@ -679,6 +719,8 @@ public class VEventTest extends CalendarComponentTest {
 
         //testGetOccurrence..
         suite.addTest(new VEventTest("testGetOccurrence", weekdayNineToFiveEvents, weekdayNineToFiveEvents.getStartDate().getDate()));
+        suite.addTest(new VEventTest("testGetOccurrenceShared", weekdayNineToFiveEvents, weekdayNineToFiveEvents.getStartDate().getDate()));
+        suite.addTest(new VEventTest("testCopyNotShared"));
 
         //testGetConsumedTime..
         suite.addTest(new VEventTest("testGetConsumedTime", weekdayNineToFiveEvents));
@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.util;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.TimeZone;
+
+import junit.framework.TestCase;
+
+/**
+ * $Id$
+ *
+ * Unit tests for {@link EpochDays}, verified exhaustively against <code>java.util.GregorianCalendar</code>.
+ */
+public class EpochDaysTest extends TestCase {
+
+    private GregorianCalendar calendar;
+
+    @Override
+    protected void setUp() throws Exception {
+        calendar = new GregorianCalendar(TimeZones.getUtcTimeZone());
+        // proleptic gregorian..
+        calendar.setGregorianChange(new java.util.Date(Long.MIN_VALUE));
+        calendar.clear();
+    }
+
+    /**
+     * Verifies date fields of every day from 1600 to 2400.
+     */
+    public void testDateFields() {
+        calendar.set(1600, Calendar.JANUARY, 1);
+        final long end = EpochDays.toEpochDay(2401, 1, 1);
+        for (long epochDay = EpochDays.toEpochDay(1600, 1, 1); epochDay < end; epochDay++) {
+            assertEquals(calendar.getTimeInMillis(), epochDay * Dates.MILLIS_PER_DAY);
+
+            final int year = calendar.get(Calendar.YEAR);
+            final int month = calendar.get(Calendar.MONTH) + 1;
+            final int dayOfMonth = calendar.get(Calendar.DAY_OF_MONTH);
+            assertEquals(epochDay, EpochDays.toEpochDay(year, month, dayOfMonth));
+            assertEquals(epochDay, EpochDays.toEpochDay(year, calendar.get(Calendar.DAY_OF_YEAR)));
+            assertEquals(year, EpochDays.getYear(epochDay));
+            assertEquals(month, EpochDays.getMonth(epochDay));
+            assertEquals(dayOfMonth, EpochDays.getDayOfMonth(epochDay));
+            assertEquals(calendar.get(Calendar.DAY_OF_YEAR), EpochDays.getDayOfYear(epochDay));
+            assertEquals(calendar.get(Calendar.DAY_OF_WEEK), EpochDays.getDayOfWeek(epochDay));
+            if (dayOfMonth == 1) {
+                assertEquals(calendar.getActualMaximum(Calendar.DAY_OF_MONTH),
+                        EpochDays.getMonthLength(year, month));
+                if (month == 1) {
+                    assertEquals(calendar.getActualMaximum(Calendar.DAY_OF_YEAR), EpochDays.getYearLength(year));
+                    assertEquals(calendar.isLeapYear(year), EpochDays.isLeapYear(year));
+                }
+            }
+            calendar.add(Calendar.DAY_OF_MONTH, 1);
+        }
+    }
+
+    /**
+     * Verifies dates prior to 1970 and the common era.
+     */
+    public void testNegativeEpochDays() {
+        assertEquals(-1, EpochDays.toEpochDay(1969, 12, 31));
+        assertEquals(Calendar.WEDNESDAY, EpochDays.getDayOfWeek(-1));
+        assertEquals(EpochDays.GREGORIAN_CUTOVER, EpochDays.toEpochDay(1582, 10, 15));
+
+        final long epochDay = EpochDays.toEpochDay(-400, 2, 29);
+        assertEquals(-400, EpochDays.getYear(epochDay));
+        assertEquals(2, EpochDays.getMonth(epochDay));
+        assertEquals(29, EpochDays.getDayOfMonth(epochDay));
+        assertEquals(60, EpochDays.getDayOfYear(epochDay));
+        assertEquals(EpochDays.toEpochDay(-399, 1, 1) - 366, EpochDays.toEpochDay(-400, 1, 1));
+    }
+
+    /**
+     * Verifies week numbers of every day from 1900 to 2100 for all week starts and minimal days in the first week.
+     */
+    public void testWeekOfYear() {
+        for (int firstDayOfWeek = Calendar.SUNDAY; firstDayOfWeek <= Calendar.SATURDAY; firstDayOfWeek++) {
+            for (int minimalDays = 1; minimalDays <= 7; minimalDays += 3) {
+                calendar.setFirstDayOfWeek(firstDayOfWeek);
+                calendar.setMinimalDaysInFirstWeek(minimalDays);
+                calendar.clear();
+                calendar.set(1900, Calendar.JANUARY, 1);
+                final long end = EpochDays.toEpochDay(2101, 1, 1);
+                for (long epochDay = EpochDays.toEpochDay(1900, 1, 1); epochDay < end; epochDay++) {
+                    assertEquals(calendar.get(Calendar.WEEK_OF_YEAR),
+                            EpochDays.getWeekOfYear(epochDay, firstDayOfWeek, minimalDays));
+                    final int dayOfWeek = calendar.get(Calendar.DAY_OF_WEEK);
+                    if (dayOfWeek == firstDayOfWeek) {
+                        assertEquals(epochDay, EpochDays.getWeekStart(epochDay + 6, firstDayOfWeek));
+                    }
+                    if (calendar.get(Calendar.DAY_OF_YEAR) == 1) {
+                        final int year = calendar.get(Calendar.YEAR);
+                        assertEquals(calendar.getActualMaximum(Calendar.WEEK_OF_YEAR),
+                                EpochDays.getWeeksInYear(year, firstDayOfWeek, minimalDays));
+                    }
+                    calendar.add(Calendar.DAY_OF_MONTH, 1);
+                }
+            }
+        }
+    }
+
+    public void testShiftDayOfWeek() {
+        for (int dayOfWeek = Calendar.SUNDAY; dayOfWeek <= Calendar.SATURDAY; dayOfWeek++) {
+            for (int days = -15; days <= 15; days++) {
+                assertEquals(EpochDays.getDayOfWeek(dayOfWeek + days + 2),
+                        EpochDays.shiftDayOfWeek(dayOfWeek, days));
+                assertEquals(EpochDays.floorMod(days, 7),
+                        EpochDays.getDayOfWeekIndex(EpochDays.shiftDayOfWeek(dayOfWeek, days), dayOfWeek));
+            }
+        }
+    }
+
+    /**
+     * Verifies {@link Dates#getAbsYearDay(java.util.Date, int)} and {@link Dates#getAbsMonthDay(java.util.Date, int)}
+     * against the days of the applicable year and month of a calendar in the default timezone.
+     */
+    public void testAbsDays() {
+        final Calendar cal = Calendar.getInstance();
+        cal.clear();
+        cal.set(1998, Calendar.DECEMBER, 1, 12, 0);
+        for (int i = 0; i < 1200; i++) {
+            final List<Integer> yearDays = getDays(cal, Calendar.YEAR, Calendar.DAY_OF_YEAR);
+            for (int yearDay = -1; yearDay >= -yearDays.size(); yearDay -= 13) {
+                assertEquals(yearDays.get(yearDays.size() + yearDay).intValue(),
+                        Dates.getAbsYearDay(cal.getTime(), yearDay));
+            }
+            final List<Integer> monthDays = getDays(cal, Calendar.MONTH, Calendar.DAY_OF_MONTH);
+            for (int monthDay = -1; monthDay >= -monthDays.size(); monthDay--) {
+                assertEquals(monthDays.get(monthDays.size() + monthDay).intValue(),
+                        Dates.getAbsMonthDay(cal.getTime(), monthDay));
+            }
+            cal.add(Calendar.DAY_OF_MONTH, 1);
+        }
+
+        cal.set(2015, Calendar.FEBRUARY, 1);
+        try {
+            Dates.getAbsMonthDay(cal.getTime(), -29);
+            fail("Invalid month day accepted");
+        } catch (IllegalArgumentException e) {
+            // expected..
+        }
+        try {
+            Dates.getAbsYearDay(cal.getTime(), -366);
+            fail("Invalid year day accepted");
+        } catch (IllegalArgumentException e) {
+            // expected..
+        }
+    }
+
+    private static List<Integer> getDays(final Calendar date, final int field, final int dayField) {
+        final Calendar cal = Calendar.getInstance(TimeZone.getDefault());
+        cal.setTime(date.getTime());
+        final int value = cal.get(field);
+        final List<Integer> days = new ArrayList<Integer>();
+        cal.set(dayField, 1);
+        while (cal.get(field) == value) {
+            days.add(cal.get(dayField));
+            cal.add(dayField, 1);
+        }
+        return days;
+    }
+}